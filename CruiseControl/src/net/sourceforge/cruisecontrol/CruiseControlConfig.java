@@ -36,6 +36,8 @@
  ********************************************************************************/
 package net.sourceforge.cruisecontrol;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -46,6 +48,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sourceforge.cruisecontrol.config.DashboardConfigurationPlugin;
 import net.sourceforge.cruisecontrol.config.DefaultPropertiesPlugin;
@@ -59,6 +68,9 @@ import net.sourceforge.cruisecontrol.util.Util;
 
 import org.apache.log4j.Logger;
 import org.jdom.Element;
+import org.jdom.output.XMLOutputter;
+
+import com.twmacinta.util.MD5OutputStream;
 
 /**
  * <p>
@@ -66,6 +78,12 @@ import org.jdom.Element;
  * configuration, and acts as a container to the rest of the configuration
  * elements.
  * </p>
+ * <p>
+ * When built from a previously loaded configuration, projects whose resolved XML (after property
+ * expansion, together with the root plugin definitions) hashes to the same value as before are
+ * reused instead of being instantiated again, so that reloading an unchanged project is cheap
+ * and keeps its state.
+ * </p>
  *
  * @author <a href="mailto:jerome@coffeebreaks.org">Jerome Lacoste</a>
  */
@@ -85,6 +103,21 @@ public class CruiseControlConfig {
         KNOWN_ROOT_CHILD_NAMES.add("dashboard");
     }
 
+    /**
+     * Reads included files for all configurations. The tasks only read files; included files are
+     * parsed on the calling thread, so nested includes never wait for a loader thread.
+     */
+    private static final ExecutorService INCLUDE_LOADER = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors() * 2, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(r, "IncludeProjectsLoader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
     private Map<String, String> rootProperties = new HashMap<String, String>();
     /**
      * Properties of a particular node. Mapped by the node name. Doesn't handle
@@ -95,6 +128,13 @@ public class CruiseControlConfig {
     private final Map<String, ProjectInterface> projects = new LinkedHashMap<String, ProjectInterface>();
     // for test purposes only
     private final Map<String, PluginRegistry> projectPluginRegistries = new TreeMap<String, PluginRegistry>();
+    /** MD5 of the resolved project element and root plugins, mapped by project name. */
+    private final Map<String, String> projectHashes = new HashMap<String, String>();
+    /** Serialized root plugin definitions in effect, part of every project hash. */
+    private final StringBuilder rootPluginSignature;
+    /** Cleared once parsed, so that each configuration does not keep all its predecessors alive. */
+    private CruiseControlConfig previousConfig;
+    private int reusedProjectCount;
 
     private final XmlResolver xmlResolver;
     private final FileResolver fileResolver;
@@ -133,10 +173,29 @@ public class CruiseControlConfig {
 
     public CruiseControlConfig(final Element ccElement, final XmlResolver xmlResolver, final FileResolver fileResolver,
             final CruiseControlController controller) throws CruiseControlException {
+        this(ccElement, xmlResolver, fileResolver, controller, null);
+    }
+
+    /**
+     * @param ccElement the root element of the configuration
+     * @param xmlResolver resolver for included files; must be safe to call from several threads since
+     * included files are loaded in parallel
+     * @param fileResolver resolver for files used by the configuration
+     * @param controller the controller, may be null
+     * @param previousConfig the configuration loaded before this one, unchanged projects are taken
+     * over from it; may be null
+     * @throws CruiseControlException if the configuration is invalid
+     */
+    public CruiseControlConfig(final Element ccElement, final XmlResolver xmlResolver, final FileResolver fileResolver,
+            final CruiseControlController controller, final CruiseControlConfig previousConfig)
+            throws CruiseControlException {
         this.xmlResolver = xmlResolver;
         this.fileResolver = fileResolver;
         this.controller = controller;
+        this.previousConfig = previousConfig;
+        this.rootPluginSignature = new StringBuilder();
         parse(ccElement);
+        this.previousConfig = null;
     }
 
     private void parse(final Element ccElement) throws CruiseControlException {
@@ -163,9 +222,7 @@ public class CruiseControlConfig {
             }
         }
 
-        for (final Object o : ccElement.getChildren("include.projects")) {
-            handleIncludedProjects((Element) o);
-        }
+        handleIncludedProjects(ccElement.getChildren("include.projects"));
         for (final Object o : ccElement.getChildren("dashboard")) {
             handleDashboard((Element) o);
         }
@@ -190,31 +247,78 @@ public class CruiseControlConfig {
         this.controller = parent.controller;
         xmlResolver = parent.xmlResolver;
         fileResolver = parent.fileResolver;
+        previousConfig = parent.previousConfig;
+        rootPluginSignature = new StringBuilder(parent.rootPluginSignature);
         rootPlugins = PluginRegistry.createRegistry(parent.rootPlugins);
         rootProperties = new HashMap<String, String>(parent.rootProperties);
         templatePluginProperties = new HashMap<String, List>(parent.templatePluginProperties);
 
         parse(includedElement);
+        previousConfig = null;
     }
 
-    private void handleIncludedProjects(Element includeElement) {
-        String path = includeElement.getAttributeValue("file");
-        if (path == null) {
-            LOG.warn("include.projects element missing file attribute. Skipping.");
+    /**
+     * Reads all included files in parallel, then adds their projects in document order so that
+     * duplicate project names are resolved as before.
+     * @param includeElements the &lt;include.projects&gt; elements
+     */
+    private void handleIncludedProjects(final List includeElements) {
+        if (includeElements.isEmpty()) {
+            return;
         }
         if (xmlResolver == null) {
             LOG.debug("xmlResolver not available; skipping include.projects element. ok if validating config.");
             return;
         }
-        try {
-            IncludeProjectsPlugin includeProjects = (IncludeProjectsPlugin) new ProjectXMLHelper(rootProperties, this
-                    .getRootPlugins()).configurePlugin(includeElement, FAIL_UPON_MISSING_PROPERTY);
-            add(includeProjects);
-        } catch (CruiseControlException e) {
-            LOG.error("Exception including file " + path, e);
+
+        final List<String> paths = new ArrayList<String>();
+        for (final Object o : includeElements) {
+            final Element includeElement = (Element) o;
+            final String path = includeElement.getAttributeValue("file");
+            if (path == null) {
+                LOG.warn("include.projects element missing file attribute. Skipping.");
+            }
+            try {
+                final IncludeProjectsPlugin includeProjects = (IncludeProjectsPlugin) new ProjectXMLHelper(
+                        rootProperties, this.getRootPlugins()).configurePlugin(includeElement,
+                        FAIL_UPON_MISSING_PROPERTY);
+                paths.add(resolveIncludePath(includeProjects));
+            } catch (CruiseControlException e) {
+                LOG.error("Exception including file " + path, e);
+            }
+        }
+
+        final Map<String, Future<Element>> includedElements = loadIncludedElements(paths);
+        for (final String path : paths) {
+            try {
+                addIncludedProjects(path, includedElements.get(path).get());
+            } catch (ExecutionException e) {
+                LOG.error("Exception including file " + path, e.getCause());
+            } catch (InterruptedException e) {
+                LOG.error("Interrupted while including file " + path, e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (CruiseControlException e) {
+                LOG.error("Exception including file " + path, e);
+            }
         }
     }
 
+    private Map<String, Future<Element>> loadIncludedElements(final List<String> paths) {
+        final Map<String, Future<Element>> elements = new HashMap<String, Future<Element>>();
+        for (final String path : paths) {
+            if (!elements.containsKey(path)) {
+                LOG.debug("loading included projects from " + path);
+                elements.put(path, INCLUDE_LOADER.submit(new Callable<Element>() {
+                    public Element call() throws CruiseControlException {
+                        return xmlResolver.getElement(path);
+                    }
+                }));
+            }
+        }
+        return elements;
+    }
+
     private void handleDashboard(Element dashboardElement) throws CruiseControlException {
         DashboardConfigurationPlugin dashboard =
                 (DashboardConfigurationPlugin) new ProjectXMLHelper(rootProperties, getRootPlugins())
@@ -270,6 +374,7 @@ public class CruiseControlConfig {
             LOG.warn("Config contains plugin without a name-attribute, ignoring it");
             return;
         }
+        rootPluginSignature.append(new XMLOutputter().outputString(pluginElement));
         if (isProjectTemplate(pluginElement)) {
             handleNodeProperties(pluginElement, pluginName);
         }
@@ -304,10 +409,18 @@ public class CruiseControlConfig {
      * @throws CruiseControlException when something breaks
      */
     public void add(final IncludeProjectsPlugin project) throws CruiseControlException {
+        final String path = resolveIncludePath(project);
+        addIncludedProjects(path, xmlResolver.getElement(path));
+    }
+
+    private String resolveIncludePath(final IncludeProjectsPlugin project) throws CruiseControlException {
         final String file = project.getFile();
-        final String path = Util.parsePropertiesInString(rootProperties, file, FAIL_UPON_MISSING_PROPERTY);
+        return Util.parsePropertiesInString(rootProperties, file, FAIL_UPON_MISSING_PROPERTY);
+    }
+
+    private void addIncludedProjects(final String path, final Element includedElement)
+            throws CruiseControlException {
         LOG.debug("getting included projects from " + path);
-        final Element includedElement = xmlResolver.getElement(path);
         final CruiseControlConfig includedConfig = new CruiseControlConfig(includedElement, this);
         final Set<String> includedProjectNames = includedConfig.getProjectNames();
         for (final String name : includedProjectNames) {
@@ -316,7 +429,9 @@ public class CruiseControlConfig {
                 LOG.error(message);
             }
             projects.put(name, includedConfig.getProject(name));
+            projectHashes.put(name, includedConfig.getProjectHash(name));
         }
+        reusedProjectCount += includedConfig.getReusedProjectCount();
     }
 
     /**
@@ -423,6 +538,23 @@ public class CruiseControlConfig {
         // Parse the entire element tree, expanding all property macros
         ProjectXMLHelper.parsePropertiesInElement(projectElement, thisProperties, FAIL_UPON_MISSING_PROPERTY);
 
+        // Take over the project from the previous configuration if nothing it depends on has changed
+        final String projectHash = calculateProjectHash(projectElement);
+        if (previousConfig != null && projectHash != null
+                && projectHash.equals(previousConfig.getProjectHash(projectName))
+                && previousConfig.getProject(projectName) != null) {
+
+            LOG.debug("project " + projectName + " is unchanged, reusing previous configuration");
+            this.projects.put(projectName, previousConfig.getProject(projectName));
+            this.projectHashes.put(projectName, projectHash);
+            final PluginRegistry previousPlugins = previousConfig.getProjectPlugins(projectName);
+            if (previousPlugins != null) {
+                this.projectPluginRegistries.put(projectName, previousPlugins);
+            }
+            reusedProjectCount++;
+            return;
+        }
+
         // Register any custom plugins
         final PluginRegistry projectPlugins = PluginRegistry.createRegistry(rootPlugins);
         for (final Object o : projectElement.getChildren("plugin")) {
@@ -455,6 +587,27 @@ public class CruiseControlConfig {
 
         this.projects.put(projectName, project);
         this.projectPluginRegistries.put(projectName, projectPlugins);
+        this.projectHashes.put(projectName, projectHash);
+    }
+
+    /**
+     * @param projectElement the project element with all properties expanded
+     * @return MD5 of the project element and the root plugin definitions, or null if it could not be computed
+     */
+    private String calculateProjectHash(final Element projectElement) {
+        try {
+            final MD5OutputStream stream = new MD5OutputStream(new ByteArrayOutputStream());
+            try {
+                stream.write(rootPluginSignature.toString().getBytes("UTF-8"));
+                new XMLOutputter().output(projectElement, stream);
+                return stream.getMD5().asHex();
+            } finally {
+                stream.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("exception calculating MD5 of project " + projectElement.getAttributeValue("name"), e);
+            return null;
+        }
     }
 
     private String getProjectName(final Element childElement) throws CruiseControlException {
@@ -481,6 +634,21 @@ public class CruiseControlConfig {
         return this.projectPluginRegistries.get(name);
     }
 
+    /**
+     * @param name the project name
+     * @return MD5 of the resolved configuration of the project, or null if unknown
+     */
+    public String getProjectHash(String name) {
+        return this.projectHashes.get(name);
+    }
+
+    /**
+     * @return number of projects taken over unchanged from the previous configuration
+     */
+    public int getReusedProjectCount() {
+        return reusedProjectCount;
+    }
+
     // Unfortunately it seems like the commons-collection CompositeMap doesn't
     // fit that role
     // at least size is not implemented the way I want it.
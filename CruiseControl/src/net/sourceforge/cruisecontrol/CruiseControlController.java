@@ -230,10 +230,17 @@ public class CruiseControlController {
                 addProject(newProject);
             }
 
-            //Handle retained projects
+            //Handle retained projects, unchanged ones are the very same instance as before
+            int updatedCount = 0;
             for (final ProjectInterface retainedProject : retainedProjects) {
-                updateProject(retainedProject);
+                if (getConfigManager().getCruiseControlConfig().getProject(retainedProject.getName())
+                        != retainedProject) {
+                    updateProject(retainedProject);
+                    updatedCount++;
+                }
             }
+            LOG.info("config loaded: " + newProjects.size() + " added, " + removedProjects.size() + " removed, "
+                    + updatedCount + " updated, " + (retainedProjects.size() - updatedCount) + " unchanged projects");
 
         } catch (CruiseControlException e) {
             LOG.error("error parsing config file " + configFile.getAbsolutePath(), e);
@@ -52,6 +52,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.HashMap;
 
+import net.sourceforge.cruisecontrol.metrics.BuildMetrics;
 import net.sourceforge.cruisecontrol.util.DateUtil;
 import net.sourceforge.cruisecontrol.util.ValidationHelper;
 
@@ -258,12 +259,30 @@ public class ModificationSet implements Serializable {
      */
     // @todo Make this non-public? (package visible only)
     public Element retrieveModificationsAsElement(final Date lastBuild, final Progress progress) {
+        return retrieveModificationsAsElement(lastBuild, progress, null);
+    }
+
+    /**
+     * Returns the modifications as of lastBuild as an XML element, recording the time spent in each
+     * SourceControl.
+     * @param lastBuild date of last build
+     * @param progress ModificationSet progress message callback object
+     * @param metrics the project metrics to record SourceControl timings in, may be null
+     * @return modifications element
+     */
+    public Element retrieveModificationsAsElement(final Date lastBuild, final Progress progress,
+                                                  final BuildMetrics metrics) {
         Element modificationsElement;
         do {
             timeOfCheck = new Date();
             modifications = new ArrayList<Modification>();
             for (final SourceControl sourceControl : sourceControls) {
+                final long start = BuildMetrics.start();
                 modifications.addAll(sourceControl.getModifications(lastBuild, timeOfCheck));
+                if (metrics != null) {
+                    metrics.recordSince(BuildMetrics.pluginMetricName(BuildMetrics.PLUGIN_SOURCECONTROL,
+                            sourceControl), start);
+                }
             }
 
             // Postfilter all modifications of ignored files
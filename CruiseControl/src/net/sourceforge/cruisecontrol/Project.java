@@ -55,7 +55,10 @@ import net.sourceforge.cruisecontrol.events.BuildProgressListener;
 import net.sourceforge.cruisecontrol.events.BuildResultEvent;
 import net.sourceforge.cruisecontrol.events.BuildResultListener;
 import net.sourceforge.cruisecontrol.jmx.ProjectController;
+import net.sourceforge.cruisecontrol.jmx.ProjectMetricsController;
 import net.sourceforge.cruisecontrol.listeners.ProjectStateChangedEvent;
+import net.sourceforge.cruisecontrol.metrics.BuildMetrics;
+import net.sourceforge.cruisecontrol.metrics.BuildMetricsManager;
 import net.sourceforge.cruisecontrol.util.CVSDateUtil;
 import net.sourceforge.cruisecontrol.util.DateUtil;
 
@@ -84,6 +87,8 @@ public class Project implements Serializable, Runnable {
     private transient Long overrideBuildInterval;
 
     private transient Date buildStartTime;
+    /** Time the project was handed to the BuildQueue, used to measure the queue wait. */
+    private transient long queuedTime;
     private transient Object pausedMutex;
     private transient Object scheduleMutex;
     private transient Object waitMutex;
@@ -129,6 +134,11 @@ public class Project implements Serializable, Runnable {
     }
 
     public void execute() {
+        if (queuedTime > 0) {
+            getMetrics().recordSince(BuildMetrics.PHASE_QUEUE_WAIT, queuedTime);
+            queuedTime = 0;
+        }
+
         if (stopped) {
             LOG.warn("not building project " + name + " because project has been stopped.");
             buildFinished();
@@ -176,6 +186,8 @@ public class Project implements Serializable, Runnable {
 
 
         final boolean buildWasForced = buildForced;
+        final BuildMetrics metrics = getMetrics();
+        final long buildLoopStart = BuildMetrics.start();
 
         try {
             setBuildStartTime(new Date());
@@ -190,13 +202,17 @@ public class Project implements Serializable, Runnable {
             }
 
             // @todo Add Progress param to Bootstrapper API?
+            long phaseStart = BuildMetrics.start();
             bootstrap();
+            metrics.recordSince(BuildMetrics.PHASE_BOOTSTRAP, phaseStart);
 
             final String target = useAndResetBuildTargetIfBuildWasForced(buildWasForced);
 
             // @todo Add Progress param to ModificationSet API?
             // getModifications will only return null if we don't need to build
+            phaseStart = BuildMetrics.start();
             final Element modifications = getModifications(buildWasForced);
+            metrics.recordSince(BuildMetrics.PHASE_MODIFICATIONS, phaseStart);
 
             if (modifications == null) {
                 return;
@@ -224,12 +240,17 @@ public class Project implements Serializable, Runnable {
             buildLog.addContent(getProjectPropertiesElement(now));
 
             setState(ProjectState.BUILDING);
+            phaseStart = BuildMetrics.start();
             final Element builderLog = schedule.build(buildCounter, lastBuild, now, getProjectPropertiesMap(now),
                     target, progress);
+            metrics.recordSince(BuildMetrics.PHASE_BUILD, phaseStart);
 
             buildLog.addContent(builderLog.detach());
 
             boolean buildSuccessful = buildLog.wasBuildSuccessful();
+            metrics.increment(BuildMetrics.COUNTER_BUILDS);
+            metrics.increment(buildSuccessful
+                    ? BuildMetrics.COUNTER_BUILDS_SUCCESSFUL : BuildMetrics.COUNTER_BUILDS_FAILED);
             fireResultEvent(new BuildResultEvent(this, buildSuccessful));
 
             if (!getLabelIncrementer().isPreBuildIncrementer() && buildSuccessful) {
@@ -237,7 +258,9 @@ public class Project implements Serializable, Runnable {
             }
 
             setState(ProjectState.MERGING_LOGS);
+            phaseStart = BuildMetrics.start();
             buildLog.writeLogFile(now);
+            metrics.recordSince(BuildMetrics.PHASE_LOG_WRITE, phaseStart);
 
             // If we only want to build after a check in, even when broken, set the last build to now,
             // regardless of success or failure (buildAfterFailed = false in config.xml)
@@ -262,8 +285,11 @@ public class Project implements Serializable, Runnable {
             serializeProject();
 
             // @todo Add Progress param to Publisher API?
+            phaseStart = BuildMetrics.start();
             publish(buildLog);
+            metrics.recordSince(BuildMetrics.PHASE_PUBLISH, phaseStart);
             buildLog.reset();
+            metrics.recordSince(BuildMetrics.PHASE_TOTAL, buildLoopStart);
         } finally {
             resetBuildForcedOnlyIfBuildWasForced(buildWasForced);
             setState(ProjectState.IDLE);
@@ -301,6 +327,7 @@ public class Project implements Serializable, Runnable {
                     if (!stopped) {
                         setState(ProjectState.QUEUED);
                         synchronized (scheduleMutex) {
+                            queuedTime = BuildMetrics.start();
                             queue.requestBuild(projectConfig);
                             waitForBuildToFinish();
                         }
@@ -424,10 +451,11 @@ public class Project implements Serializable, Runnable {
         Element modifications;
         if (checkNewChangesFirst) {
             debug("getting changes since last build");
-            modifications = modificationSet.retrieveModificationsAsElement(lastBuild, progress);
+            modifications = modificationSet.retrieveModificationsAsElement(lastBuild, progress, getMetrics());
         } else {
             debug("getting changes since last successful build");
-            modifications = modificationSet.retrieveModificationsAsElement(lastSuccessfulBuild, progress);
+            modifications = modificationSet.retrieveModificationsAsElement(lastSuccessfulBuild, progress,
+                    getMetrics());
         }
 
         if (!modificationSet.isModified()) {
@@ -453,7 +481,8 @@ public class Project implements Serializable, Runnable {
 
         if (checkNewChangesFirst) {
             debug("new changes found; now getting complete set");
-            modifications = modificationSet.retrieveModificationsAsElement(lastSuccessfulBuild, progress);
+            modifications = modificationSet.retrieveModificationsAsElement(lastSuccessfulBuild, progress,
+                    getMetrics());
         }
 
         return modifications;
@@ -755,15 +784,21 @@ public class Project implements Serializable, Runnable {
      */
     protected void publish(final Log buildLog) throws CruiseControlException {
         setState(ProjectState.PUBLISHING);
+        final BuildMetrics metrics = getMetrics();
         for (final Publisher publisher : projectConfig.getPublishers()) {
+            final String metricName = BuildMetrics.pluginMetricName(BuildMetrics.PLUGIN_PUBLISHER, publisher);
+            final long publishStart = BuildMetrics.start();
             // catch all errors, Publishers shouldn't cause failures in the build method
             try {
                 publisher.publish(buildLog.getContent());
             } catch (Throwable t) {
+                metrics.increment(BuildMetrics.COUNTER_PLUGIN_ERRORS + ":" + metricName);
                 final StringBuilder message = new StringBuilder("exception publishing results");
                 message.append(" with ").append(publisher.getClass().getName());
                 message.append(" for project ").append(name);
                 LOG.error(message.toString(), t);
+            } finally {
+                metrics.recordSince(metricName, publishStart);
             }
         }
     }
@@ -775,8 +810,15 @@ public class Project implements Serializable, Runnable {
      */
     protected void bootstrap() throws CruiseControlException {
         setState(ProjectState.BOOTSTRAPPING);
+        final BuildMetrics metrics = getMetrics();
         for (final Bootstrapper bootstrapper : projectConfig.getBootstrappers()) {
-            bootstrapper.bootstrap();
+            final long bootstrapStart = BuildMetrics.start();
+            try {
+                bootstrapper.bootstrap();
+            } finally {
+                metrics.recordSince(BuildMetrics.pluginMetricName(BuildMetrics.PLUGIN_BOOTSTRAPPER, bootstrapper),
+                        bootstrapStart);
+            }
         }
     }
 
@@ -943,6 +985,14 @@ public class Project implements Serializable, Runnable {
         LOG.debug("Registering project mbean");
         final ProjectController projectController = new ProjectController(this);
         projectController.register(server);
+        new ProjectMetricsController(name).register(server);
+    }
+
+    /**
+     * @return the build loop metrics of this project
+     */
+    public BuildMetrics getMetrics() {
+        return BuildMetricsManager.INSTANCE.lookup(name);
     }
 
     public ProjectConfig getProjectConfig() {
@@ -43,6 +43,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -87,7 +88,12 @@ public class XMLConfigManager {
         LOG.info("reading settings from config file [" + file.getAbsolutePath() + "]");
         Element element = Util.loadRootElement(file);
         resolver.resetResolvedFiles();
-        config = new CruiseControlConfig(element, resolver, resolver, controller);
+        // hand over the current config so unchanged projects are not instantiated again
+        config = new CruiseControlConfig(element, resolver, resolver, controller, config);
+        if (config.getReusedProjectCount() > 0) {
+            LOG.info("reused " + config.getReusedProjectCount() + " unchanged of "
+                    + config.getProjectNames().size() + " projects");
+        }
     }
 
     public File getConfigFile() {
@@ -144,8 +150,11 @@ public class XMLConfigManager {
         return md5;
     }
 
+    /**
+     * Included files are loaded in parallel by CruiseControlConfig, so the set of resolved files is synchronized.
+     */
     class Resolver implements XmlResolver, FileResolver {
-        private final Set<File> resolvedFiles = new HashSet<File>();
+        private final Set<File> resolvedFiles = Collections.synchronizedSet(new HashSet<File>());
 
         public Element getElement(final String path) throws CruiseControlException {
             final File file = new File(configFile.getParentFile(), path);
@@ -164,7 +173,9 @@ public class XMLConfigManager {
         }
 
         public Set<File> getResolvedFiles() {
-            return resolvedFiles;
+            synchronized (resolvedFiles) {
+                return new HashSet<File>(resolvedFiles);
+            }
         }
 
         public void resetResolvedFiles() {
@@ -0,0 +1,74 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.jmx;
+
+import java.io.File;
+
+import net.sourceforge.cruisecontrol.metrics.BuildMetricsManager;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Implementation of the BuildMetricsControllerMBean, backed by {@link BuildMetricsManager#INSTANCE}.
+ */
+public class BuildMetricsController implements BuildMetricsControllerMBean {
+    private static final Logger LOG = Logger.getLogger(BuildMetricsController.class);
+
+    public String[] getProjectNames() {
+        return BuildMetricsManager.INSTANCE.getProjectNames().toArray(new String[0]);
+    }
+
+    public String[] findSlowest(final String metricPrefix, final int max) {
+        return BuildMetricsManager.INSTANCE.findSlowest(metricPrefix, max);
+    }
+
+    public String getMetricsLogFile() {
+        final File file = BuildMetricsManager.INSTANCE.getMetricsLog().getFile();
+        return file == null ? "" : file.getAbsolutePath();
+    }
+
+    public void setMetricsLogFile(final String fileName) {
+        LOG.info("setting metrics log file to [" + fileName + "]");
+        final File file = (fileName == null || fileName.trim().length() == 0) ? null : new File(fileName.trim());
+        BuildMetricsManager.INSTANCE.getMetricsLog().setFile(file);
+    }
+
+    public void resetAll() {
+        LOG.info("resetting build metrics of all projects");
+        BuildMetricsManager.INSTANCE.resetAll();
+    }
+}
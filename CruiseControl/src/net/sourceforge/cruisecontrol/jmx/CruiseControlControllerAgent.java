@@ -123,6 +123,12 @@ public class CruiseControlControllerAgent {
         } catch (Exception e) {
             LOG.error("Problem registering DashboardController for posting", e);
         }
+        try {
+            ObjectName name = new ObjectName("CruiseControl Metrics:name=buildloop");
+            server.registerMBean(new BuildMetricsController(), name);
+        } catch (Exception e) {
+            LOG.error("Problem registering BuildMetricsController", e);
+        }
 
         // when "-agentutil false", do not attempt to load.
         if (LOAD_JMX_AGENTUTIL.FORCE_BYPASS != enableJMXAgentUtility) {
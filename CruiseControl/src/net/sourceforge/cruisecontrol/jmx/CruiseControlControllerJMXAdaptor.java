@@ -71,6 +71,7 @@ import net.sourceforge.cruisecontrol.ProjectState;
 import net.sourceforge.cruisecontrol.gendoc.PluginInfo;
 import net.sourceforge.cruisecontrol.gendoc.PluginInfoParser;
 import net.sourceforge.cruisecontrol.gendoc.html.ConfigHtmlGenerator;
+import net.sourceforge.cruisecontrol.metrics.BuildMetricsManager;
 import net.sourceforge.cruisecontrol.util.IO;
 import net.sourceforge.cruisecontrol.util.Util;
 import net.sourceforge.cruisecontrol.util.threadpool.ThreadQueue;
@@ -293,6 +294,14 @@ public class CruiseControlControllerJMXAdaptor extends NotificationBroadcasterSu
         } catch (MalformedObjectNameException e) {
             LOG.error("Could not unregister project " + project.getName(), e);
         }
+        try {
+            server.unregisterMBean(new ObjectName(ProjectMetricsController.OBJECT_NAME_PREFIX + project.getName()));
+        } catch (InstanceNotFoundException noProblem) {
+        } catch (MBeanRegistrationException noProblem) {
+        } catch (MalformedObjectNameException e) {
+            LOG.error("Could not unregister metrics of project " + project.getName(), e);
+        }
+        BuildMetricsManager.INSTANCE.remove(project.getName());
         notifyChanged("projectRemoved", name);
     }
 
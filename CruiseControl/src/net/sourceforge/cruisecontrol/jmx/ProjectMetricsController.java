@@ -0,0 +1,123 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.jmx;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sourceforge.cruisecontrol.metrics.BuildMetrics;
+import net.sourceforge.cruisecontrol.metrics.BuildMetricsManager;
+import net.sourceforge.cruisecontrol.metrics.LatencyHistogram;
+
+/**
+ * Exposes the {@link BuildMetrics} of a project.
+ */
+public class ProjectMetricsController implements ProjectMetricsControllerMBean {
+
+    public static final String OBJECT_NAME_PREFIX = "CruiseControl Project Metrics:name=";
+
+    private final String projectName;
+
+    public ProjectMetricsController(final String projectName) {
+        this.projectName = projectName;
+    }
+
+    private BuildMetrics getMetrics() {
+        return BuildMetricsManager.INSTANCE.lookup(projectName);
+    }
+
+    private LatencyHistogram findHistogram(final String metric) {
+        final LatencyHistogram histogram = getMetrics().findHistogram(metric);
+        return histogram == null ? new LatencyHistogram() : histogram;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String[] getMetricNames() {
+        return getMetrics().getHistogramNames().toArray(new String[0]);
+    }
+
+    public String[] getCounterNames() {
+        return getMetrics().getCounterNames().toArray(new String[0]);
+    }
+
+    public String[] getSummary() {
+        return getMetrics().getSummary();
+    }
+
+    public long getCount(final String metric) {
+        return findHistogram(metric).getCount();
+    }
+
+    public long getMeanMillis(final String metric) {
+        return findHistogram(metric).getMeanMillis();
+    }
+
+    public long getMaxMillis(final String metric) {
+        return findHistogram(metric).getMaxMillis();
+    }
+
+    public long getPercentileMillis(final String metric, final double percentile) {
+        return findHistogram(metric).getPercentileMillis(percentile);
+    }
+
+    public long getCounter(final String counter) {
+        return getMetrics().getCounter(counter);
+    }
+
+    public void reset() {
+        getMetrics().reset();
+    }
+
+    public void register(final MBeanServer server) throws JMException {
+        final ObjectName metricsName = new ObjectName(OBJECT_NAME_PREFIX + projectName);
+
+        // same as ProjectController, the project gets re-registered on every config reload
+        try {
+            server.unregisterMBean(metricsName);
+        } catch (InstanceNotFoundException noProblem) {
+        } catch (MBeanRegistrationException noProblem) {
+        }
+
+        server.registerMBean(this, metricsName);
+    }
+}
@@ -0,0 +1,102 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.jmx;
+
+/**
+ * MBean interface exposing the build loop metrics of a single project.
+ *
+ * @see net.sourceforge.cruisecontrol.metrics.BuildMetrics
+ */
+public interface ProjectMetricsControllerMBean {
+
+    /**
+     * @return the name of the project whose metrics are exposed
+     */
+    public String getProjectName();
+
+    /**
+     * @return names of all timed phases and plugins recorded so far
+     */
+    public String[] getMetricNames();
+
+    /**
+     * @return names of all counters recorded so far
+     */
+    public String[] getCounterNames();
+
+    /**
+     * @return one line per metric and counter, e.g.
+     * <code>publish: count=12 mean=340ms min=120ms p50=500ms p95=1000ms max=1200ms</code>
+     */
+    public String[] getSummary();
+
+    /**
+     * @param metric a metric name
+     * @return number of recorded samples
+     */
+    public long getCount(String metric);
+
+    /**
+     * @param metric a metric name
+     * @return mean latency in milliseconds
+     */
+    public long getMeanMillis(String metric);
+
+    /**
+     * @param metric a metric name
+     * @return largest recorded latency in milliseconds
+     */
+    public long getMaxMillis(String metric);
+
+    /**
+     * @param metric a metric name
+     * @param percentile value between 0 and 100
+     * @return estimated latency in milliseconds at the given percentile
+     */
+    public long getPercentileMillis(String metric, double percentile);
+
+    /**
+     * @param counter a counter name
+     * @return current value of the counter
+     */
+    public long getCounter(String counter);
+
+    /**
+     * Clears all metrics of the project.
+     */
+    public void reset();
+}
@@ -0,0 +1,189 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.metrics;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms and counters collected for the build loop of a single project.
+ * Phase timings use the <code>PHASE_*</code> names, plugin timings are keyed by the plugin
+ * type and the plugin class, e.g. <code>publisher:net.sourceforge.cruisecontrol.publishers.HTMLEmailPublisher</code>.
+ *
+ * @see BuildMetricsManager
+ */
+public class BuildMetrics {
+
+    public static final String PHASE_QUEUE_WAIT = "queue.wait";
+    public static final String PHASE_BOOTSTRAP = "bootstrap";
+    public static final String PHASE_MODIFICATIONS = "modifications";
+    public static final String PHASE_BUILD = "build";
+    public static final String PHASE_LOG_WRITE = "log.write";
+    public static final String PHASE_PUBLISH = "publish";
+    public static final String PHASE_TOTAL = "total";
+
+    public static final String PLUGIN_BOOTSTRAPPER = "bootstrapper";
+    public static final String PLUGIN_SOURCECONTROL = "sourcecontrol";
+    public static final String PLUGIN_PUBLISHER = "publisher";
+
+    public static final String COUNTER_BUILDS = "builds";
+    public static final String COUNTER_BUILDS_SUCCESSFUL = "builds.successful";
+    public static final String COUNTER_BUILDS_FAILED = "builds.failed";
+    public static final String COUNTER_PLUGIN_ERRORS = "errors";
+
+    private final String projectName;
+    private final MetricsLog metricsLog;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<String, LatencyHistogram>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+
+    BuildMetrics(final String projectName, final MetricsLog metricsLog) {
+        this.projectName = projectName;
+        this.metricsLog = metricsLog;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * @param pluginType one of the <code>PLUGIN_*</code> constants
+     * @param plugin the plugin instance being timed
+     * @return the metric name used for the given plugin
+     */
+    public static String pluginMetricName(final String pluginType, final Object plugin) {
+        return pluginType + ":" + plugin.getClass().getName();
+    }
+
+    /**
+     * @return the current time, to be handed back to {@link #recordSince(String, long)}
+     */
+    public static long start() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Records the time elapsed since <code>startMillis</code> under the given name.
+     * @param name the metric name
+     * @param startMillis value obtained from {@link #start()}
+     */
+    public void recordSince(final String name, final long startMillis) {
+        record(name, System.currentTimeMillis() - startMillis);
+    }
+
+    public void record(final String name, final long millis) {
+        getHistogram(name).record(millis);
+        metricsLog.append(projectName, name, millis);
+    }
+
+    public void increment(final String counterName) {
+        AtomicLong counter = counters.get(counterName);
+        if (counter == null) {
+            synchronized (counters) {
+                counter = counters.get(counterName);
+                if (counter == null) {
+                    counter = new AtomicLong();
+                    counters.put(counterName, counter);
+                }
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    public long getCounter(final String counterName) {
+        final AtomicLong counter = counters.get(counterName);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public LatencyHistogram getHistogram(final String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            synchronized (histograms) {
+                histogram = histograms.get(name);
+                if (histogram == null) {
+                    histogram = new LatencyHistogram();
+                    histograms.put(name, histogram);
+                }
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * @param name a metric name
+     * @return the histogram or null if nothing was recorded under that name
+     */
+    public LatencyHistogram findHistogram(final String name) {
+        return histograms.get(name);
+    }
+
+    public SortedSet<String> getHistogramNames() {
+        return new TreeSet<String>(histograms.keySet());
+    }
+
+    public SortedSet<String> getCounterNames() {
+        return new TreeSet<String>(counters.keySet());
+    }
+
+    public void reset() {
+        synchronized (histograms) {
+            histograms.clear();
+        }
+        synchronized (counters) {
+            counters.clear();
+        }
+    }
+
+    /**
+     * @return one line per histogram and counter, sorted by name.
+     */
+    public String[] getSummary() {
+        final SortedSet<String> histogramNames = getHistogramNames();
+        final SortedSet<String> counterNames = getCounterNames();
+        final String[] summary = new String[histogramNames.size() + counterNames.size()];
+        int i = 0;
+        for (final String name : histogramNames) {
+            summary[i++] = name + ": " + histograms.get(name);
+        }
+        for (final String name : counterNames) {
+            summary[i++] = name + ": " + getCounter(name);
+        }
+        return summary;
+    }
+}
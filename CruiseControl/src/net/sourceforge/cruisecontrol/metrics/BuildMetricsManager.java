@@ -0,0 +1,140 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazy load the BuildMetrics of a project and hold the shared metrics log.
+ * The metrics log file can be preset with the <code>cruisecontrol.metricslog</code> system property.
+ */
+public class BuildMetricsManager {
+
+    public static final String METRICS_LOG_PROPERTY = "cruisecontrol.metricslog";
+
+    public static final BuildMetricsManager INSTANCE = new BuildMetricsManager();
+
+    private final Map<String, BuildMetrics> metrics = new ConcurrentHashMap<String, BuildMetrics>();
+    private final MetricsLog metricsLog = new MetricsLog();
+
+    BuildMetricsManager() {
+        final String logFile = System.getProperty(METRICS_LOG_PROPERTY);
+        if (logFile != null && logFile.length() > 0) {
+            metricsLog.setFile(new File(logFile));
+        }
+    }
+
+    /**
+     * @param projectName a project name
+     * @return the metrics of the project, created on first use.
+     */
+    public BuildMetrics lookup(final String projectName) {
+        BuildMetrics projectMetrics = metrics.get(projectName);
+        if (projectMetrics == null) {
+            synchronized (metrics) {
+                projectMetrics = metrics.get(projectName);
+                if (projectMetrics == null) {
+                    projectMetrics = new BuildMetrics(projectName, metricsLog);
+                    metrics.put(projectName, projectMetrics);
+                }
+            }
+        }
+        return projectMetrics;
+    }
+
+    /**
+     * @param projectName an existing project name who's metrics should be dropped.
+     * @return the removed metrics or null if none existed.
+     */
+    public BuildMetrics remove(final String projectName) {
+        return metrics.remove(projectName);
+    }
+
+    public SortedSet<String> getProjectNames() {
+        return new TreeSet<String>(metrics.keySet());
+    }
+
+    public MetricsLog getMetricsLog() {
+        return metricsLog;
+    }
+
+    public void resetAll() {
+        for (final BuildMetrics projectMetrics : metrics.values()) {
+            projectMetrics.reset();
+        }
+    }
+
+    /**
+     * Ranks every project/metric pair starting with the given prefix by mean latency.
+     * @param metricPrefix e.g. <code>publisher:</code>, or an empty string for every metric
+     * @param max maximum number of entries to return
+     * @return lines of the form <code>project metric: histogram</code>, slowest first
+     */
+    public String[] findSlowest(final String metricPrefix, final int max) {
+        final List<Object[]> entries = new ArrayList<Object[]>();
+        for (final BuildMetrics projectMetrics : metrics.values()) {
+            for (final String name : projectMetrics.getHistogramNames()) {
+                if (metricPrefix == null || name.startsWith(metricPrefix)) {
+                    entries.add(new Object[] {projectMetrics.getProjectName(), name,
+                            projectMetrics.findHistogram(name)});
+                }
+            }
+        }
+        Collections.sort(entries, new Comparator<Object[]>() {
+            public int compare(final Object[] o1, final Object[] o2) {
+                final long mean1 = ((LatencyHistogram) o1[2]).getMeanMillis();
+                final long mean2 = ((LatencyHistogram) o2[2]).getMeanMillis();
+                return mean1 < mean2 ? 1 : (mean1 == mean2 ? 0 : -1);
+            }
+        });
+        final int size = Math.min(Math.max(max, 0), entries.size());
+        final String[] slowest = new String[size];
+        for (int i = 0; i < size; i++) {
+            final Object[] entry = entries.get(i);
+            slowest[i] = entry[0] + " " + entry[1] + ": " + entry[2];
+        }
+        return slowest;
+    }
+}
@@ -0,0 +1,156 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.metrics;
+
+/**
+ * Fixed-bucket latency histogram. Buckets grow roughly exponentially (1, 2, 5, 10, 20, 50 ... ms)
+ * so that both sub-second plugin calls and hour-long builds can be recorded without
+ * keeping every sample.
+ */
+public class LatencyHistogram {
+
+    /** Upper bounds (inclusive, in milliseconds) of every bucket but the last, open ended one. */
+    static final long[] BUCKET_LIMITS = {
+        1L, 2L, 5L, 10L, 20L, 50L, 100L, 200L, 500L,
+        1000L, 2000L, 5000L, 10000L, 20000L, 50000L,
+        100000L, 200000L, 500000L, 1000000L, 2000000L, 5000000L
+    };
+
+    private final long[] buckets = new long[BUCKET_LIMITS.length + 1];
+    private long count;
+    private long totalMillis;
+    private long minMillis = Long.MAX_VALUE;
+    private long maxMillis;
+    private long lastMillis;
+
+    /**
+     * @param millis the elapsed time of one sample, negative values are recorded as zero.
+     */
+    public synchronized void record(final long millis) {
+        final long value = millis < 0 ? 0 : millis;
+        buckets[bucketIndex(value)]++;
+        count++;
+        totalMillis += value;
+        lastMillis = value;
+        if (value < minMillis) {
+            minMillis = value;
+        }
+        if (value > maxMillis) {
+            maxMillis = value;
+        }
+    }
+
+    static int bucketIndex(final long millis) {
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            if (millis <= BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS.length;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public synchronized long getMinMillis() {
+        return count == 0 ? 0 : minMillis;
+    }
+
+    public synchronized long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public synchronized long getLastMillis() {
+        return lastMillis;
+    }
+
+    public synchronized long getMeanMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    /**
+     * @param percentile value between 0 and 100
+     * @return the upper bound of the bucket containing the given percentile, capped by the largest
+     * recorded sample.
+     */
+    public synchronized long getPercentileMillis(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final double bounded = Math.max(0.0, Math.min(100.0, percentile));
+        final long rank = Math.max(1L, (long) Math.ceil(count * bounded / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return i < BUCKET_LIMITS.length ? Math.min(BUCKET_LIMITS[i], maxMillis) : maxMillis;
+            }
+        }
+        return maxMillis;
+    }
+
+    /**
+     * @return a copy of the bucket counts, the last entry holds the samples above the largest limit.
+     */
+    public synchronized long[] getBucketCounts() {
+        final long[] copy = new long[buckets.length];
+        System.arraycopy(buckets, 0, copy, 0, buckets.length);
+        return copy;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        totalMillis = 0;
+        minMillis = Long.MAX_VALUE;
+        maxMillis = 0;
+        lastMillis = 0;
+    }
+
+    public synchronized String toString() {
+        return "count=" + count + " mean=" + getMeanMillis() + "ms min=" + getMinMillis()
+                + "ms p50=" + getPercentileMillis(50) + "ms p95=" + getPercentileMillis(95)
+                + "ms max=" + maxMillis + "ms";
+    }
+}
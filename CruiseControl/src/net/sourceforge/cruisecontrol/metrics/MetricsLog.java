@@ -0,0 +1,108 @@
+/********************************************************************************
+ * CruiseControl, a Continuous Integration Toolkit
+ * Copyright (c) 2001-2003, ThoughtWorks, Inc.
+ * 200 E. Randolph, 25th Floor
+ * Chicago, IL 60601 USA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *     + Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     + Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     + Neither the name of ThoughtWorks, Inc., CruiseControl, nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE REGENTS OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ********************************************************************************/
+package net.sourceforge.cruisecontrol.metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+import net.sourceforge.cruisecontrol.util.DateUtil;
+import net.sourceforge.cruisecontrol.util.IO;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Append-only, tab separated log of every recorded metric sample:
+ * <pre>
+ * timestamp   project   metric   millis
+ * </pre>
+ * Nothing is written until a file has been set.
+ */
+public class MetricsLog {
+    private static final Logger LOG = Logger.getLogger(MetricsLog.class);
+
+    private File file;
+    private Writer writer;
+
+    public synchronized void setFile(final File newFile) {
+        close();
+        file = newFile;
+        if (file != null) {
+            LOG.info("Writing build metrics to [" + file.getAbsolutePath() + "]");
+        }
+    }
+
+    public synchronized File getFile() {
+        return file;
+    }
+
+    public synchronized void append(final String projectName, final String metric, final long millis) {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                final File parent = file.getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+                writer = new BufferedWriter(new FileWriter(file, true));
+            }
+            writer.write(DateUtil.formatIso8601(new Date()));
+            writer.write('\t');
+            writer.write(projectName);
+            writer.write('\t');
+            writer.write(metric);
+            writer.write('\t');
+            writer.write(Long.toString(millis));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            LOG.warn("Error writing build metrics to [" + file.getAbsolutePath() + "], metrics log disabled", e);
+            close();
+            file = null;
+        }
+    }
+
+    public synchronized void close() {
+        IO.close(writer);
+        writer = null;
+    }
+}
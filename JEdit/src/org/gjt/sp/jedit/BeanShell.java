@@ -26,6 +26,9 @@ package org.gjt.sp.jedit;
 import org.gjt.sp.jedit.bsh.*;
 
 import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.gjt.sp.jedit.io.*;
 import org.gjt.sp.jedit.gui.BeanShellErrorDialog;
 import org.gjt.sp.jedit.textarea.*;
@@ -311,6 +314,7 @@ public class BeanShell
 
 		try
 		{
+			ParsedScript script = null;
 			if(in == null)
 			{
 				Buffer buffer = jEdit.openTemporary(null,
@@ -319,8 +323,10 @@ public class BeanShell
 				if(!buffer.isLoaded())
 					VFSManager.waitForRequests();
 
-				in = new StringReader(buffer.getText(0,
-					buffer.getLength()));
+				String text = buffer.getText(0,buffer.getLength());
+				script = getParsedScript(path,text);
+				if(script == null)
+					in = new StringReader(text);
 			}
 
 			bsh.setupDefaultVariables(namespace,view);
@@ -328,7 +334,10 @@ public class BeanShell
 
 			running = true;
 
-			interp.eval(in,namespace,path);
+			if(script != null)
+				interp.eval(script,namespace);
+			else
+				interp.eval(in,namespace,path);
 		}
 		catch(Exception e)
 		{
@@ -506,6 +515,10 @@ public class BeanShell
 	 */
 	static void resetClassManager()
 	{
+		synchronized(scriptCache)
+		{
+			scriptCache.clear();
+		}
 		bsh.resetClassManager();
 	} //}}}
 
@@ -515,8 +528,72 @@ public class BeanShell
 
 	//{{{ Static variables
 	private static boolean running;
+
+	private static final int SCRIPT_CACHE_SIZE = 32;
+
+	/** The last scripts run from a path, in access order. */
+	private static final Map<String,CachedScript> scriptCache
+		= new LinkedHashMap<String,CachedScript>(16,0.75f,true)
+	{
+		@Override
+		protected boolean removeEldestEntry(
+			Map.Entry<String,CachedScript> eldest)
+		{
+			return size() > SCRIPT_CACHE_SIZE;
+		}
+	};
 	//}}}
 
+	//{{{ getParsedScript() method
+	/**
+	 * Returns the parsed statements of a script, parsing it again only
+	 * if its text changed since it was last run.
+	 * @return null if the script has syntax errors. It is then evaluated
+	 * from its text, which runs the statements before the error as it
+	 * always did. Scripts declaring classes are parsed for each run
+	 */
+	private static ParsedScript getParsedScript(String path, String text)
+	{
+		synchronized(scriptCache)
+		{
+			CachedScript cached = scriptCache.get(path);
+			if(cached != null && cached.text.equals(text))
+				return cached.script;
+		}
+
+		ParsedScript script;
+		try
+		{
+			script = Interpreter.parse(new StringReader(text),path);
+		}
+		catch(ParseException e)
+		{
+			return null;
+		}
+
+		if(script.declaresClasses())
+			return script;
+
+		synchronized(scriptCache)
+		{
+			scriptCache.put(path,new CachedScript(text,script));
+		}
+		return script;
+	} //}}}
+
+	//{{{ CachedScript class
+	private static class CachedScript
+	{
+		final String text;
+		final ParsedScript script;
+
+		CachedScript(String text, ParsedScript script)
+		{
+			this.text = text;
+			this.script = script;
+		}
+	} //}}}
+
 	//}}}
 
 	/**
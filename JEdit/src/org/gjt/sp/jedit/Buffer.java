@@ -235,18 +235,28 @@ public class Buffer extends JEditBuffer
 					BufferIORequest.NEW_PATH);
 				Segment seg = (Segment)getProperty(
 					BufferIORequest.LOAD_DATA);
+				ContentManager content = (ContentManager)getProperty(
+					BufferIORequest.LOAD_CONTENT);
 				IntegerArray endOffsets = (IntegerArray)
 					getProperty(BufferIORequest.END_OFFSETS);
 
-				loadText(seg,endOffsets);
+				if(content != null)
+					loadContent(content,endOffsets);
+				else
+					loadText(seg,endOffsets);
 
 				unsetProperty(BufferIORequest.LOAD_DATA);
+				unsetProperty(BufferIORequest.LOAD_CONTENT);
 				unsetProperty(BufferIORequest.END_OFFSETS);
 				unsetProperty(BufferIORequest.NEW_PATH);
 
 				undoMgr.clear();
 				undoMgr.setLimit(jEdit.getIntegerProperty(
 					"buffer.undoCount",100));
+				undoMgr.setMemoryLimit(jEdit.getIntegerProperty(
+					"buffer.undoMemory",32) * 1024L * 1024L);
+				UndoManager.setGlobalMemoryLimit(jEdit.getIntegerProperty(
+					"undoMemory",128) * 1024L * 1024L);
 
 				if(!getFlag(TEMPORARY))
 					finishLoading();
@@ -1667,6 +1677,9 @@ public class Buffer extends JEditBuffer
 	{
 		setFlag(CLOSED,true);
 
+		// give the undo memory back to the other buffers
+		undoMgr.clear();
+
 		if(autosaveFile != null)
 			autosaveFile.delete();
 
@@ -89,6 +89,13 @@ public class Debug
 	 */
 	public static boolean PAINT_TIMER = false;
 
+	/**
+	 * Show the time taken to repaint and the glyph cache hit rate over
+	 * the text area.
+	 * @since jEdit 4.4pre1
+	 */
+	public static boolean PAINT_OVERLAY = false;
+
 	/**
 	 * Show time taken for each EBComponent.
 	 */
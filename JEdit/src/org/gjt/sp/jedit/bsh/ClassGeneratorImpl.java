@@ -115,6 +115,7 @@ public class ClassGeneratorImpl extends ClassGenerator
 
 		// Define the new class in the classloader
 		Class genClass = bcm.defineClass( fqClassName, code );
+		NameSpace.classDefined();
 
 		// import the unq name into parent
 		enclosingNameSpace.importClass( fqClassName.replace('$','.') );
@@ -36,6 +36,7 @@ package org.gjt.sp.jedit.bsh;
 import java.io.*;
 import java.lang.reflect.Method;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Vector;
 
 /**
 	The BeanShell script interpreter.
@@ -711,6 +712,133 @@ public class Interpreter
 		return Primitive.unwrap( retVal );
     }
 
+	/**
+		Parse a script without evaluating it.  The parsed script can be
+		evaluated any number of times with eval( ParsedScript, NameSpace ),
+		saving the parsing of scripts which are run often, unless it
+		declares classes (see ParsedScript.declaresClasses()).
+
+		@param sourceFileInfo is for information purposes only.  It is used to
+		display error messages.
+		@throws ParseException on syntax errors.  Note that eval( Reader,
+		NameSpace, String ) would have run the statements preceding the
+		error.
+	*/
+	public static ParsedScript parse( Reader in, String sourceFileInfo )
+		throws ParseException
+	{
+		Parser parser = new Parser( in );
+		Vector nodes = new Vector();
+
+		boolean eof = false;
+		while(!eof)
+		{
+			try
+			{
+				eof = parser.Line();
+				if ( parser.jjtree.nodeArity() > 0 )
+				{
+					SimpleNode node = (SimpleNode)parser.jjtree.rootNode();
+					// nodes remember from where they were sourced
+					node.setSourceFile( sourceFileInfo );
+					nodes.addElement( node );
+				}
+			} catch ( ParseException e ) {
+				e.setErrorSourceFile( sourceFileInfo );
+				throw e;
+			} catch ( TokenMgrError e ) {
+				throw new ParseException(
+					"Sourced file: "+sourceFileInfo+" Token Parsing Error: "
+					+ e.getMessage() );
+			} finally {
+				parser.jjtree.reset();
+			}
+		}
+
+		Node [] result = new Node [ nodes.size() ];
+		nodes.copyInto( result );
+		return new ParsedScript( result, sourceFileInfo );
+	}
+
+	/**
+		Evaluate a script returned by parse( Reader, String ) in the
+		specified namespace.  Behaves like eval( Reader, NameSpace, String )
+		on the text it was parsed from.
+
+		@throws EvalError on script problems
+		@throws TargetError on unhandled exceptions from the script
+	*/
+	public Object eval( ParsedScript script, NameSpace nameSpace )
+		throws EvalError
+	{
+		Node [] nodes = script.nodes;
+		String sourceFileInfo = script.sourceFileInfo;
+		Object retVal = null;
+		if ( Interpreter.DEBUG ) debug("eval: nameSpace = "+nameSpace);
+
+		Interpreter localInterpreter =
+			new Interpreter(
+				null, out, err, false, nameSpace, this, sourceFileInfo  );
+
+		CallStack callstack = new CallStack( nameSpace );
+
+		for(int i=0; i<nodes.length; i++)
+		{
+			SimpleNode node = (SimpleNode)nodes[i];
+			try
+			{
+				if ( TRACE )
+					println( "// " +node.getText() );
+
+				retVal = node.eval( callstack, localInterpreter );
+
+				// sanity check during development
+				if ( callstack.depth() > 1 )
+					throw new InterpreterError(
+						"Callstack growing: "+callstack);
+
+				if ( retVal instanceof ReturnControl ) {
+					retVal = ((ReturnControl)retVal).value;
+					break; // non-interactive, return control now
+				}
+
+				if ( localInterpreter.showResults
+					&& retVal != Primitive.VOID )
+					println("<" + retVal + ">");
+			} catch ( InterpreterError e ) {
+				e.printStackTrace();
+				throw new EvalError(
+					"Sourced file: "+sourceFileInfo+" internal Error: "
+					+ e.getMessage(), node, callstack);
+			} catch ( TargetError e ) {
+				// failsafe, set the Line as the origin of the error.
+				if ( e.getNode()==null )
+					e.setNode( node );
+				e.reThrow("Sourced file: "+sourceFileInfo);
+			} catch ( EvalError e) {
+				if ( DEBUG)
+					e.printStackTrace();
+				// failsafe, set the Line as the origin of the error.
+				if ( e.getNode()==null )
+					e.setNode( node );
+				e.reThrow( "Sourced file: "+sourceFileInfo );
+			} catch ( Exception e) {
+				if ( DEBUG)
+					e.printStackTrace();
+				throw new EvalError(
+					"Sourced file: "+sourceFileInfo+" unknown error: "
+					+ e.getMessage(), node, callstack);
+			} finally {
+				// reinit the callstack
+				if ( callstack.depth() > 1 ) {
+					callstack.clear();
+					callstack.push( nameSpace );
+				}
+			}
+		}
+		return Primitive.unwrap( retVal );
+	}
+
 	/**
 		Evaluate the inputstream in this interpreter's global namespace.
 	*/
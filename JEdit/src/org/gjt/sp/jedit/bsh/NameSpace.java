@@ -154,6 +154,24 @@ public class NameSpace
     */
     transient private Hashtable classCache;
 
+    /**
+        Unqualified names which are not classes through this namespace.
+        Fully qualified names in scripts, e.g. java.util.List, look up
+        their first component ("java") as a class each time they are
+        evaluated, trying every imported package.
+    */
+    transient private Hashtable nonClassCache;
+
+    /**
+        The value of classDefinitions when the class caches were started.
+        Only namespaces with a class manager are notified of its changes,
+        so the caches of child namespaces are checked against this.
+    */
+    transient private int cacheDefinitions;
+
+    /** Incremented when a scripted class is defined. */
+    private static volatile int classDefinitions;
+
     // End instance data
 
     // Begin constructors
@@ -341,8 +359,8 @@ public class NameSpace
             varScope.variables.put(
                 name, new Variable( name, value, null/*modifiers*/ ) );
 
-            // nameSpaceChanged() on new variable addition
-            nameSpaceChanged();
+            // variables don't change class resolution
+            names = null;
         }
     }
 
@@ -354,7 +372,7 @@ public class NameSpace
         if ( variables != null )
         {
             variables.remove( name );
-            nameSpaceChanged();
+            names = null;
         }
     }
 
@@ -1146,6 +1164,14 @@ System.out.println("experiment: creating class manager");
         classCache.put(name, c);
     }
 
+    /**
+        Drops the class caches of all namespaces, a scripted class may
+        have been defined with a name which was cached.
+    */
+    static synchronized void classDefined() {
+        classDefinitions++;
+    }
+
     /**
         Load a class through this namespace taking into account imports.
         The class search will proceed through the parent namespaces if
@@ -1189,6 +1215,15 @@ System.out.println("experiment: creating class manager");
     {
         Class c = null;
 
+        // read before the lookup, a class defined meanwhile drops the
+        // caches on the next call
+        int definitions = classDefinitions;
+        if ( cacheDefinitions != definitions ) {
+            classCache = null;
+            nonClassCache = null;
+            cacheDefinitions = definitions;
+        }
+
         // Check the cache
         if (classCache != null) {
             c =	(Class)classCache.get(name);
@@ -1197,6 +1232,9 @@ System.out.println("experiment: creating class manager");
                 return c;
         }
 
+        if ( nonClassCache != null && nonClassCache.containsKey( name ) )
+            return null;
+
         // Unqualified (simple, non-compound) name
         boolean unqualifiedName = !Name.isCompound(name);
 
@@ -1223,7 +1261,12 @@ System.out.println("experiment: creating class manager");
             return c;
         }
 
-        // Not found
+        // Not found.  Qualified names are cached by the BshClassManager
+        if ( unqualifiedName ) {
+            if ( nonClassCache == null )
+                nonClassCache = new Hashtable();
+            nonClassCache.put( name, name );
+        }
         if ( Interpreter.DEBUG )
             Interpreter.debug("getClass(): " + name	+ " not	found in "+this);
         return null;
@@ -1438,6 +1481,7 @@ System.out.println("experiment: creating class manager");
     */
     public void nameSpaceChanged() {
         classCache = null;
+        nonClassCache = null;
         names = null;
     }
 
@@ -1560,6 +1604,7 @@ System.out.println("experiment: creating class manager");
         if ( parent == null )
             loadDefaultImports();
         classCache = null;
+        nonClassCache = null;
         names = null;
     }
 
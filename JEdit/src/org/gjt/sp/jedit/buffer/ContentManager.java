@@ -34,11 +34,12 @@ import javax.swing.text.Segment;
  * @author Slava Pestov
  * @version $Id: ContentManager.java 17651 2010-04-16 10:47:56Z kpouer $
  * @since jEdit 4.0pre1
+ * @see PieceTableContentManager
  */
 public class ContentManager
 {
 	//{{{ getLength() method
-	public final int getLength()
+	public int getLength()
 	{
 		return length;
 	} //}}}
@@ -78,6 +78,14 @@ public class JEditBuffer
 	 */
 	public static final String ENCODING = "encoding";
 
+	/**
+	 * Size in megabytes from which files are mapped in memory instead of
+	 * being read, 0 to always read them.
+	 * @since jEdit 4.4pre1
+	 * @see #isLargeFile(long)
+	 */
+	public static final String LARGE_FILE_SIZE = "largeFileSize";
+
 	//{{{ JEditBuffer constructors
 	public JEditBuffer(Map props)
 	{
@@ -206,6 +214,34 @@ public class JEditBuffer
 		return readOnly || readOnlyOverride;
 	} //}}}
 
+	//{{{ isLargeFile() method
+	/**
+	 * Returns if a file of the given size should be loaded in a
+	 * {@link PieceTableContentManager} over the mapped file, rather than
+	 * read in memory.
+	 * @param length the file size in bytes
+	 * @since jEdit 4.4pre1
+	 */
+	public boolean isLargeFile(long length)
+	{
+		int size = getIntegerProperty(LARGE_FILE_SIZE,0);
+		return size > 0 && length >= size * 1024L * 1024L;
+	} //}}}
+
+	//{{{ isLargeFileMode() method
+	/**
+	 * Returns true if the buffer contents are read from a memory-mapped
+	 * file. Such a buffer must not be saved by overwriting its file in
+	 * place. This method is thread-safe.
+	 * @since jEdit 4.4pre1
+	 */
+	public boolean isLargeFileMode()
+	{
+		ContentManager content = contentMgr;
+		return content instanceof PieceTableContentManager
+			&& ((PieceTableContentManager)content).getOriginal() != null;
+	} //}}}
+
 	//{{{ setReadOnly() method
 	/**
 	 * Sets the read only flag.
@@ -1307,50 +1343,164 @@ loop:		for(int i = 0; i < seg.count; i++)
 		if(lineIndex < 0 || lineIndex >= lineMgr.getLineCount())
 			throw new ArrayIndexOutOfBoundsException(lineIndex);
 
-		int firstInvalidLineContext = lineMgr.getFirstInvalidLineContext();
-		int start;
-		if(textMode || firstInvalidLineContext == -1)
+		// line contexts may be computed by another thread, see
+		// precomputeLineContexts()
+		synchronized(tokenizeLock)
 		{
-			start = lineIndex;
+			int firstInvalidLineContext = lineMgr.getFirstInvalidLineContext();
+			int start;
+			if(textMode || firstInvalidLineContext == -1)
+			{
+				start = lineIndex;
+			}
+			else
+			{
+				start = Math.min(firstInvalidLineContext,
+					lineIndex);
+			}
+
+			if(Debug.TOKEN_MARKER_DEBUG)
+				Log.log(Log.DEBUG,this,"tokenize from " + start + " to " + lineIndex);
+			TokenMarker.LineContext oldContext = null;
+			TokenMarker.LineContext context = null;
+			for(int i = start; i <= lineIndex; i++)
+			{
+				getLineText(i,seg);
+
+				oldContext = lineMgr.getLineContext(i);
+
+				TokenMarker.LineContext prevContext = (
+					(i == 0 || textMode) ? null
+					: lineMgr.getLineContext(i - 1)
+				);
+
+				context = tokenMarker.markTokens(prevContext,
+					(i == lineIndex ? tokenHandler
+					: DummyTokenHandler.INSTANCE), seg);
+				lineMgr.setLineContext(i,context);
+			}
+
+			int lineCount = lineMgr.getLineCount();
+			if(lineCount - 1 == lineIndex)
+				lineMgr.setFirstInvalidLineContext(-1);
+			else if(oldContext != context)
+				lineMgr.setFirstInvalidLineContext(lineIndex + 1);
+			else if(firstInvalidLineContext == -1)
+				/* do nothing */;
+			else
+			{
+				lineMgr.setFirstInvalidLineContext(Math.max(
+					firstInvalidLineContext,lineIndex + 1));
+			}
 		}
-		else
+	} //}}}
+
+	//{{{ getUntokenizedLineCount() method
+	/**
+	 * Returns the number of lines before the given line whose syntax
+	 * context is not known, ie. the lines that {@link #markTokens(int,
+	 * TokenHandler)} would have to tokenize first. This method is
+	 * thread-safe.
+	 * @param lineIndex The line number
+	 * @since jEdit 4.4pre1
+	 */
+	public int getUntokenizedLineCount(int lineIndex)
+	{
+		int firstInvalidLineContext = lineMgr.getFirstInvalidLineContext();
+		if(textMode || firstInvalidLineContext == -1
+			|| firstInvalidLineContext >= lineIndex)
 		{
-			start = Math.min(firstInvalidLineContext,
-				lineIndex);
+			return 0;
 		}
+		return lineIndex - firstInvalidLineContext;
+	} //}}}
+
+	//{{{ markTokensProvisionally() method
+	/**
+	 * Returns the syntax tokens for the specified line, without
+	 * tokenizing the lines before it. The last known context of the
+	 * previous line is used, so the tokens may be wrong until the line
+	 * contexts are computed. Nothing is stored in the buffer.
+	 * @param lineIndex The line number
+	 * @param tokenHandler The token handler that will receive the syntax
+	 * tokens
+	 * @since jEdit 4.4pre1
+	 * @see #precomputeLineContexts(int, int)
+	 */
+	public void markTokensProvisionally(int lineIndex, TokenHandler tokenHandler)
+	{
+		if(lineIndex < 0 || lineIndex >= lineMgr.getLineCount())
+			throw new ArrayIndexOutOfBoundsException(lineIndex);
 
-		if(Debug.TOKEN_MARKER_DEBUG)
-			Log.log(Log.DEBUG,this,"tokenize from " + start + " to " + lineIndex);
-		TokenMarker.LineContext oldContext = null;
-		TokenMarker.LineContext context = null;
-		for(int i = start; i <= lineIndex; i++)
+		Segment seg = new Segment();
+		getLineText(lineIndex,seg);
+
+		TokenMarker.LineContext prevContext = (
+			(lineIndex == 0 || textMode) ? null
+			: lineMgr.getLineContext(lineIndex - 1)
+		);
+		tokenMarker.markTokens(prevContext,tokenHandler,seg);
+	} //}}}
+
+	//{{{ precomputeLineContexts() method
+	/**
+	 * Computes the syntax contexts of the lines up to the given line, so
+	 * that {@link #markTokens(int, TokenHandler)} does not have to.
+	 * This method is thread-safe, and is meant to be called repeatedly
+	 * from a background thread: each call tokenizes a limited number of
+	 * lines, and gives up if the buffer is being modified.
+	 * @param lastLine The last line whose context is wanted
+	 * @param maxLines The maximum number of lines to tokenize
+	 * @return the number of lines still to tokenize, or -1 if the buffer
+	 * is locked for writing and nothing was done
+	 * @since jEdit 4.4pre1
+	 */
+	public int precomputeLineContexts(int lastLine, int maxLines)
+	{
+		synchronized(tokenizeLock)
 		{
-			getLineText(i,seg);
+			// never wait for the write lock while holding
+			// tokenizeLock, the writer may be waiting for it
+			if(!lock.readLock().tryLock())
+				return -1;
 
-			oldContext = lineMgr.getLineContext(i);
+			try
+			{
+				int lineCount = lineMgr.getLineCount();
+				lastLine = Math.min(lastLine,lineCount - 1);
+				int firstInvalidLineContext = lineMgr.getFirstInvalidLineContext();
+				if(textMode || firstInvalidLineContext == -1
+					|| firstInvalidLineContext > lastLine)
+				{
+					return 0;
+				}
 
-			TokenMarker.LineContext prevContext = (
-				(i == 0 || textMode) ? null
-				: lineMgr.getLineContext(i - 1)
-			);
+				int end = Math.min(lastLine,
+					firstInvalidLineContext + maxLines - 1);
+				TokenMarker marker = tokenMarker;
+				Segment seg = new Segment();
+				for(int i = firstInvalidLineContext; i <= end; i++)
+				{
+					getLineText(i,seg);
 
-			context = tokenMarker.markTokens(prevContext,
-				(i == lineIndex ? tokenHandler
-				: DummyTokenHandler.INSTANCE), seg);
-			lineMgr.setLineContext(i,context);
-		}
+					TokenMarker.LineContext prevContext = (
+						i == 0 ? null
+						: lineMgr.getLineContext(i - 1)
+					);
 
-		int lineCount = lineMgr.getLineCount();
-		if(lineCount - 1 == lineIndex)
-			lineMgr.setFirstInvalidLineContext(-1);
-		else if(oldContext != context)
-			lineMgr.setFirstInvalidLineContext(lineIndex + 1);
-		else if(firstInvalidLineContext == -1)
-			/* do nothing */;
-		else
-		{
-			lineMgr.setFirstInvalidLineContext(Math.max(
-				firstInvalidLineContext,lineIndex + 1));
+					lineMgr.setLineContext(i,marker.markTokens(
+						prevContext,DummyTokenHandler.INSTANCE,
+						seg));
+				}
+
+				lineMgr.setFirstInvalidLineContext(
+					end == lineCount - 1 ? -1 : end + 1);
+				return lastLine - end;
+			}
+			finally
+			{
+				lock.readLock().unlock();
+			}
 		}
 	} //}}}
 
@@ -2535,6 +2685,24 @@ loop:		for(int i = 0; i < seg.count; i++)
 		if(seg == null)
 			seg = new Segment(new char[1024],0,0);
 
+		ContentManager content = new ContentManager();
+		// theoretically a segment could
+		// have seg.offset != 0 but
+		// SegmentBuffer never does that
+		content._setContent(seg.array,seg.count);
+		loadContent(content,endOffsets);
+	} //}}}
+
+	//{{{ loadContent() method
+	/**
+	 * Replaces the buffer contents and the content manager holding them.
+	 * @param content the new contents
+	 * @param endOffsets the offset following each line separator, and
+	 * the length plus one
+	 * @since jEdit 4.4pre1
+	 */
+	protected void loadContent(ContentManager content, IntegerArray endOffsets)
+	{
 		if(endOffsets == null)
 		{
 			endOffsets = new IntegerArray();
@@ -2559,18 +2727,16 @@ loop:		for(int i = 0; i < seg.count; i++)
 			fireContentRemoved(0,0,getLineCount()
 				- 1,length);
 
-			firePreContentInserted(0, 0, endOffsets.getSize() - 1, seg.count - 1);
-			// theoretically a segment could
-			// have seg.offset != 0 but
-			// SegmentBuffer never does that
-			contentMgr._setContent(seg.array,seg.count);
+			int newLength = content.getLength();
+			firePreContentInserted(0, 0, endOffsets.getSize() - 1, newLength - 1);
+			contentMgr = content;
 
 			lineMgr._contentInserted(endOffsets);
-			positionMgr.contentInserted(0,seg.count);
+			positionMgr.contentInserted(0,newLength);
 
 			fireContentInserted(0,0,
 				endOffsets.getSize() - 1,
-				seg.count - 1);
+				newLength - 1);
 		}
 		finally
 		{
@@ -2644,7 +2810,9 @@ loop:		for(int i = 0; i < seg.count; i++)
 	//{{{ Private members
 	private List<Listener> bufferListeners;
 	private final ReentrantReadWriteLock lock;
-	private ContentManager contentMgr;
+	private volatile ContentManager contentMgr;
+	/** Held while line contexts are computed. */
+	private final Object tokenizeLock = new Object();
 	private LineManager lineMgr;
 	private PositionManager positionMgr;
 	private FoldHandler foldHandler;
@@ -0,0 +1,546 @@
+/*
+ * MappedTextSource.java - Lazily decoded text of a memory-mapped file
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.buffer;
+
+//{{{ Imports
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.text.Segment;
+
+import org.gjt.sp.util.IOUtilities;
+import org.gjt.sp.util.IntegerArray;
+import org.gjt.sp.util.ProgressObserver;
+//}}}
+
+/**
+ * The text of a memory-mapped file, decoded on demand.<p>
+ *
+ * Opening the file scans its bytes once to find the line separators
+ * and to split it into regions of a few kilobytes whose character
+ * offsets are known. The text of a region is only decoded when it is
+ * accessed, and a bounded number of decoded regions is cached. Line
+ * separators are converted to <code>\n</code> like
+ * {@link org.gjt.sp.jedit.bufferio.BufferIORequest} does.<p>
+ *
+ * Only UTF-8 and single byte encodings compatible with ASCII are
+ * supported, since the character offsets are computed without decoding.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ * @see PieceTableContentManager
+ */
+public class MappedTextSource
+{
+	/** The file uses \n line separators. */
+	public static final String LF = "\n";
+	/** The file uses \r\n line separators. */
+	public static final String CRLF = "\r\n";
+	/** The file uses \r line separators. */
+	public static final String CR = "\r";
+
+	//{{{ isSupportedEncoding() method
+	/**
+	 * @param encoding an encoding name
+	 * @return true if files in this encoding can be mapped
+	 */
+	public static boolean isSupportedEncoding(String encoding)
+	{
+		try
+		{
+			if(!Charset.isSupported(encoding))
+				return false;
+			Charset charset = Charset.forName(encoding);
+			if(isUTF8(charset))
+				return true;
+			if(!charset.canEncode())
+				return false;
+			CharsetEncoder encoder = charset.newEncoder();
+			if(encoder.maxBytesPerChar() != 1.0f)
+				return false;
+			// the line separators must be the ASCII ones
+			ByteBuffer separators = encoder.encode(CharBuffer.wrap("\r\n"));
+			return separators.remaining() == 2
+				&& separators.get(0) == '\r'
+				&& separators.get(1) == '\n';
+		}
+		catch(IllegalArgumentException e)
+		{
+			return false;
+		}
+		catch(CharacterCodingException e)
+		{
+			return false;
+		}
+	} //}}}
+
+	//{{{ open() method
+	/**
+	 * Maps a file and indexes its lines.
+	 * @param file the file
+	 * @param encoding an encoding accepted by {@link #isSupportedEncoding}
+	 * @param endOffsets receives the offset following each line
+	 * separator, in the format expected by {@link LineManager}
+	 * @param progress notified of the scan progress, may be null
+	 * @return the text, or null if the file is not valid in the
+	 * encoding
+	 * @throws IOException if the file can't be read, or has more
+	 * characters than a buffer can hold
+	 */
+	public static MappedTextSource open(File file, String encoding,
+		IntegerArray endOffsets, ProgressObserver progress)
+		throws IOException
+	{
+		MappedTextSource source = new MappedTextSource(file,
+			Charset.forName(encoding));
+		if(!source.scan(endOffsets,progress))
+			return null;
+		return source;
+	} //}}}
+
+	//{{{ getFile() method
+	public File getFile()
+	{
+		return file;
+	} //}}}
+
+	//{{{ getLength() method
+	/**
+	 * @return the number of characters, after conversion of the line
+	 * separators
+	 */
+	public int getLength()
+	{
+		return length;
+	} //}}}
+
+	//{{{ setLength() method
+	/**
+	 * Ignores the text after the given offset. Used to hide the trailing
+	 * line separator or a DOS end of file character.
+	 */
+	public void setLength(int length)
+	{
+		this.length = length;
+	} //}}}
+
+	//{{{ getLineSeparator() method
+	/**
+	 * @return the line separator of the last line, one of {@link #LF},
+	 * {@link #CRLF}, {@link #CR}, or null if the file has one line
+	 */
+	public String getLineSeparator()
+	{
+		return lineSeparator;
+	} //}}}
+
+	//{{{ charAt() method
+	public char charAt(int offset)
+	{
+		int region = getRegionOfOffset(offset);
+		return getRegion(region)[offset - regionCharStarts.get(region)];
+	} //}}}
+
+	//{{{ getText() method
+	/**
+	 * Returns a text range in a segment. The segment points to the
+	 * cached region if the range is inside a single region, so it
+	 * must not be modified.
+	 */
+	public void getText(int start, int len, Segment seg)
+	{
+		int region = getRegionOfOffset(start);
+		int regionStart = regionCharStarts.get(region);
+		if(start + len <= regionCharStarts.get(region + 1))
+		{
+			seg.array = getRegion(region);
+			seg.offset = start - regionStart;
+			seg.count = len;
+		}
+		else
+		{
+			seg.array = new char[len];
+			seg.offset = 0;
+			seg.count = len;
+			copyText(start,len,seg.array,0);
+		}
+	} //}}}
+
+	//{{{ copyText() method
+	/**
+	 * Copies a text range into an array.
+	 */
+	public void copyText(int start, int len, char[] dest, int destOffset)
+	{
+		int region = getRegionOfOffset(start);
+		while(len > 0)
+		{
+			int regionStart = regionCharStarts.get(region);
+			int regionEnd = regionCharStarts.get(region + 1);
+			int count = Math.min(len,regionEnd - start);
+			System.arraycopy(getRegion(region),start - regionStart,
+				dest,destOffset,count);
+			start += count;
+			destOffset += count;
+			len -= count;
+			region++;
+		}
+	} //}}}
+
+	//{{{ Private members
+
+	/** Regions end at the first line start after this many bytes. */
+	private static final int REGION_SIZE = 32768;
+	/** Long lines are split in regions of at most about this size. */
+	private static final int MAX_REGION_SIZE = REGION_SIZE * 2;
+	/** Size of each mapping, files above this are mapped in pieces. */
+	private static final long MAP_SIZE = 1L << 30;
+	/** Each mapping overlaps the next one so regions are never split. */
+	private static final long MAP_OVERLAP = MAX_REGION_SIZE * 2;
+	/** Number of decoded regions kept. */
+	private static final int CACHED_REGIONS = 64;
+
+	private final File file;
+	private final Charset charset;
+	private final CharsetDecoder decoder;
+	private MappedByteBuffer[] maps;
+	private long fileLength;
+	private int length;
+	private String lineSeparator;
+
+	/** The character offset where each region starts, and the length. */
+	private final IntegerArray regionCharStarts;
+	private long[] regionByteStarts;
+	private int regionCount;
+
+	private final Map<Integer, char[]> cache;
+
+	//{{{ MappedTextSource constructor
+	private MappedTextSource(File file, Charset charset)
+	{
+		this.file = file;
+		this.charset = charset;
+		decoder = charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		regionCharStarts = new IntegerArray();
+		regionByteStarts = new long[64];
+		cache = new LinkedHashMap<Integer, char[]>(CACHED_REGIONS,0.75f,true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, char[]> eldest)
+			{
+				return size() > CACHED_REGIONS;
+			}
+		};
+	} //}}}
+
+	//{{{ isUTF8() method
+	private static boolean isUTF8(Charset charset)
+	{
+		return charset.name().equals("UTF-8");
+	} //}}}
+
+	//{{{ map() method
+	private void map() throws IOException
+	{
+		FileInputStream in = new FileInputStream(file);
+		try
+		{
+			FileChannel channel = in.getChannel();
+			fileLength = channel.size();
+			int count = (int)((fileLength + MAP_SIZE - 1) / MAP_SIZE);
+			maps = new MappedByteBuffer[count];
+			for(int i = 0; i < count; i++)
+			{
+				long start = i * MAP_SIZE;
+				long size = Math.min(MAP_SIZE + MAP_OVERLAP,
+					fileLength - start);
+				maps[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+					start,size);
+			}
+		}
+		finally
+		{
+			// the mappings stay valid
+			IOUtilities.closeQuietly(in);
+		}
+	} //}}}
+
+	//{{{ scan() method
+	/**
+	 * Finds the line separators and the region boundaries, and checks
+	 * that the file can be decoded.
+	 */
+	private boolean scan(IntegerArray endOffsets, ProgressObserver progress)
+		throws IOException
+	{
+		map();
+
+		if(progress != null)
+		{
+			progress.setMaximum(fileLength);
+			progress.setValue(0);
+		}
+
+		boolean utf8 = isUTF8(charset);
+		long chars = 0;
+		long regionStart = 0;
+		addRegion(0,0);
+
+		// the previous byte was a \r
+		boolean lastWasCR = false;
+		// the previous byte ended a line
+		boolean lineStart = true;
+		// UTF-8 continuation bytes expected, and their allowed range
+		int continuation = 0;
+		int minContinuation = 0x80;
+		int maxContinuation = 0xBF;
+
+		for(int m = 0; m < maps.length; m++)
+		{
+			MappedByteBuffer map = maps[m];
+			long mapStart = m * MAP_SIZE;
+			int mapLength = (int)Math.min(MAP_SIZE,fileLength - mapStart);
+			for(int i = 0; i < mapLength; i++)
+			{
+				int b = map.get(i) & 0xFF;
+				long pos = mapStart + i;
+
+				if(lastWasCR && b != '\n')
+				{
+					lineSeparator = CR;
+					lineStart = true;
+				}
+
+				// start a new region
+				long regionSize = pos - regionStart;
+				if(regionSize >= REGION_SIZE && continuation == 0
+					&& !(lastWasCR && b == '\n')
+					&& (lineStart || regionSize >= MAX_REGION_SIZE))
+				{
+					if(chars >= Integer.MAX_VALUE)
+						throw new IOException(file + " is too large");
+					addRegion(pos,(int)chars);
+					regionStart = pos;
+				}
+
+				if(b == '\n')
+				{
+					if(continuation != 0)
+						return false;
+					if(lastWasCR)
+						lineSeparator = CRLF;
+					else
+					{
+						chars++;
+						lineSeparator = LF;
+						addEndOffset(endOffsets,chars);
+					}
+					lastWasCR = false;
+					lineStart = true;
+					continue;
+				}
+
+				lastWasCR = false;
+				lineStart = false;
+				if(b == '\r')
+				{
+					if(continuation != 0)
+						return false;
+					chars++;
+					addEndOffset(endOffsets,chars);
+					lastWasCR = true;
+				}
+				else if(!utf8)
+					chars++;
+				else if(continuation != 0)
+				{
+					if(b < minContinuation || b > maxContinuation)
+						return false;
+					continuation--;
+					minContinuation = 0x80;
+					maxContinuation = 0xBF;
+				}
+				else if(b < 0x80)
+					chars++;
+				else if(b >= 0xC2 && b <= 0xDF)
+				{
+					chars++;
+					continuation = 1;
+				}
+				else if(b >= 0xE0 && b <= 0xEF)
+				{
+					chars++;
+					continuation = 2;
+					// no overlong forms and no surrogates
+					if(b == 0xE0)
+						minContinuation = 0xA0;
+					else if(b == 0xED)
+						maxContinuation = 0x9F;
+				}
+				else if(b >= 0xF0 && b <= 0xF4)
+				{
+					// a surrogate pair
+					chars += 2;
+					continuation = 3;
+					if(b == 0xF0)
+						minContinuation = 0x90;
+					else if(b == 0xF4)
+						maxContinuation = 0x8F;
+				}
+				else
+					return false;
+			}
+
+			if(progress != null)
+				progress.setValue(mapStart + mapLength);
+		}
+
+		if(continuation != 0)
+			return false;
+		if(lastWasCR)
+			lineSeparator = CR;
+		if(chars >= Integer.MAX_VALUE)
+			throw new IOException(file + " is too large");
+
+		length = (int)chars;
+		addRegion(fileLength,length);
+		regionCount--;
+		return true;
+	} //}}}
+
+	//{{{ addEndOffset() method
+	private void addEndOffset(IntegerArray endOffsets, long offset)
+		throws IOException
+	{
+		if(offset >= Integer.MAX_VALUE)
+			throw new IOException(file + " is too large");
+		endOffsets.add((int)offset);
+	} //}}}
+
+	//{{{ addRegion() method
+	private void addRegion(long byteStart, int charStart)
+	{
+		if(regionCount == regionByteStarts.length)
+		{
+			long[] newStarts = new long[regionCount * 2];
+			System.arraycopy(regionByteStarts,0,newStarts,0,regionCount);
+			regionByteStarts = newStarts;
+		}
+		regionByteStarts[regionCount++] = byteStart;
+		regionCharStarts.add(charStart);
+	} //}}}
+
+	//{{{ getRegionOfOffset() method
+	private int getRegionOfOffset(int offset)
+	{
+		int[] starts = regionCharStarts.getArray();
+		int low = 0;
+		int high = regionCount - 1;
+		while(low < high)
+		{
+			int mid = (low + high + 1) >>> 1;
+			if(starts[mid] <= offset)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	} //}}}
+
+	//{{{ getRegion() method
+	/**
+	 * Returns the decoded text of a region, with \n line separators.
+	 */
+	private synchronized char[] getRegion(int region)
+	{
+		Integer key = region;
+		char[] chars = cache.get(key);
+		if(chars == null)
+		{
+			chars = decodeRegion(region);
+			cache.put(key,chars);
+		}
+		return chars;
+	} //}}}
+
+	//{{{ decodeRegion() method
+	private char[] decodeRegion(int region)
+	{
+		long byteStart = regionByteStarts[region];
+		long byteEnd = regionByteStarts[region + 1];
+		int m = (int)(byteStart / MAP_SIZE);
+		int start = (int)(byteStart - m * MAP_SIZE);
+
+		ByteBuffer bytes = maps[m].duplicate();
+		bytes.limit(start + (int)(byteEnd - byteStart));
+		bytes.position(start);
+
+		CharBuffer decoded;
+		try
+		{
+			decoder.reset();
+			decoded = decoder.decode(bytes);
+		}
+		catch(CharacterCodingException e)
+		{
+			// can't happen with CodingErrorAction.REPLACE
+			throw new IllegalStateException(e);
+		}
+
+		int count = regionCharStarts.get(region + 1)
+			- regionCharStarts.get(region);
+		char[] chars = new char[count];
+		int dest = 0;
+		int decodedLength = decoded.limit();
+		for(int i = 0; i < decodedLength && dest < count; i++)
+		{
+			char ch = decoded.get(i);
+			if(ch == '\r')
+			{
+				chars[dest++] = '\n';
+				if(i + 1 < decodedLength && decoded.get(i + 1) == '\n')
+					i++;
+			}
+			else
+				chars[dest++] = ch;
+		}
+		return chars;
+	} //}}}
+
+	//}}}
+}
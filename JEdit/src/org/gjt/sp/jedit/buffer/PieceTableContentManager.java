@@ -0,0 +1,445 @@
+/*
+ * PieceTableContentManager.java - Content manager for large files
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.buffer;
+
+//{{{ Imports
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.text.Segment;
+//}}}
+
+/**
+ * A content manager for large files. The text is a sequence of pieces,
+ * each of them a range of the original file or of an append-only buffer
+ * holding the inserted text. The original file is never copied in
+ * memory, see {@link MappedTextSource}.<p>
+ *
+ * Like {@link ContentManager}, none of the methods check for out of
+ * bounds access. Reading is safe from several threads holding the buffer
+ * read lock.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+public class PieceTableContentManager extends ContentManager
+{
+	//{{{ PieceTableContentManager constructor
+	public PieceTableContentManager(MappedTextSource original)
+	{
+		this.original = original;
+		added = new char[1024];
+		pieces = new ArrayList<Piece>();
+		if(original.getLength() != 0)
+			pieces.add(new Piece(false,0,original.getLength()));
+		length = original.getLength();
+		resetPieceStarts();
+	} //}}}
+
+	//{{{ getOriginal() method
+	/**
+	 * @return the original text, or null if the content was replaced
+	 * with {@link #_setContent}
+	 */
+	public MappedTextSource getOriginal()
+	{
+		return original;
+	} //}}}
+
+	//{{{ getLength() method
+	@Override
+	public int getLength()
+	{
+		return length;
+	} //}}}
+
+	//{{{ getText() methods
+	@Override
+	public String getText(int start, int len)
+	{
+		Segment seg = new Segment();
+		getText(start,len,seg);
+		return new String(seg.array,seg.offset,seg.count);
+	}
+
+	/**
+	 * Returns the specified text range in a <code>Segment</code>.
+	 * The segment shares the piece table storage if the range is
+	 * inside a single piece.
+	 */
+	@Override
+	public void getText(int start, int len, Segment seg)
+	{
+		int index = getPieceOfOffset(start);
+		if(index == pieces.size())
+		{
+			seg.array = added;
+			seg.offset = 0;
+			seg.count = 0;
+			return;
+		}
+
+		Piece piece = pieces.get(index);
+		int offsetInPiece = start - getPieceStart(index);
+		if(offsetInPiece + len <= piece.length)
+		{
+			if(piece.added)
+			{
+				seg.array = added;
+				seg.offset = piece.start + offsetInPiece;
+				seg.count = len;
+			}
+			else
+			{
+				original.getText(piece.start + offsetInPiece,
+					len,seg);
+			}
+			return;
+		}
+
+		char[] text = new char[len];
+		copyText(index,offsetInPiece,len,text);
+		seg.array = text;
+		seg.offset = 0;
+		seg.count = len;
+	} //}}}
+
+	//{{{ getSegment() method
+	@Override
+	public CharSequence getSegment(int start, int len)
+	{
+		Segment seg = new Segment();
+		getText(start,len,seg);
+		return new BufferSegment(seg.array,seg.offset,seg.count);
+	} //}}}
+
+	//{{{ insert() methods
+	@Override
+	public void insert(int start, String str)
+	{
+		int len = str.length();
+		int addedStart = append(len);
+		str.getChars(0,len,added,addedStart);
+		insertPiece(start,addedStart,len);
+	}
+
+	@Override
+	public void insert(int start, CharSequence str)
+	{
+		int len = str.length();
+		int addedStart = append(len);
+		for(int i = 0; i < len; i++)
+			added[addedStart + i] = str.charAt(i);
+		insertPiece(start,addedStart,len);
+	}
+
+	@Override
+	public void insert(int start, Segment seg)
+	{
+		int addedStart = append(seg.count);
+		System.arraycopy(seg.array,seg.offset,added,addedStart,seg.count);
+		insertPiece(start,addedStart,seg.count);
+	} //}}}
+
+	//{{{ _setContent() method
+	@Override
+	public void _setContent(char[] text, int length)
+	{
+		original = null;
+		added = text;
+		addedLength = length;
+		pieces.clear();
+		if(length != 0)
+			pieces.add(new Piece(true,0,length));
+		this.length = length;
+		resetPieceStarts();
+	} //}}}
+
+	//{{{ remove() method
+	@Override
+	public void remove(int start, int len)
+	{
+		if(len == 0)
+			return;
+
+		int first = split(start);
+		int last = split(start + len);
+		removePieceStarts(first,last);
+		pieces.subList(first,last).clear();
+		length -= len;
+		moveGap(first,-len);
+	} //}}}
+
+	//{{{ Private members
+	private MappedTextSource original;
+	/** Append-only, so segments returned earlier stay valid. */
+	private char[] added;
+	private int addedLength;
+	private final List<Piece> pieces;
+	/**
+	 * The offset of each piece. Like the line end offsets in
+	 * {@link LineManager}, the pieces from gapPiece onwards need
+	 * gapWidth added, so an edit only updates the pieces between the
+	 * old and the new gap. Readers holding the buffer read lock never
+	 * modify it.
+	 */
+	private int[] pieceStarts;
+	/** If -1, then there is no gap. */
+	private int gapPiece;
+	private int gapWidth;
+	private int length;
+
+	//{{{ append() method
+	/**
+	 * Reserves space at the end of the added text.
+	 * @return the offset of the reserved space
+	 */
+	private int append(int len)
+	{
+		if(addedLength + len > added.length)
+		{
+			char[] newAdded = new char[Math.max(added.length * 2,
+				addedLength + len)];
+			System.arraycopy(added,0,newAdded,0,addedLength);
+			added = newAdded;
+		}
+		int start = addedLength;
+		addedLength += len;
+		return start;
+	} //}}}
+
+	//{{{ insertPiece() method
+	private void insertPiece(int start, int addedStart, int len)
+	{
+		if(len == 0)
+			return;
+
+		int index = split(start);
+
+		// typing extends the previous piece
+		if(index != 0)
+		{
+			Piece previous = pieces.get(index - 1);
+			if(previous.added && previous.start + previous.length
+				== addedStart)
+			{
+				previous.length += len;
+				length += len;
+				moveGap(index,len);
+				return;
+			}
+		}
+
+		addPieceStart(index,start);
+		pieces.add(index,new Piece(true,addedStart,len));
+		length += len;
+		moveGap(index + 1,len);
+	} //}}}
+
+	//{{{ split() method
+	/**
+	 * Makes sure a piece starts at the given offset.
+	 * @return the index of that piece
+	 */
+	private int split(int offset)
+	{
+		int index = getPieceOfOffset(offset);
+		if(index == pieces.size())
+			return index;
+
+		int offsetInPiece = offset - getPieceStart(index);
+		if(offsetInPiece == 0)
+			return index;
+
+		Piece piece = pieces.get(index);
+		addPieceStart(index + 1,offset);
+		pieces.add(index + 1,new Piece(piece.added,
+			piece.start + offsetInPiece,
+			piece.length - offsetInPiece));
+		piece.length = offsetInPiece;
+		return index + 1;
+	} //}}}
+
+	//{{{ getPieceOfOffset() method
+	/**
+	 * @return the index of the piece containing the offset, or the
+	 * number of pieces if it is the end of the text
+	 */
+	private int getPieceOfOffset(int offset)
+	{
+		int count = pieces.size();
+		if(offset >= length)
+			return count;
+
+		int low = 0;
+		int high = count - 1;
+		while(low < high)
+		{
+			int mid = (low + high + 1) >>> 1;
+			if(getPieceStart(mid) <= offset)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	} //}}}
+
+	//{{{ getPieceStart() method
+	private int getPieceStart(int index)
+	{
+		if(gapPiece != -1 && index >= gapPiece)
+			return pieceStarts[index] + gapWidth;
+		else
+			return pieceStarts[index];
+	} //}}}
+
+	//{{{ resetPieceStarts() method
+	/**
+	 * Called when the text is replaced, there is at most one piece.
+	 */
+	private void resetPieceStarts()
+	{
+		pieceStarts = new int[16];
+		gapPiece = -1;
+		gapWidth = 0;
+	} //}}}
+
+	//{{{ addPieceStart() method
+	/**
+	 * Called before a piece is added.
+	 */
+	private void addPieceStart(int index, int start)
+	{
+		int count = pieces.size();
+		if(count == pieceStarts.length)
+		{
+			int[] starts = new int[count * 2];
+			System.arraycopy(pieceStarts,0,starts,0,count);
+			pieceStarts = starts;
+		}
+		System.arraycopy(pieceStarts,index,pieceStarts,index + 1,
+			count - index);
+
+		if(index <= gapPiece)
+			gapPiece++;
+		else if(gapPiece != -1)
+			start -= gapWidth;
+
+		pieceStarts[index] = start;
+	} //}}}
+
+	//{{{ removePieceStarts() method
+	/**
+	 * Called before the pieces from first to last are removed.
+	 */
+	private void removePieceStarts(int first, int last)
+	{
+		if(last < gapPiece)
+			gapPiece -= last - first;
+		else if(first < gapPiece)
+			gapPiece = first;
+
+		System.arraycopy(pieceStarts,last,pieceStarts,first,
+			pieces.size() - last);
+	} //}}}
+
+	//{{{ moveGap() method
+	/**
+	 * Shifts the pieces from newGapPiece onwards by newGapWidth.
+	 */
+	private void moveGap(int newGapPiece, int newGapWidth)
+	{
+		int count = pieces.size();
+		if(gapPiece == -1)
+			gapWidth = newGapWidth;
+		else if(newGapPiece < gapPiece)
+		{
+			if(gapWidth != 0)
+			{
+				for(int i = newGapPiece; i < gapPiece; i++)
+					pieceStarts[i] -= gapWidth;
+			}
+			gapWidth += newGapWidth;
+		}
+		else
+		{
+			if(gapWidth != 0)
+			{
+				for(int i = gapPiece; i < newGapPiece; i++)
+					pieceStarts[i] += gapWidth;
+			}
+			gapWidth += newGapWidth;
+		}
+
+		if(newGapPiece == count)
+			gapPiece = -1;
+		else
+			gapPiece = newGapPiece;
+	} //}}}
+
+	//{{{ copyText() method
+	private void copyText(int index, int offsetInPiece, int len, char[] dest)
+	{
+		int destOffset = 0;
+		while(len > 0)
+		{
+			Piece piece = pieces.get(index);
+			int count = Math.min(len,piece.length - offsetInPiece);
+			if(piece.added)
+			{
+				System.arraycopy(added,piece.start + offsetInPiece,
+					dest,destOffset,count);
+			}
+			else
+			{
+				original.copyText(piece.start + offsetInPiece,
+					count,dest,destOffset);
+			}
+			destOffset += count;
+			len -= count;
+			offsetInPiece = 0;
+			index++;
+		}
+	} //}}}
+
+	//}}}
+
+	//{{{ Piece class
+	/**
+	 * A range of the original or of the added text.
+	 */
+	private static class Piece
+	{
+		final boolean added;
+		final int start;
+		int length;
+
+		Piece(boolean added, int start, int length)
+		{
+			this.added = added;
+			this.start = start;
+			this.length = length;
+		}
+	} //}}}
+}
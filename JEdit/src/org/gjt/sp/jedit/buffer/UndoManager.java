@@ -31,7 +31,15 @@ import org.gjt.sp.util.Log;
  * directly. To improve performance, none of the methods in this class
  * check for out of bounds access, nor are they thread-safe. The
  * <code>Buffer</code> class, through which these methods must be
- * called through, implements such protection.
+ * called through, implements such protection.<p>
+ *
+ * Besides the number of edits, the history is bounded by the memory it
+ * uses, per buffer and for all buffers together. Compound edits with many
+ * changes are packed in a single record once they are not the last edit.
+ * Large texts of older edits are compressed, see {@link UndoStorage}, and
+ * the oldest edits are dropped when the budget of the buffer is exceeded.
+ * Undoing a compressed edit has to restore its text first, so the most
+ * recent edits are only compressed when the budget can't be met otherwise.
  *
  * @author Slava Pestov
  * @version $Id: UndoManager.java 16728 2009-12-25 14:12:38Z shlomy $
@@ -51,9 +59,39 @@ public class UndoManager
 		this.limit = limit;
 	} //}}}
 
+	//{{{ setMemoryLimit() method
+	/**
+	 * Sets the number of bytes the history of this buffer may use.
+	 * @since jEdit 4.4pre1
+	 */
+	public void setMemoryLimit(long memoryLimit)
+	{
+		this.memoryLimit = memoryLimit;
+	} //}}}
+
+	//{{{ setGlobalMemoryLimit() method
+	/**
+	 * Sets the number of bytes the history of all buffers may use. When
+	 * it is exceeded, the buffer being edited compresses its history.
+	 * Edits are only dropped by the limit of each buffer, see
+	 * {@link #setMemoryLimit}.
+	 * @since jEdit 4.4pre1
+	 */
+	public static void setGlobalMemoryLimit(long memoryLimit)
+	{
+		globalMemoryLimit = memoryLimit;
+	} //}}}
+
 	//{{{ clear() method
 	public void clear()
 	{
+		Edit edit = undosFirst != null ? undosFirst : redosFirst;
+		while(edit != null)
+		{
+			release(edit);
+			edit = edit.next;
+		}
+
 		undosFirst = undosLast = redosFirst = null;
 		undoCount = 0;
 	} //}}}
@@ -171,16 +209,19 @@ public class UndoManager
 			&& redosFirst == null)
 		{
 			Insert ins = (Insert)toMerge;
+			int memory = ins.getMemory();
 			if(ins.offset == offset)
 			{
-				ins.str = text.concat(ins.str);
+				ins.setStr(text.concat(ins.getStr()));
 				ins.length += length;
+				merged(ins,memory);
 				return;
 			}
 			else if(ins.offset + ins.length == offset)
 			{
-				ins.str = ins.str.concat(text);
+				ins.setStr(ins.getStr().concat(text));
 				ins.length += length;
+				merged(ins,memory);
 				return;
 			}
 		}
@@ -212,21 +253,26 @@ public class UndoManager
 			&& redosFirst == null)
 		{
 			Remove rem = (Remove)toMerge;
+			int memory = rem.getMemory();
 			if(rem.offset == offset)
 			{
-				rem.content.str = rem.content.str.concat(text);
-				rem.content.hashcode = rem.content.str.hashCode();
+				RemovedContent content = rem.getContent();
+				content.str = content.str.concat(text);
+				content.hashcode = content.str.hashCode();
 				rem.length += length;
-				KillRing.getInstance().changed(rem.content);
+				merged(rem,memory);
+				KillRing.getInstance().changed(content);
 				return;
 			}
 			else if(offset + length == rem.offset)
 			{
-				rem.content.str = text.concat(rem.content.str);
-				rem.content.hashcode = rem.content.str.hashCode();
+				RemovedContent content = rem.getContent();
+				content.str = text.concat(content.str);
+				content.hashcode = content.str.hashCode();
 				rem.length += length;
 				rem.offset = offset;
-				KillRing.getInstance().changed(rem.content);
+				merged(rem,memory);
+				KillRing.getInstance().changed(content);
 				return;
 			}
 		}
@@ -261,6 +307,16 @@ public class UndoManager
 
 	//{{{ Private members
 
+	/** Compound edits with at least this many edits are packed. */
+	private static final int PACK_THRESHOLD = 16;
+	/**
+	 * This many of the last edits are not compressed unless the history
+	 * is over budget, so that undoing them is not slower.
+	 */
+	private static final int RECENT_EDITS = 16;
+
+	private static long globalMemoryLimit = 128L * 1024 * 1024;
+
 	//{{{ Instance variables
 	private JEditBuffer buffer;
 
@@ -273,6 +329,9 @@ public class UndoManager
 
 	private int limit;
 	private int undoCount;
+	private long memoryLimit = 32L * 1024 * 1024;
+	/** Bytes used by the undo and redo edits. */
+	private long memory;
 	private int compoundEditCount;
 	private CompoundEdit compoundEdit;
 	private Edit undoClearDirty, redoClearDirty;
@@ -282,10 +341,17 @@ public class UndoManager
 	//{{{ addEdit() method
 	private void addEdit(Edit edit)
 	{
+		// the redos can't be reached anymore
+		for(Edit redo = redosFirst; redo != null; redo = redo.next)
+			release(redo);
+
 		if(undosFirst == null)
 			undosFirst = undosLast = edit;
 		else
 		{
+			// only the last edit is merged with by typing
+			packLast();
+
 			undosLast.next = edit;
 			edit.prev = undosLast;
 			undosLast = edit;
@@ -294,19 +360,143 @@ public class UndoManager
 		redosFirst = null;
 
 		undoCount++;
+		addMemory(edit.getMemory());
+
+		Edit recent = undosLast;
+		for(int i = 0; i < RECENT_EDITS && recent != null; i++)
+			recent = recent.prev;
+		if(recent != null)
+			compact(recent);
 
 		while(undoCount > limit)
+			removeFirstEdit();
+
+		if(isOverBudget())
 		{
-			undoCount--;
+			// try to keep the history by compressing it first,
+			// oldest edits first
+			for(Edit e = undosFirst; e != undosLast && isOverBudget();
+				e = e.next)
+			{
+				compact(e);
+			}
 
-			if(undosFirst == undosLast)
-				undosFirst = undosLast = null;
-			else
+			// the history of the other buffers can't be changed
+			// without their lock, so only the limit of this buffer
+			// drops edits
+			while(memory > memoryLimit && undosFirst != undosLast)
+				removeFirstEdit();
+		}
+	} //}}}
+
+	//{{{ removeFirstEdit() method
+	private void removeFirstEdit()
+	{
+		Edit first = undosFirst;
+		undoCount--;
+
+		if(undosFirst == undosLast)
+			undosFirst = undosLast = null;
+		else
+		{
+			undosFirst.next.prev = null;
+			undosFirst = undosFirst.next;
+		}
+
+		release(first);
+	} //}}}
+
+	//{{{ packLast() method
+	/**
+	 * Packs the last edit in a single record if it is a compound edit
+	 * with many changes, as done by search and replace. This is done when
+	 * the next edit is added, since typing merges with the last change of
+	 * the last edit.
+	 */
+	private void packLast()
+	{
+		if(!(undosLast instanceof CompoundEdit))
+			return;
+
+		CompoundEdit compoundEdit = (CompoundEdit)undosLast;
+		int count = 0;
+		for(Edit edit = compoundEdit.first; edit != null; edit = edit.next)
+		{
+			// the text length is used as the edit length
+			if(edit instanceof Insert)
 			{
-				undosFirst.next.prev = null;
-				undosFirst = undosFirst.next;
+				Insert ins = (Insert)edit;
+				if(ins.getStr().length() != ins.length)
+					return;
 			}
+			else if(((Remove)edit).getStr().length() != ((Remove)edit).length)
+				return;
+			count++;
+		}
+		if(count < PACK_THRESHOLD)
+			return;
+
+		PackedEdit packed = new PackedEdit(this,compoundEdit,count);
+		for(Edit edit = compoundEdit.first; edit != null; edit = edit.next)
+		{
+			if(undoClearDirty == edit)
+				undoClearDirty = packed;
+			if(redoClearDirty == edit)
+				redoClearDirty = packed;
 		}
+
+		packed.prev = compoundEdit.prev;
+		if(packed.prev == null)
+			undosFirst = packed;
+		else
+			packed.prev.next = packed;
+		undosLast = packed;
+
+		addMemory(packed.getMemory() - compoundEdit.getMemory());
+		compoundEdit.dispose();
+	} //}}}
+
+	//{{{ compact() method
+	private void compact(Edit edit)
+	{
+		if(edit.compacted)
+			return;
+
+		int memory = edit.getMemory();
+		edit.compact();
+		addMemory(edit.getMemory() - memory);
+	} //}}}
+
+	//{{{ merged() method
+	/**
+	 * Accounts for the memory change of an edit typing was merged into.
+	 */
+	private void merged(Edit edit, int memory)
+	{
+		// edits of a compound edit are accounted when it ends
+		if(compoundEdit == null)
+			addMemory(edit.getMemory() - memory);
+	} //}}}
+
+	//{{{ release() method
+	private void release(Edit edit)
+	{
+		addMemory(-edit.getMemory());
+		edit.dispose();
+	} //}}}
+
+	//{{{ addMemory() method
+	private void addMemory(long delta)
+	{
+		memory += delta;
+		UndoStorage.addGlobalMemory(delta);
+	} //}}}
+
+	//{{{ isOverBudget() method
+	private boolean isOverBudget()
+	{
+		return memory > memoryLimit
+			|| UndoStorage.getGlobalMemory() > globalMemoryLimit;
 	} //}}}
 
 	//{{{ getMergeEdit() method
@@ -350,7 +540,12 @@ public class UndoManager
 	//{{{ Edit class
 	abstract static class Edit
 	{
+		/** Approximate size of an edit object. */
+		static final int OVERHEAD = 48;
+
 		Edit prev, next;
+		/** Set once the text has been stored as compact as possible. */
+		boolean compacted;
 
 		//{{{ undo() method
 		abstract int undo();
@@ -359,6 +554,27 @@ public class UndoManager
 		//{{{ redo() method
 		abstract int redo();
 		//}}}
+
+		//{{{ getMemory() method
+		/**
+		 * @return the approximate number of bytes used
+		 */
+		abstract int getMemory();
+		//}}}
+
+		//{{{ compact() method
+		/**
+		 * Compresses the text if it is large.
+		 */
+		abstract void compact();
+		//}}}
+
+		//{{{ dispose() method
+		/**
+		 * Called when the edit is dropped from the history.
+		 */
+		abstract void dispose();
+		//}}}
 	} //}}}
 
 	//{{{ Insert class
@@ -385,16 +601,56 @@ public class UndoManager
 		//{{{ redo() method
 		int redo()
 		{
-			mgr.buffer.insert(offset,str);
+			mgr.buffer.insert(offset,getStr());
 			if(mgr.redoClearDirty == this)
 				mgr.buffer.setDirty(false);
 			return offset + length;
 		} //}}}
 
+		//{{{ getStr() method
+		String getStr()
+		{
+			return str != null ? str : stored.get();
+		} //}}}
+
+		//{{{ setStr() method
+		void setStr(String str)
+		{
+			dispose();
+			stored = null;
+			compacted = false;
+			this.str = str;
+		} //}}}
+
+		//{{{ getMemory() method
+		int getMemory()
+		{
+			return OVERHEAD + (str != null ? str.length() * 2
+				: stored.getMemory());
+		} //}}}
+
+		//{{{ compact() method
+		void compact()
+		{
+			stored = UndoStorage.store(str);
+			if(stored != null)
+				str = null;
+			compacted = true;
+		} //}}}
+
+		//{{{ dispose() method
+		void dispose()
+		{
+			if(stored != null)
+				stored.dispose();
+		} //}}}
+
 		UndoManager mgr;
 		int offset;
 		int length;
+		/** null if the text is stored. */
 		String str;
+		UndoStorage.StoredText stored;
 	} //}}}
 
 	//{{{ RemovedContent clas
@@ -432,7 +688,7 @@ public class UndoManager
 		//{{{ undo() method
 		int undo()
 		{
-			mgr.buffer.insert(offset,content.str);
+			mgr.buffer.insert(offset,getStr());
 			if(mgr.undoClearDirty == this)
 				mgr.buffer.setDirty(false);
 			return offset + length;
@@ -447,10 +703,61 @@ public class UndoManager
 			return offset;
 		} //}}}
 
+		//{{{ getStr() method
+		String getStr()
+		{
+			return content != null ? content.str : stored.get();
+		} //}}}
+
+		//{{{ getContent() method
+		/**
+		 * Returns the removed content, restoring it if it was stored.
+		 */
+		RemovedContent getContent()
+		{
+			if(content == null)
+			{
+				content = new RemovedContent(stored.get());
+				stored.dispose();
+				stored = null;
+				compacted = false;
+			}
+			return content;
+		} //}}}
+
+		//{{{ getMemory() method
+		int getMemory()
+		{
+			return OVERHEAD + (content != null ? content.str.length() * 2
+				: stored.getMemory());
+		} //}}}
+
+		//{{{ compact() method
+		void compact()
+		{
+			// the kill ring holds the string anyway
+			if(content.inKillRing)
+				return;
+
+			stored = UndoStorage.store(content.str);
+			if(stored != null)
+				content = null;
+			compacted = true;
+		} //}}}
+
+		//{{{ dispose() method
+		void dispose()
+		{
+			if(stored != null)
+				stored.dispose();
+		} //}}}
+
 		UndoManager mgr;
 		int offset;
 		int length;
-		final RemovedContent content;
+		/** null if the text is stored. */
+		RemovedContent content;
+		UndoStorage.StoredText stored;
 	} //}}}
 
 	//{{{ CompoundEdit class
@@ -495,8 +802,168 @@ public class UndoManager
 			}
 		} //}}}
 
+		//{{{ getMemory() method
+		int getMemory()
+		{
+			int memory = OVERHEAD;
+			for(Edit edit = first; edit != null; edit = edit.next)
+				memory += edit.getMemory();
+			return memory;
+		} //}}}
+
+		//{{{ compact() method
+		void compact()
+		{
+			compacted = true;
+			for(Edit edit = first; edit != null; edit = edit.next)
+			{
+				if(!edit.compacted)
+					edit.compact();
+				if(!edit.compacted)
+					compacted = false;
+			}
+		} //}}}
+
+		//{{{ dispose() method
+		void dispose()
+		{
+			for(Edit edit = first; edit != null; edit = edit.next)
+				edit.dispose();
+		} //}}}
+
 		Edit first, last;
 	} //}}}
 
+	//{{{ PackedEdit class
+	/**
+	 * The edits of a compound edit in arrays, with their texts
+	 * concatenated.
+	 */
+	static class PackedEdit extends Edit
+	{
+		//{{{ PackedEdit constructor
+		PackedEdit(UndoManager mgr, CompoundEdit compoundEdit, int count)
+		{
+			this.mgr = mgr;
+			offsets = new int[count];
+			lengths = new int[count];
+			removes = new boolean[count];
+
+			StringBuilder buf = new StringBuilder();
+			int i = 0;
+			for(Edit edit = compoundEdit.first; edit != null; edit = edit.next)
+			{
+				if(edit instanceof Insert)
+				{
+					Insert ins = (Insert)edit;
+					offsets[i] = ins.offset;
+					lengths[i] = ins.length;
+					buf.append(ins.getStr());
+				}
+				else
+				{
+					Remove rem = (Remove)edit;
+					offsets[i] = rem.offset;
+					lengths[i] = rem.length;
+					removes[i] = true;
+					buf.append(rem.getStr());
+				}
+				i++;
+			}
+			text = buf.toString();
+		} //}}}
+
+		//{{{ undo() method
+		int undo()
+		{
+			String text = getText();
+			int retVal = -1;
+			int end = text.length();
+			for(int i = offsets.length - 1; i >= 0; i--)
+			{
+				int start = end - lengths[i];
+				if(removes[i])
+				{
+					mgr.buffer.insert(offsets[i],
+						text.substring(start,end));
+					retVal = offsets[i] + lengths[i];
+				}
+				else
+				{
+					mgr.buffer.remove(offsets[i],lengths[i]);
+					retVal = offsets[i];
+				}
+				end = start;
+			}
+			if(mgr.undoClearDirty == this)
+				mgr.buffer.setDirty(false);
+			return retVal;
+		} //}}}
+
+		//{{{ redo() method
+		int redo()
+		{
+			String text = getText();
+			int retVal = -1;
+			int start = 0;
+			for(int i = 0; i < offsets.length; i++)
+			{
+				int end = start + lengths[i];
+				if(removes[i])
+				{
+					mgr.buffer.remove(offsets[i],lengths[i]);
+					retVal = offsets[i];
+				}
+				else
+				{
+					mgr.buffer.insert(offsets[i],
+						text.substring(start,end));
+					retVal = offsets[i] + lengths[i];
+				}
+				start = end;
+			}
+			if(mgr.redoClearDirty == this)
+				mgr.buffer.setDirty(false);
+			return retVal;
+		} //}}}
+
+		//{{{ getText() method
+		private String getText()
+		{
+			return text != null ? text : stored.get();
+		} //}}}
+
+		//{{{ getMemory() method
+		int getMemory()
+		{
+			return OVERHEAD + offsets.length * 9 + (text != null
+				? text.length() * 2 : stored.getMemory());
+		} //}}}
+
+		//{{{ compact() method
+		void compact()
+		{
+			stored = UndoStorage.store(text);
+			if(stored != null)
+				text = null;
+			compacted = true;
+		} //}}}
+
+		//{{{ dispose() method
+		void dispose()
+		{
+			if(stored != null)
+				stored.dispose();
+		} //}}}
+
+		UndoManager mgr;
+		final int[] offsets;
+		final int[] lengths;
+		final boolean[] removes;
+		/** null if the text is stored. */
+		String text;
+		UndoStorage.StoredText stored;
+	} //}}}
+
 	//}}}
 }
@@ -0,0 +1,310 @@
+/*
+ * UndoStorage.java - Storage of large undo texts
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.buffer;
+
+//{{{ Imports
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.gjt.sp.util.Log;
+//}}}
+
+/**
+ * Keeps the text of old undo edits compressed, and spills the largest ones
+ * to a temporary file. Also tracks the memory used by the undo managers of
+ * all buffers.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+class UndoStorage
+{
+	/** Shorter texts are kept as strings. */
+	static final int COMPRESS_THRESHOLD = 4096;
+
+	/** Compressed texts larger than this are written to the spill file. */
+	static final int SPILL_THRESHOLD = 256 * 1024;
+
+	//{{{ store() method
+	/**
+	 * Compresses a text.
+	 * @return the stored text, or null if the text is short or doesn't
+	 * compress
+	 */
+	static StoredText store(String str)
+	{
+		int length = str.length();
+		if(length < COMPRESS_THRESHOLD)
+			return null;
+
+		// UTF-16, lone surrogates of a split pair must survive
+		byte[] bytes = new byte[length * 2];
+		for(int i = 0; i < length; i++)
+		{
+			char ch = str.charAt(i);
+			bytes[2 * i] = (byte)(ch >> 8);
+			bytes[2 * i + 1] = (byte)ch;
+		}
+
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		deflater.setInput(bytes);
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2);
+		byte[] buf = new byte[8192];
+		while(!deflater.finished())
+		{
+			int count = deflater.deflate(buf);
+			out.write(buf,0,count);
+		}
+		deflater.end();
+
+		byte[] compressed = out.toByteArray();
+		if(compressed.length >= bytes.length / 2)
+			return null;
+
+		if(compressed.length > SPILL_THRESHOLD)
+		{
+			long position = spill(compressed);
+			if(position != -1)
+			{
+				return new StoredText(length,null,position,
+					compressed.length);
+			}
+		}
+		return new StoredText(length,compressed,-1,compressed.length);
+	} //}}}
+
+	//{{{ getGlobalMemory() method
+	static long getGlobalMemory()
+	{
+		return globalMemory.get();
+	} //}}}
+
+	//{{{ addGlobalMemory() method
+	static void addGlobalMemory(long delta)
+	{
+		globalMemory.addAndGet(delta);
+	} //}}}
+
+	//{{{ StoredText class
+	static class StoredText
+	{
+		//{{{ get() method
+		String get()
+		{
+			byte[] compressed = this.compressed;
+			if(compressed == null)
+				compressed = read(position,byteCount);
+
+			byte[] bytes = new byte[length * 2];
+			Inflater inflater = new Inflater();
+			try
+			{
+				inflater.setInput(compressed);
+				int count = 0;
+				while(count < bytes.length && !inflater.finished())
+					count += inflater.inflate(bytes,count,bytes.length - count);
+			}
+			catch(DataFormatException e)
+			{
+				throw new InternalError(e.toString());
+			}
+			finally
+			{
+				inflater.end();
+			}
+
+			char[] chars = new char[length];
+			for(int i = 0; i < length; i++)
+			{
+				chars[i] = (char)(((bytes[2 * i] & 0xff) << 8)
+					| (bytes[2 * i + 1] & 0xff));
+			}
+			return new String(chars);
+		} //}}}
+
+		//{{{ getMemory() method
+		/**
+		 * @return the number of bytes kept in memory
+		 */
+		int getMemory()
+		{
+			return compressed == null ? 0 : compressed.length;
+		} //}}}
+
+		//{{{ dispose() method
+		/**
+		 * Frees the spill file space of the text.
+		 */
+		void dispose()
+		{
+			if(compressed == null && !disposed)
+			{
+				disposed = true;
+				release(position,byteCount);
+			}
+		} //}}}
+
+		//{{{ Private members
+		private final int length;
+		private final byte[] compressed;
+		private final long position;
+		private final int byteCount;
+		private boolean disposed;
+
+		private StoredText(int length, byte[] compressed, long position,
+			int byteCount)
+		{
+			this.length = length;
+			this.compressed = compressed;
+			this.position = position;
+			this.byteCount = byteCount;
+		}
+		//}}}
+	} //}}}
+
+	//{{{ Private members
+	private static final AtomicLong globalMemory = new AtomicLong();
+
+	private static RandomAccessFile spillFile;
+	/** Number of stored texts in the spill file. */
+	private static int spilled;
+	/**
+	 * Released regions inside the spill file, the length of each region
+	 * mapped by its position. Adjacent regions are merged, and a region
+	 * at the end of the file is cut off.
+	 */
+	private static final TreeMap<Long,Integer> freeRegions
+		= new TreeMap<Long,Integer>();
+
+	//{{{ spill() method
+	/**
+	 * Writes data to the first free region of the spill file that is
+	 * large enough, or appends it.
+	 * @return the position of the data, or -1 on error
+	 */
+	private static synchronized long spill(byte[] data)
+	{
+		try
+		{
+			if(spillFile == null)
+			{
+				File file = File.createTempFile("jedit-undo",null);
+				file.deleteOnExit();
+				spillFile = new RandomAccessFile(file,"rw");
+			}
+
+			long position = -1;
+			for(Map.Entry<Long,Integer> region : freeRegions.entrySet())
+			{
+				int length = region.getValue();
+				if(length >= data.length)
+				{
+					position = region.getKey();
+					freeRegions.remove(position);
+					if(length > data.length)
+					{
+						freeRegions.put(position + data.length,
+							length - data.length);
+					}
+					break;
+				}
+			}
+			if(position == -1)
+				position = spillFile.length();
+
+			spillFile.seek(position);
+			spillFile.write(data);
+			spilled++;
+			return position;
+		}
+		catch(IOException e)
+		{
+			Log.log(Log.ERROR,UndoStorage.class,e);
+			return -1;
+		}
+	} //}}}
+
+	//{{{ read() method
+	private static synchronized byte[] read(long position, int count)
+	{
+		byte[] data = new byte[count];
+		try
+		{
+			spillFile.seek(position);
+			spillFile.readFully(data);
+		}
+		catch(IOException e)
+		{
+			throw new InternalError(e.toString());
+		}
+		return data;
+	} //}}}
+
+	//{{{ release() method
+	private static synchronized void release(long position, int count)
+	{
+		try
+		{
+			if(--spilled == 0)
+			{
+				freeRegions.clear();
+				spillFile.setLength(0);
+				return;
+			}
+
+			Map.Entry<Long,Integer> previous = freeRegions.floorEntry(position);
+			if(previous != null && previous.getKey()
+				+ previous.getValue() == position)
+			{
+				freeRegions.remove(previous.getKey());
+				position = previous.getKey();
+				count += previous.getValue();
+			}
+
+			Integer next = freeRegions.remove(position + count);
+			if(next != null)
+				count += next;
+
+			if(position + count == spillFile.length())
+				spillFile.setLength(position);
+			else
+				freeRegions.put(position,count);
+		}
+		catch(IOException e)
+		{
+			Log.log(Log.ERROR,UndoStorage.class,e);
+		}
+	} //}}}
+
+	//}}}
+}
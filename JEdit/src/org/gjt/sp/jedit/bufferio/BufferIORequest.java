@@ -30,7 +30,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
 
 import javax.swing.text.Segment;
 
@@ -43,6 +49,7 @@ import org.gjt.sp.jedit.io.VFS;
 import org.gjt.sp.jedit.io.Encoding;
 import org.gjt.sp.jedit.io.EncodingServer;
 import org.gjt.sp.util.IntegerArray;
+import org.gjt.sp.util.ProgressObserver;
 import org.gjt.sp.util.SegmentBuffer;
 import org.gjt.sp.util.WorkRequest;
 //}}}
@@ -67,6 +74,12 @@ public abstract class BufferIORequest extends WorkRequest
 	public static final int PROGRESS_INTERVAL = 300;
 
 	public static final String LOAD_DATA = "BufferIORequest__loadData";
+	/**
+	 * Buffer property holding the loaded content manager, set instead of
+	 * {@link #LOAD_DATA} when a large file is mapped.
+	 * @since jEdit 4.4pre1
+	 */
+	public static final String LOAD_CONTENT = "BufferIORequest__loadContent";
 	public static final String END_OFFSETS = "BufferIORequest__endOffsets";
 	public static final String NEW_PATH = "BufferIORequest__newPath";
 
@@ -176,6 +189,27 @@ public abstract class BufferIORequest extends WorkRequest
 
 		SegmentBuffer seg = new SegmentBuffer((int)length + 1);
 
+		String lineSeparator = readLines(in,seg,endOffsets,
+			trackProgress ? this : null);
+
+		setAbortable(false);
+
+		return finishRead(seg,endOffsets,lineSeparator,insert);
+	} //}}}
+
+	//{{{ readLines() method
+	/**
+	 * Reads text, converting its line separators to <code>\n</code>.
+	 * @param seg the text is appended to it
+	 * @param endOffsets the offset after each line is added to it
+	 * @param observer notified of the length read, can be null
+	 * @return the line separator of the last line
+	 * @since jEdit 4.4pre1
+	 */
+	static String readLines(Reader in, SegmentBuffer seg,
+		IntegerArray endOffsets, ProgressObserver observer)
+		throws IOException
+	{
 		char[] buf = new char[IOBUFSIZE];
 
 		/* Number of characters in 'buf' array.
@@ -235,8 +269,8 @@ public abstract class BufferIORequest extends WorkRequest
 						lastLine);
 					seg.append('\n');
 					endOffsets.add(seg.count);
-					if(trackProgress && lineCount++ % PROGRESS_INTERVAL == 0)
-						setValue(seg.count);
+					if(observer != null && lineCount++ % PROGRESS_INTERVAL == 0)
+						observer.setValue(seg.count);
 
 					// This is i+1 to take the
 					// trailing \n into account
@@ -265,8 +299,8 @@ public abstract class BufferIORequest extends WorkRequest
 							i - lastLine);
 						seg.append('\n');
 						endOffsets.add(seg.count);
-						if(trackProgress && lineCount++ % PROGRESS_INTERVAL == 0)
-							setValue(seg.count);
+						if(observer != null && lineCount++ % PROGRESS_INTERVAL == 0)
+							observer.setValue(seg.count);
 						lastLine = i + 1;
 					}
 					break;
@@ -284,16 +318,113 @@ public abstract class BufferIORequest extends WorkRequest
 				}
 			}
 
-			if(trackProgress)
-				setValue(seg.count);
+			if(observer != null)
+				observer.setValue(seg.count);
 
 			// Add remaining stuff from buffer
 			seg.append(buf,lastLine,len - lastLine);
 		}
 
+		if(CRLF)
+			return "\r\n";
+		else if(CROnly)
+			return "\r";
+		else
+			return "\n";
+	} //}}}
+
+	//{{{ read() method
+	/**
+	 * Reads a local file. Unlike the {@link Reader} version, the bytes
+	 * are decoded in bulk into the array that becomes the buffer content,
+	 * and line ends are searched in parallel afterwards.
+	 * @param channel the channel of the file
+	 * @param encoding the encoding, a {@link Charset} name
+	 * @param insert true if the text is to be inserted
+	 * @throws CharacterCodingException if the file is not valid in the
+	 * encoding
+	 * @since jEdit 4.4pre1
+	 */
+	protected SegmentBuffer read(FileChannel channel, String encoding,
+		boolean insert) throws IOException
+	{
+		long length = channel.size();
+		boolean trackProgress = !buffer.isTemporary() && length != 0;
+		if(trackProgress)
+		{
+			setMaximum(length);
+			setValue(0);
+		}
+
+		CharBuffer chars = decode(channel,encoding,
+			trackProgress ? this : null);
+
+		LineSplitter lines = LineSplitter.split(chars.array(),
+			chars.position());
+
 		setAbortable(false);
 
-		String lineSeparator;
+		SegmentBuffer seg = new SegmentBuffer(0);
+		seg.array = lines.text;
+		seg.count = lines.length;
+		return finishRead(seg,lines.endOffsets,lines.lineSeparator,insert);
+	} //}}}
+
+	//{{{ decode() method
+	/**
+	 * Decodes the rest of a channel in one array.
+	 * @param observer notified of the channel position, can be null
+	 * @return the decoded text, from 0 to the buffer position
+	 * @since jEdit 4.4pre1
+	 */
+	static CharBuffer decode(FileChannel channel, String encoding,
+		ProgressObserver observer) throws IOException
+	{
+		long length = channel.size() - channel.position();
+		if(length >= Integer.MAX_VALUE)
+			throw new IOException("File too large: " + length + " bytes");
+
+		CharsetDecoder decoder = Charset.forName(encoding).newDecoder();
+		CharBuffer chars = CharBuffer.allocate((int)Math.min(
+			Integer.MAX_VALUE - 1,
+			(long)(length * decoder.averageCharsPerByte()) + 16));
+		ByteBuffer bytes = ByteBuffer.allocate(getByteIOBufferSize() * 4);
+
+		for(;;)
+		{
+			boolean eof = channel.read(bytes) == -1;
+			bytes.flip();
+			for(;;)
+			{
+				CoderResult result = decoder.decode(bytes,chars,eof);
+				if(result.isOverflow())
+					chars = grow(chars);
+				else if(result.isError())
+					result.throwException();
+				else
+					break;
+			}
+			bytes.compact();
+
+			if(observer != null)
+				observer.setValue(channel.position());
+			if(eof)
+				break;
+		}
+		while(decoder.flush(chars).isOverflow())
+			chars = grow(chars);
+		return chars;
+	} //}}}
+
+	//{{{ finishRead() method
+	/**
+	 * Strips the trailing end of line and sets the buffer properties read
+	 * by the load request.
+	 * @param lineSeparator the line separator of the text
+	 */
+	private SegmentBuffer finishRead(SegmentBuffer seg, IntegerArray endOffsets,
+		String lineSeparator, boolean insert)
+	{
 		if(seg.count == 0)
 		{
 			// fix for "[ 865589 ] 0-byte files should open using
@@ -302,12 +433,6 @@ public abstract class BufferIORequest extends WorkRequest
 				"buffer.lineSeparator",
 				System.getProperty("line.separator"));
 		}
-		else if(CRLF)
-			lineSeparator = "\r\n";
-		else if(CROnly)
-			lineSeparator = "\r";
-		else
-			lineSeparator = "\n";
 
 		// Chop trailing newline and/or ^Z (if any)
 		int bufferLength = seg.count;
@@ -403,6 +528,16 @@ public abstract class BufferIORequest extends WorkRequest
 
 	//{{{ Private members
 
+	//{{{ grow() method
+	private static CharBuffer grow(CharBuffer chars)
+	{
+		CharBuffer newChars = CharBuffer.allocate(
+			Math.max(chars.capacity() * 2,chars.capacity() + 1024));
+		chars.flip();
+		newChars.put(chars);
+		return newChars;
+	} //}}}
+
 	//{{{ createEncodingErrorMessage() method
 	private static String getWriteEncodingErrorMessage(
 		String encodingName, Encoding encoding,
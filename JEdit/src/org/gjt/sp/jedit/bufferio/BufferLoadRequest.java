@@ -24,6 +24,7 @@ package org.gjt.sp.jedit.bufferio;
 
 //{{{ Imports
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.charset.*;
 import java.util.List;
 import java.util.ArrayList;
@@ -33,6 +34,8 @@ import java.util.zip.GZIPInputStream;
 import org.gjt.sp.jedit.io.*;
 import org.gjt.sp.jedit.*;
 import org.gjt.sp.jedit.buffer.JEditBuffer;
+import org.gjt.sp.jedit.buffer.MappedTextSource;
+import org.gjt.sp.jedit.buffer.PieceTableContentManager;
 import org.gjt.sp.util.*;
 //}}}
 
@@ -292,11 +295,35 @@ public class BufferLoadRequest extends BufferIORequest
 					continue;
 				}
 
-				markedStream = rewindContentsStream(markedStream, gzipped);
+				if(!gzipped && vfs instanceof FileVFS
+					&& buffer.isLargeFile(length)
+					&& MappedTextSource.isSupportedEncoding(encoding))
+				{
+					if(readLargeFile(encoding))
+					{
+						if(autodetect)
+							buffer.setProperty(JEditBuffer.ENCODING, encoding);
+						return;
+					}
+					Log.log(Log.NOTICE, this, path + ": " + encoding
+						+ ": not a valid large file in this encoding");
+					failedEncodings.add(encoding);
+					continue;
+				}
+
 				try
 				{
-					read(EncodingServer.getTextReader(markedStream, encoding)
-						, length, false);
+					if(!gzipped && vfs instanceof FileVFS
+						&& isCharset(encoding))
+					{
+						readLocalFile(encoding);
+					}
+					else
+					{
+						markedStream = rewindContentsStream(markedStream, gzipped);
+						read(EncodingServer.getTextReader(markedStream, encoding)
+							, length, false);
+					}
 					if(autodetect)
 					{
 						// Store the successful properties.
@@ -355,6 +382,90 @@ public class BufferLoadRequest extends BufferIORequest
 		}
 	} //}}}
 
+	//{{{ isCharset() method
+	private static boolean isCharset(String encoding)
+	{
+		try
+		{
+			return Charset.isSupported(encoding);
+		}
+		catch(IllegalCharsetNameException e)
+		{
+			return false;
+		}
+	} //}}}
+
+	//{{{ readLocalFile() method
+	/**
+	 * Reads a local file through its channel, see
+	 * {@link BufferIORequest#read(FileChannel,String,boolean)}.
+	 */
+	private void readLocalFile(String encoding) throws IOException
+	{
+		FileInputStream in = new FileInputStream(path);
+		try
+		{
+			read(in.getChannel(),encoding,false);
+		}
+		finally
+		{
+			IOUtilities.closeQuietly(in);
+		}
+	} //}}}
+
+	//{{{ readLargeFile() method
+	/**
+	 * Maps the file in a piece table instead of reading it. The text is
+	 * decoded when it is displayed.
+	 * @return false if the file is not valid in the encoding
+	 */
+	private boolean readLargeFile(String encoding) throws IOException
+	{
+		IntegerArray endOffsets = new IntegerArray();
+		MappedTextSource text = MappedTextSource.open(new File(path),
+			encoding,endOffsets,buffer.isTemporary() ? null : this);
+		if(text == null)
+			return false;
+
+		setAbortable(false);
+
+		int bufferLength = text.getLength();
+		String lineSeparator = text.getLineSeparator();
+		if(bufferLength == 0)
+		{
+			lineSeparator = jEdit.getProperty(
+				"buffer.lineSeparator",
+				System.getProperty("line.separator"));
+		}
+		else if(lineSeparator == null)
+			lineSeparator = MappedTextSource.LF;
+
+		// Chop trailing newline and/or ^Z (if any), like read()
+		int length = bufferLength;
+		if(bufferLength != 0 && text.charAt(bufferLength - 1) == 0x1a)
+			length--;
+
+		buffer.setBooleanProperty(Buffer.TRAILING_EOL,false);
+		if(bufferLength != 0 && jEdit.getBooleanProperty("stripTrailingEOL")
+			&& text.charAt(bufferLength - 1) == '\n')
+		{
+			buffer.setBooleanProperty(Buffer.TRAILING_EOL,true);
+			length--;
+			endOffsets.setSize(endOffsets.getSize() - 1);
+		}
+		text.setLength(length);
+
+		// add a line marker at the end for proper offset manager
+		// operation
+		endOffsets.add(length + 1);
+
+		buffer.setProperty(LOAD_CONTENT,new PieceTableContentManager(text));
+		buffer.setProperty(END_OFFSETS,endOffsets);
+		buffer.setProperty(NEW_PATH,path);
+		buffer.setProperty(JEditBuffer.LINESEP,lineSeparator);
+		return true;
+	} //}}}
+
 	//{{{ readMarkers() method
 	private static void readMarkers(Buffer buffer, InputStream _in)
 		throws IOException
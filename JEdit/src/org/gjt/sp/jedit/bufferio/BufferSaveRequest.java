@@ -224,6 +224,9 @@ public class BufferSaveRequest extends BufferIORequest
 	//{{{ wantTwoStageSave() method
 	private static boolean wantTwoStageSave(Buffer buffer)
 	{
+		// the contents are still read from the mapped file
+		if(buffer.isLargeFileMode())
+			return true;
 		return !buffer.getBooleanProperty("forbidTwoStageSave") &&
 			(buffer.getBooleanProperty("overwriteReadonly") ||
 			jEdit.getBooleanProperty("twoStageSave"));
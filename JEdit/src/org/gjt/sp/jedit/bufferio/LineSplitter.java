@@ -0,0 +1,342 @@
+/*
+ * LineSplitter.java - Finds the line ends of loaded text
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.bufferio;
+
+//{{{ Imports
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.gjt.sp.util.IntegerArray;
+//}}}
+
+/**
+ * Converts the line separators of decoded text to <code>\n</code> and finds
+ * the line end offsets, splitting large texts in chunks scanned in
+ * parallel.<p>
+ *
+ * The result is the same as the line by line loop of
+ * {@link BufferIORequest#read(java.io.Reader,long,boolean)}, including the
+ * detected line separator, which is the one of the last line.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+class LineSplitter
+{
+	//{{{ split() method
+	/**
+	 * Splits the text in lines.
+	 * @param text the decoded text, returned as is if it has no
+	 * <code>\r</code>
+	 * @param length the length of the text
+	 */
+	static LineSplitter split(char[] text, int length)
+		throws InterruptedIOException
+	{
+		int chunkCount = Math.max(1,Math.min(PARALLELISM,
+			length / MIN_CHUNK_SIZE));
+		int[] bounds = new int[chunkCount + 1];
+		for(int i = 0; i <= chunkCount; i++)
+			bounds[i] = (int)((long)length * i / chunkCount);
+
+		List<Callable<Chunk>> scans = new ArrayList<Callable<Chunk>>();
+		for(int i = 0; i < chunkCount; i++)
+			scans.add(new Scan(text,bounds[i],bounds[i + 1]));
+		List<Chunk> chunks = invokeAll(scans);
+
+		int crCount = 0;
+		for(Chunk chunk : chunks)
+			crCount += chunk.crCount;
+
+		// the common case: nothing to convert
+		if(crCount == 0)
+		{
+			return new LineSplitter(text,length,concat(chunks),"\n");
+		}
+
+		int crlfCount = 0;
+		int[] destStarts = new int[chunkCount];
+		for(int i = 0; i < chunkCount; i++)
+		{
+			destStarts[i] = bounds[i] - crlfCount;
+			crlfCount += chunks.get(i).crlfCount;
+		}
+
+		char[] dest = new char[length - crlfCount];
+		List<Callable<Chunk>> converts = new ArrayList<Callable<Chunk>>();
+		for(int i = 0; i < chunkCount; i++)
+		{
+			converts.add(new Convert(text,bounds[i],bounds[i + 1],
+				dest,destStarts[i]));
+		}
+		chunks = invokeAll(converts);
+
+		return new LineSplitter(dest,dest.length,concat(chunks),
+			getLastLineSeparator(text,length));
+	} //}}}
+
+	//{{{ Instance variables
+	/** The text, with <code>\n</code> line separators. */
+	final char[] text;
+	final int length;
+	/** The offset after each <code>\n</code>. */
+	final IntegerArray endOffsets;
+	/** The line separator of the last line of the original text. */
+	final String lineSeparator;
+	//}}}
+
+	//{{{ Private members
+
+	/** Chunks are at least this long, in characters. */
+	private static final int MIN_CHUNK_SIZE = 1 << 18;
+	private static final int PARALLELISM
+		= Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService executor;
+
+	//{{{ LineSplitter constructor
+	private LineSplitter(char[] text, int length, IntegerArray endOffsets,
+		String lineSeparator)
+	{
+		this.text = text;
+		this.length = length;
+		this.endOffsets = endOffsets;
+		this.lineSeparator = lineSeparator;
+	} //}}}
+
+	//{{{ invokeAll() method
+	private static List<Chunk> invokeAll(List<Callable<Chunk>> tasks)
+		throws InterruptedIOException
+	{
+		List<Chunk> chunks = new ArrayList<Chunk>(tasks.size());
+		try
+		{
+			if(tasks.size() == 1)
+			{
+				chunks.add(tasks.get(0).call());
+				return chunks;
+			}
+
+			for(Future<Chunk> future : getExecutor().invokeAll(tasks))
+				chunks.add(future.get());
+			return chunks;
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch(ExecutionException e)
+		{
+			throw new RuntimeException(e.getCause());
+		}
+		catch(Exception e)
+		{
+			// Callable.call() declares it, but chunks don't throw
+			throw new RuntimeException(e);
+		}
+	} //}}}
+
+	//{{{ getExecutor() method
+	private static synchronized ExecutorService getExecutor()
+	{
+		if(executor == null)
+		{
+			executor = Executors.newFixedThreadPool(PARALLELISM,
+				new ThreadFactory()
+			{
+				public Thread newThread(Runnable r)
+				{
+					Thread t = new Thread(r,"Line splitter");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return executor;
+	} //}}}
+
+	//{{{ concat() method
+	private static IntegerArray concat(List<Chunk> chunks)
+	{
+		int count = 0;
+		for(Chunk chunk : chunks)
+			count += chunk.endOffsets.getSize();
+
+		// room for the end marker added by the caller
+		IntegerArray endOffsets = new IntegerArray(count + 1);
+		int[] array = endOffsets.getArray();
+		int index = 0;
+		for(Chunk chunk : chunks)
+		{
+			int size = chunk.endOffsets.getSize();
+			System.arraycopy(chunk.endOffsets.getArray(),0,
+				array,index,size);
+			index += size;
+		}
+		endOffsets.setSize(count);
+		return endOffsets;
+	} //}}}
+
+	//{{{ getLastLineSeparator() method
+	/**
+	 * Finds the last place where read() decides of the line separator:
+	 * a <code>\n</code>, or any character following a <code>\r</code>.
+	 */
+	private static String getLastLineSeparator(char[] text, int length)
+	{
+		for(int i = length - 1; i >= 0; i--)
+		{
+			boolean afterCR = i != 0 && text[i - 1] == '\r';
+			if(text[i] == '\n')
+			{
+				return afterCR ? "\r\n" : "\n";
+			}
+			if(afterCR)
+				return "\r";
+		}
+		return "\n";
+	} //}}}
+
+	//}}}
+
+	//{{{ Chunk class
+	private static class Chunk
+	{
+		final IntegerArray endOffsets;
+		int crCount;
+		/** \r\n pairs whose \n is in the chunk. */
+		int crlfCount;
+
+		Chunk(int length)
+		{
+			// a guess of the number of lines
+			endOffsets = new IntegerArray(Math.max(16,length / 40));
+		}
+	} //}}}
+
+	//{{{ Scan class
+	/**
+	 * Finds the <code>\n</code> and counts the <code>\r</code> of a
+	 * chunk.
+	 */
+	private static class Scan implements Callable<Chunk>
+	{
+		private final char[] text;
+		private final int start;
+		private final int end;
+
+		Scan(char[] text, int start, int end)
+		{
+			this.text = text;
+			this.start = start;
+			this.end = end;
+		}
+
+		public Chunk call()
+		{
+			Chunk chunk = new Chunk(end - start);
+			char[] text = this.text;
+			int crCount = 0;
+			int crlfCount = 0;
+			for(int i = start; i < end; i++)
+			{
+				char ch = text[i];
+				// most characters fail this single test
+				if(ch > '\r')
+					continue;
+				if(ch == '\n')
+				{
+					if(i != 0 && text[i - 1] == '\r')
+						crlfCount++;
+					chunk.endOffsets.add(i + 1);
+				}
+				else if(ch == '\r')
+					crCount++;
+			}
+			chunk.crCount = crCount;
+			chunk.crlfCount = crlfCount;
+			return chunk;
+		}
+	} //}}}
+
+	//{{{ Convert class
+	/**
+	 * Copies a chunk converting line separators to <code>\n</code>.
+	 */
+	private static class Convert implements Callable<Chunk>
+	{
+		private final char[] text;
+		private final int start;
+		private final int end;
+		private final char[] dest;
+		private final int destStart;
+
+		Convert(char[] text, int start, int end, char[] dest,
+			int destStart)
+		{
+			this.text = text;
+			this.start = start;
+			this.end = end;
+			this.dest = dest;
+			this.destStart = destStart;
+		}
+
+		public Chunk call()
+		{
+			Chunk chunk = new Chunk(end - start);
+			char[] text = this.text;
+			char[] dest = this.dest;
+			int destIndex = destStart;
+			for(int i = start; i < end; i++)
+			{
+				char ch = text[i];
+				if(ch > '\r')
+					dest[destIndex++] = ch;
+				else if(ch == '\r')
+				{
+					dest[destIndex++] = '\n';
+					chunk.endOffsets.add(destIndex);
+				}
+				else if(ch == '\n')
+				{
+					if(i != 0 && text[i - 1] == '\r')
+						continue;
+					dest[destIndex++] = '\n';
+					chunk.endOffsets.add(destIndex);
+				}
+				else
+					dest[destIndex++] = ch;
+			}
+			return chunk;
+		}
+	} //}}}
+}
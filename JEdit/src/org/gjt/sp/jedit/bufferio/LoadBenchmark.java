@@ -0,0 +1,290 @@
+/*
+ * LoadBenchmark.java - Measures the file loading paths
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.bufferio;
+
+//{{{ Imports
+import java.io.*;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.gjt.sp.util.IntegerArray;
+import org.gjt.sp.util.SegmentBuffer;
+//}}}
+
+/**
+ * Compares the two ways a local file is loaded: the {@link Reader} loop of
+ * {@link BufferIORequest#readLines(Reader,SegmentBuffer,IntegerArray,org.gjt.sp.util.ProgressObserver)}
+ * and the bulk decode of
+ * {@link BufferIORequest#decode(java.nio.channels.FileChannel,String,org.gjt.sp.util.ProgressObserver)}
+ * followed by {@link LineSplitter}.<p>
+ *
+ * It runs without the rest of jEdit, from the jEdit jar:
+ * <pre>java -Xmx6g -cp jedit.jar org.gjt.sp.jedit.bufferio.LoadBenchmark
+ *	[-encoding UTF-8] [-iterations 5] [-crlf] 100M 1G file ...</pre>
+ * Sizes are generated as temporary files of random lines, files are read
+ * as they are. Both paths keep the whole text in memory, so a 1G file
+ * needs several gigabytes of heap.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+public class LoadBenchmark
+{
+	//{{{ main() method
+	public static void main(String[] args) throws IOException
+	{
+		String encoding = "UTF-8";
+		int iterations = 5;
+		boolean crlf = false;
+		List<String> files = new ArrayList<String>();
+
+		for(int i = 0; i < args.length; i++)
+		{
+			if(args[i].equals("-encoding"))
+				encoding = args[++i];
+			else if(args[i].equals("-iterations"))
+				iterations = Integer.parseInt(args[++i]);
+			else if(args[i].equals("-crlf"))
+				crlf = true;
+			else
+				files.add(args[i]);
+		}
+
+		if(files.isEmpty())
+			files.add("100M");
+
+		for(String name : files)
+		{
+			File file = new File(name);
+			if(!file.exists())
+			{
+				file = createFile(parseSize(name),crlf,encoding);
+				file.deleteOnExit();
+			}
+
+			new LoadBenchmark(file,encoding).run(iterations);
+
+			if(!file.getPath().equals(name))
+				file.delete();
+		}
+	} //}}}
+
+	//{{{ Private members
+
+	/** Runs before measuring, so that the JIT has compiled both paths. */
+	private static final int WARMUP = 2;
+
+	private final File file;
+	private final String encoding;
+
+	//{{{ LoadBenchmark constructor
+	private LoadBenchmark(File file, String encoding)
+	{
+		this.file = file;
+		this.encoding = encoding;
+	} //}}}
+
+	//{{{ run() method
+	private void run(int iterations) throws IOException
+	{
+		System.out.println(file + ": " + file.length() + " bytes, "
+			+ encoding);
+
+		Result reader = readReader();
+		Result channel = readChannel();
+		if(reader.length != channel.length
+			|| reader.lines != channel.lines
+			|| !reader.lineSeparator.equals(channel.lineSeparator))
+		{
+			throw new IllegalStateException("The paths disagree: "
+				+ reader + " and " + channel);
+		}
+		System.out.println("\t" + channel);
+
+		long[] readerTimes = new long[iterations];
+		long[] channelTimes = new long[iterations];
+		for(int i = -WARMUP; i < iterations; i++)
+		{
+			long start = System.nanoTime();
+			readReader();
+			long time = System.nanoTime() - start;
+			if(i >= 0)
+				readerTimes[i] = time;
+
+			start = System.nanoTime();
+			readChannel();
+			time = System.nanoTime() - start;
+			if(i >= 0)
+				channelTimes[i] = time;
+		}
+
+		report("Reader loop",readerTimes);
+		report("channel decode and line split",channelTimes);
+	} //}}}
+
+	//{{{ readReader() method
+	/** The path of remote and compressed files. */
+	private Result readReader() throws IOException
+	{
+		long length = file.length();
+		IntegerArray endOffsets = new IntegerArray(
+			Math.max(1,(int)(length / 50)));
+		SegmentBuffer seg = new SegmentBuffer((int)length + 1);
+
+		Reader in = new InputStreamReader(new FileInputStream(file),
+			encoding);
+		try
+		{
+			String lineSeparator = BufferIORequest.readLines(in,seg,
+				endOffsets,null);
+			return new Result(seg.count,endOffsets.getSize(),
+				lineSeparator);
+		}
+		finally
+		{
+			in.close();
+		}
+	} //}}}
+
+	//{{{ readChannel() method
+	/** The path of local files. */
+	private Result readChannel() throws IOException
+	{
+		FileInputStream in = new FileInputStream(file);
+		try
+		{
+			CharBuffer chars = BufferIORequest.decode(in.getChannel(),
+				encoding,null);
+			LineSplitter lines = LineSplitter.split(chars.array(),
+				chars.position());
+			return new Result(lines.length,lines.endOffsets.getSize(),
+				lines.lineSeparator);
+		}
+		finally
+		{
+			in.close();
+		}
+	} //}}}
+
+	//{{{ report() method
+	private void report(String name, long[] times)
+	{
+		long best = Long.MAX_VALUE;
+		long total = 0;
+		for(long time : times)
+		{
+			best = Math.min(best,time);
+			total += time;
+		}
+
+		double mean = (double)total / times.length;
+		System.out.println("\t" + name + ": mean "
+			+ Math.round(mean / 1e6) + " ms, best "
+			+ Math.round(best / 1e6) + " ms, "
+			+ Math.round(file.length() / (mean / 1e9) / (1 << 20))
+			+ " MB/s");
+	} //}}}
+
+	//{{{ parseSize() method
+	/** Parses sizes like 100M or 1G. */
+	private static long parseSize(String size)
+	{
+		long unit = 1;
+		char last = Character.toUpperCase(size.charAt(size.length() - 1));
+		if(last == 'K')
+			unit = 1 << 10;
+		else if(last == 'M')
+			unit = 1 << 20;
+		else if(last == 'G')
+			unit = 1 << 30;
+
+		if(unit != 1)
+			size = size.substring(0,size.length() - 1);
+		return Long.parseLong(size) * unit;
+	} //}}}
+
+	//{{{ createFile() method
+	/**
+	 * Writes lines of random words, of 0 to 120 characters, like source
+	 * code or logs.
+	 */
+	private static File createFile(long size, boolean crlf,
+		String encoding) throws IOException
+	{
+		File file = File.createTempFile("LoadBenchmark",".txt");
+		Writer out = new BufferedWriter(new OutputStreamWriter(
+			new FileOutputStream(file),encoding),
+			BufferIORequest.getByteIOBufferSize());
+		try
+		{
+			Random random = new Random(42);
+			String separator = crlf ? "\r\n" : "\n";
+			long written = 0;
+			while(written < size)
+			{
+				int length = random.nextInt(121);
+				for(int i = 0; i < length; i++)
+				{
+					if(random.nextInt(7) == 0)
+						out.write(' ');
+					else
+						out.write('a' + random.nextInt(26));
+				}
+				out.write(separator);
+				written += length + separator.length();
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+		return file;
+	} //}}}
+
+	//}}}
+
+	//{{{ Result class
+	private static class Result
+	{
+		final int length;
+		final int lines;
+		final String lineSeparator;
+
+		Result(int length, int lines, String lineSeparator)
+		{
+			this.length = length;
+			this.lines = lines;
+			this.lineSeparator = lineSeparator;
+		}
+
+		public String toString()
+		{
+			return length + " characters, " + lines + " lines, "
+				+ (lineSeparator.equals("\r\n") ? "CRLF"
+				: lineSeparator.equals("\r") ? "CR" : "LF");
+		}
+	} //}}}
+}
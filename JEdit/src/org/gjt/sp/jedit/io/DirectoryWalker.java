@@ -0,0 +1,276 @@
+/*
+ * DirectoryWalker.java - Lists directory trees with several threads
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.io;
+
+//{{{ Imports
+import java.awt.Component;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.gjt.sp.jedit.MiscUtilities;
+import org.gjt.sp.util.Log;
+import org.gjt.sp.util.WorkThread;
+//}}}
+
+/**
+ * Lists a directory tree recursively, listing several directories at once.
+ * Each subdirectory found is queued as soon as its parent is listed, so
+ * slow file systems serve several requests at the same time.<p>
+ *
+ * The files found are the same as those of the single threaded
+ * {@link VFS#_listDirectory(Object,String,VFSFileFilter,boolean,Component,boolean,boolean)},
+ * in no particular order. The VFS must support concurrent calls to
+ * <code>_listFiles()</code> with the same session.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+class DirectoryWalker
+{
+	//{{{ DirectoryWalker constructor
+	DirectoryWalker(VFS vfs, Object session, VFSFileFilter filter,
+		Component comp, boolean skipBinary, boolean skipHidden)
+	{
+		this.vfs = vfs;
+		this.session = session;
+		this.filter = filter;
+		this.comp = comp;
+		this.skipBinary = skipBinary;
+		this.skipHidden = skipHidden;
+		files = Collections.synchronizedList(new ArrayList<String>(100));
+		visited = Collections.synchronizedSet(new HashSet<String>());
+	} //}}}
+
+	//{{{ walk() method
+	/**
+	 * Lists a directory tree. If the calling work thread is aborted, the
+	 * files found so far are returned.
+	 * @param directory the canonical path of the directory
+	 * @return the paths of the files found
+	 */
+	List<String> walk(String directory) throws IOException
+	{
+		Thread ct = Thread.currentThread();
+		WorkThread wt = null;
+		if (ct instanceof WorkThread) {
+			wt = (WorkThread) ct;
+		}
+
+		try
+		{
+			submit(directory);
+			synchronized(this)
+			{
+				while(pending != 0 && error == null)
+				{
+					if(wt != null && wt.isAborted())
+						break;
+					try
+					{
+						wait(ABORT_CHECK_INTERVAL);
+					}
+					catch(InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			}
+		}
+		finally
+		{
+			// stops the tasks still queued
+			aborted = true;
+		}
+
+		Throwable error;
+		synchronized(this)
+		{
+			error = this.error;
+		}
+		if(error instanceof IOException)
+			throw (IOException)error;
+		else if(error instanceof RuntimeException)
+			throw (RuntimeException)error;
+		else if(error instanceof Error)
+			throw (Error)error;
+
+		synchronized(files)
+		{
+			return new ArrayList<String>(files);
+		}
+	} //}}}
+
+	//{{{ Private members
+
+	/** Milliseconds between two checks of the work thread status. */
+	private static final int ABORT_CHECK_INTERVAL = 100;
+
+	/** Directory listings mostly wait for the file system. */
+	private static final int THREAD_COUNT = Math.max(4,
+		Runtime.getRuntime().availableProcessors());
+
+	private static ExecutorService executor;
+
+	private final VFS vfs;
+	private final Object session;
+	private final VFSFileFilter filter;
+	private final Component comp;
+	private final boolean skipBinary;
+	private final boolean skipHidden;
+
+	private final List<String> files;
+	/** Resolved paths of the symlinks followed. */
+	private final Set<String> visited;
+	/** Directories queued or being listed. */
+	private int pending;
+	private Throwable error;
+	private volatile boolean aborted;
+
+	//{{{ submit() method
+	private void submit(final String directory)
+	{
+		synchronized(this)
+		{
+			pending++;
+		}
+		getExecutor().execute(new Runnable()
+		{
+			public void run()
+			{
+				try
+				{
+					if(!aborted)
+						listFiles(directory);
+				}
+				catch(Throwable t)
+				{
+					synchronized(DirectoryWalker.this)
+					{
+						if(error == null)
+							error = t;
+					}
+				}
+				finally
+				{
+					synchronized(DirectoryWalker.this)
+					{
+						pending--;
+						DirectoryWalker.this.notifyAll();
+					}
+				}
+			}
+		});
+	} //}}}
+
+	//{{{ listFiles() method
+	private void listFiles(String directory) throws IOException
+	{
+		if (!MiscUtilities.isURL(directory))
+		{
+			String resolvedPath = MiscUtilities.resolveSymlinks(directory);
+			/*
+			 * If looking at a symlink, do not traverse the
+			 * resolved path more than once.
+			 */
+			if (!directory.equals(resolvedPath)
+				&& !visited.add(resolvedPath))
+			{
+				Log.log(Log.ERROR,this,
+					"Recursion in listFiles(): "
+					+ directory);
+				return;
+			}
+		}
+
+		VFSFile[] _files = vfs._listFiles(session,directory,comp);
+		if(_files == null || _files.length == 0)
+			return;
+
+		for(int i = 0; i < _files.length; i++)
+		{
+			if(aborted)
+				break;
+			VFSFile file = _files[i];
+			if (skipHidden && (file.isHidden() || MiscUtilities.isBackup(file.getName())))
+				continue;
+			if(!filter.accept(file))
+				continue;
+			if(file.getType() == VFSFile.DIRECTORY
+				|| file.getType() == VFSFile.FILESYSTEM)
+			{
+				submit(vfs._canonPath(session,file.getPath(),comp));
+			}
+			else // It's a regular file
+			{
+				if (skipBinary)
+				{
+					try
+					{
+						if (file.isBinary(session))
+						{
+							Log.log(Log.NOTICE,this
+								,file.getPath() + ": skipped as a binary file");
+							continue;
+						}
+					}
+					catch(IOException e)
+					{
+						Log.log(Log.ERROR,this,e);
+						// may be not binary...
+					}
+				}
+				files.add(file.getPath());
+			}
+		}
+	} //}}}
+
+	//{{{ getExecutor() method
+	private static synchronized ExecutorService getExecutor()
+	{
+		if(executor == null)
+		{
+			executor = Executors.newFixedThreadPool(THREAD_COUNT,
+				new ThreadFactory()
+			{
+				public Thread newThread(Runnable r)
+				{
+					Thread t = new Thread(r,"Directory walker");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return executor;
+	} //}}}
+
+	//}}}
+}
@@ -30,10 +30,15 @@ import javax.swing.*;
 import java.awt.Component;
 import java.io.*;
 import java.text.*;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.gjt.sp.jedit.*;
 import org.gjt.sp.util.IOUtilities;
 import org.gjt.sp.util.Log;
+import org.gjt.sp.util.StandardUtilities;
 //}}}
 
 /**
@@ -360,14 +365,19 @@ public class FileVFS extends VFS
 		} //}}}
 
 		File directory = new File(path);
-		File[] list = null;
-		if(directory.exists())
-			list = fsView.getFiles(directory,false);
-
+		File[] list = getCachedListing(directory);
 		if(list == null)
 		{
-			VFSManager.error(comp,path,"ioerror.directory-error-nomsg",null);
-			return null;
+			long modified = directory.lastModified();
+			if(directory.exists())
+				list = fsView.getFiles(directory,false);
+
+			if(list == null)
+			{
+				VFSManager.error(comp,path,"ioerror.directory-error-nomsg",null);
+				return null;
+			}
+			cacheListing(directory,modified,list);
 		}
 
 		VFSFile[] list2 = new VFSFile[list.length];
@@ -377,6 +387,40 @@ public class FileVFS extends VFS
 		return list2;
 	} //}}}
 
+	//{{{ _listDirectory() method
+	/**
+	 * Lists directories recursively with several threads, see
+	 * {@link DirectoryWalker}.
+	 */
+	@Override
+	public String[] _listDirectory(Object session, String directory,
+		VFSFileFilter filter, boolean recursive, Component comp,
+		boolean skipBinary, boolean skipHidden)
+		throws IOException
+	{
+		if(!recursive)
+		{
+			return super._listDirectory(session,directory,filter,
+				recursive,comp,skipBinary,skipHidden);
+		}
+
+		List<String> files = new DirectoryWalker(this,session,filter,
+			comp,skipBinary,skipHidden).walk(directory);
+
+		String[] retVal = files.toArray(new String[files.size()]);
+
+		Arrays.sort(retVal,new StandardUtilities.StringCompare<String>(true));
+
+		return retVal;
+	} //}}}
+
+	//{{{ reloadDirectory() method
+	@Override
+	public void reloadDirectory(String path)
+	{
+		invalidateListing(path);
+	} //}}}
+
 	//{{{ _getFile() method
 	@Override
 	public VFSFile _getFile(Object session, String path,
@@ -683,7 +727,102 @@ public class FileVFS extends VFS
 
 	//}}}
 
+	//{{{ Package-private members
+
+	//{{{ invalidateListing() method
+	/**
+	 * Forgets the cached listing of a directory, called for each
+	 * {@link VFSManager#sendVFSUpdate(VFS,String,boolean)}.
+	 */
+	void invalidateListing(String path)
+	{
+		synchronized(listings)
+		{
+			listings.remove(new File(path).getPath());
+		}
+	} //}}}
+
+	//}}}
+
 	//{{{ Private members
 	private static final FileSystemView fsView = FileSystemView.getFileSystemView();
+
+	private static final int LISTING_CACHE_SIZE = 200;
+
+	/**
+	 * Directories modified less than this number of milliseconds before
+	 * they are listed are not cached, as some file systems store
+	 * modification times with a precision of up to two seconds, and
+	 * another change in the same interval would go unnoticed.
+	 */
+	private static final long MODIFIED_PRECISION = 2000L;
+
+	/**
+	 * The last listed directories by path, in access order. A listing is
+	 * used as long as the directory modification time is unchanged.
+	 */
+	private final Map<String,Listing> listings
+		= new LinkedHashMap<String,Listing>(16,0.75f,true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,Listing> eldest)
+		{
+			return size() > LISTING_CACHE_SIZE;
+		}
+	};
+
+	//{{{ getCachedListing() method
+	/**
+	 * @return the cached listing of the directory, or null if it is not
+	 * cached or was modified since
+	 */
+	private File[] getCachedListing(File directory)
+	{
+		Listing listing;
+		synchronized(listings)
+		{
+			listing = listings.get(directory.getPath());
+		}
+		if(listing == null)
+			return null;
+
+		// the only file system access of a cached listing
+		if(directory.lastModified() != listing.modified)
+			return null;
+		return listing.files;
+	} //}}}
+
+	//{{{ cacheListing() method
+	/**
+	 * @param modified the modification time of the directory before it
+	 * was listed
+	 */
+	private void cacheListing(File directory, long modified, File[] files)
+	{
+		if(modified == 0L || System.currentTimeMillis() - modified
+			< MODIFIED_PRECISION)
+		{
+			return;
+		}
+
+		synchronized(listings)
+		{
+			listings.put(directory.getPath(),new Listing(modified,files));
+		}
+	} //}}}
+
+	//{{{ Listing class
+	private static class Listing
+	{
+		final long modified;
+		final File[] files;
+
+		Listing(long modified, File[] files)
+		{
+			this.modified = modified;
+			this.files = files;
+		}
+	} //}}}
+
 	//}}}
 }
@@ -392,6 +392,9 @@ public class VFSManager
 				|| path.endsWith(java.io.File.separator)))
 				path = path.substring(0,path.length() - 1);
 
+			if(vfs instanceof FileVFS)
+				((FileVFS)vfs).invalidateListing(path);
+
 			synchronized(vfsUpdateLock)
 			{
 				for(int i = 0; i < vfsUpdates.size(); i++)
@@ -0,0 +1,281 @@
+/*
+ * HyperSearchFileContent.java - Buffer-free file content for HyperSearch
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.search;
+
+//{{{ Imports
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+
+import org.gjt.sp.jedit.BufferHistory;
+import org.gjt.sp.jedit.io.AutoDetection;
+import org.gjt.sp.jedit.io.EncodingDetector;
+import org.gjt.sp.jedit.jEdit;
+import org.gjt.sp.util.IOUtilities;
+import org.gjt.sp.util.IntegerArray;
+//}}}
+
+/**
+ * The decoded text of a local file, searched by HyperSearch without
+ * creating a {@link org.gjt.sp.jedit.Buffer}.
+ *
+ * Line separators are normalized to <code>\n</code> the same way a buffer
+ * does when loading, so offsets of matches are valid buffer offsets once the
+ * file is opened.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+class HyperSearchFileContent
+{
+	//{{{ load() method
+	/**
+	 * Reads a local file, memory-mapping it if it is large.
+	 * @param path the local path of the file
+	 * @return the content, or null if the file can't be handled without a
+	 * buffer (gzipped, unsupported or undecodable encoding, too large) and
+	 * must be searched through a temporary buffer instead
+	 * @throws IOException if the file can't be read
+	 */
+	static HyperSearchFileContent load(String path) throws IOException
+	{
+		File file = new File(path);
+		long length = file.length();
+		if(length > MAX_LENGTH)
+			return null;
+
+		FileInputStream in = new FileInputStream(file);
+		try
+		{
+			FileChannel channel = in.getChannel();
+			ByteBuffer bytes;
+			if(length > MAP_THRESHOLD)
+				bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			else
+			{
+				bytes = ByteBuffer.allocate((int)length);
+				while(bytes.hasRemaining() && channel.read(bytes) >= 0)
+				{
+				}
+				bytes.flip();
+			}
+
+			String encoding = getEncoding(path, bytes);
+			if(encoding == null)
+				return null;
+
+			CharBuffer chars = decode(bytes, encoding);
+			if(chars == null)
+				return null;
+			return new HyperSearchFileContent(normalizeLineSeparators(chars));
+		}
+		finally
+		{
+			IOUtilities.closeQuietly(in);
+		}
+	} //}}}
+
+	//{{{ getText() method
+	/**
+	 * @return the decoded text, with <code>\n</code> line separators
+	 */
+	CharSequence getText()
+	{
+		return text;
+	} //}}}
+
+	//{{{ getLength() method
+	int getLength()
+	{
+		return text.length();
+	} //}}}
+
+	//{{{ getLineOfOffset() method
+	int getLineOfOffset(int offset)
+	{
+		int[] starts = lineStarts.getArray();
+		int low = 0;
+		int high = lineStarts.getSize() - 1;
+		while(low < high)
+		{
+			int mid = (low + high + 1) >>> 1;
+			if(starts[mid] <= offset)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	} //}}}
+
+	//{{{ getLineStartOffset() method
+	int getLineStartOffset(int line)
+	{
+		return lineStarts.get(line);
+	} //}}}
+
+	//{{{ getLineText() method
+	/**
+	 * @return the text of the line, without the line separator
+	 */
+	String getLineText(int line)
+	{
+		int start = lineStarts.get(line);
+		int end = line + 1 < lineStarts.getSize()
+			? lineStarts.get(line + 1) - 1 : text.length();
+		return text.subSequence(start, end).toString();
+	} //}}}
+
+	//{{{ Private members
+
+	/** Files above this size are memory-mapped rather than read. */
+	private static final long MAP_THRESHOLD = 256 * 1024;
+	/** A CharBuffer can't hold more. */
+	private static final long MAX_LENGTH = Integer.MAX_VALUE;
+	/** Bytes made available to encoding detectors. */
+	private static final int DETECTION_SAMPLE = 8192;
+
+	private final CharBuffer text;
+	private final IntegerArray lineStarts;
+
+	//{{{ HyperSearchFileContent constructor
+	private HyperSearchFileContent(CharBuffer text)
+	{
+		this.text = text;
+		lineStarts = new IntegerArray();
+		lineStarts.add(0);
+		int length = text.length();
+		for(int i = 0; i < length; i++)
+		{
+			if(text.get(i) == '\n')
+				lineStarts.add(i + 1);
+		}
+	} //}}}
+
+	//{{{ getEncoding() method
+	/**
+	 * Chooses the encoding like jEdit.openTemporary() would: the one
+	 * remembered in the buffer history or the default one, overridden by
+	 * the configured encoding detectors.
+	 */
+	private static String getEncoding(String path, ByteBuffer bytes)
+		throws IOException
+	{
+		byte[] sample = new byte[Math.min(bytes.remaining(), DETECTION_SAMPLE)];
+		bytes.duplicate().get(sample);
+
+		if(AutoDetection.isGzipped(new ByteArrayInputStream(sample)))
+			return null;
+
+		String encoding = null;
+		for(EncodingDetector detector : AutoDetection.getEncodingDetectors())
+		{
+			encoding = detector.detectEncoding(new BufferedInputStream(
+				new ByteArrayInputStream(sample)));
+			if(encoding != null)
+				break;
+		}
+
+		if(encoding == null)
+		{
+			BufferHistory.Entry entry = BufferHistory.getEntry(path);
+			if(entry != null)
+				encoding = entry.encoding;
+		}
+		if(encoding == null)
+		{
+			encoding = jEdit.getProperty("buffer.encoding",
+				System.getProperty("file.encoding"));
+		}
+
+		try
+		{
+			if(!Charset.isSupported(encoding))
+				return null;
+		}
+		catch(IllegalCharsetNameException e)
+		{
+			return null;
+		}
+		return encoding;
+	} //}}}
+
+	//{{{ decode() method
+	private static CharBuffer decode(ByteBuffer bytes, String encoding)
+	{
+		CharsetDecoder decoder = Charset.forName(encoding).newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT);
+		try
+		{
+			return decoder.decode(bytes);
+		}
+		catch(CharacterCodingException e)
+		{
+			// the buffer will try the fallback encodings
+			return null;
+		}
+	} //}}}
+
+	//{{{ normalizeLineSeparators() method
+	/**
+	 * Converts \r\n and \r to \n in place.
+	 */
+	private static CharBuffer normalizeLineSeparators(CharBuffer chars)
+	{
+		int length = chars.limit();
+		int i = 0;
+		while(i < length && chars.get(i) != '\r')
+			i++;
+		if(i == length)
+			return chars;
+
+		int dest = i;
+		for(; i < length; i++)
+		{
+			char ch = chars.get(i);
+			if(ch == '\r')
+			{
+				chars.put(dest++, '\n');
+				if(i + 1 < length && chars.get(i + 1) == '\n')
+					i++;
+			}
+			else
+				chars.put(dest++, ch);
+		}
+		chars.limit(dest);
+		return chars;
+	} //}}}
+
+	//}}}
+}
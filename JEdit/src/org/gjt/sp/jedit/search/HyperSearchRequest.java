@@ -26,8 +26,15 @@ package org.gjt.sp.jedit.search;
 import javax.swing.tree.*;
 import javax.swing.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.gjt.sp.jedit.textarea.Selection;
 import org.gjt.sp.jedit.textarea.JEditTextArea;
+import org.gjt.sp.jedit.io.FileVFS;
 import org.gjt.sp.jedit.io.VFSManager;
 import org.gjt.sp.jedit.Buffer;
 import org.gjt.sp.jedit.GUIUtilities;
@@ -37,7 +44,14 @@ import org.gjt.sp.util.*;
 //}}}
 
 /**
- * HyperSearch results window.
+ * HyperSearch request.
+ *
+ * Files of a file set are searched concurrently: the request itself and
+ * helper requests queued to the I/O thread pool take files from a shared
+ * index. Local files that are not open are decoded and searched without
+ * creating a buffer; the others are loaded in a temporary buffer, one at a
+ * time. File nodes are added to the results tree as soon as they are ready.
+ *
  * @author Slava Pestov
  * @version $Id: HyperSearchRequest.java 16331 2009-10-13 13:35:10Z kpouer $
  */
@@ -77,7 +91,18 @@ class HyperSearchRequest extends WorkRequest
 			return;
 		}
 
-		setMaximum(fileset.getFileCount(view));
+		if(selection == null)
+			files = getCandidates(fileset,files);
+
+		setMaximum(files.length);
+
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			public void run()
+			{
+				results.showSearchNode(rootSearchNode);
+			}
+		});
 
 		// to minimize synchronization and stuff like that, we only
 		// show a status message at most twice a second
@@ -95,53 +120,7 @@ class HyperSearchRequest extends WorkRequest
 			}
 			else
 			{
-				int current = 0;
-
-				long lastStatusTime = 0;
-				int resultCount = 0;
-				boolean asked = false;
-				int maxResults = jEdit.getIntegerProperty("hypersearch.maxWarningResults");
-loop:				for(int i = 0; i < files.length; i++)
-				{
-					if(jEdit.getBooleanProperty("hyperSearch-stopButton"))
-					{
-						jEdit.setTemporaryProperty("hyperSearch-stopButton", "false");
-						Log.log(Log.MESSAGE, this, "Search stopped by user action (stop button)");
-						break;
-					}
-					if (!asked && resultCount > maxResults && maxResults != 0)
-					{
-						Log.log(Log.DEBUG, this, "Search in progress, " + resultCount +
-									 " occurrences found, asking the user to stop");
-						asked = true;
-						int ret = GUIUtilities.confirm(view, "hypersearch.tooManyResults",
-									       new Object[]{resultCount},
-									       JOptionPane.YES_NO_OPTION,
-									       JOptionPane.QUESTION_MESSAGE);
-						if (ret == JOptionPane.YES_OPTION)
-						{
-							Log.log(Log.MESSAGE, this, "Search stopped by user action");
-							break;
-						}
-					}
-					String file = files[i];
-					current++;
-
-					long currentTime = System.currentTimeMillis();
-					if(currentTime - lastStatusTime > 250)
-					{
-						setValue(current);
-						lastStatusTime = currentTime;
-						results.setSearchStatus(searchingCaption + file);
-					}
-
-					Buffer buffer = jEdit.openTemporary(null,null,file,false);
-					if(buffer == null)
-						continue loop;
-
-					resultCount += doHyperSearch(buffer, 0, buffer.getLength());
-				}
-				Log.log(Log.MESSAGE, this, resultCount +" OCCURENCES");
+				searchInFiles(files, searchingCaption);
 			}
 		}
 		catch(final Exception e)
@@ -172,6 +151,9 @@ loop:				for(int i = 0; i < files.length; i++)
 
 	//{{{ Private members
 
+	/** Serializes searches that need a buffer. */
+	private static final Object bufferLock = new Object();
+
 	//{{{ Instance variables
 	private View view;
 	private SearchMatcher matcher;
@@ -179,9 +161,210 @@ loop:				for(int i = 0; i < files.length; i++)
 	private DefaultMutableTreeNode rootSearchNode;
 	private Selection[] selection;
 	private String searchString;
-	private DefaultMutableTreeNode selectNode;
+	private volatile DefaultMutableTreeNode selectNode;
+	private TrigramIndex trigramIndex;
+
+	private String[] files;
+	private final AtomicInteger nextFile = new AtomicInteger();
+	private final AtomicInteger searchedFiles = new AtomicInteger();
+	private final AtomicInteger resultCount = new AtomicInteger();
+	private volatile boolean stopped;
+	private volatile Exception helperError;
+
+	private final Object helperLock = new Object();
+	private int activeHelpers;
+	private boolean done;
+
+	/** Only accessed from the AWT thread. */
+	private final Map<DefaultMutableTreeNode, Integer> fileNodeIndexes
+		= new HashMap<DefaultMutableTreeNode, Integer>();
 	//}}}
 
+	//{{{ searchInFiles() method
+	private void searchInFiles(String[] files, String searchingCaption)
+		throws Exception
+	{
+		this.files = files;
+
+		int helpers = Math.min(VFSManager.getIOThreadPool().getThreadCount(),
+			files.length) - 1;
+		for(int i = 0; i < helpers; i++)
+		{
+			VFSManager.getIOThreadPool().addWorkRequest(
+				new SearchHelper(),false);
+		}
+
+		try
+		{
+			long lastStatusTime = 0;
+			boolean asked = false;
+			int maxResults = jEdit.getIntegerProperty("hypersearch.maxWarningResults");
+			for(;;)
+			{
+				if(jEdit.getBooleanProperty("hyperSearch-stopButton"))
+				{
+					jEdit.setTemporaryProperty("hyperSearch-stopButton", "false");
+					Log.log(Log.MESSAGE, this, "Search stopped by user action (stop button)");
+					break;
+				}
+				int count = resultCount.get();
+				if (!asked && count > maxResults && maxResults != 0)
+				{
+					Log.log(Log.DEBUG, this, "Search in progress, " + count +
+								 " occurrences found, asking the user to stop");
+					asked = true;
+					int ret = GUIUtilities.confirm(view, "hypersearch.tooManyResults",
+								       new Object[]{count},
+								       JOptionPane.YES_NO_OPTION,
+								       JOptionPane.QUESTION_MESSAGE);
+					if (ret == JOptionPane.YES_OPTION)
+					{
+						Log.log(Log.MESSAGE, this, "Search stopped by user action");
+						break;
+					}
+				}
+				if(helperError != null)
+					throw helperError;
+
+				int index = nextFile.getAndIncrement();
+				if(index >= files.length)
+					break;
+
+				long currentTime = System.currentTimeMillis();
+				if(currentTime - lastStatusTime > 250)
+				{
+					setValue(searchedFiles.get());
+					lastStatusTime = currentTime;
+					results.setSearchStatus(searchingCaption + files[index]);
+				}
+
+				searchFile(index, matcher);
+			}
+		}
+		finally
+		{
+			// helpers finish the file they are searching and quit
+			stopped = true;
+			synchronized(helperLock)
+			{
+				done = true;
+				while(activeHelpers != 0)
+					helperLock.wait();
+			}
+		}
+
+		if(trigramIndex != null)
+			trigramIndex.save();
+
+		if(helperError != null)
+			throw helperError;
+		Log.log(Log.MESSAGE, this, resultCount.get() +" OCCURENCES");
+	} //}}}
+
+	//{{{ searchFile() method
+	private void searchFile(int index, SearchMatcher matcher)
+		throws Exception
+	{
+		String path = files[index];
+
+		HyperSearchFileContent content = null;
+		if(jEdit.getBuffer(path) == null
+			&& VFSManager.getVFSForPath(path) instanceof FileVFS)
+		{
+			try
+			{
+				File file = new File(path);
+				long modified = file.lastModified();
+				long length = file.length();
+				content = HyperSearchFileContent.load(path);
+				if(content != null && trigramIndex != null)
+					trigramIndex.update(path,modified,length,content);
+			}
+			catch(IOException e)
+			{
+				// the buffer will report the error
+				Log.log(Log.DEBUG, this, e);
+			}
+		}
+
+		if(content != null)
+		{
+			HyperSearchFileNode hyperSearchFileNode = new HyperSearchFileNode(path);
+			DefaultMutableTreeNode fileNode = new DefaultMutableTreeNode(hyperSearchFileNode);
+
+			int count = doHyperSearch(path, content, matcher, fileNode);
+			hyperSearchFileNode.setCount(count);
+			if(count != 0)
+			{
+				resultCount.addAndGet(count);
+				addFileNode(index, fileNode);
+			}
+		}
+		else
+		{
+			// loading buffers and searching them involves the GUI
+			// and the buffer list, don't do it concurrently
+			synchronized(bufferLock)
+			{
+				Buffer buffer = jEdit.openTemporary(null,null,path,false);
+				if(buffer != null)
+				{
+					resultCount.addAndGet(doHyperSearch(buffer,
+						0, buffer.getLength(), index, matcher));
+				}
+			}
+		}
+
+		searchedFiles.incrementAndGet();
+	} //}}}
+
+	//{{{ getCandidates() method
+	/**
+	 * Skips the files of a local directory that can't match, if the
+	 * trigram index is enabled.
+	 */
+	private String[] getCandidates(SearchFileSet fileset, String[] files)
+	{
+		if(!(fileset instanceof DirectoryListSet) || !TrigramIndex.isEnabled())
+			return files;
+
+		String directory = ((DirectoryListSet)fileset).getDirectory();
+		if(!(VFSManager.getVFSForPath(directory) instanceof FileVFS))
+			return files;
+
+		trigramIndex = TrigramIndex.getIndex(directory);
+		String[] candidates = trigramIndex.getCandidates(files,searchString,
+			SearchAndReplace.getRegexp());
+		Log.log(Log.DEBUG,this,candidates.length + " of " + files.length
+			+ " files may match");
+		return candidates;
+	} //}}}
+
+	//{{{ addFileNode() method
+	/**
+	 * Adds a file node to the results tree, keeping file set order.
+	 */
+	private void addFileNode(final int index, final DefaultMutableTreeNode fileNode)
+	{
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			public void run()
+			{
+				int position = rootSearchNode.getChildCount();
+				while(position > 0)
+				{
+					Integer previous = fileNodeIndexes.get(
+						rootSearchNode.getChildAt(position - 1));
+					if(previous == null || previous <= index)
+						break;
+					position--;
+				}
+				fileNodeIndexes.put(fileNode, index);
+				results.addFileNode(rootSearchNode, fileNode, position);
+			}
+		});
+	} //}}}
+
 	//{{{ searchInSelection() method
 	private int searchInSelection(Buffer buffer) throws Exception
 	{
@@ -203,13 +386,13 @@ loop:				for(int i = 0; i < files.length; i++)
 					{
 						resultCount += doHyperSearch(buffer,
 							s.getStart(buffer,j),
-							s.getEnd(buffer,j));
+							s.getEnd(buffer,j), 0, matcher);
 					}
 				}
 				else
 				{
 					resultCount += doHyperSearch(buffer,
-						s.getStart(),s.getEnd());
+						s.getStart(),s.getEnd(), 0, matcher);
 				}
 			}
 		}
@@ -224,18 +407,18 @@ loop:				for(int i = 0; i < files.length; i++)
 	} //}}}
 
 	//{{{ doHyperSearch() method
-	private int doHyperSearch(Buffer buffer, int start, int end)
-		throws Exception
+	private int doHyperSearch(Buffer buffer, int start, int end, int index,
+		SearchMatcher matcher) throws Exception
 	{
 		setAbortable(false);
 
 		HyperSearchFileNode hyperSearchFileNode = new HyperSearchFileNode(buffer.getPath());
 		DefaultMutableTreeNode bufferNode = new DefaultMutableTreeNode(hyperSearchFileNode);
 
-		int resultCount = doHyperSearch(buffer,start,end,bufferNode);
+		int resultCount = doHyperSearch(buffer,start,end,bufferNode,matcher);
 		hyperSearchFileNode.setCount(resultCount);
 		if(resultCount != 0)
-			rootSearchNode.insert(bufferNode,rootSearchNode.getChildCount());
+			addFileNode(index,bufferNode);
 
 		setAbortable(true);
 
@@ -244,7 +427,7 @@ loop:				for(int i = 0; i < files.length; i++)
 
 	//{{{ doHyperSearch() method
 	private int doHyperSearch(Buffer buffer, int start, int end,
-		DefaultMutableTreeNode bufferNode)
+		DefaultMutableTreeNode bufferNode, SearchMatcher matcher)
 	{
 		int resultCount = 0;
 		JEditTextArea textArea = jEdit.getActiveView().getTextArea();
@@ -299,5 +482,92 @@ loop:			for(int counter = 0; ; counter++)
 		return resultCount;
 	} //}}}
 
+	//{{{ doHyperSearch() method
+	/**
+	 * Searches the content of a file that is not loaded in a buffer.
+	 */
+	private static int doHyperSearch(String path, HyperSearchFileContent content,
+		SearchMatcher matcher, DefaultMutableTreeNode fileNode)
+	{
+		int resultCount = 0;
+		CharSequence text = content.getText();
+		int end = content.getLength();
+		int offset = 0;
+
+		HyperSearchResult lastResult = null;
+loop:		for(int counter = 0; ; counter++)
+		{
+			boolean startOfLine = content.getLineStartOffset(
+				content.getLineOfOffset(offset)) == offset;
+
+			SearchMatcher.Match match = matcher.nextMatch(
+				text.subSequence(offset, end),
+				startOfLine,true,counter == 0,
+				false);
+			if(match == null)
+				break loop;
+
+			int newLine = content.getLineOfOffset(
+				offset + match.start);
+			if(lastResult == null || lastResult.line != newLine)
+			{
+				lastResult = new HyperSearchResult(path,newLine,
+					content.getLineText(newLine));
+				fileNode.add(new DefaultMutableTreeNode(
+					lastResult, false));
+			}
+
+			lastResult.addOccur(offset + match.start,
+				offset + match.end);
+
+			offset += match.end;
+			resultCount++;
+		}
+
+		return resultCount;
+	} //}}}
+
 	//}}}
+
+	//{{{ SearchHelper class
+	/**
+	 * Searches files of the file set from another I/O thread.
+	 */
+	private class SearchHelper implements Runnable
+	{
+		public void run()
+		{
+			synchronized(helperLock)
+			{
+				if(done)
+					return;
+				activeHelpers++;
+			}
+
+			SearchMatcher matcher = HyperSearchRequest.this.matcher.copy();
+			try
+			{
+				while(!stopped)
+				{
+					int index = nextFile.getAndIncrement();
+					if(index >= files.length)
+						break;
+					searchFile(index, matcher);
+				}
+			}
+			catch(Exception e)
+			{
+				helperError = e;
+				stopped = true;
+			}
+			finally
+			{
+				synchronized(helperLock)
+				{
+					activeHelpers--;
+					helperLock.notifyAll();
+				}
+			}
+		}
+	} //}}}
 }
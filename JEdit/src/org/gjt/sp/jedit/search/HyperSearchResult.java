@@ -126,6 +126,21 @@ public class HyperSearchResult implements HyperSearchNode
 			.replace('\t',' ').trim();
 	} //}}}
 
+	//{{{ HyperSearchResult constructor
+	/**
+	 * Creates a result for a file that was searched without being loaded
+	 * in a buffer. Occurrence positions are created when the file is
+	 * opened.
+	 * @since jEdit 4.4pre1
+	 */
+	HyperSearchResult(String path, int line, String lineText)
+	{
+		this.path = path;
+		this.line = line;
+
+		str = (line + 1) + ": " + lineText.replace('\t',' ').trim();
+	} //}}}
+
 	//{{{ bufferOpened() method
 	void bufferOpened(Buffer buffer)
 	{
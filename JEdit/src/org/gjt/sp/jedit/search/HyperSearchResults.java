@@ -262,8 +262,11 @@ public class HyperSearchResults extends JPanel implements DefaultFocusComponent
 	{
 		stop.setEnabled(false);
 		final int nodeCount = searchNode.getChildCount();
+		final boolean shown = searchNode.getParent() == resultTreeRoot;
 		if (nodeCount < 1)
 		{
+			if (shown)
+				resultTreeModel.removeNodeFromParent(searchNode);
 			searchFailed();
 			return;
 		}
@@ -275,16 +278,19 @@ public class HyperSearchResults extends JPanel implements DefaultFocusComponent
 		{
 			public void run()
 			{
-				if(!multiStatus)
+				if(!shown)
 				{
-					for(int i = 0; i < resultTreeRoot.getChildCount(); i++)
+					if(!multiStatus)
 					{
-						resultTreeRoot.remove(0);
+						for(int i = 0; i < resultTreeRoot.getChildCount(); i++)
+						{
+							resultTreeRoot.remove(0);
+						}
 					}
-				}
 
-				resultTreeRoot.add(searchNode);
-				resultTreeModel.reload(resultTreeRoot);
+					resultTreeRoot.add(searchNode);
+					resultTreeModel.reload(resultTreeRoot);
+				}
 
 
 				for (int i = 0; i < nodeCount; i++)
@@ -319,6 +325,37 @@ public class HyperSearchResults extends JPanel implements DefaultFocusComponent
 		searchDone(searchNode, null);
 	} //}}}
 
+	//{{{ showSearchNode() method
+	/**
+	 * Shows the node of a search in progress, so that file nodes can be
+	 * added to it with {@link #addFileNode} as they are found. Must be
+	 * called from the AWT thread.
+	 * @since jEdit 4.4pre1
+	 */
+	void showSearchNode(DefaultMutableTreeNode searchNode)
+	{
+		if(!multiStatus)
+			resultTreeRoot.removeAllChildren();
+
+		resultTreeRoot.add(searchNode);
+		resultTreeModel.reload(resultTreeRoot);
+	} //}}}
+
+	//{{{ addFileNode() method
+	/**
+	 * Adds the results for a file to a search node shown with
+	 * {@link #showSearchNode}. Must be called from the AWT thread.
+	 * @since jEdit 4.4pre1
+	 */
+	void addFileNode(DefaultMutableTreeNode searchNode,
+		DefaultMutableTreeNode fileNode, int position)
+	{
+		resultTreeModel.insertNodeInto(fileNode,searchNode,
+			Math.min(position,searchNode.getChildCount()));
+		if(searchNode.getParent() == resultTreeRoot)
+			resultTree.expandPath(new TreePath(fileNode.getPath()));
+	} //}}}
+
 	//{{{ Private members
 	private final View view;
 
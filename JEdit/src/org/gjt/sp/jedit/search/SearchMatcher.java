@@ -27,7 +27,7 @@ package org.gjt.sp.jedit.search;
  * @author Slava Pestov
  * @version $Id: SearchMatcher.java 13907 2008-10-19 08:22:44Z k_satoda $
  */
-public abstract class SearchMatcher
+public abstract class SearchMatcher implements Cloneable
 {
 	public SearchMatcher()
 	{
@@ -53,6 +53,27 @@ public abstract class SearchMatcher
 	public abstract Match nextMatch(CharSequence text, boolean start,
 		boolean end, boolean firstTime, boolean reverse);
 
+	//{{{ copy() method
+	/**
+	 * Returns a matcher with the same search parameters, that can be used
+	 * from another thread. A matcher reuses its {@link Match} object, so
+	 * a single instance can't be shared by concurrent searches.
+	 * @since jEdit 4.4pre1
+	 */
+	public SearchMatcher copy()
+	{
+		try
+		{
+			SearchMatcher copy = (SearchMatcher)clone();
+			copy.returnValue = new Match();
+			return copy;
+		}
+		catch(CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+	} //}}}
+
 	protected Match returnValue;
 
 	//{{{ Match class
@@ -0,0 +1,727 @@
+/*
+ * TrigramIndex.java - Persistent trigram index of a directory
+ * :tabSize=8:indentSize=8:noTabs=false:
+ * :folding=explicit:collapseFolds=1:
+ *
+ * Copyright (C) 2010 jEdit contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.gjt.sp.jedit.search;
+
+//{{{ Imports
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.gjt.sp.jedit.EditBus;
+import org.gjt.sp.jedit.EditBus.EBHandler;
+import org.gjt.sp.jedit.jEdit;
+import org.gjt.sp.jedit.msg.VFSUpdate;
+import org.gjt.sp.util.IOUtilities;
+import org.gjt.sp.util.IntegerArray;
+import org.gjt.sp.util.Log;
+//}}}
+
+/**
+ * A trigram index of the files of a directory, used by HyperSearch to skip
+ * the files that can't match.
+ *
+ * Each file has a signature: a bit set with one bit for every trigram of
+ * its text (case folded), hashed down to at most 8192 bits. A file may
+ * contain a literal only if all the bits of the literal's trigrams are set.
+ * Hash collisions only add candidates, so no match is ever missed.<p>
+ *
+ * Files are indexed with the text HyperSearch reads anyway, so a file is a
+ * candidate until it has been searched once. An entry is valid while the
+ * modification time and length of the file are unchanged; a changed file
+ * with the same content hash keeps its signature. Saving a file in jEdit
+ * invalidates its entry through {@link VFSUpdate}, even within the
+ * resolution of the modification time.<p>
+ *
+ * The index is kept in the <code>hypersearch-index</code> settings
+ * subdirectory.
+ *
+ * @author jEdit contributors
+ * @version $Id$
+ * @since jEdit 4.4pre1
+ */
+class TrigramIndex
+{
+	//{{{ isEnabled() method
+	static boolean isEnabled()
+	{
+		return jEdit.getBooleanProperty("hypersearch.trigramIndex");
+	} //}}}
+
+	//{{{ getIndex() method
+	/**
+	 * Returns the index of a local directory, loading it if necessary.
+	 */
+	static TrigramIndex getIndex(String directory)
+	{
+		TrigramIndex index;
+		synchronized(indexes)
+		{
+			if(indexes.isEmpty())
+				EditBus.addToBus(new UpdateHandler());
+
+			index = indexes.get(directory);
+			if(index == null)
+			{
+				index = new TrigramIndex(directory);
+				indexes.put(directory,index);
+			}
+		}
+		index.load();
+		return index;
+	} //}}}
+
+	//{{{ getCandidates() method
+	/**
+	 * Returns the files that may contain a match.
+	 * @param files the files of the file set
+	 * @param search the search string
+	 * @param regexp true if the search string is a regular expression
+	 */
+	String[] getCandidates(String[] files, String search, boolean regexp)
+	{
+		List<String> literals = getRequiredLiterals(search,regexp);
+		if(literals.isEmpty())
+			return files;
+
+		IntegerArray hashes = new IntegerArray();
+		for(String literal : literals)
+		{
+			char c1 = fold(literal.charAt(0));
+			char c2 = fold(literal.charAt(1));
+			for(int i = 2; i < literal.length(); i++)
+			{
+				char c3 = fold(literal.charAt(i));
+				hashes.add(hash(c1,c2,c3));
+				c1 = c2;
+				c2 = c3;
+			}
+		}
+
+		List<String> candidates = new ArrayList<String>();
+		for(String path : files)
+		{
+			Entry entry = entries.get(path);
+			if(entry == null || jEdit.getBuffer(path) != null)
+			{
+				candidates.add(path);
+				continue;
+			}
+
+			File file = new File(path);
+			if(file.lastModified() != entry.modified
+				|| file.length() != entry.length
+				|| entry.mayContain(hashes))
+			{
+				candidates.add(path);
+			}
+		}
+
+		return candidates.toArray(new String[candidates.size()]);
+	} //}}}
+
+	//{{{ update() method
+	/**
+	 * Indexes a file that has been read for searching.
+	 * @param path the path of the file
+	 * @param modified the modification time, read before the content
+	 * @param length the length, read before the content
+	 * @param content the content
+	 */
+	void update(String path, long modified, long length,
+		HyperSearchFileContent content)
+	{
+		Entry old = entries.get(path);
+		if(old != null && old.modified == modified && old.length == length)
+			return;
+
+		CharSequence text = content.getText();
+		long hash = hashContent(text);
+		long[] signature;
+		if(old != null && old.hash == hash)
+			signature = old.signature;
+		else
+			signature = computeSignature(text);
+
+		entries.put(path,new Entry(modified,length,hash,signature));
+		changed = true;
+	} //}}}
+
+	//{{{ invalidate() method
+	void invalidate(String path)
+	{
+		if(entries.remove(path) != null)
+			changed = true;
+	} //}}}
+
+	//{{{ save() method
+	/**
+	 * Writes the index to the settings directory if it has changed.
+	 */
+	synchronized void save()
+	{
+		if(!changed)
+			return;
+		changed = false;
+
+		File file = getIndexFile();
+		if(file == null)
+			return;
+
+		file.getParentFile().mkdirs();
+		File tmp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = null;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tmp)));
+			out.writeInt(MAGIC);
+			out.writeUTF(directory);
+
+			// snapshot, entries may be updated meanwhile
+			List<Map.Entry<String,Entry>> snapshot
+				= new ArrayList<Map.Entry<String,Entry>>();
+			for(Map.Entry<String,Entry> e : entries.entrySet())
+			{
+				if(new File(e.getKey()).exists())
+					snapshot.add(e);
+				else
+					entries.remove(e.getKey());
+			}
+			out.writeInt(snapshot.size());
+			for(Map.Entry<String,Entry> e : snapshot)
+			{
+				Entry entry = e.getValue();
+				out.writeUTF(e.getKey());
+				out.writeLong(entry.modified);
+				out.writeLong(entry.length);
+				out.writeLong(entry.hash);
+				out.writeShort(entry.signature.length);
+				for(long word : entry.signature)
+					out.writeLong(word);
+			}
+			out.close();
+			out = null;
+
+			file.delete();
+			if(!tmp.renameTo(file))
+				Log.log(Log.ERROR,this,"Cannot write " + file);
+		}
+		catch(IOException e)
+		{
+			Log.log(Log.ERROR,this,e);
+			tmp.delete();
+		}
+		finally
+		{
+			IOUtilities.closeQuietly(out);
+		}
+	} //}}}
+
+	//{{{ getRequiredLiterals() method
+	/**
+	 * Returns strings of at least three characters that every match of
+	 * the search string contains.
+	 * @param search the search string
+	 * @param regexp true if the search string is a regular expression
+	 * @return the literals, empty if none can be found
+	 */
+	static List<String> getRequiredLiterals(String search, boolean regexp)
+	{
+		List<String> literals = new ArrayList<String>();
+		if(!regexp)
+		{
+			if(search.length() >= 3)
+				literals.add(search);
+			return literals;
+		}
+
+		// free-spacing mode changes the meaning of everything
+		int flags = search.indexOf("(?");
+		while(flags != -1)
+		{
+			for(int i = flags + 2; i < search.length(); i++)
+			{
+				char ch = search.charAt(i);
+				if(ch == 'x')
+					return literals;
+				if(!Character.isLetter(ch) && ch != '-')
+					break;
+			}
+			flags = search.indexOf("(?",flags + 2);
+		}
+
+		StringBuilder run = new StringBuilder();
+		int length = search.length();
+		int i = 0;
+		while(i < length)
+		{
+			char ch = search.charAt(i);
+			int next = i + 1;
+			boolean literal = true;
+			switch(ch)
+			{
+			case '|':
+			case ')':
+				// alternatives at the top level
+				literals.clear();
+				return literals;
+			case '\\':
+				if(next == length)
+				{
+					literals.clear();
+					return literals;
+				}
+				ch = search.charAt(next++);
+				if(ch == 't')
+					ch = '\t';
+				else if(ch == 'n')
+					ch = '\n';
+				else if(Character.isLetterOrDigit(ch))
+				{
+					literal = false;
+					next = skipEscape(search,ch,next);
+				}
+				break;
+			case '[':
+				literal = false;
+				next = skipClass(search,next);
+				break;
+			case '(':
+				literal = false;
+				next = skipGroup(search,next);
+				break;
+			case '.':
+			case '^':
+			case '$':
+			case '*':
+			case '+':
+			case '?':
+				literal = false;
+				break;
+			case '{':
+				literal = false;
+				next = skipTo(search,'}',next);
+				break;
+			}
+
+			if(next < 0)
+			{
+				literals.clear();
+				return literals;
+			}
+
+			// a quantifier makes the atom optional or repeated
+			int minCount = 1;
+			boolean quantified = false;
+			if(next < length)
+			{
+				char quantifier = search.charAt(next);
+				if(quantifier == '*' || quantifier == '?')
+				{
+					minCount = 0;
+					quantified = true;
+					next++;
+				}
+				else if(quantifier == '+')
+				{
+					quantified = true;
+					next++;
+				}
+				else if(quantifier == '{')
+				{
+					int end = skipTo(search,'}',next + 1);
+					if(end < 0)
+					{
+						literals.clear();
+						return literals;
+					}
+					String bounds = search.substring(next + 1,end - 1);
+					minCount = bounds.startsWith("0") ? 0 : 1;
+					quantified = true;
+					next = end;
+				}
+
+				// lazy or possessive
+				if(quantified && next < length
+					&& (search.charAt(next) == '?'
+					|| search.charAt(next) == '+'))
+				{
+					next++;
+				}
+			}
+
+			if(literal && minCount != 0)
+				run.append(ch);
+			if(!literal || quantified)
+			{
+				addLiteral(literals,run);
+				run.setLength(0);
+			}
+			i = next;
+		}
+		addLiteral(literals,run);
+		return literals;
+	} //}}}
+
+	//{{{ Private members
+
+	private static final int MAGIC = 0x6A545249;
+
+	/** Signatures have at least this number of bits. */
+	private static final int MIN_SIGNATURE_BITS = 64;
+	/** Signatures have at most this number of bits. */
+	private static final int MAX_SIGNATURE_BITS = 8192;
+	/** Bits per distinct trigram before reaching the maximum. */
+	private static final int BITS_PER_TRIGRAM = 4;
+
+	/** Loaded indexes by directory. */
+	private static final Map<String,TrigramIndex> indexes
+		= new HashMap<String,TrigramIndex>();
+
+	private final String directory;
+	private final ConcurrentMap<String,Entry> entries
+		= new ConcurrentHashMap<String,Entry>();
+	private volatile boolean changed;
+	private boolean loaded;
+
+	//{{{ TrigramIndex constructor
+	private TrigramIndex(String directory)
+	{
+		this.directory = directory;
+	} //}}}
+
+	//{{{ getIndexFile() method
+	private File getIndexFile()
+	{
+		String settingsDirectory = jEdit.getSettingsDirectory();
+		if(settingsDirectory == null)
+			return null;
+
+		return new File(new File(settingsDirectory,"hypersearch-index"),
+			Integer.toHexString(directory.hashCode()) + ".idx");
+	} //}}}
+
+	//{{{ load() method
+	private synchronized void load()
+	{
+		if(loaded)
+			return;
+		loaded = true;
+
+		File file = getIndexFile();
+		if(file == null)
+			return;
+
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+			if(in.readInt() != MAGIC || !in.readUTF().equals(directory))
+				return;
+
+			int count = in.readInt();
+			for(int i = 0; i < count; i++)
+			{
+				String path = in.readUTF();
+				long modified = in.readLong();
+				long length = in.readLong();
+				long hash = in.readLong();
+				long[] signature = new long[in.readShort()];
+				for(int j = 0; j < signature.length; j++)
+					signature[j] = in.readLong();
+				entries.put(path,new Entry(modified,length,hash,
+					signature));
+			}
+		}
+		catch(FileNotFoundException e)
+		{
+		}
+		catch(IOException e)
+		{
+			Log.log(Log.ERROR,this,"Cannot read " + file);
+			Log.log(Log.ERROR,this,e);
+			entries.clear();
+		}
+		finally
+		{
+			IOUtilities.closeQuietly(in);
+		}
+	} //}}}
+
+	//{{{ fold() method
+	/**
+	 * Folds the case like the case insensitive matchers compare it.
+	 */
+	private static char fold(char ch)
+	{
+		if(ch < 128)
+		{
+			if(ch >= 'A' && ch <= 'Z')
+				return (char)(ch + ('a' - 'A'));
+			return ch;
+		}
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	} //}}}
+
+	//{{{ hash() method
+	private static int hash(char c1, char c2, char c3)
+	{
+		int h = ((c1 << 16) ^ (c2 << 8) ^ c3) * 0x9E3779B1;
+		return h ^ (h >>> 15);
+	} //}}}
+
+	//{{{ hashContent() method
+	private static long hashContent(CharSequence text)
+	{
+		long h = text.length();
+		for(int i = 0; i < text.length(); i++)
+			h = 31 * h + text.charAt(i);
+		return h;
+	} //}}}
+
+	//{{{ computeSignature() method
+	private static long[] computeSignature(CharSequence text)
+	{
+		long[] bits = new long[MAX_SIGNATURE_BITS / 64];
+		int length = text.length();
+		if(length >= 3)
+		{
+			char c1 = fold(text.charAt(0));
+			char c2 = fold(text.charAt(1));
+			for(int i = 2; i < length; i++)
+			{
+				char c3 = fold(text.charAt(i));
+				int bit = hash(c1,c2,c3) & (MAX_SIGNATURE_BITS - 1);
+				bits[bit >>> 6] |= 1L << bit;
+				c1 = c2;
+				c2 = c3;
+			}
+		}
+
+		int count = 0;
+		for(long word : bits)
+			count += Long.bitCount(word);
+
+		int size = MIN_SIGNATURE_BITS;
+		while(size < count * BITS_PER_TRIGRAM && size < MAX_SIGNATURE_BITS)
+			size <<= 1;
+
+		// a bit of a smaller signature is the hash masked with fewer
+		// bits, so the words can simply be folded
+		long[] signature = new long[size / 64];
+		for(int i = 0; i < bits.length; i++)
+			signature[i & (signature.length - 1)] |= bits[i];
+		return signature;
+	} //}}}
+
+	//{{{ addLiteral() method
+	private static void addLiteral(List<String> literals, StringBuilder run)
+	{
+		if(run.length() >= 3)
+			literals.add(run.toString());
+	} //}}}
+
+	//{{{ skipEscape() method
+	/**
+	 * Skips the arguments of an escape sequence.
+	 * @return the index after the escape sequence, or -1 if it is invalid
+	 */
+	private static int skipEscape(String re, char ch, int index)
+	{
+		switch(ch)
+		{
+		case 'p':
+		case 'P':
+			if(index < re.length() && re.charAt(index) == '{')
+				return skipTo(re,'}',index + 1);
+			return index + 1;
+		case 'x':
+			if(index < re.length() && re.charAt(index) == '{')
+				return skipTo(re,'}',index + 1);
+			return index + 2;
+		case 'u':
+			return index + 4;
+		case 'c':
+			return index + 1;
+		case 'k':
+			return skipTo(re,'>',index);
+		case 'Q':
+			int end = re.indexOf("\\E",index);
+			return end == -1 ? re.length() : end + 2;
+		case '0':
+			for(int i = 0; i < 3 && index < re.length()
+				&& re.charAt(index) >= '0' && re.charAt(index) <= '7'; i++)
+			{
+				index++;
+			}
+			return index;
+		default:
+			// back references
+			while(index < re.length() && Character.isDigit(re.charAt(index)))
+				index++;
+			return index;
+		}
+	} //}}}
+
+	//{{{ skipClass() method
+	/**
+	 * @return the index after the character class, or -1 if it is not
+	 * closed
+	 */
+	private static int skipClass(String re, int index)
+	{
+		if(index < re.length() && re.charAt(index) == '^')
+			index++;
+		// a leading ] is a literal
+		if(index < re.length() && re.charAt(index) == ']')
+			index++;
+
+		while(index < re.length())
+		{
+			char ch = re.charAt(index++);
+			if(ch == '\\')
+				index++;
+			else if(ch == '[')
+			{
+				index = skipClass(re,index);
+				if(index < 0)
+					return -1;
+			}
+			else if(ch == ']')
+				return index;
+		}
+		return -1;
+	} //}}}
+
+	//{{{ skipGroup() method
+	/**
+	 * @return the index after the group, or -1 if it is not closed
+	 */
+	private static int skipGroup(String re, int index)
+	{
+		while(index < re.length())
+		{
+			char ch = re.charAt(index++);
+			if(ch == '\\')
+			{
+				if(index < re.length() && re.charAt(index) == 'Q')
+				{
+					int end = re.indexOf("\\E",index);
+					if(end == -1)
+						return -1;
+					index = end + 2;
+				}
+				else
+					index++;
+			}
+			else if(ch == '[')
+			{
+				index = skipClass(re,index);
+				if(index < 0)
+					return -1;
+			}
+			else if(ch == '(')
+			{
+				index = skipGroup(re,index);
+				if(index < 0)
+					return -1;
+			}
+			else if(ch == ')')
+				return index;
+		}
+		return -1;
+	} //}}}
+
+	//{{{ skipTo() method
+	/**
+	 * @return the index after the character, or -1 if it is not found
+	 */
+	private static int skipTo(String re, char ch, int index)
+	{
+		int end = re.indexOf(ch,index);
+		return end == -1 ? -1 : end + 1;
+	} //}}}
+
+	//}}}
+
+	//{{{ Entry class
+	private static class Entry
+	{
+		final long modified;
+		final long length;
+		final long hash;
+		final long[] signature;
+
+		Entry(long modified, long length, long hash, long[] signature)
+		{
+			this.modified = modified;
+			this.length = length;
+			this.hash = hash;
+			this.signature = signature;
+		}
+
+		boolean mayContain(IntegerArray hashes)
+		{
+			int[] values = hashes.getArray();
+			int mask = signature.length * 64 - 1;
+			for(int i = 0; i < hashes.getSize(); i++)
+			{
+				int bit = values[i] & mask;
+				if((signature[bit >>> 6] & (1L << bit)) == 0)
+					return false;
+			}
+			return true;
+		}
+	} //}}}
+
+	//{{{ UpdateHandler class
+	/**
+	 * Invalidates the entries of files saved in jEdit.
+	 */
+	public static class UpdateHandler
+	{
+		@EBHandler
+		public void handleVFSUpdate(VFSUpdate msg)
+		{
+			String path = msg.getPath();
+			synchronized(indexes)
+			{
+				for(TrigramIndex index : indexes.values())
+					index.invalidate(path);
+			}
+		}
+	} //}}}
+}
@@ -29,8 +29,11 @@ import java.awt.font.*;
 import java.awt.geom.*;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.gjt.sp.jedit.Debug;
 import org.gjt.sp.jedit.IPropertyManager;
@@ -217,6 +220,7 @@ public class Chunk extends Token
 	 */
 	public static void propertiesChanged(IPropertyManager props)
 	{
+		clearGlyphCache();
 		fontSubstList = null;
 		if (props == null)
 		{
@@ -248,6 +252,23 @@ public class Chunk extends Token
 		preferredFonts = userFonts.toArray(new Font[userFonts.size()]);
 	} //}}}
 
+	//{{{ getGlyphCacheStatus() method
+	/**
+	 * Returns the number of layouts in the glyph cache and its hit rate,
+	 * for debugging.
+	 * @since jEdit 4.4pre1
+	 */
+	public static String getGlyphCacheStatus()
+	{
+		synchronized(glyphCache)
+		{
+			long lookups = glyphCacheHits + glyphCacheMisses;
+			return "glyph cache: " + glyphCache.size() + " layouts, "
+				+ (lookups == 0 ? 0 : glyphCacheHits * 100 / lookups)
+				+ "% hits";
+		}
+	} //}}}
+
 	//{{{ Instance variables
 	public boolean accessable;
 	public boolean initialized;
@@ -380,10 +401,29 @@ public class Chunk extends Token
 				textArray = copy;
 				textStart = 0;
 			} //}}}
+
+			// the layout only depends on the text and font, not on
+			// the position, as tabs are separate chunks
+			GlyphKey key = null;
+			if(length <= MAX_CACHED_LENGTH)
+			{
+				key = new GlyphKey(str,style.getFont(),
+					fontRenderContext);
+				GlyphLayout layout = getCachedLayout(key);
+				if(layout != null)
+				{
+					glyphs = layout.glyphs;
+					width = layout.width;
+					return;
+				}
+			}
+
 			width = layoutGlyphs(fontRenderContext,
 					     textArray,
 					     textStart,
 					     textStart + length);
+			if(key != null)
+				cacheLayout(key,new GlyphLayout(glyphs,width));
 		}
 	} //}}}
 
@@ -422,6 +462,63 @@ public class Chunk extends Token
 		SUN_JAVA_5 = sun_java_5;
 	}
 
+	/** Longer chunks, such as long lines without tokens, are not cached. */
+	private static final int MAX_CACHED_LENGTH = 1000;
+	/** The total length of the texts of the cached layouts. */
+	private static final int GLYPH_CACHE_LENGTH = 256 * 1024;
+
+	/**
+	 * Laid out glyph vectors shared by the chunks with the same text and
+	 * font, in access order. Scrolling back to a line, or a token seen on
+	 * another line, doesn't lay out the text again.
+	 */
+	private static final Map<GlyphKey,GlyphLayout> glyphCache
+		= new LinkedHashMap<GlyphKey,GlyphLayout>(256,0.75f,true);
+	private static int glyphCacheLength;
+	private static long glyphCacheHits;
+	private static long glyphCacheMisses;
+
+	//{{{ getCachedLayout() method
+	private static GlyphLayout getCachedLayout(GlyphKey key)
+	{
+		synchronized(glyphCache)
+		{
+			GlyphLayout layout = glyphCache.get(key);
+			if(layout == null)
+				glyphCacheMisses++;
+			else
+				glyphCacheHits++;
+			return layout;
+		}
+	} //}}}
+
+	//{{{ cacheLayout() method
+	private static void cacheLayout(GlyphKey key, GlyphLayout layout)
+	{
+		synchronized(glyphCache)
+		{
+			if(glyphCache.put(key,layout) == null)
+				glyphCacheLength += key.text.length();
+
+			Iterator<GlyphKey> iter = glyphCache.keySet().iterator();
+			while(glyphCacheLength > GLYPH_CACHE_LENGTH)
+			{
+				glyphCacheLength -= iter.next().text.length();
+				iter.remove();
+			}
+		}
+	} //}}}
+
+	//{{{ clearGlyphCache() method
+	private static void clearGlyphCache()
+	{
+		synchronized(glyphCache)
+		{
+			glyphCache.clear();
+			glyphCacheLength = 0;
+		}
+	} //}}}
+
 	//{{{ getFonts() method
 	/**
 	 * Returns a list of fonts to be searched when applying font
@@ -618,4 +715,52 @@ public class Chunk extends Token
 	} //}}}
 
 	//}}}
+
+	//{{{ GlyphKey class
+	private static class GlyphKey
+	{
+		final String text;
+		final Font font;
+		final FontRenderContext frc;
+
+		GlyphKey(String text, Font font, FontRenderContext frc)
+		{
+			this.text = text;
+			this.font = font;
+			this.frc = frc;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if(!(o instanceof GlyphKey))
+				return false;
+			GlyphKey key = (GlyphKey)o;
+			return text.equals(key.text) && font.equals(key.font)
+				&& frc.equals(key.frc);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return (text.hashCode() * 31 + font.hashCode()) * 31
+				+ frc.hashCode();
+		}
+	} //}}}
+
+	//{{{ GlyphLayout class
+	/**
+	 * Glyph vectors of a text. They are never modified once laid out.
+	 */
+	private static class GlyphLayout
+	{
+		final List<GlyphVector> glyphs;
+		final float width;
+
+		GlyphLayout(List<GlyphVector> glyphs, float width)
+		{
+			this.glyphs = glyphs;
+			this.width = width;
+		}
+	} //}}}
 }
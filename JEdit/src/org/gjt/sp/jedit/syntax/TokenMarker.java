@@ -26,6 +26,8 @@ package org.gjt.sp.jedit.syntax;
 //{{{ Imports
 import javax.swing.text.Segment;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.gjt.sp.jedit.TextUtilities;
@@ -88,7 +90,18 @@ public class TokenMarker
 	 * @param tokenHandler the token handler
 	 * @param line a segment containing the content of the line
 	 */
-	public synchronized LineContext markTokens(LineContext prevContext,
+	public LineContext markTokens(LineContext prevContext,
+		TokenHandler tokenHandler, Segment line)
+	{
+		TokenMarker parser = parsers.get();
+		parser.mainRuleSet = mainRuleSet;
+		return parser.parseTokens(prevContext,tokenHandler,line);
+	} //}}}
+
+	//{{{ Private members
+
+	//{{{ parseTokens() method
+	private LineContext parseTokens(LineContext prevContext,
 		TokenHandler tokenHandler, Segment line)
 	{
 		//{{{ Set up some instance variables
@@ -239,7 +252,9 @@ unwind:		while(context.parent != null)
 				& ParserRule.NO_LINE_BREAK) == ParserRule.NO_LINE_BREAK)
 				|| terminated)
 			{
-				context = context.parent;
+				// the parent may be shared with interned
+				// contexts, don't modify it
+				context = (LineContext)context.parent.clone();
 				keywords = context.rules.getKeywords();
 				context.setInRule(null);
 			}
@@ -260,14 +275,25 @@ unwind:		while(context.parent != null)
 		return context;
 	} //}}}
 
-	//{{{ Private members
-
 	//{{{ Instance variables
 	private final Map<String, ParserRuleSet> ruleSets = new Hashtable<String, ParserRuleSet>(64);
 	private ParserRuleSet mainRuleSet;
 
+	/**
+	 * The marker each thread parses with, so that buffers of the same
+	 * mode can be tokenized concurrently.
+	 */
+	private final ThreadLocal<TokenMarker> parsers = new ThreadLocal<TokenMarker>()
+	{
+		@Override
+		protected TokenMarker initialValue()
+		{
+			return new TokenMarker();
+		}
+	};
+
 	// Instead of passing these around to each method, we just store them
-	// as instance variables. Note that this is not thread-safe.
+	// as instance variables. They are only used by the markers in parsers.
 	private TokenHandler tokenHandler;
 	/** The line from which we will mark the tokens. */
 	private Segment line;
@@ -607,7 +633,7 @@ unwind:		while(context.parent != null)
 				}
 
 				lastOffset = pos;
-				context = context.parent;
+				context = (LineContext)context.parent.clone();
 				keywords = context.rules.getKeywords();
 				context.setInRule(null);
 			}
@@ -812,7 +838,8 @@ unwind:		while(context.parent != null)
 	 */
 	public static class LineContext
 	{
-		private static final Map<LineContext, LineContext> intern = new HashMap<LineContext, LineContext>();
+		private static final ConcurrentMap<LineContext, LineContext> intern
+			= new ConcurrentHashMap<LineContext, LineContext>();
 
 		public LineContext parent;
 		public ParserRule inRule;
@@ -845,14 +872,8 @@ unwind:		while(context.parent != null)
 		//{{{ intern() method
 		public LineContext intern()
 		{
-			LineContext obj = intern.get(this);
-			if(obj == null)
-			{
-				intern.put(this,this);
-				return this;
-			}
-			else
-				return obj;
+			LineContext obj = intern.putIfAbsent(this,this);
+			return obj == null ? this : obj;
 		} //}}}
 
 		//{{{ hashCode() method
@@ -24,11 +24,14 @@
 package org.gjt.sp.jedit.textarea;
 
 //{{{ Imports
+import java.awt.EventQueue;
 import java.util.*;
 import org.gjt.sp.jedit.buffer.JEditBuffer;
 import org.gjt.sp.jedit.Debug;
 import org.gjt.sp.jedit.syntax.*;
 import org.gjt.sp.util.Log;
+import org.gjt.sp.util.Task;
+import org.gjt.sp.util.ThreadUtilities;
 //}}}
 
 /**
@@ -523,6 +526,19 @@ class ChunkCache
 	private boolean needFullRepaint;
 
 	private final DisplayTokenHandler tokenHandler;
+
+	/**
+	 * Lines are painted without waiting for their line context if more
+	 * than this number of lines would have to be tokenized first.
+	 */
+	private static final int MAX_PAINT_TOKENIZE = 1000;
+	/** Lines tokenized by each call from the background task. */
+	private static final int TOKENIZE_BATCH = 500;
+
+	/** Computes line contexts ahead of the visible lines. */
+	private LineContextTask lineContextTask;
+	/** Some visible lines were painted with a guessed line context. */
+	private boolean provisionalTokens;
 	//}}}
 
 	//{{{ getLineInfosForPhysicalLine() method
@@ -771,6 +787,10 @@ class ChunkCache
 		}
 
 		firstInvalidLine = Math.max(lastScreenLine + 1,firstInvalidLine);
+
+		// get the next screen ready
+		if(physicalLine != -1)
+			precomputeLineContexts(physicalLine + lineInfo.length);
 	} //}}}
 
 	//{{{ lineToChunkList() method
@@ -783,11 +803,137 @@ class ChunkCache
 			painter,out,
 			textArea.softWrap
 			? textArea.wrapMargin : 0.0f);
-		buffer.markTokens(physicalLine,tokenHandler);
+
+		// don't freeze the UI on a long tokenization run, eg. when
+		// jumping to the end of a big file
+		if(buffer.getUntokenizedLineCount(physicalLine) > MAX_PAINT_TOKENIZE)
+		{
+			buffer.markTokensProvisionally(physicalLine,tokenHandler);
+			provisionalTokens = true;
+			precomputeLineContexts(physicalLine);
+		}
+		else
+			buffer.markTokens(physicalLine,tokenHandler);
+	} //}}}
+
+	//{{{ precomputeLineContexts() method
+	/**
+	 * Computes the line contexts up to the given line in a background
+	 * task.
+	 */
+	private void precomputeLineContexts(int physicalLine)
+	{
+		if(buffer.getUntokenizedLineCount(physicalLine) == 0)
+			return;
+
+		if(lineContextTask != null && lineContextTask.buffer == buffer
+			&& lineContextTask.extendTo(physicalLine))
+		{
+			return;
+		}
+
+		lineContextTask = new LineContextTask(buffer,physicalLine);
+		ThreadUtilities.runInBackground(lineContextTask);
+	} //}}}
+
+	//{{{ lineContextsComputed() method
+	/**
+	 * Called in the AWT thread when a background task is done.
+	 */
+	private void lineContextsComputed(LineContextTask task)
+	{
+		if(lineContextTask == task)
+			lineContextTask = null;
+
+		if(provisionalTokens && task.buffer == buffer)
+		{
+			provisionalTokens = false;
+			invalidateAll();
+			textArea.getPainter().repaint();
+		}
 	} //}}}
 
 	//}}}
 
+	//{{{ LineContextTask class
+	/**
+	 * Computes the line contexts of a buffer up to a line, a few lines
+	 * at a time so that edits are not blocked.
+	 */
+	private class LineContextTask extends Task
+	{
+		final JEditBuffer buffer;
+		private int lastLine;
+		private boolean done;
+
+		LineContextTask(JEditBuffer buffer, int lastLine)
+		{
+			this.buffer = buffer;
+			this.lastLine = lastLine;
+		}
+
+		/**
+		 * @return false if the task is already done
+		 */
+		synchronized boolean extendTo(int line)
+		{
+			if(done)
+				return false;
+			lastLine = Math.max(lastLine,line);
+			return true;
+		}
+
+		@Override
+		public void _run()
+		{
+			for(;;)
+			{
+				int target;
+				synchronized(this)
+				{
+					target = lastLine;
+				}
+				setMaximum(target);
+
+				int left = buffer.precomputeLineContexts(target,
+					TOKENIZE_BATCH);
+				if(left == -1)
+				{
+					// the buffer is being modified
+					try
+					{
+						Thread.sleep(10);
+					}
+					catch(InterruptedException e)
+					{
+						break;
+					}
+				}
+				else if(left == 0)
+				{
+					synchronized(this)
+					{
+						if(target == lastLine)
+						{
+							done = true;
+							break;
+						}
+					}
+				}
+				else
+					setValue(target - left);
+			}
+
+			EventQueue.invokeLater(new Runnable()
+			{
+				public void run()
+				{
+					lineContextsComputed(LineContextTask.this);
+				}
+			});
+		}
+	} //}}}
+
 	//{{{ LineInfo class
 	/**
 	 * The informations on a line. (for fast access)
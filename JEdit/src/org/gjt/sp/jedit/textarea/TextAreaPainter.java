@@ -811,6 +811,8 @@ public class TextAreaPainter extends JComponent implements TabExpander
 
 			if(Debug.PAINT_TIMER && numLines >= 1)
 				Log.log(Log.DEBUG,this,"repainting " + numLines + " lines took " + prepareTime + "/" + linesTime + " ns");
+			if(Debug.PAINT_OVERLAY)
+				paintDebugOverlay(gfx,clipRect,numLines,linesTime);
 		}
 
 		textArea.updateMaxHorizontalScrollWidth();
@@ -955,6 +957,25 @@ public class TextAreaPainter extends JComponent implements TabExpander
 		catch (IllegalAccessException iae) {}
 		catch (NoSuchMethodException nsme) {}
 	}
+	//{{{ paintDebugOverlay() method
+	/**
+	 * Shows the paint time and the glyph cache status in the top right
+	 * corner of the repainted area.
+	 */
+	private void paintDebugOverlay(Graphics2D gfx, Rectangle clipRect,
+		int numLines, long linesTime)
+	{
+		String status = numLines + " lines in "
+			+ linesTime / 1000 + " \u00b5s, "
+			+ Chunk.getGlyphCacheStatus();
+		int width = fm.stringWidth(status);
+		int x = clipRect.x + clipRect.width - width - 4;
+		gfx.setColor(getBackground());
+		gfx.fillRect(x - 2,clipRect.y,width + 4,fm.getHeight());
+		gfx.setColor(getForeground());
+		gfx.drawString(status,x,clipRect.y + fm.getAscent());
+	} //}}}
+
 	//{{{ updateRenderingHints() method
 	private void updateRenderingHints()
 	{
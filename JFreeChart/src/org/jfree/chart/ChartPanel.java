@@ -154,6 +154,13 @@
  *               cursor for CTRL-mouse-click if panning is enabled (DG);
  * 01-Apr-2009 : Fixed panning, and added different mouse event mask for
  *               MacOSX (DG);
+ * 18-Oct-2026 : Use a GridEntityCollection for faster tooltips and mouse
+ *               events on charts with many entities;
+ * 18-Oct-2026 : Added maximumRefreshRate to limit the redraws caused by
+ *               frequent chart changes;
+ * 18-Oct-2026 : Added overlayDeferred flag to draw the plot overlay
+ *               (crosshairs) over the chart buffer, so that overlay changes
+ *               don't redraw the chart;
 
  *
  */
@@ -204,6 +211,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 import javax.swing.event.EventListenerList;
 
@@ -211,7 +219,9 @@ import org.jfree.chart.editor.ChartEditor;
 import org.jfree.chart.editor.ChartEditorManager;
 import org.jfree.chart.entity.ChartEntity;
 import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.GridEntityCollection;
 import org.jfree.chart.event.ChartChangeEvent;
+import org.jfree.chart.event.ChartChangeEventType;
 import org.jfree.chart.event.ChartChangeListener;
 import org.jfree.chart.event.ChartProgressEvent;
 import org.jfree.chart.event.ChartProgressListener;
@@ -219,6 +229,7 @@ import org.jfree.chart.plot.Pannable;
 import org.jfree.chart.plot.Plot;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.plot.Zoomable;
 import org.jfree.chart.ui.ExtensionFileFilter;
 import org.jfree.chart.util.ResourceBundleWrapper;
@@ -501,6 +512,28 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
      */
     private int panMask = InputEvent.CTRL_MASK;
 
+    /**
+     * The maximum number of times per second that the chart is redrawn
+     * following chart change events (zero for no limit).
+     *
+     * @since 1.2.0
+     */
+    private int maximumRefreshRate;
+
+    /** The time the chart was last drawn (in milliseconds). */
+    private transient long lastRefreshTime;
+
+    /** The timer for a refresh deferred by the maximum refresh rate. */
+    private transient Timer refreshTimer;
+
+    /**
+     * A flag that controls whether the plot overlay is drawn over the chart
+     * buffer instead of into it.
+     *
+     * @since 1.2.0
+     */
+    private boolean overlayDeferred;
+
 
     /**
      * Constructs a panel that displays the specified chart.
@@ -640,7 +673,7 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
 
         setChart(chart);
         this.chartMouseListeners = new EventListenerList();
-        this.info = new ChartRenderingInfo();
+        this.info = new ChartRenderingInfo(new GridEntityCollection());
         setPreferredSize(new Dimension(width, height));
         this.useBuffer = useBuffer;
         this.refreshBuffer = false;
@@ -1468,6 +1501,46 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         this.refreshBuffer = flag;
     }
 
+    /**
+     * Returns the maximum number of times per second that the chart is
+     * redrawn following chart change events.
+     *
+     * @return The maximum refresh rate (zero for no limit).
+     *
+     * @see #setMaximumRefreshRate(int)
+     *
+     * @since 1.2.0
+     */
+    public int getMaximumRefreshRate() {
+        return this.maximumRefreshRate;
+    }
+
+    /**
+     * Sets the maximum number of times per second that the chart is redrawn
+     * following chart change events.  Changes received sooner than that
+     * after the last redraw are collected, and the chart is redrawn once when
+     * the interval has passed.  This keeps the user interface responsive for
+     * charts that are updated many times per second.  The default is zero,
+     * which redraws the chart for every change.
+     *
+     * @param rate  the maximum refresh rate (zero for no limit).
+     *
+     * @see #getMaximumRefreshRate()
+     *
+     * @since 1.2.0
+     */
+    public void setMaximumRefreshRate(int rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("Requires 'rate' >= 0.");
+        }
+        this.maximumRefreshRate = rate;
+        if (rate == 0 && this.refreshTimer != null
+                && this.refreshTimer.isRunning()) {
+            this.refreshTimer.stop();
+            repaint();
+        }
+    }
+
     /**
      * Paints the component by drawing the chart to fill the entire component,
      * but allowing for the insets (which will be non-zero if a border has been
@@ -1547,6 +1620,7 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
             if (this.refreshBuffer) {
 
                 this.refreshBuffer = false; // clear the flag
+                this.lastRefreshTime = System.currentTimeMillis();
 
                 Rectangle2D bufferArea = new Rectangle2D.Double(
                         0, 0, this.chartBufferWidth, this.chartBufferHeight);
@@ -1557,6 +1631,11 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
                     bufferG2.clearRect(0, 0, this.chartBufferWidth,
                             this.chartBufferHeight);
                 }
+                if (this.overlayDeferred && this.info != null) {
+                    // the overlay is drawn over the buffer for each repaint
+                    bufferG2.setRenderingHint(Plot.KEY_DEFER_OVERLAY,
+                            Boolean.TRUE);
+                }
                 if (scale) {
                     AffineTransform saved = bufferG2.getTransform();
                     AffineTransform st = AffineTransform.getScaleInstance(
@@ -1576,11 +1655,24 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
             // zap the buffer onto the panel...
             g2.drawImage(this.chartBuffer, insets.left, insets.top, this);
 
+            if (this.overlayDeferred && this.info != null) {
+                Graphics2D overlayG2 = (Graphics2D) g2.create();
+                overlayG2.addRenderingHints(this.chart.getRenderingHints());
+                overlayG2.translate(insets.left, insets.top);
+                if (scale) {
+                    overlayG2.scale(this.scaleX, this.scaleY);
+                }
+                this.chart.getPlot().drawOverlay(overlayG2,
+                        this.info.getPlotInfo());
+                overlayG2.dispose();
+            }
+
         }
 
         // or redrawing the chart every time...
         else {
 
+            this.lastRefreshTime = System.currentTimeMillis();
             AffineTransform saved = g2.getTransform();
             g2.translate(insets.left, insets.top);
             if (scale) {
@@ -1607,18 +1699,50 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
     }
 
     /**
-     * Receives notification of changes to the chart, and redraws the chart.
+     * Receives notification of changes to the chart, and redraws the chart
+     * (no more often than the maximum refresh rate allows).
      *
      * @param event  details of the chart change event.
+     *
+     * @see #setMaximumRefreshRate(int)
      */
     public void chartChanged(ChartChangeEvent event) {
+        if (event.getType() == ChartChangeEventType.OVERLAY_UPDATED
+                && this.overlayDeferred && this.useBuffer
+                && this.info != null) {
+            // the buffer is still valid, just draw the overlay again
+            repaint();
+            return;
+        }
         this.refreshBuffer = true;
         Plot plot = this.chart.getPlot();
         if (plot instanceof Zoomable) {
             Zoomable z = (Zoomable) plot;
             this.orientation = z.getOrientation();
         }
-        repaint();
+        if (this.maximumRefreshRate <= 0) {
+            repaint();
+            return;
+        }
+        long wait = this.lastRefreshTime + 1000L / this.maximumRefreshRate
+                - System.currentTimeMillis();
+        if (wait <= 0L) {
+            repaint();
+        }
+        else {
+            if (this.refreshTimer == null) {
+                this.refreshTimer = new Timer(0, new ActionListener() {
+                    public void actionPerformed(ActionEvent e) {
+                        repaint();
+                    }
+                });
+                this.refreshTimer.setRepeats(false);
+            }
+            if (!this.refreshTimer.isRunning()) {
+                this.refreshTimer.setInitialDelay((int) wait);
+                this.refreshTimer.start();
+            }
+        }
     }
 
     /**
@@ -1630,6 +1754,43 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         // does nothing - override if necessary
     }
 
+    /**
+     * Returns the flag that controls whether the plot overlay (for example,
+     * the crosshairs of an {@link XYPlot}) is drawn over the chart buffer
+     * instead of into it.
+     *
+     * @return A boolean.
+     *
+     * @see #setOverlayDeferred(boolean)
+     *
+     * @since 1.2.0
+     */
+    public boolean isOverlayDeferred() {
+        return this.overlayDeferred;
+    }
+
+    /**
+     * Sets the flag that controls whether the plot overlay (for example, the
+     * crosshairs of an {@link XYPlot}) is drawn over the chart buffer instead
+     * of into it.  A click then moves unlocked crosshairs without redrawing
+     * the chart, so no {@link ChartProgressEvent} is sent; listeners that
+     * read the crosshair values should listen for chart change events of the
+     * type {@link ChartChangeEventType#OVERLAY_UPDATED} instead.  The flag
+     * only applies when the panel uses a buffer and collects rendering info.
+     * The default is <code>false</code>.
+     *
+     * @param deferred  the new flag value.
+     *
+     * @see #isOverlayDeferred()
+     *
+     * @since 1.2.0
+     */
+    public void setOverlayDeferred(boolean deferred) {
+        this.overlayDeferred = deferred;
+        this.refreshBuffer = true;
+        repaint();
+    }
+
     /**
      * Handles action events generated by the popup menu.
      *
@@ -2014,7 +2175,17 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         if (this.chart == null) {
             return;
         }
-        this.chart.setNotify(true);  // force a redraw
+        // unlocked crosshairs can be moved without redrawing the chart
+        boolean moved = false;
+        Plot plot = this.chart.getPlot();
+        if (this.overlayDeferred && this.useBuffer && this.info != null
+                && this.chart.isNotify() && plot instanceof XYPlot) {
+            moved = ((XYPlot) plot).moveCrosshairs(this.anchor,
+                    this.info.getPlotInfo());
+        }
+        if (!moved) {
+            this.chart.setNotify(true);  // force a redraw
+        }
         // new entity code...
         Object[] listeners = this.chartMouseListeners.getListeners(
                 ChartMouseListener.class);
@@ -0,0 +1,599 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------------
+ * ChartRenderingService.java
+ * --------------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.jfree.chart.encoders.DeflaterPNGEncoder;
+
+/**
+ * A service that renders charts to PNG images on a pool of worker threads,
+ * for applications that produce large numbers of charts in batch (for
+ * example, on a server).  The images are drawn the same way as in
+ * {@link ChartUtilities#writeChartAsPNG(OutputStream, JFreeChart, int,
+ * int)}, so the decoded pixels are identical, but:
+ * <ul>
+ * <li>several charts are drawn and encoded at the same time;</li>
+ * <li>the images are recycled for charts of the same size, instead of
+ * allocating a new image for each chart;</li>
+ * <li>the images are encoded with a {@link DeflaterPNGEncoder}, using the
+ * compression level specified for the service.</li>
+ * </ul>
+ * A chart must not be modified (or submitted again) until it has been
+ * rendered, and charts rendered at the same time must not share datasets
+ * that are being modified.  The service reports the throughput and the
+ * latency of the charts rendered.
+ *
+ * @since 1.2.0
+ */
+public class ChartRenderingService {
+
+    /** The number of worker threads. */
+    private int threadCount;
+
+    /** The PNG compression level. */
+    private int compressionLevel;
+
+    /** The worker threads. */
+    private Thread[] workers;
+
+    /** The queued jobs ({@link Job} instances). */
+    private LinkedList queue;
+
+    /** The number of jobs submitted but not yet completed. */
+    private int pending;
+
+    /** A flag that is set when the service is shut down. */
+    private boolean shutdown;
+
+    /** The first failure since the last call to waitForCompletion(). */
+    private Throwable error;
+
+    /**
+     * The images that are free for reuse, by size (lists of
+     * {@link BufferedImage} instances, by {@link Dimension}).
+     */
+    private Map imagePool;
+
+    /** The number of charts rendered. */
+    private int chartCount;
+
+    /** The time the first chart was submitted (milliseconds). */
+    private long firstSubmitTime;
+
+    /** The time the last chart was completed (milliseconds). */
+    private long lastCompletionTime;
+
+    /** The sum of the latencies (milliseconds). */
+    private long totalLatency;
+
+    /** The highest latency (milliseconds). */
+    private long maxLatency;
+
+    /** The sum of the drawing times (milliseconds). */
+    private long totalDrawTime;
+
+    /** The sum of the encoding times (milliseconds). */
+    private long totalEncodeTime;
+
+    /**
+     * Creates a new service with one worker thread for each processor and
+     * the default compression level.
+     */
+    public ChartRenderingService() {
+        this(Runtime.getRuntime().availableProcessors(),
+                DeflaterPNGEncoder.DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * Creates a new service.
+     *
+     * @param threadCount  the number of worker threads (at least 1).
+     * @param compressionLevel  the PNG compression level (0 to 9).
+     */
+    public ChartRenderingService(int threadCount, int compressionLevel) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'threadCount' >= 1.");
+        }
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException(
+                    "The 'compressionLevel' must be in the range 0 to 9.");
+        }
+        this.threadCount = threadCount;
+        this.compressionLevel = compressionLevel;
+        this.queue = new LinkedList();
+        this.imagePool = new HashMap();
+        this.workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            this.workers[i] = new Worker("ChartRenderingService-" + (i + 1));
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return The number of worker threads.
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Returns the PNG compression level.
+     *
+     * @return The compression level (0 to 9).
+     */
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Queues a chart to be written to a file in PNG format.
+     *
+     * @param chart  the chart (<code>null</code> not permitted).
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param file  the file (<code>null</code> not permitted).
+     *
+     * @see #waitForCompletion()
+     */
+    public void submit(JFreeChart chart, int width, int height, File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Null 'file' argument.");
+        }
+        submit(new Job(chart, width, height, file, null));
+    }
+
+    /**
+     * Queues a chart to be written to an output stream in PNG format.  The
+     * stream is not closed.
+     *
+     * @param chart  the chart (<code>null</code> not permitted).
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param out  the output stream (<code>null</code> not permitted).
+     *
+     * @see #waitForCompletion()
+     */
+    public void submit(JFreeChart chart, int width, int height,
+            OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Null 'out' argument.");
+        }
+        submit(new Job(chart, width, height, null, out));
+    }
+
+    /**
+     * Waits until all the charts submitted have been rendered.  If any of
+     * them failed, the first failure is reported.
+     *
+     * @throws IOException if there was an I/O error writing a chart.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public void waitForCompletion() throws IOException, InterruptedException {
+        Throwable t;
+        synchronized (this) {
+            while (this.pending > 0) {
+                wait();
+            }
+            t = this.error;
+            this.error = null;
+        }
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        else if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    /**
+     * Stops the worker threads once the charts already submitted have been
+     * rendered, and releases the images held for reuse.  No more charts can
+     * be submitted.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            this.shutdown = true;
+            notifyAll();
+        }
+        synchronized (this.imagePool) {
+            this.imagePool.clear();
+        }
+    }
+
+    /**
+     * Returns the number of charts rendered since the service was created
+     * or the statistics were reset.
+     *
+     * @return The chart count.
+     *
+     * @see #resetStatistics()
+     */
+    public synchronized int getChartCount() {
+        return this.chartCount;
+    }
+
+    /**
+     * Returns the number of charts rendered per second, measured from the
+     * submission of the first chart to the completion of the last one.
+     *
+     * @return The throughput (<code>0.0</code> if no charts have been
+     *     rendered).
+     */
+    public synchronized double getThroughput() {
+        if (this.chartCount == 0) {
+            return 0.0;
+        }
+        long elapsed = Math.max(1L,
+                this.lastCompletionTime - this.firstSubmitTime);
+        return this.chartCount * 1000.0 / elapsed;
+    }
+
+    /**
+     * Returns the mean time from the submission of a chart to its
+     * completion, including the time spent in the queue.
+     *
+     * @return The mean latency in milliseconds.
+     */
+    public synchronized double getMeanLatency() {
+        return this.chartCount == 0 ? 0.0
+                : (double) this.totalLatency / this.chartCount;
+    }
+
+    /**
+     * Returns the highest time from the submission of a chart to its
+     * completion.
+     *
+     * @return The highest latency in milliseconds.
+     */
+    public synchronized long getMaxLatency() {
+        return this.maxLatency;
+    }
+
+    /**
+     * Returns the mean time spent drawing a chart.
+     *
+     * @return The mean drawing time in milliseconds.
+     */
+    public synchronized double getMeanDrawTime() {
+        return this.chartCount == 0 ? 0.0
+                : (double) this.totalDrawTime / this.chartCount;
+    }
+
+    /**
+     * Returns the mean time spent encoding and writing a chart image.
+     *
+     * @return The mean encoding time in milliseconds.
+     */
+    public synchronized double getMeanEncodeTime() {
+        return this.chartCount == 0 ? 0.0
+                : (double) this.totalEncodeTime / this.chartCount;
+    }
+
+    /**
+     * Resets the statistics.  This should be called when no charts are
+     * pending.
+     */
+    public synchronized void resetStatistics() {
+        this.chartCount = 0;
+        this.firstSubmitTime = 0L;
+        this.lastCompletionTime = 0L;
+        this.totalLatency = 0L;
+        this.maxLatency = 0L;
+        this.totalDrawTime = 0L;
+        this.totalEncodeTime = 0L;
+    }
+
+    /**
+     * Queues a job.
+     *
+     * @param job  the job.
+     */
+    private synchronized void submit(Job job) {
+        if (this.shutdown) {
+            throw new IllegalStateException("The service has been shut down.");
+        }
+        if (this.chartCount == 0 && this.pending == 0) {
+            this.firstSubmitTime = job.submitTime;
+        }
+        this.queue.addLast(job);
+        this.pending++;
+        notifyAll();
+    }
+
+    /**
+     * Returns the next job, waiting for one if the queue is empty.
+     *
+     * @return The job, or <code>null</code> if the service has been shut
+     *     down and the queue is empty.
+     *
+     * @throws InterruptedException if the worker is interrupted.
+     */
+    private synchronized Job nextJob() throws InterruptedException {
+        while (this.queue.isEmpty()) {
+            if (this.shutdown) {
+                return null;
+            }
+            wait();
+        }
+        return (Job) this.queue.removeFirst();
+    }
+
+    /**
+     * Records the completion of a job.
+     *
+     * @param job  the job.
+     * @param t  the failure (<code>null</code> if the job succeeded).
+     */
+    private synchronized void jobCompleted(Job job, Throwable t) {
+        if (t == null) {
+            long now = System.currentTimeMillis();
+            long latency = now - job.submitTime;
+            this.chartCount++;
+            this.lastCompletionTime = now;
+            this.totalLatency += latency;
+            this.maxLatency = Math.max(this.maxLatency, latency);
+            this.totalDrawTime += job.drawTime;
+            this.totalEncodeTime += job.encodeTime;
+        }
+        else if (this.error == null) {
+            this.error = t;
+        }
+        this.pending--;
+        notifyAll();
+    }
+
+    /**
+     * Returns a cleared image of the specified size, reusing one from the
+     * pool if there is one.
+     *
+     * @param width  the width.
+     * @param height  the height.
+     *
+     * @return The image.
+     */
+    private BufferedImage borrowImage(int width, int height) {
+        BufferedImage image = null;
+        synchronized (this.imagePool) {
+            LinkedList images = (LinkedList) this.imagePool.get(
+                    new Dimension(width, height));
+            if (images != null && !images.isEmpty()) {
+                image = (BufferedImage) images.removeFirst();
+            }
+        }
+        if (image == null) {
+            return new BufferedImage(width, height,
+                    BufferedImage.TYPE_INT_ARGB);
+        }
+        // a new image is fully transparent, so clear the old content
+        Graphics2D g2 = image.createGraphics();
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, width, height);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Returns an image to the pool.  At most one image per worker thread is
+     * kept for each size.
+     *
+     * @param image  the image.
+     */
+    private void returnImage(BufferedImage image) {
+        synchronized (this.imagePool) {
+            Dimension size = new Dimension(image.getWidth(),
+                    image.getHeight());
+            LinkedList images = (LinkedList) this.imagePool.get(size);
+            if (images == null) {
+                images = new LinkedList();
+                this.imagePool.put(size, images);
+            }
+            if (images.size() < this.threadCount) {
+                images.addLast(image);
+            }
+        }
+    }
+
+    /**
+     * Draws a chart and writes the encoded image.
+     *
+     * @param job  the job.
+     * @param encoder  the encoder.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private void render(Job job, DeflaterPNGEncoder encoder)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedImage image = borrowImage(job.width, job.height);
+        try {
+            Graphics2D g2 = image.createGraphics();
+            job.chart.draw(g2, new Rectangle2D.Double(0, 0, job.width,
+                    job.height), null, null);
+            g2.dispose();
+            long drawn = System.currentTimeMillis();
+            job.drawTime = drawn - start;
+            if (job.file != null) {
+                OutputStream out = new BufferedOutputStream(
+                        new FileOutputStream(job.file));
+                try {
+                    encoder.encode(image, out);
+                }
+                finally {
+                    out.close();
+                }
+            }
+            else {
+                encoder.encode(image, job.out);
+            }
+            job.encodeTime = System.currentTimeMillis() - drawn;
+        }
+        finally {
+            returnImage(image);
+        }
+    }
+
+    /**
+     * A chart to render.
+     */
+    private static class Job {
+
+        /** The chart. */
+        JFreeChart chart;
+
+        /** The image width. */
+        int width;
+
+        /** The image height. */
+        int height;
+
+        /** The output file (<code>null</code> if out is set). */
+        File file;
+
+        /** The output stream (<code>null</code> if file is set). */
+        OutputStream out;
+
+        /** The time the job was submitted (milliseconds). */
+        long submitTime;
+
+        /** The time spent drawing the chart (milliseconds). */
+        long drawTime;
+
+        /** The time spent encoding the image (milliseconds). */
+        long encodeTime;
+
+        /**
+         * Creates a new job.
+         *
+         * @param chart  the chart.
+         * @param width  the image width.
+         * @param height  the image height.
+         * @param file  the output file.
+         * @param out  the output stream.
+         */
+        Job(JFreeChart chart, int width, int height, File file,
+                OutputStream out) {
+            if (chart == null) {
+                throw new IllegalArgumentException("Null 'chart' argument.");
+            }
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException(
+                        "Requires 'width' and 'height' > 0.");
+            }
+            this.chart = chart;
+            this.width = width;
+            this.height = height;
+            this.file = file;
+            this.out = out;
+            this.submitTime = System.currentTimeMillis();
+        }
+
+    }
+
+    /**
+     * A worker thread, with its own encoder.
+     */
+    private class Worker extends Thread {
+
+        /** The encoder. */
+        private DeflaterPNGEncoder encoder;
+
+        /**
+         * Creates a new worker.
+         *
+         * @param name  the thread name.
+         */
+        Worker(String name) {
+            super(name);
+            setDaemon(true);
+            this.encoder = new DeflaterPNGEncoder(
+                    ChartRenderingService.this.compressionLevel);
+            // the same output as the ImageIO encoder used by ChartUtilities
+            this.encoder.setEncodingAlpha(true);
+        }
+
+        /**
+         * Renders queued charts until the service is shut down.
+         */
+        public void run() {
+            while (true) {
+                Job job;
+                try {
+                    job = nextJob();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                if (job == null) {
+                    return;
+                }
+                Throwable failure = null;
+                try {
+                    render(job, this.encoder);
+                }
+                catch (Throwable t) {
+                    failure = t;
+                }
+                jobCompleted(job, failure);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------
+ * Benchmark.java
+ * --------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+/**
+ * A benchmark that can be run by a {@link BenchmarkRunner}.  The runner calls
+ * {@link #setUp(int)} once for each item count, then calls {@link #run()}
+ * repeatedly while measuring the time taken and the memory allocated, and
+ * finally calls {@link #tearDown()}.
+ *
+ * @since 1.2.0
+ */
+public abstract class Benchmark {
+
+    /** The benchmark name. */
+    private String name;
+
+    /**
+     * Creates a new benchmark.
+     *
+     * @param name  the name (<code>null</code> not permitted).
+     */
+    protected Benchmark(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Null 'name' argument.");
+        }
+        this.name = name;
+    }
+
+    /**
+     * Returns the benchmark name.
+     *
+     * @return The name (never <code>null</code>).
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Prepares the benchmark for a number of items.  The time spent here is
+     * not measured.
+     *
+     * @param itemCount  the number of items.
+     *
+     * @throws Exception if there is a problem.
+     */
+    public abstract void setUp(int itemCount) throws Exception;
+
+    /**
+     * Performs one operation.  The result is consumed by the runner, so that
+     * the work done to compute it can't be optimised away.
+     *
+     * @return The result of the operation (possibly <code>null</code>).
+     *
+     * @throws Exception if there is a problem.
+     */
+    public abstract Object run() throws Exception;
+
+    /**
+     * Releases the resources held by the benchmark.  This implementation
+     * does nothing.
+     */
+    public void tearDown() {
+        // nothing to do
+    }
+
+}
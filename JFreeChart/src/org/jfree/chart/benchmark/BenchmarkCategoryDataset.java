@@ -0,0 +1,238 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * -----------------------------
+ * BenchmarkCategoryDataset.java
+ * -----------------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * An array backed category dataset for the benchmarks.  The row and column
+ * keys are <code>Integer</code> instances equal to the row and column
+ * indices, so that building a dataset with a very large number of columns
+ * doesn't take quadratic time (as it would with a
+ * {@link org.jfree.data.category.DefaultCategoryDataset}).
+ */
+class BenchmarkCategoryDataset extends AbstractDataset
+        implements CategoryDataset {
+
+    /** The values by row. */
+    private double[][] values;
+
+    /** The row keys. */
+    private List rowKeys;
+
+    /** The column keys. */
+    private List columnKeys;
+
+    /**
+     * Creates a new dataset.
+     *
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     */
+    BenchmarkCategoryDataset(int rowCount, int columnCount) {
+        Random random = new Random(rowCount * 31L + columnCount);
+        this.values = new double[rowCount][columnCount];
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                this.values[row][column] = 100.0 * random.nextDouble();
+            }
+        }
+        this.rowKeys = createKeys(rowCount);
+        this.columnKeys = createKeys(columnCount);
+    }
+
+    /**
+     * Creates a list of keys.
+     *
+     * @param count  the number of keys.
+     *
+     * @return The keys.
+     */
+    private static List createKeys(int count) {
+        List keys = new ArrayList(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(new Integer(i));
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.values.length;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnKeys.size();
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value.
+     */
+    public Number getValue(int row, int column) {
+        return new Double(this.values[row][column]);
+    }
+
+    /**
+     * Returns the key for a row.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return (Comparable) this.rowKeys.get(row);
+    }
+
+    /**
+     * Returns the index of a row key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     *
+     * @return The row index, or -1 if the key is not recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        return getIndex(key, this.rowKeys.size());
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return The row keys (an unmodifiable list).
+     */
+    public List getRowKeys() {
+        return this.rowKeys;
+    }
+
+    /**
+     * Returns the key for a column.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return (Comparable) this.columnKeys.get(column);
+    }
+
+    /**
+     * Returns the index of a column key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     *
+     * @return The column index, or -1 if the key is not recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        return getIndex(key, this.columnKeys.size());
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return The column keys (an unmodifiable list).
+     */
+    public List getColumnKeys() {
+        return this.columnKeys;
+    }
+
+    /**
+     * Returns the value for a pair of keys.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value.
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Unrecognised row key: " + rowKey);
+        }
+        int column = getColumnIndex(columnKey);
+        if (column < 0) {
+            throw new UnknownKeyException("Unrecognised column key: "
+                    + columnKey);
+        }
+        return getValue(row, column);
+    }
+
+    /**
+     * Returns the index for a key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param count  the number of keys.
+     *
+     * @return The index, or -1 if the key is not recognised.
+     */
+    private static int getIndex(Comparable key, int count) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        if (!(key instanceof Integer)) {
+            return -1;
+        }
+        int index = ((Integer) key).intValue();
+        return index >= 0 && index < count ? index : -1;
+    }
+
+}
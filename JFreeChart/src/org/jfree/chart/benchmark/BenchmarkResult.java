@@ -0,0 +1,200 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * BenchmarkResult.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.io.Serializable;
+
+/**
+ * The result of running a {@link Benchmark} with a {@link BenchmarkRunner}.
+ *
+ * @since 1.2.0
+ */
+public class BenchmarkResult implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 3302186468624113479L;
+
+    /** The benchmark name. */
+    private String name;
+
+    /** The number of items. */
+    private int itemCount;
+
+    /** The number of operations measured. */
+    private long operationCount;
+
+    /** The time taken by the measured operations (in milliseconds). */
+    private long time;
+
+    /**
+     * The memory allocated by the measured operations (in bytes), or -1 if
+     * the allocation could not be measured.
+     */
+    private long allocatedBytes;
+
+    /**
+     * Creates a new result.
+     *
+     * @param name  the benchmark name (<code>null</code> not permitted).
+     * @param itemCount  the number of items.
+     * @param operationCount  the number of operations measured.
+     * @param time  the time taken (in milliseconds).
+     * @param allocatedBytes  the memory allocated (in bytes, or -1 if
+     *     unknown).
+     */
+    public BenchmarkResult(String name, int itemCount, long operationCount,
+            long time, long allocatedBytes) {
+        if (name == null) {
+            throw new IllegalArgumentException("Null 'name' argument.");
+        }
+        this.name = name;
+        this.itemCount = itemCount;
+        this.operationCount = operationCount;
+        this.time = time;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Returns the benchmark name.
+     *
+     * @return The name (never <code>null</code>).
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the number of operations measured.
+     *
+     * @return The operation count.
+     */
+    public long getOperationCount() {
+        return this.operationCount;
+    }
+
+    /**
+     * Returns the time taken by the measured operations.
+     *
+     * @return The time (in milliseconds).
+     */
+    public long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Returns the memory allocated by the measured operations.
+     *
+     * @return The number of bytes, or -1 if the allocation is unknown.
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Returns the throughput.
+     *
+     * @return The number of operations per second.
+     */
+    public double getThroughput() {
+        if (this.time <= 0L) {
+            return Double.NaN;
+        }
+        return this.operationCount * 1000.0 / this.time;
+    }
+
+    /**
+     * Returns the mean time taken by one operation.
+     *
+     * @return The time (in milliseconds).
+     */
+    public double getMeanTime() {
+        if (this.operationCount <= 0L) {
+            return Double.NaN;
+        }
+        return (double) this.time / this.operationCount;
+    }
+
+    /**
+     * Returns the mean memory allocated by one operation.
+     *
+     * @return The number of bytes, or <code>Double.NaN</code> if the
+     *     allocation is unknown.
+     */
+    public double getAllocatedBytesPerOperation() {
+        if (this.allocatedBytes < 0L || this.operationCount <= 0L) {
+            return Double.NaN;
+        }
+        return (double) this.allocatedBytes / this.operationCount;
+    }
+
+    /**
+     * Returns the allocation rate.
+     *
+     * @return The number of megabytes allocated per second, or
+     *     <code>Double.NaN</code> if the allocation is unknown.
+     */
+    public double getAllocationRate() {
+        if (this.allocatedBytes < 0L || this.time <= 0L) {
+            return Double.NaN;
+        }
+        return this.allocatedBytes * 1000.0 / (1024.0 * 1024.0) / this.time;
+    }
+
+    /**
+     * Returns a string representing the result, for debugging.
+     *
+     * @return A string.
+     */
+    public String toString() {
+        return this.name + "[" + this.itemCount + "]: " + getThroughput()
+                + " ops/s, " + getAllocationRate() + " MB/s allocated";
+    }
+
+}
@@ -0,0 +1,436 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * BenchmarkRunner.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs {@link Benchmark}s and reports the throughput and the allocation rate
+ * for each one.  Each benchmark is run for a number of warm-up iterations
+ * (so that the JIT compiler has a chance to compile the code being
+ * measured), then for a number of measured iterations.  An iteration calls
+ * the benchmark repeatedly until the iteration time has elapsed.
+ * <P>
+ * The allocation rate is measured with the per-thread allocation counter of
+ * the Sun/Oracle JVM (<code>com.sun.management.ThreadMXBean</code>), where
+ * it is available.
+ * <P>
+ * To run the standard benchmarks (see {@link ChartBenchmarks}) from the
+ * command line:
+ * <pre>
+ * java -Djava.awt.headless=true org.jfree.chart.benchmark.BenchmarkRunner
+ *     [-sizes 1000,100000,1000000] [-warmup 3] [-iterations 5]
+ *     [-time 1000] [name ...]
+ * </pre>
+ * Only the benchmarks with a name containing one of the given names are run.
+ *
+ * @since 1.2.0
+ */
+public class BenchmarkRunner {
+
+    /** The default item counts. */
+    public static final int[] DEFAULT_ITEM_COUNTS = {1000, 100000, 1000000};
+
+    /** The number of warm-up iterations. */
+    private int warmupIterations;
+
+    /** The number of measured iterations. */
+    private int measurementIterations;
+
+    /** The minimum duration of an iteration (in milliseconds). */
+    private long iterationTime;
+
+    /** The thread MX bean, if it can report allocated bytes. */
+    private Object threadBean;
+
+    /** The method that returns the bytes allocated by a thread. */
+    private Method allocatedBytesMethod;
+
+    /** The result of the last operation (volatile, so it isn't elided). */
+    private volatile Object lastResult;
+
+    /**
+     * Creates a new runner with 3 warm-up iterations and 5 measured
+     * iterations of one second each.
+     */
+    public BenchmarkRunner() {
+        this.warmupIterations = 3;
+        this.measurementIterations = 5;
+        this.iterationTime = 1000L;
+        initAllocationCounter();
+    }
+
+    /**
+     * Returns the number of warm-up iterations.
+     *
+     * @return The number of warm-up iterations.
+     */
+    public int getWarmupIterations() {
+        return this.warmupIterations;
+    }
+
+    /**
+     * Sets the number of warm-up iterations.
+     *
+     * @param iterations  the number of iterations (zero or more).
+     */
+    public void setWarmupIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'iterations' >= 0.");
+        }
+        this.warmupIterations = iterations;
+    }
+
+    /**
+     * Returns the number of measured iterations.
+     *
+     * @return The number of measured iterations.
+     */
+    public int getMeasurementIterations() {
+        return this.measurementIterations;
+    }
+
+    /**
+     * Sets the number of measured iterations.
+     *
+     * @param iterations  the number of iterations (one or more).
+     */
+    public void setMeasurementIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'iterations' >= 1.");
+        }
+        this.measurementIterations = iterations;
+    }
+
+    /**
+     * Returns the minimum duration of an iteration.
+     *
+     * @return The time (in milliseconds).
+     */
+    public long getIterationTime() {
+        return this.iterationTime;
+    }
+
+    /**
+     * Sets the minimum duration of an iteration.  An iteration always
+     * performs at least one operation.
+     *
+     * @param time  the time (in milliseconds, must be positive).
+     */
+    public void setIterationTime(long time) {
+        if (time <= 0L) {
+            throw new IllegalArgumentException("Requires 'time' > 0.");
+        }
+        this.iterationTime = time;
+    }
+
+    /**
+     * Returns <code>true</code> if the runner can measure the memory
+     * allocated by a benchmark, and <code>false</code> otherwise.
+     *
+     * @return A boolean.
+     */
+    public boolean isAllocationMeasured() {
+        return getAllocatedBytes(Thread.currentThread()) >= 0L;
+    }
+
+    /**
+     * Runs a benchmark for a number of items.
+     *
+     * @param benchmark  the benchmark (<code>null</code> not permitted).
+     * @param itemCount  the number of items.
+     *
+     * @return The result.
+     *
+     * @throws Exception if the benchmark fails.
+     */
+    public BenchmarkResult run(Benchmark benchmark, int itemCount)
+            throws Exception {
+        if (benchmark == null) {
+            throw new IllegalArgumentException("Null 'benchmark' argument.");
+        }
+        benchmark.setUp(itemCount);
+        try {
+            System.gc();
+            for (int i = 0; i < this.warmupIterations; i++) {
+                runIteration(benchmark);
+            }
+            Thread thread = Thread.currentThread();
+            long operationCount = 0L;
+            long time = 0L;
+            long allocatedBytes = 0L;
+            for (int i = 0; i < this.measurementIterations; i++) {
+                long bytes = getAllocatedBytes(thread);
+                long start = System.currentTimeMillis();
+                operationCount += runIteration(benchmark);
+                time += System.currentTimeMillis() - start;
+                long end = getAllocatedBytes(thread);
+                if (bytes < 0L || end < 0L || allocatedBytes < 0L) {
+                    allocatedBytes = -1L;
+                }
+                else {
+                    allocatedBytes += end - bytes;
+                }
+            }
+            return new BenchmarkResult(benchmark.getName(), itemCount,
+                    operationCount, time, allocatedBytes);
+        }
+        finally {
+            this.lastResult = null;
+            benchmark.tearDown();
+        }
+    }
+
+    /**
+     * Runs each benchmark for each item count, writing the results to a
+     * stream as they become available.
+     *
+     * @param benchmarks  the benchmarks (<code>null</code> not permitted).
+     * @param itemCounts  the item counts (<code>null</code> not permitted).
+     * @param out  the stream for the report (<code>null</code> permitted).
+     *
+     * @return The results (a list of {@link BenchmarkResult} instances).
+     *
+     * @throws Exception if a benchmark fails.
+     */
+    public List run(List benchmarks, int[] itemCounts, PrintStream out)
+            throws Exception {
+        if (benchmarks == null) {
+            throw new IllegalArgumentException("Null 'benchmarks' argument.");
+        }
+        if (itemCounts == null) {
+            throw new IllegalArgumentException("Null 'itemCounts' argument.");
+        }
+        if (out != null) {
+            out.println(pad("Benchmark", -28) + pad("Items", 10)
+                    + pad("ops/s", 13) + pad("ms/op", 13)
+                    + pad("bytes/op", 15) + pad("MB/s", 10));
+        }
+        List results = new ArrayList();
+        Iterator iterator = benchmarks.iterator();
+        while (iterator.hasNext()) {
+            Benchmark benchmark = (Benchmark) iterator.next();
+            for (int i = 0; i < itemCounts.length; i++) {
+                BenchmarkResult result = run(benchmark, itemCounts[i]);
+                results.add(result);
+                if (out != null) {
+                    out.println(format(result));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs one iteration of a benchmark.
+     *
+     * @param benchmark  the benchmark.
+     *
+     * @return The number of operations performed.
+     *
+     * @throws Exception if the benchmark fails.
+     */
+    private long runIteration(Benchmark benchmark) throws Exception {
+        long start = System.currentTimeMillis();
+        long count = 0L;
+        do {
+            this.lastResult = benchmark.run();
+            count++;
+        } while (System.currentTimeMillis() - start < this.iterationTime);
+        return count;
+    }
+
+    /**
+     * Looks up the allocation counter of the JVM, if there is one.  This is
+     * done by reflection, since the counter is not part of the standard API.
+     */
+    private void initAllocationCounter() {
+        try {
+            Class factoryClass = Class.forName(
+                    "java.lang.management.ManagementFactory");
+            Object bean = factoryClass.getMethod("getThreadMXBean",
+                    new Class[0]).invoke(null, new Object[0]);
+            Class beanClass = Class.forName(
+                    "com.sun.management.ThreadMXBean");
+            if (beanClass.isInstance(bean)) {
+                this.allocatedBytesMethod = beanClass.getMethod(
+                        "getThreadAllocatedBytes", new Class[] {Long.TYPE});
+                this.threadBean = bean;
+            }
+        }
+        catch (Exception e) {
+            // the allocation can't be measured on this JVM
+            this.threadBean = null;
+            this.allocatedBytesMethod = null;
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by a thread so far.
+     *
+     * @param thread  the thread.
+     *
+     * @return The number of bytes, or -1 if this is unknown.
+     */
+    private long getAllocatedBytes(Thread thread) {
+        if (this.threadBean == null) {
+            return -1L;
+        }
+        try {
+            Object id = Thread.class.getMethod("getId", new Class[0]).invoke(
+                    thread, new Object[0]);
+            Object bytes = this.allocatedBytesMethod.invoke(this.threadBean,
+                    new Object[] {id});
+            return ((Number) bytes).longValue();
+        }
+        catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Formats a result as one line of the report.
+     *
+     * @param result  the result.
+     *
+     * @return The line.
+     */
+    private static String format(BenchmarkResult result) {
+        NumberFormat f0 = new DecimalFormat("0");
+        NumberFormat f3 = new DecimalFormat("0.000");
+        StringBuffer b = new StringBuffer();
+        b.append(pad(result.getName(), -28));
+        b.append(pad(String.valueOf(result.getItemCount()), 10));
+        b.append(pad(f3.format(result.getThroughput()), 13));
+        b.append(pad(f3.format(result.getMeanTime()), 13));
+        double bytes = result.getAllocatedBytesPerOperation();
+        b.append(pad(Double.isNaN(bytes) ? "n/a" : f0.format(bytes), 15));
+        double rate = result.getAllocationRate();
+        b.append(pad(Double.isNaN(rate) ? "n/a" : f3.format(rate), 10));
+        return b.toString();
+    }
+
+    /**
+     * Pads a string with spaces.
+     *
+     * @param s  the string.
+     * @param width  the width (positive to right-align the string, negative
+     *     to left-align it).
+     *
+     * @return The padded string.
+     */
+    private static String pad(String s, int width) {
+        StringBuffer b = new StringBuffer();
+        int count = Math.abs(width) - s.length();
+        for (int i = 0; i < count; i++) {
+            b.append(' ');
+        }
+        return width < 0 ? s + b : b + s;
+    }
+
+    /**
+     * Runs the benchmarks in {@link ChartBenchmarks#createBenchmarks()}.
+     *
+     * @param args  the options and names (see the class description).
+     *
+     * @throws Exception if a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        int[] itemCounts = DEFAULT_ITEM_COUNTS;
+        List names = new ArrayList();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-sizes")) {
+                    String[] sizes = args[++i].split(",");
+                    itemCounts = new int[sizes.length];
+                    for (int j = 0; j < sizes.length; j++) {
+                        itemCounts[j] = Integer.parseInt(sizes[j].trim());
+                    }
+                }
+                else if (args[i].equals("-warmup")) {
+                    runner.setWarmupIterations(Integer.parseInt(args[++i]));
+                }
+                else if (args[i].equals("-iterations")) {
+                    runner.setMeasurementIterations(
+                            Integer.parseInt(args[++i]));
+                }
+                else if (args[i].equals("-time")) {
+                    runner.setIterationTime(Long.parseLong(args[++i]));
+                }
+                else {
+                    names.add(args[i]);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            System.err.println("Usage: BenchmarkRunner [-sizes n,n,...] "
+                    + "[-warmup n] [-iterations n] [-time ms] [name ...]");
+            return;
+        }
+        List benchmarks = new ArrayList();
+        Iterator iterator = ChartBenchmarks.createBenchmarks().iterator();
+        while (iterator.hasNext()) {
+            Benchmark benchmark = (Benchmark) iterator.next();
+            boolean selected = names.isEmpty();
+            for (int i = 0; i < names.size() && !selected; i++) {
+                selected = benchmark.getName().indexOf(
+                        (String) names.get(i)) >= 0;
+            }
+            if (selected) {
+                benchmarks.add(benchmark);
+            }
+        }
+        if (!runner.isAllocationMeasured()) {
+            System.out.println("Allocation is not measured on this JVM.");
+        }
+        runner.run(benchmarks, itemCounts, System.out);
+    }
+
+}
@@ -0,0 +1,434 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * ChartBenchmarks.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.AxisState;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.encoders.EncoderUtil;
+import org.jfree.chart.encoders.ImageFormat;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.category.BarRenderer;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer2;
+import org.jfree.chart.renderer.xy.XYBarRenderer;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.util.RectangleEdge;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.time.FixedMillisecond;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.TableXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * The standard benchmarks run by the {@link BenchmarkRunner}.  The item count
+ * passed to {@link Benchmark#setUp(int)} is the number of data items in the
+ * dataset used by each benchmark.  One operation is:
+ * <ul>
+ * <li><code>xyplot.*</code>, <code>categoryplot.*</code> - drawing a chart
+ *     on an offscreen image;</li>
+ * <li><code>bounds.*</code> - one scan of the dataset by
+ *     {@link DatasetUtilities};</li>
+ * <li><code>timeseries.add</code> - adding all the items to a new
+ *     {@link TimeSeries};</li>
+ * <li><code>timeseries.age</code> - adding one item to a series that is
+ *     full, so that the oldest item is removed by
+ *     {@link TimeSeries#removeAgedItems(boolean)};</li>
+ * <li><code>dateaxis.ticks</code> - calculating the ticks for a
+ *     {@link DateAxis} with a range of one minute per item;</li>
+ * <li><code>encoder.png</code> - encoding an image of a line chart with
+ *     {@link EncoderUtil}.</li>
+ * </ul>
+ *
+ * @since 1.2.0
+ */
+public final class ChartBenchmarks {
+
+    /** The width of the charts (in pixels). */
+    public static final int CHART_WIDTH = 800;
+
+    /** The height of the charts (in pixels). */
+    public static final int CHART_HEIGHT = 600;
+
+    /**
+     * Private constructor prevents object creation.
+     */
+    private ChartBenchmarks() {
+        // no requirements
+    }
+
+    /**
+     * Creates the standard benchmarks.
+     *
+     * @return A list of {@link Benchmark} instances.
+     */
+    public static List createBenchmarks() {
+        List result = new ArrayList();
+        result.add(new ChartDrawingBenchmark("xyplot.line") {
+            protected JFreeChart createChart(int itemCount) {
+                return createXYChart(new BenchmarkXYDataset(1, itemCount),
+                        new XYLineAndShapeRenderer(true, false));
+            }
+        });
+        result.add(new ChartDrawingBenchmark("xyplot.line.shapes") {
+            protected JFreeChart createChart(int itemCount) {
+                return createXYChart(new BenchmarkXYDataset(1, itemCount),
+                        new XYLineAndShapeRenderer(true, true));
+            }
+        });
+        result.add(new ChartDrawingBenchmark("xyplot.line.lod") {
+            protected JFreeChart createChart(int itemCount) {
+                JFreeChart chart = createXYChart(new BenchmarkXYDataset(1,
+                        itemCount), new XYLineAndShapeRenderer(true, false));
+                chart.getXYPlot().setLevelOfDetailEnabled(true);
+                return chart;
+            }
+        });
+        result.add(new ChartDrawingBenchmark("xyplot.bar") {
+            protected JFreeChart createChart(int itemCount) {
+                return createXYChart(new BenchmarkXYDataset(1, itemCount),
+                        new XYBarRenderer());
+            }
+        });
+        result.add(new ChartDrawingBenchmark("xyplot.bar.lod") {
+            protected JFreeChart createChart(int itemCount) {
+                JFreeChart chart = createXYChart(new BenchmarkXYDataset(1,
+                        itemCount), new XYBarRenderer());
+                chart.getXYPlot().setLevelOfDetailEnabled(true);
+                return chart;
+            }
+        });
+        result.add(new ChartDrawingBenchmark("xyplot.stackedarea") {
+            protected JFreeChart createChart(int itemCount) {
+                return createXYChart(new BenchmarkTableXYDataset(3,
+                        itemCount / 3), new StackedXYAreaRenderer2());
+            }
+        });
+        result.add(new ChartDrawingBenchmark("categoryplot.bar") {
+            protected JFreeChart createChart(int itemCount) {
+                CategoryAxis xAxis = new CategoryAxis("X");
+                // the labels would overlap for all but the smallest counts
+                xAxis.setTickLabelsVisible(false);
+                xAxis.setTickMarksVisible(false);
+                CategoryPlot plot = new CategoryPlot(
+                        new BenchmarkCategoryDataset(1, itemCount), xAxis,
+                        new NumberAxis("Y"), new BarRenderer());
+                return new JFreeChart(null, JFreeChart.DEFAULT_TITLE_FONT,
+                        plot, false);
+            }
+        });
+        result.add(new XYDatasetBenchmark("bounds.xy.domain") {
+            public Object run() {
+                return DatasetUtilities.iterateDomainBounds(getDataset());
+            }
+        });
+        result.add(new XYDatasetBenchmark("bounds.xy.range") {
+            public Object run() {
+                return DatasetUtilities.iterateRangeBounds(getDataset());
+            }
+        });
+        result.add(new XYDatasetBenchmark("bounds.xy.stacked") {
+            public Object run() {
+                return DatasetUtilities.findStackedRangeBounds(
+                        (TableXYDataset) getDataset());
+            }
+        });
+        result.add(new Benchmark("bounds.category.range") {
+            private BenchmarkCategoryDataset dataset;
+            public void setUp(int itemCount) {
+                this.dataset = new BenchmarkCategoryDataset(1, itemCount);
+            }
+            public Object run() {
+                return DatasetUtilities.iterateRangeBounds(this.dataset);
+            }
+            public void tearDown() {
+                this.dataset = null;
+            }
+        });
+        result.add(new Benchmark("timeseries.add") {
+            private int itemCount;
+            public void setUp(int itemCount) {
+                this.itemCount = itemCount;
+            }
+            public Object run() {
+                TimeSeries series = new TimeSeries("Series");
+                for (int i = 0; i < this.itemCount; i++) {
+                    series.add(new FixedMillisecond(i), i % 100, false);
+                }
+                return series;
+            }
+        });
+        result.add(new Benchmark("timeseries.age") {
+            private TimeSeries series;
+            private long next;
+            public void setUp(int itemCount) {
+                this.series = new TimeSeries("Series");
+                this.series.setMaximumItemAge(itemCount - 1);
+                for (int i = 0; i < itemCount; i++) {
+                    this.series.add(new FixedMillisecond(i), i % 100, false);
+                }
+                this.next = itemCount;
+            }
+            public Object run() {
+                // the add() method removes the aged items
+                this.series.add(new FixedMillisecond(this.next),
+                        this.next % 100, false);
+                this.next++;
+                return this.series;
+            }
+            public void tearDown() {
+                this.series = null;
+            }
+        });
+        result.add(new Benchmark("dateaxis.ticks") {
+            private DateAxis axis;
+            private BufferedImage image;
+            private Graphics2D g2;
+            private Rectangle2D dataArea;
+            public void setUp(int itemCount) {
+                this.axis = new DateAxis("Date");
+                long start = 1230768000000L;  // 1-Jan-2009 GMT
+                this.axis.setRange(start, start + itemCount * 60000L);
+                this.image = new BufferedImage(CHART_WIDTH, CHART_HEIGHT,
+                        BufferedImage.TYPE_INT_RGB);
+                this.g2 = this.image.createGraphics();
+                this.dataArea = new Rectangle2D.Double(50, 20,
+                        CHART_WIDTH - 70, CHART_HEIGHT - 70);
+            }
+            public Object run() {
+                return this.axis.refreshTicks(this.g2, new AxisState(),
+                        this.dataArea, RectangleEdge.BOTTOM);
+            }
+            public void tearDown() {
+                this.g2.dispose();
+                this.g2 = null;
+                this.image = null;
+            }
+        });
+        result.add(new Benchmark("encoder.png") {
+            private BufferedImage image;
+            public void setUp(int itemCount) {
+                JFreeChart chart = createXYChart(new BenchmarkXYDataset(1,
+                        itemCount), new XYLineAndShapeRenderer(true, false));
+                this.image = chart.createBufferedImage(CHART_WIDTH,
+                        CHART_HEIGHT);
+            }
+            public Object run() throws Exception {
+                return EncoderUtil.encode(this.image, ImageFormat.PNG);
+            }
+            public void tearDown() {
+                this.image = null;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Creates a chart with an {@link XYPlot}.
+     *
+     * @param dataset  the dataset.
+     * @param renderer  the renderer.
+     *
+     * @return The chart.
+     */
+    private static JFreeChart createXYChart(XYDataset dataset,
+            XYItemRenderer renderer) {
+        XYPlot plot = new XYPlot(dataset, new NumberAxis("X"),
+                new NumberAxis("Y"), renderer);
+        return new JFreeChart(null, JFreeChart.DEFAULT_TITLE_FONT, plot,
+                false);
+    }
+
+    /**
+     * A benchmark that draws a chart on an offscreen image.
+     */
+    private abstract static class ChartDrawingBenchmark extends Benchmark {
+
+        /** The chart. */
+        private JFreeChart chart;
+
+        /** The image. */
+        private BufferedImage image;
+
+        /** The graphics device for the image. */
+        private Graphics2D g2;
+
+        /** The chart area. */
+        private Rectangle2D area;
+
+        /**
+         * Creates a new benchmark.
+         *
+         * @param name  the name.
+         */
+        ChartDrawingBenchmark(String name) {
+            super(name);
+        }
+
+        /**
+         * Creates the chart to draw.
+         *
+         * @param itemCount  the number of items.
+         *
+         * @return The chart.
+         */
+        protected abstract JFreeChart createChart(int itemCount);
+
+        /**
+         * Creates the chart and the image.
+         *
+         * @param itemCount  the number of items.
+         */
+        public void setUp(int itemCount) {
+            this.chart = createChart(itemCount);
+            this.image = new BufferedImage(CHART_WIDTH, CHART_HEIGHT,
+                    BufferedImage.TYPE_INT_RGB);
+            this.g2 = this.image.createGraphics();
+            this.area = new Rectangle2D.Double(0, 0, CHART_WIDTH,
+                    CHART_HEIGHT);
+        }
+
+        /**
+         * Draws the chart.
+         *
+         * @return The image.
+         */
+        public Object run() {
+            this.chart.draw(this.g2, this.area);
+            return this.image;
+        }
+
+        /**
+         * Releases the chart and the image.
+         */
+        public void tearDown() {
+            this.g2.dispose();
+            this.g2 = null;
+            this.image = null;
+            this.chart = null;
+        }
+
+    }
+
+    /**
+     * A benchmark that scans a {@link BenchmarkTableXYDataset} with one
+     * series.
+     */
+    private abstract static class XYDatasetBenchmark extends Benchmark {
+
+        /** The dataset. */
+        private XYDataset dataset;
+
+        /**
+         * Creates a new benchmark.
+         *
+         * @param name  the name.
+         */
+        XYDatasetBenchmark(String name) {
+            super(name);
+        }
+
+        /**
+         * Creates the dataset.
+         *
+         * @param itemCount  the number of items.
+         */
+        public void setUp(int itemCount) {
+            this.dataset = new BenchmarkTableXYDataset(1, itemCount);
+        }
+
+        /**
+         * Returns the dataset.
+         *
+         * @return The dataset.
+         */
+        protected XYDataset getDataset() {
+            return this.dataset;
+        }
+
+        /**
+         * Releases the dataset.
+         */
+        public void tearDown() {
+            this.dataset = null;
+        }
+
+    }
+
+    /**
+     * A {@link BenchmarkXYDataset} that implements {@link TableXYDataset},
+     * for the stacked renderers.  It is a separate class because the
+     * level of detail view of the {@link XYPlot} is not used for tables.
+     */
+    private static class BenchmarkTableXYDataset extends BenchmarkXYDataset
+            implements TableXYDataset {
+
+        /**
+         * Creates a new dataset.
+         *
+         * @param seriesCount  the number of series.
+         * @param itemCount  the number of items in each series.
+         */
+        BenchmarkTableXYDataset(int seriesCount, int itemCount) {
+            super(seriesCount, itemCount);
+        }
+
+        /**
+         * Returns the number of items in every series.
+         *
+         * @return The item count.
+         */
+        public int getItemCount() {
+            return getSeriesCount() > 0 ? getItemCount(0) : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,385 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * -------------------------
+ * GridEntityCollection.java
+ * -------------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.entity;
+
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.chart.util.ObjectUtilities;
+import org.jfree.chart.util.PublicCloneable;
+
+/**
+ * An {@link EntityCollection} that indexes the entities by their bounds in a
+ * uniform grid of square cells, so that {@link #getEntity(double, double)}
+ * only tests the entities that overlap the cell containing the point.  This
+ * keeps mouse tracking responsive for charts with a very large number of
+ * entities (for example, scatter plots with tool tips).
+ * <P>
+ * The collection returns the same entity as a
+ * {@link StandardEntityCollection} with the same content: the last entity
+ * added with an area that contains the point.  The area of an entity should
+ * not be changed once the entity is added to the collection.
+ *
+ * @since 1.2.0
+ */
+public class GridEntityCollection implements EntityCollection,
+        Cloneable, PublicCloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -5240843453154716317L;
+
+    /** The default cell size (in Java2D units). */
+    public static final double DEFAULT_CELL_SIZE = 32.0;
+
+    /**
+     * Entities that overlap more cells than this are kept in a separate list
+     * that is searched for every point.
+     */
+    private static final int MAX_CELLS_PER_ENTITY = 64;
+
+    /** Storage for the entities, in the order they were added. */
+    private List entities;
+
+    /** The width and height of the grid cells. */
+    private double cellSize;
+
+    /** The grid cells ({@link Cell} instances, by cell key). */
+    private transient Map cells;
+
+    /** The indices of the entities that overlap too many cells. */
+    private transient Cell largeEntities;
+
+    /**
+     * Creates a new entity collection (initially empty) with the default
+     * cell size.
+     */
+    public GridEntityCollection() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new entity collection (initially empty).
+     *
+     * @param cellSize  the width and height of the grid cells (in Java2D
+     *     units, must be positive).
+     */
+    public GridEntityCollection(double cellSize) {
+        if (!(cellSize > 0.0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException(
+                    "Requires 'cellSize' to be positive.");
+        }
+        this.entities = new ArrayList();
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Returns the width and height of the grid cells.
+     *
+     * @return The cell size.
+     */
+    public double getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * Returns the number of entities in the collection.
+     *
+     * @return The entity count.
+     */
+    public int getEntityCount() {
+        return this.entities.size();
+    }
+
+    /**
+     * Returns a chart entity from the collection.
+     *
+     * @param index  the entity index.
+     *
+     * @return The entity.
+     *
+     * @see #add(ChartEntity)
+     */
+    public ChartEntity getEntity(int index) {
+        return (ChartEntity) this.entities.get(index);
+    }
+
+    /**
+     * Clears all the entities from the collection.
+     */
+    public void clear() {
+        this.entities.clear();
+        this.cells = null;
+        this.largeEntities = null;
+    }
+
+    /**
+     * Adds an entity to the collection.
+     *
+     * @param entity  the entity (<code>null</code> not permitted).
+     */
+    public void add(ChartEntity entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Null 'entity' argument.");
+        }
+        this.entities.add(entity);
+        if (this.cells != null) {
+            index(entity, this.entities.size() - 1);
+        }
+    }
+
+    /**
+     * Adds all the entities from the specified collection.
+     *
+     * @param collection  the collection of entities (<code>null</code> not
+     *     permitted).
+     */
+    public void addAll(EntityCollection collection) {
+        Iterator iterator = collection.iterator();
+        while (iterator.hasNext()) {
+            add((ChartEntity) iterator.next());
+        }
+    }
+
+    /**
+     * Returns the last entity in the list with an area that encloses the
+     * specified coordinates, or <code>null</code> if there is no such entity.
+     *
+     * @param x  the x coordinate.
+     * @param y  the y coordinate.
+     *
+     * @return The entity (possibly <code>null</code>).
+     */
+    public ChartEntity getEntity(double x, double y) {
+        if (this.cells == null) {
+            buildIndex();
+        }
+        int result = -1;
+        Cell cell = (Cell) this.cells.get(new Long(getCellKey(
+                getCellIndex(x), getCellIndex(y))));
+        if (cell != null) {
+            for (int i = cell.count - 1; i >= 0; i--) {
+                int index = cell.items[i];
+                if (getEntity(index).getArea().contains(x, y)) {
+                    result = index;
+                    break;
+                }
+            }
+        }
+        // the indices are in ascending order, so stop at the first entity
+        // found or at the one found in the cell, whichever is the later
+        Cell large = this.largeEntities;
+        for (int i = large.count - 1; i >= 0; i--) {
+            int index = large.items[i];
+            if (index < result) {
+                break;
+            }
+            if (getEntity(index).getArea().contains(x, y)) {
+                result = index;
+                break;
+            }
+        }
+        return result < 0 ? null : getEntity(result);
+    }
+
+    /**
+     * Returns the entities in an unmodifiable collection.
+     *
+     * @return The entities.
+     */
+    public Collection getEntities() {
+        return Collections.unmodifiableCollection(this.entities);
+    }
+
+    /**
+     * Returns an iterator for the entities in the collection.  The iterator
+     * does not support removal, which would invalidate the index.
+     *
+     * @return An iterator.
+     */
+    public Iterator iterator() {
+        return Collections.unmodifiableList(this.entities).iterator();
+    }
+
+    /**
+     * Tests this object for equality with an arbitrary object.
+     *
+     * @param obj  the object to test against (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof GridEntityCollection)) {
+            return false;
+        }
+        GridEntityCollection that = (GridEntityCollection) obj;
+        if (this.cellSize != that.cellSize) {
+            return false;
+        }
+        return ObjectUtilities.equal(this.entities, that.entities);
+    }
+
+    /**
+     * Returns a clone of this entity collection.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the object cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        GridEntityCollection clone = (GridEntityCollection) super.clone();
+        clone.entities = new ArrayList(this.entities.size());
+        for (int i = 0; i < this.entities.size(); i++) {
+            ChartEntity entity = (ChartEntity) this.entities.get(i);
+            clone.entities.add(entity.clone());
+        }
+        clone.cells = null;
+        clone.largeEntities = null;
+        return clone;
+    }
+
+    /**
+     * Builds the index for all the entities in the collection.  The index
+     * is then maintained as entities are added.
+     */
+    private void buildIndex() {
+        this.cells = new HashMap();
+        this.largeEntities = new Cell();
+        int count = this.entities.size();
+        for (int i = 0; i < count; i++) {
+            index(getEntity(i), i);
+        }
+    }
+
+    /**
+     * Adds an entity to the cells it overlaps.
+     *
+     * @param entity  the entity.
+     * @param index  the entity index.
+     */
+    private void index(ChartEntity entity, int index) {
+        Rectangle2D bounds = entity.getArea().getBounds2D();
+        double cellCount = (Math.floor(bounds.getMaxX() / this.cellSize)
+                - Math.floor(bounds.getMinX() / this.cellSize) + 1.0)
+                * (Math.floor(bounds.getMaxY() / this.cellSize)
+                - Math.floor(bounds.getMinY() / this.cellSize) + 1.0);
+        // the test fails for NaN too
+        if (!(cellCount <= MAX_CELLS_PER_ENTITY)) {
+            this.largeEntities.add(index);
+            return;
+        }
+        int x0 = getCellIndex(bounds.getMinX());
+        int x1 = getCellIndex(bounds.getMaxX());
+        int y0 = getCellIndex(bounds.getMinY());
+        int y1 = getCellIndex(bounds.getMaxY());
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                Long key = new Long(getCellKey(cx, cy));
+                Cell cell = (Cell) this.cells.get(key);
+                if (cell == null) {
+                    cell = new Cell();
+                    this.cells.put(key, cell);
+                }
+                cell.add(index);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the column or row of cells for a coordinate.
+     *
+     * @param value  the x or y coordinate.
+     *
+     * @return The cell index.
+     */
+    private int getCellIndex(double value) {
+        return (int) Math.floor(value / this.cellSize);
+    }
+
+    /**
+     * Returns the key of a cell.
+     *
+     * @param cx  the column index.
+     * @param cy  the row index.
+     *
+     * @return The key.
+     */
+    private static long getCellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The indices of the entities that overlap a cell, in ascending order.
+     */
+    private static class Cell {
+
+        /** The entity indices. */
+        int[] items = new int[4];
+
+        /** The number of indices. */
+        int count;
+
+        /**
+         * Adds an index.
+         *
+         * @param index  the index.
+         */
+        void add(int index) {
+            if (this.count == this.items.length) {
+                int[] items = new int[this.count * 2];
+                System.arraycopy(this.items, 0, items, 0, this.count);
+                this.items = items;
+            }
+            this.items[this.count++] = index;
+        }
+
+    }
+
+}
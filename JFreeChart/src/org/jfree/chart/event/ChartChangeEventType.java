@@ -35,6 +35,7 @@
  * Changes:
  * --------
  * 18-Feb-2005 : Version 1 (DG);
+ * 18-Oct-2026 : Added OVERLAY_UPDATED;
  *
  */
 
@@ -63,6 +64,16 @@ public final class ChartChangeEventType implements Serializable {
     public static final ChartChangeEventType DATASET_UPDATED
             = new ChartChangeEventType("ChartChangeEventType.DATASET_UPDATED");
 
+    /**
+     * OVERLAY_UPDATED - a change to the parts of a chart that can be drawn
+     * over a cached image of the rest of the chart, such as the crosshairs
+     * (see {@link org.jfree.chart.plot.Plot#KEY_DEFER_OVERLAY}).
+     *
+     * @since 1.2.0
+     */
+    public static final ChartChangeEventType OVERLAY_UPDATED
+            = new ChartChangeEventType("ChartChangeEventType.OVERLAY_UPDATED");
+
     /** The name. */
     private String name;
 
@@ -132,6 +143,9 @@ public final class ChartChangeEventType implements Serializable {
         else if (this.equals(ChartChangeEventType.DATASET_UPDATED)) {
             return ChartChangeEventType.DATASET_UPDATED;
         }
+        else if (this.equals(ChartChangeEventType.OVERLAY_UPDATED)) {
+            return ChartChangeEventType.OVERLAY_UPDATED;
+        }
         return null;
     }
 
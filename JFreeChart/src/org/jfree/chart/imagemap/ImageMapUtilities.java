@@ -46,6 +46,8 @@
  *               getImageMap() (DG);
  * 19-Mar-2009 : Added javascriptEscape() method - see bug 2690293 by FH (DG);
  * 25-Mar-2009 : Reimplemented javascriptEscape() (DG);
+ * 18-Oct-2026 : Write the map tags directly to the writer in
+ *               writeImageMap();
  *
  */
 
@@ -53,6 +55,7 @@ package org.jfree.chart.imagemap;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 
 import org.jfree.chart.ChartRenderingInfo;
 import org.jfree.chart.entity.ChartEntity;
@@ -135,8 +138,9 @@ public class ImageMapUtilities {
             URLTagFragmentGenerator urlTagFragmentGenerator)
         throws IOException {
 
-        writer.println(ImageMapUtilities.getImageMap(name, info,
-                toolTipTagFragmentGenerator, urlTagFragmentGenerator));
+        writeMapTags(writer, name, info, toolTipTagFragmentGenerator,
+                urlTagFragmentGenerator);
+        writer.println();
     }
 
     /**
@@ -173,10 +177,34 @@ public class ImageMapUtilities {
             ToolTipTagFragmentGenerator toolTipTagFragmentGenerator,
             URLTagFragmentGenerator urlTagFragmentGenerator) {
 
-        StringBuffer sb = new StringBuffer();
-        sb.append("<map id=\"" + htmlEscape(name) + "\" name=\""
+        StringWriter sw = new StringWriter();
+        writeMapTags(new PrintWriter(sw), name, info,
+                toolTipTagFragmentGenerator, urlTagFragmentGenerator);
+        return sw.toString();
+
+    }
+
+    /**
+     * Writes the map element to a writer, one tag at a time, so that the
+     * map for a chart with many entities is not built up in memory first.
+     *
+     * @param writer  the writer.
+     * @param name  the map name.
+     * @param info  the chart rendering info.
+     * @param toolTipTagFragmentGenerator  a generator for the HTML fragment
+     *     that will contain the tooltip text.
+     * @param urlTagFragmentGenerator  a generator for the HTML fragment that
+     *     will contain the URL reference.
+     */
+    private static void writeMapTags(PrintWriter writer, String name,
+            ChartRenderingInfo info,
+            ToolTipTagFragmentGenerator toolTipTagFragmentGenerator,
+            URLTagFragmentGenerator urlTagFragmentGenerator) {
+
+        String separator = StringUtilities.getLineSeparator();
+        writer.print("<map id=\"" + htmlEscape(name) + "\" name=\""
                 + htmlEscape(name) + "\">");
-        sb.append(StringUtilities.getLineSeparator());
+        writer.print(separator);
         EntityCollection entities = info.getEntityCollection();
         if (entities != null) {
             int count = entities.getEntityCount();
@@ -188,14 +216,14 @@ public class ImageMapUtilities {
                             toolTipTagFragmentGenerator,
                             urlTagFragmentGenerator);
                     if (area.length() > 0) {
-                        sb.append(area);
-                        sb.append(StringUtilities.getLineSeparator());
+                        writer.print(area);
+                        writer.print(separator);
                     }
                 }
             }
         }
-        sb.append("</map>");
-        return sb.toString();
+        writer.print("</map>");
+        writer.flush();
 
     }
 
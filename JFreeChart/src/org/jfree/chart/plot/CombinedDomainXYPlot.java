@@ -92,6 +92,9 @@
  * 28-Apr-2008 : Fixed zooming problem (see bug 1950037) (DG);
  * 11-Aug-2008 : Don't store totalWeight of subplots, calculate it as
  *               required (DG);
+ * 18-Oct-2026 : Added drawOverlay();
+ * 18-Oct-2026 : Draw the subplots in parallel if parallel rendering is
+ *               enabled;
  *
  */
 
@@ -457,15 +460,23 @@ public class CombinedDomainXYPlot extends XYPlot
         parentState.getSharedAxisStates().put(axis, axisState);
 
         // draw all the subplots
-        for (int i = 0; i < this.subplots.size(); i++) {
-            XYPlot plot = (XYPlot) this.subplots.get(i);
-            PlotRenderingInfo subplotInfo = null;
-            if (info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+        if (isParallelRendering() && LayerCompositor.isSupported(g2)
+                && LayerCompositor.canDrawSubplots(this.subplots)) {
+            LayerCompositor.drawSubplots(g2, this, insets.createOutsetRectangle(
+                    area), this.subplots, this.subplotAreas, anchor,
+                    parentState, info);
+        }
+        else {
+            for (int i = 0; i < this.subplots.size(); i++) {
+                XYPlot plot = (XYPlot) this.subplots.get(i);
+                PlotRenderingInfo subplotInfo = null;
+                if (info != null) {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
+                plot.draw(g2, this.subplotAreas[i], anchor, parentState,
+                        subplotInfo);
             }
-            plot.draw(g2, this.subplotAreas[i], anchor, parentState,
-                    subplotInfo);
         }
 
         if (info != null) {
@@ -650,6 +661,26 @@ public class CombinedDomainXYPlot extends XYPlot
         }
     }
 
+    /**
+     * Draws the overlay for each of the subplots.
+     *
+     * @param g2  the graphics device.
+     * @param info  the plot rendering info from the last call to draw()
+     *     (<code>null</code> permitted, in which case nothing is drawn).
+     *
+     * @since 1.2.0
+     */
+    public void drawOverlay(Graphics2D g2, PlotRenderingInfo info) {
+        if (info == null) {
+            return;
+        }
+        int count = Math.min(this.subplots.size(), info.getSubplotCount());
+        for (int i = 0; i < count; i++) {
+            XYPlot subplot = (XYPlot) this.subplots.get(i);
+            subplot.drawOverlay(g2, info.getSubplotInfo(i));
+        }
+    }
+
     /**
      * Receives a {@link PlotChangeEvent} and responds by notifying all
      * listeners.
@@ -47,6 +47,8 @@
  * 06-Feb-2007 : Added new fields and methods to fix bug 1086307 (DG);
  * 19-Jun-2007 : Removed deprecated code (DG);
  * 26-Jun-2008 : Now tracks dataset index (DG);
+ * 18-Oct-2026 : Added copy constructor and merge() method for datasets
+ *               drawn in parallel;
  *
  */
 
@@ -131,6 +133,46 @@ public class CrosshairState {
         this.calculateDistanceInDataSpace = calculateDistanceInDataSpace;
     }
 
+    /**
+     * Creates a copy of a crosshair state, to collect the crosshair point
+     * for one dataset when the datasets are drawn in parallel.
+     *
+     * @param state  the state to copy (<code>null</code> not permitted).
+     *
+     * @see #merge(CrosshairState)
+     */
+    CrosshairState(CrosshairState state) {
+        this.calculateDistanceInDataSpace = state.calculateDistanceInDataSpace;
+        this.anchorX = state.anchorX;
+        this.anchorY = state.anchorY;
+        this.anchor = state.anchor;
+        this.crosshairX = state.crosshairX;
+        this.crosshairY = state.crosshairY;
+        this.datasetIndex = state.datasetIndex;
+        this.domainAxisIndex = state.domainAxisIndex;
+        this.rangeAxisIndex = state.rangeAxisIndex;
+        this.distance = state.distance;
+    }
+
+    /**
+     * Takes the crosshair point from another state if it is closer to the
+     * anchor than the current point.  Merging the copies made for each
+     * dataset, in rendering order, gives the same point as drawing all the
+     * datasets with this state.
+     *
+     * @param state  the state (<code>null</code> not permitted).
+     */
+    void merge(CrosshairState state) {
+        if (state.distance < this.distance) {
+            this.crosshairX = state.crosshairX;
+            this.crosshairY = state.crosshairY;
+            this.datasetIndex = state.datasetIndex;
+            this.domainAxisIndex = state.domainAxisIndex;
+            this.rangeAxisIndex = state.rangeAxisIndex;
+            this.distance = state.distance;
+        }
+    }
+
     /**
      * Returns the distance between the anchor point and the current crosshair
      * point.
@@ -0,0 +1,759 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * LayerCompositor.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.StandardEntityCollection;
+
+/**
+ * Draws the layers of a plot (the subplots of a combined plot, or the
+ * datasets of an {@link XYPlot}) at the same time on a shared pool of worker
+ * threads.  Each layer is drawn into its own image, then the images are
+ * drawn onto the target in the order of the layers, so the output is the
+ * same as drawing the layers one after the other.
+ * <P>
+ * The calls to the plot's {@link DrawingSupplier} are made in the order of
+ * the layers too (a layer waits for the previous layers to finish before it
+ * takes the next paint, stroke or shape), so that the renderers are assigned
+ * the same series paints as in a serial draw.  The layers must not share a
+ * renderer, and they must not modify anything the other layers read.
+ */
+class LayerCompositor {
+
+    /**
+     * The number of worker threads (the thread that calls
+     * {@link #drawLayers(Graphics2D, Task[], Plot)} draws layers too).
+     */
+    private static final int WORKER_COUNT
+            = Runtime.getRuntime().availableProcessors() - 1;
+
+    /** The batches with layers not yet claimed ({@link Batch} instances). */
+    private static final LinkedList queue = new LinkedList();
+
+    /** The worker threads (<code>null</code> until first required). */
+    private static Thread[] workers;
+
+    /** The task being run by the current thread, if any. */
+    private static final ThreadLocal currentTask = new ThreadLocal();
+
+    /**
+     * No instances.
+     */
+    private LayerCompositor() {
+    }
+
+    /**
+     * Returns <code>true</code> if layers can be drawn in parallel for the
+     * specified target.  This requires more than one processor, a raster
+     * target (images would replace the shapes sent to a vector target such as
+     * a PDF or SVG document or a printer), a source-over composite, and a
+     * thread that is not already drawing a layer.
+     *
+     * @param g2  the graphics target.
+     *
+     * @return A boolean.
+     */
+    static boolean isSupported(Graphics2D g2) {
+        if (WORKER_COUNT < 1 || currentTask.get() != null) {
+            return false;
+        }
+        // the JDK's own raster pipeline, vector targets have other classes
+        if (!g2.getClass().getName().startsWith("sun.java2d.")) {
+            return false;
+        }
+        GraphicsConfiguration gc = g2.getDeviceConfiguration();
+        if (gc == null
+                || gc.getDevice().getType() == GraphicsDevice.TYPE_PRINTER) {
+            return false;
+        }
+        Composite composite = g2.getComposite();
+        return composite instanceof AlphaComposite
+                && ((AlphaComposite) composite).getRule()
+                == AlphaComposite.SRC_OVER;
+    }
+
+    /**
+     * Creates a rendering info for drawing a layer, with an entity
+     * collection of its own if <code>info</code> collects entities.  The
+     * plot and data areas are copied from <code>info</code>.
+     *
+     * @param info  the rendering info for the target (<code>null</code>
+     *     permitted).
+     *
+     * @return The rendering info for the layer (<code>null</code> if
+     *     <code>info</code> is <code>null</code>).
+     *
+     * @see #addEntities(PlotRenderingInfo, PlotRenderingInfo)
+     */
+    static PlotRenderingInfo createInfo(PlotRenderingInfo info) {
+        if (info == null) {
+            return null;
+        }
+        EntityCollection entities = null;
+        if (info.getOwner() != null
+                && info.getOwner().getEntityCollection() != null) {
+            entities = new StandardEntityCollection();
+        }
+        ChartRenderingInfo owner = new ChartRenderingInfo(entities);
+        PlotRenderingInfo result = owner.getPlotInfo();
+        result.setPlotArea(info.getPlotArea());
+        result.setDataArea(info.getDataArea());
+        return result;
+    }
+
+    /**
+     * Adds the entities collected for a layer to the entity collection for
+     * the target.
+     *
+     * @param layerInfo  the rendering info for the layer (<code>null</code>
+     *     permitted).
+     * @param info  the rendering info for the target (<code>null</code>
+     *     permitted).
+     *
+     * @see #createInfo(PlotRenderingInfo)
+     */
+    static void addEntities(PlotRenderingInfo layerInfo,
+            PlotRenderingInfo info) {
+        if (layerInfo == null || info == null || info.getOwner() == null) {
+            return;
+        }
+        EntityCollection entities = info.getOwner().getEntityCollection();
+        if (entities != null) {
+            entities.addAll(layerInfo.getOwner().getEntityCollection());
+        }
+    }
+
+    /**
+     * Copies the areas recorded in a layer's rendering info (including
+     * those of any subplots) to a new rendering info for the target.
+     *
+     * @param layerInfo  the rendering info for the layer (<code>null</code>
+     *     not permitted).
+     * @param owner  the owner of the new info (<code>null</code> permitted).
+     *
+     * @return The new rendering info.
+     */
+    static PlotRenderingInfo copyInfo(PlotRenderingInfo layerInfo,
+            ChartRenderingInfo owner) {
+        PlotRenderingInfo result = new PlotRenderingInfo(owner);
+        result.setPlotArea(layerInfo.getPlotArea());
+        result.setDataArea(layerInfo.getDataArea());
+        for (int i = 0; i < layerInfo.getSubplotCount(); i++) {
+            result.addSubplotInfo(copyInfo(layerInfo.getSubplotInfo(i),
+                    owner));
+        }
+        return result;
+    }
+
+    /**
+     * Returns <code>true</code> if the subplots of a combined plot can be
+     * drawn in parallel, that is, if there are at least two of them and no
+     * two of them share a renderer (renderers are not safe to use from two
+     * threads at once).
+     *
+     * @param subplots  the subplots ({@link XYPlot} instances).
+     *
+     * @return A boolean.
+     */
+    static boolean canDrawSubplots(List subplots) {
+        if (subplots.size() < 2) {
+            return false;
+        }
+        return addRenderers(subplots, new IdentityHashMap());
+    }
+
+    /**
+     * Adds the renderers of some plots (and of their subplots) to a map.
+     *
+     * @param plots  the plots ({@link XYPlot} instances).
+     * @param renderers  the renderers found so far.
+     *
+     * @return <code>false</code> if a renderer was found twice.
+     */
+    private static boolean addRenderers(List plots, Map renderers) {
+        for (int i = 0; i < plots.size(); i++) {
+            XYPlot plot = (XYPlot) plots.get(i);
+            for (int r = 0; r < plot.getRendererCount(); r++) {
+                Object renderer = plot.getRenderer(r);
+                if (renderer != null
+                        && renderers.put(renderer, renderer) != null) {
+                    return false;
+                }
+            }
+            List subplots = null;
+            if (plot instanceof CombinedDomainXYPlot) {
+                subplots = ((CombinedDomainXYPlot) plot).getSubplots();
+            }
+            else if (plot instanceof CombinedRangeXYPlot) {
+                subplots = ((CombinedRangeXYPlot) plot).getSubplots();
+            }
+            if (subplots != null && !addRenderers(subplots, renderers)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws the subplots of a combined plot in parallel.  The subplot
+     * rendering info is added to <code>info</code> and the entities are
+     * added to its owner's entity collection in the order of the subplots,
+     * as if the subplots were drawn one after the other.
+     *
+     * @param g2  the graphics target.
+     * @param plot  the combined plot.
+     * @param area  the region that the subplots are drawn in; anything
+     *     they draw outside it is clipped.
+     * @param subplots  the subplots ({@link XYPlot} instances).
+     * @param subplotAreas  the areas for the subplots.
+     * @param anchor  the anchor point (<code>null</code> permitted).
+     * @param parentState  the state from the combined plot.
+     * @param info  collects chart drawing information (<code>null</code>
+     *     permitted).
+     *
+     * @see #canDrawSubplots(List)
+     */
+    static void drawSubplots(Graphics2D g2, XYPlot plot, Rectangle2D area,
+            List subplots, Rectangle2D[] subplotAreas, final Point2D anchor,
+            final PlotState parentState, PlotRenderingInfo info) {
+        int count = subplots.size();
+        PlotRenderingInfo[] infos = new PlotRenderingInfo[count];
+        Task[] tasks = new Task[count];
+        for (int i = 0; i < count; i++) {
+            final XYPlot subplot = (XYPlot) subplots.get(i);
+            final Rectangle2D subplotArea = subplotAreas[i];
+            final PlotRenderingInfo subplotInfo = createInfo(info);
+            infos[i] = subplotInfo;
+            tasks[i] = new Task(area) {
+                void draw(Graphics2D g2) {
+                    subplot.draw(g2, subplotArea, anchor, parentState,
+                            subplotInfo);
+                }
+            };
+        }
+        drawLayers(g2, tasks, plot);
+        if (info != null) {
+            for (int i = 0; i < count; i++) {
+                info.addSubplotInfo(copyInfo(infos[i], info.getOwner()));
+                addEntities(infos[i], info);
+            }
+        }
+    }
+
+    /**
+     * Draws the layers in parallel and then composites them onto the
+     * target, in order.  The caller should first check that the target is
+     * supported (see {@link #isSupported(Graphics2D)}).  If a layer fails,
+     * nothing is drawn on the target and the failure is rethrown once all
+     * the layers have finished.
+     *
+     * @param g2  the graphics target.
+     * @param tasks  the tasks that draw the layers, in z-order.
+     * @param plot  the plot (the calls to the drawing supplier of its root
+     *     plot are ordered by layer).
+     */
+    static void drawLayers(Graphics2D g2, Task[] tasks, Plot plot) {
+        AffineTransform transform = g2.getTransform();
+        Shape clip = g2.getClip();
+        Rectangle bounds;
+        if (clip != null) {
+            bounds = transform.createTransformedShape(clip).getBounds();
+        }
+        else {
+            bounds = g2.getDeviceConfiguration().getBounds();
+        }
+
+        // set up an image for each layer, with the state of the target
+        Batch batch = new Batch(tasks);
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = tasks[i];
+            Rectangle r = transform.createTransformedShape(
+                    task.area).getBounds().intersection(bounds);
+            // a layer that is not visible is still drawn for its entities
+            task.visible = !r.isEmpty();
+            task.x = r.x;
+            task.y = r.y;
+            task.image = new BufferedImage(task.visible ? r.width : 1,
+                    task.visible ? r.height : 1,
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D ig = task.image.createGraphics();
+            ig.setRenderingHints(g2.getRenderingHints());
+            ig.translate(-r.x, -r.y);
+            ig.transform(transform);
+            if (clip != null) {
+                ig.setClip(clip);
+            }
+            ig.setComposite(g2.getComposite());
+            ig.setPaint(g2.getPaint());
+            ig.setStroke(g2.getStroke());
+            ig.setFont(g2.getFont());
+            ig.setBackground(g2.getBackground());
+            task.g2 = ig;
+            task.batch = batch;
+            task.index = i;
+        }
+
+        Plot root = plot;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        DrawingSupplier supplier = root.getDrawingSupplier();
+        if (supplier != null) {
+            root.setDrawingSupplier(new OrderedDrawingSupplier(supplier,
+                    batch), false);
+        }
+        try {
+            synchronized (queue) {
+                if (workers == null) {
+                    workers = new Thread[WORKER_COUNT];
+                    for (int i = 0; i < WORKER_COUNT; i++) {
+                        workers[i] = new Worker("LayerCompositor-" + (i + 1));
+                        workers[i].start();
+                    }
+                }
+                queue.add(batch);
+                queue.notifyAll();
+            }
+            // draw the layers the workers have not claimed
+            int index = batch.claim();
+            while (index >= 0) {
+                batch.run(tasks[index]);
+                index = batch.claim();
+            }
+            synchronized (queue) {
+                queue.remove(batch);
+            }
+            batch.awaitCompletion();
+        }
+        finally {
+            if (supplier != null) {
+                root.setDrawingSupplier(supplier, false);
+            }
+        }
+        Throwable error = batch.getError();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        else if (error instanceof Error) {
+            throw (Error) error;
+        }
+
+        // composite the layers in device space
+        Composite savedComposite = g2.getComposite();
+        g2.setTransform(new AffineTransform());
+        g2.setComposite(AlphaComposite.SrcOver);
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = tasks[i];
+            if (task.visible) {
+                g2.drawImage(task.image, task.x, task.y, null);
+            }
+            task.image = null;
+        }
+        g2.setComposite(savedComposite);
+        g2.setTransform(transform);
+    }
+
+    /**
+     * Returns the next task to run from the queue, removing the batches
+     * that have no tasks left to claim.  The caller must hold the lock on
+     * the queue.
+     *
+     * @return The task (<code>null</code> if the queue is empty).
+     */
+    private static Task nextTask() {
+        while (!queue.isEmpty()) {
+            Batch batch = (Batch) queue.getFirst();
+            int index = batch.claim();
+            if (index >= 0) {
+                return batch.tasks[index];
+            }
+            queue.removeFirst();
+        }
+        return null;
+    }
+
+    /**
+     * Draws one layer of a plot.
+     */
+    abstract static class Task {
+
+        /** The region of the layer (in Java2D space). */
+        private Rectangle2D area;
+
+        /** The batch (set by the compositor). */
+        private Batch batch;
+
+        /** The index of the task in the batch. */
+        private int index;
+
+        /** The graphics target for the layer image. */
+        private Graphics2D g2;
+
+        /** The layer image. */
+        private BufferedImage image;
+
+        /** The x-coordinate of the image in device space. */
+        private int x;
+
+        /** The y-coordinate of the image in device space. */
+        private int y;
+
+        /** A flag that indicates whether any of the image is visible. */
+        private boolean visible;
+
+        /**
+         * Creates a new task.
+         *
+         * @param area  the region that the layer is drawn in (in Java2D
+         *     space); anything drawn outside it is clipped.
+         */
+        Task(Rectangle2D area) {
+            this.area = area;
+        }
+
+        /**
+         * Draws the layer.
+         *
+         * @param g2  the graphics target (for the layer image).
+         */
+        abstract void draw(Graphics2D g2);
+
+    }
+
+    /**
+     * The tasks for one call to {@link LayerCompositor#drawLayers(Graphics2D,
+     * Task[], Plot)}.
+     */
+    private static class Batch {
+
+        /** The tasks. */
+        private Task[] tasks;
+
+        /** The index of the next task to claim. */
+        private int next;
+
+        /** Flags for the tasks that have finished. */
+        private boolean[] finished;
+
+        /** The number of leading tasks that have all finished. */
+        private int finishedPrefix;
+
+        /** The number of tasks that have finished. */
+        private int finishedCount;
+
+        /** The first failure. */
+        private Throwable error;
+
+        /**
+         * Creates a new batch.
+         *
+         * @param tasks  the tasks.
+         */
+        Batch(Task[] tasks) {
+            this.tasks = tasks;
+            this.finished = new boolean[tasks.length];
+        }
+
+        /**
+         * Claims the next task.
+         *
+         * @return The task index (<code>-1</code> if there are none left).
+         */
+        synchronized int claim() {
+            return this.next < this.tasks.length ? this.next++ : -1;
+        }
+
+        /**
+         * Runs a task on the current thread.
+         *
+         * @param task  the task.
+         */
+        void run(Task task) {
+            Throwable failure = null;
+            currentTask.set(task);
+            try {
+                task.draw(task.g2);
+            }
+            catch (Throwable t) {
+                failure = t;
+            }
+            finally {
+                currentTask.set(null);
+                task.g2.dispose();
+                task.g2 = null;
+            }
+            finish(task.index, failure);
+        }
+
+        /**
+         * Records that a task has finished.
+         *
+         * @param index  the task index.
+         * @param failure  the failure (<code>null</code> if the task
+         *     succeeded).
+         */
+        private synchronized void finish(int index, Throwable failure) {
+            if (failure != null && this.error == null) {
+                this.error = failure;
+            }
+            this.finished[index] = true;
+            this.finishedCount++;
+            while (this.finishedPrefix < this.finished.length
+                    && this.finished[this.finishedPrefix]) {
+                this.finishedPrefix++;
+            }
+            notifyAll();
+        }
+
+        /**
+         * Waits until all the tasks before the specified task have finished.
+         *
+         * @param index  the task index.
+         */
+        synchronized void awaitTurn(int index) {
+            while (this.finishedPrefix < index) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    // keep the flag for the caller, and carry on unordered
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Waits until all the tasks have finished.
+         */
+        synchronized void awaitCompletion() {
+            boolean interrupted = false;
+            while (this.finishedCount < this.tasks.length) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Returns the first failure.
+         *
+         * @return The failure (<code>null</code> if there was none).
+         */
+        synchronized Throwable getError() {
+            return this.error;
+        }
+
+    }
+
+    /**
+     * A drawing supplier that hands out the items of another supplier in the
+     * order of the layers of a batch.
+     */
+    private static class OrderedDrawingSupplier implements DrawingSupplier {
+
+        /** The underlying supplier. */
+        private DrawingSupplier supplier;
+
+        /** The batch. */
+        private Batch batch;
+
+        /**
+         * Creates a new supplier.
+         *
+         * @param supplier  the underlying supplier.
+         * @param batch  the batch.
+         */
+        OrderedDrawingSupplier(DrawingSupplier supplier, Batch batch) {
+            this.supplier = supplier;
+            this.batch = batch;
+        }
+
+        /**
+         * Waits until the previous layers of the batch have finished, if the
+         * current thread is drawing a layer of the batch.
+         */
+        private void awaitTurn() {
+            Task task = (Task) currentTask.get();
+            if (task != null && task.batch == this.batch) {
+                this.batch.awaitTurn(task.index);
+            }
+        }
+
+        /**
+         * Returns the next paint in the sequence.
+         *
+         * @return The paint.
+         */
+        public Paint getNextPaint() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextPaint();
+            }
+        }
+
+        /**
+         * Returns the next outline paint in the sequence.
+         *
+         * @return The paint.
+         */
+        public Paint getNextOutlinePaint() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextOutlinePaint();
+            }
+        }
+
+        /**
+         * Returns the next fill paint in the sequence.
+         *
+         * @return The paint.
+         */
+        public Paint getNextFillPaint() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextFillPaint();
+            }
+        }
+
+        /**
+         * Returns the next stroke in the sequence.
+         *
+         * @return The stroke.
+         */
+        public Stroke getNextStroke() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextStroke();
+            }
+        }
+
+        /**
+         * Returns the next outline stroke in the sequence.
+         *
+         * @return The stroke.
+         */
+        public Stroke getNextOutlineStroke() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextOutlineStroke();
+            }
+        }
+
+        /**
+         * Returns the next shape in the sequence.
+         *
+         * @return The shape.
+         */
+        public Shape getNextShape() {
+            awaitTurn();
+            synchronized (this) {
+                return this.supplier.getNextShape();
+            }
+        }
+
+    }
+
+    /**
+     * A worker thread that runs the queued tasks.
+     */
+    private static class Worker extends Thread {
+
+        /**
+         * Creates a new worker.
+         *
+         * @param name  the thread name.
+         */
+        Worker(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        /**
+         * Runs queued tasks for the life of the application.
+         */
+        public void run() {
+            while (true) {
+                Task task;
+                synchronized (queue) {
+                    task = nextTask();
+                    while (task == null) {
+                        try {
+                            queue.wait();
+                        }
+                        catch (InterruptedException e) {
+                            return;
+                        }
+                        task = nextTask();
+                    }
+                }
+                task.batch.run(task);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,260 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * ---------------------------
+ * LevelOfDetailXYDataset.java
+ * ---------------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A read-only view of a subset of the items in an {@link XYDataset}, used by
+ * the {@link XYPlot} to pass the items that are visible at the current
+ * resolution to a renderer.
+ */
+class LevelOfDetailXYDataset extends AbstractXYDataset {
+
+    /** The underlying dataset. */
+    private XYDataset source;
+
+    /**
+     * The indices of the items in the underlying dataset, by series
+     * (<code>null</code> for a series that is passed through unchanged).
+     */
+    private int[][] items;
+
+    /**
+     * Creates a view for a dataset.
+     *
+     * @param source  the underlying dataset (<code>null</code> not
+     *     permitted).
+     * @param items  the item indices by series (<code>null</code> entries
+     *     permitted).
+     *
+     * @return The view.
+     */
+    static LevelOfDetailXYDataset createView(XYDataset source,
+            int[][] items) {
+        if (source instanceof IntervalXYDataset) {
+            return new Interval((IntervalXYDataset) source, items);
+        }
+        return new LevelOfDetailXYDataset(source, items);
+    }
+
+    /**
+     * Creates a new view.
+     *
+     * @param source  the underlying dataset.
+     * @param items  the item indices by series.
+     */
+    private LevelOfDetailXYDataset(XYDataset source, int[][] items) {
+        this.source = source;
+        this.items = items;
+    }
+
+    /**
+     * Returns the index of an item in the underlying dataset.
+     *
+     * @param series  the series index.
+     * @param item  the item index in this view.
+     *
+     * @return The item index in the underlying dataset.
+     */
+    int getSourceItem(int series, int item) {
+        int[] seriesItems = this.items[series];
+        return seriesItems == null ? item : seriesItems[item];
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.source.getSeriesCount();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The series key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return this.source.getSeriesKey(series);
+    }
+
+    /**
+     * Returns the order of the domain values, always
+     * {@link DomainOrder#ASCENDING} since views are only created for
+     * datasets with ascending x-values.
+     *
+     * @return The domain order.
+     */
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        int[] seriesItems = this.items[series];
+        return seriesItems == null ? this.source.getItemCount(series)
+                : seriesItems.length;
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return The x-value.
+     */
+    public Number getX(int series, int item) {
+        return this.source.getX(series, getSourceItem(series, item));
+    }
+
+    /**
+     * Returns the x-value for an item as a double primitive.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        return this.source.getXValue(series, getSourceItem(series, item));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return The y-value.
+     */
+    public Number getY(int series, int item) {
+        return this.source.getY(series, getSourceItem(series, item));
+    }
+
+    /**
+     * Returns the y-value for an item as a double primitive.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return The y-value.
+     */
+    public double getYValue(int series, int item) {
+        return this.source.getYValue(series, getSourceItem(series, item));
+    }
+
+    /**
+     * A view of an {@link IntervalXYDataset}.
+     */
+    private static class Interval extends LevelOfDetailXYDataset
+            implements IntervalXYDataset {
+
+        /** The underlying dataset. */
+        private IntervalXYDataset intervalSource;
+
+        /**
+         * Creates a new view.
+         *
+         * @param source  the underlying dataset.
+         * @param items  the item indices by series.
+         */
+        Interval(IntervalXYDataset source, int[][] items) {
+            super(source, items);
+            this.intervalSource = source;
+        }
+
+        public Number getStartX(int series, int item) {
+            return this.intervalSource.getStartX(series,
+                    getSourceItem(series, item));
+        }
+
+        public double getStartXValue(int series, int item) {
+            return this.intervalSource.getStartXValue(series,
+                    getSourceItem(series, item));
+        }
+
+        public Number getEndX(int series, int item) {
+            return this.intervalSource.getEndX(series,
+                    getSourceItem(series, item));
+        }
+
+        public double getEndXValue(int series, int item) {
+            return this.intervalSource.getEndXValue(series,
+                    getSourceItem(series, item));
+        }
+
+        public Number getStartY(int series, int item) {
+            return this.intervalSource.getStartY(series,
+                    getSourceItem(series, item));
+        }
+
+        public double getStartYValue(int series, int item) {
+            return this.intervalSource.getStartYValue(series,
+                    getSourceItem(series, item));
+        }
+
+        public Number getEndY(int series, int item) {
+            return this.intervalSource.getEndY(series,
+                    getSourceItem(series, item));
+        }
+
+        public double getEndYValue(int series, int item) {
+            return this.intervalSource.getEndYValue(series,
+                    getSourceItem(series, item));
+        }
+
+    }
+
+}
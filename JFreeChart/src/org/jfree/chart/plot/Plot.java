@@ -127,6 +127,8 @@
  * 15-Aug-2008 : Added setDrawingSupplier() method with notify flag (DG);
  * 13-Jan-2009 : Added notify flag (DG);
  * 19-Mar-2009 : Added entity support - see patch 2603321 by Peter Kolb (DG);
+ * 18-Oct-2026 : Added KEY_DEFER_OVERLAY, drawOverlay() and
+ *               fireOverlayChangeEvent();
  *
  */
 
@@ -141,6 +143,7 @@ import java.awt.GradientPaint;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Paint;
+import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.Ellipse2D;
@@ -196,6 +199,20 @@ public abstract class Plot implements AxisChangeListener,
     /** Useful constant representing zero. */
     public static final Number ZERO = new Integer(0);
 
+    /**
+     * A rendering hint that, when set to {@link Boolean#TRUE}, asks a plot to
+     * leave out the parts of the plot that {@link #drawOverlay(Graphics2D,
+     * PlotRenderingInfo)} draws.  A chart panel with a deferred overlay
+     * (see {@link org.jfree.chart.ChartPanel#setOverlayDeferred(boolean)})
+     * sets this hint when it draws the chart to a buffer, and draws the
+     * overlay on top of the buffer, so that changes to the overlay only need
+     * the overlay to be redrawn.
+     *
+     * @since 1.2.0
+     */
+    public static final RenderingHints.Key KEY_DEFER_OVERLAY
+            = new OverlayKey();
+
     /** The default insets. */
     public static final RectangleInsets DEFAULT_INSETS
             = new RectangleInsets(4.0, 8.0, 4.0, 8.0);
@@ -979,6 +996,20 @@ public abstract class Plot implements AxisChangeListener,
         notifyListeners(new PlotChangeEvent(this));
     }
 
+    /**
+     * Sends a {@link PlotChangeEvent} of type
+     * {@link ChartChangeEventType#OVERLAY_UPDATED} to all registered
+     * listeners, for a change that only affects the parts of the plot drawn
+     * by {@link #drawOverlay(Graphics2D, PlotRenderingInfo)}.
+     *
+     * @since 1.2.0
+     */
+    protected void fireOverlayChangeEvent() {
+        PlotChangeEvent event = new PlotChangeEvent(this);
+        event.setType(ChartChangeEventType.OVERLAY_UPDATED);
+        notifyListeners(event);
+    }
+
     /**
      * Draws the plot within the specified area.  The anchor is a point on the
      * chart that is specified externally (for instance, it may be the last
@@ -1182,6 +1213,38 @@ public abstract class Plot implements AxisChangeListener,
         // provides a 'no action' default
     }
 
+    /**
+     * Draws the parts of the plot that were left out of the last call to
+     * {@link #draw(Graphics2D, Rectangle2D, Point2D, PlotState,
+     * PlotRenderingInfo)} because the {@link #KEY_DEFER_OVERLAY} hint was
+     * set.  The default implementation draws nothing, subclasses that
+     * respect the hint should override.
+     *
+     * @param g2  the graphics device (in the same coordinate space as the
+     *     call to draw()).
+     * @param info  the plot rendering info from the last call to draw()
+     *     (<code>null</code> permitted, in which case nothing is drawn).
+     *
+     * @since 1.2.0
+     */
+    public void drawOverlay(Graphics2D g2, PlotRenderingInfo info) {
+        // nothing to draw by default
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link #KEY_DEFER_OVERLAY} hint is
+     * set for a graphics device.
+     *
+     * @param g2  the graphics device.
+     *
+     * @return A boolean.
+     *
+     * @since 1.2.0
+     */
+    protected static boolean isOverlayDeferred(Graphics2D g2) {
+        return Boolean.TRUE.equals(g2.getRenderingHint(KEY_DEFER_OVERLAY));
+    }
+
     /**
      * Performs a zoom on the plot.  Subclasses should override if zooming is
      * appropriate for the type of plot.
@@ -1524,4 +1587,29 @@ public abstract class Plot implements AxisChangeListener,
 
     }
 
+    /**
+     * The key for the {@link #KEY_DEFER_OVERLAY} rendering hint.
+     */
+    private static class OverlayKey extends RenderingHints.Key {
+
+        /**
+         * Creates the key.
+         */
+        OverlayKey() {
+            super(0);
+        }
+
+        /**
+         * Returns <code>true</code> for <code>Boolean</code> values.
+         *
+         * @param val  the value.
+         *
+         * @return A boolean.
+         */
+        public boolean isCompatibleValue(Object val) {
+            return val instanceof Boolean;
+        }
+
+    }
+
 }
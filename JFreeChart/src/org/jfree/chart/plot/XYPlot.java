@@ -223,6 +223,11 @@
  *               Voigt (DG);
  * 19-Mar-2009 : Added entity support - see patch 2603321 by Peter Kolb (DG);
  * 30-Mar-2009 : Delegate panning to axes (DG);
+ * 18-Oct-2026 : Added level of detail rendering for large datasets;
+ * 18-Oct-2026 : Draw the crosshairs in drawOverlay() when the overlay is
+ *               deferred, and added moveCrosshairs();
+ * 18-Oct-2026 : Added parallel rendering of datasets;
+ * 19-Oct-2026 : Extend the level of detail pyramids when items are appended;
  *
  */
 
@@ -245,9 +250,11 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -273,6 +280,10 @@ import org.jfree.chart.event.RendererChangeEvent;
 import org.jfree.chart.event.RendererChangeListener;
 import org.jfree.chart.renderer.RendererUtilities;
 import org.jfree.chart.renderer.xy.AbstractXYItemRenderer;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer2;
+import org.jfree.chart.renderer.xy.StackedXYBarRenderer;
+import org.jfree.chart.renderer.xy.XYDifferenceRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.chart.renderer.xy.XYItemRendererState;
 import org.jfree.chart.util.Layer;
@@ -284,11 +295,18 @@ import org.jfree.chart.util.RectangleEdge;
 import org.jfree.chart.util.RectangleInsets;
 import org.jfree.chart.util.ResourceBundleWrapper;
 import org.jfree.chart.util.SerialUtilities;
+import org.jfree.data.DomainOrder;
 import org.jfree.data.Range;
 import org.jfree.data.general.Dataset;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.statistics.BoxAndWhiskerXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.TableXYDataset;
+import org.jfree.data.xy.VectorXYDataset;
+import org.jfree.data.xy.WindDataset;
 import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYZDataset;
 
 /**
  * A general class for plotting data in the form of (x, y) pairs.  This plot can
@@ -325,6 +343,12 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     /** The default crosshair paint. */
     public static final Paint DEFAULT_CROSSHAIR_PAINT = Color.blue;
 
+    /**
+     * The number of items per pixel above which a series is reduced when
+     * level of detail rendering is enabled.
+     */
+    private static final int LEVEL_OF_DETAIL_THRESHOLD = 4;
+
     /** The resourceBundle for the localization. */
     protected static ResourceBundle localizationResources
             = ResourceBundleWrapper.getBundle(
@@ -584,6 +608,35 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
      */
     private boolean rangePannable;
 
+    /**
+     * A flag that controls whether or not large datasets are reduced to the
+     * items that are visible at the resolution of the data area before they
+     * are passed to the renderer.
+     *
+     * @since 1.2.0
+     */
+    private boolean levelOfDetailEnabled;
+
+    /**
+     * The min/max pyramids used for level of detail rendering, an array of
+     * {@link XYSeriesPyramid} instances (by series) for each dataset.
+     */
+    private transient Map levelOfDetailPyramids;
+
+    /**
+     * A flag that controls whether or not the datasets (or, for a combined
+     * plot, the subplots) are drawn in parallel on raster targets.
+     *
+     * @since 1.2.0
+     */
+    private boolean parallelRendering;
+
+    /** The index of the domain axis for the crosshair in the last draw. */
+    private transient int crosshairDomainAxisIndex;
+
+    /** The index of the range axis for the crosshair in the last draw. */
+    private transient int crosshairRangeAxisIndex;
+
     /**
      * Creates a new <code>XYPlot</code> instance with no dataset, no axes and
      * no renderer.  You should specify these items before using the plot.
@@ -3275,10 +3328,8 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             }
 
             // render data items...
-            for (int i = 0; i < getDatasetCount(); i++) {
-                foundData = render(g2, dataArea, i, info, crosshairState)
-                    || foundData;
-            }
+            foundData = renderDatasets(g2, dataArea, info, crosshairState,
+                    false);
 
             // draw foreground annotations
             for (int i = 0; i < rendererCount; i++) {
@@ -3309,10 +3360,8 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
                 }
             }
 
-            for (int i = getDatasetCount() - 1; i >= 0; i--) {
-                foundData = render(g2, dataArea, i, info, crosshairState)
-                    || foundData;
-            }
+            foundData = renderDatasets(g2, dataArea, info, crosshairState,
+                    true);
 
             // draw foreground annotations
             for (int i = rendererCount - 1; i >= 0; i--) {
@@ -3345,7 +3394,9 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             crosshairState.setCrosshairX(xx);
         }
         setDomainCrosshairValue(crosshairState.getCrosshairX(), false);
-        if (isDomainCrosshairVisible()) {
+        this.crosshairDomainAxisIndex = xAxisIndex;
+        boolean deferOverlay = isOverlayDeferred(g2);
+        if (isDomainCrosshairVisible() && !deferOverlay) {
             double x = getDomainCrosshairValue();
             Paint paint = getDomainCrosshairPaint();
             Stroke stroke = getDomainCrosshairStroke();
@@ -3366,7 +3417,8 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             crosshairState.setCrosshairY(yy);
         }
         setRangeCrosshairValue(crosshairState.getCrosshairY(), false);
-        if (isRangeCrosshairVisible()) {
+        this.crosshairRangeAxisIndex = yAxisIndex;
+        if (isRangeCrosshairVisible() && !deferOverlay) {
             double y = getRangeCrosshairValue();
             Paint paint = getRangeCrosshairPaint();
             Stroke stroke = getRangeCrosshairStroke();
@@ -3392,6 +3444,107 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
 
     }
 
+    /**
+     * Draws the crosshairs, if they were left out of the last call to
+     * {@link #draw(Graphics2D, Rectangle2D, Point2D, PlotState,
+     * PlotRenderingInfo)} because the {@link Plot#KEY_DEFER_OVERLAY} hint
+     * was set.
+     *
+     * @param g2  the graphics device.
+     * @param info  the plot rendering info from the last call to draw()
+     *     (<code>null</code> permitted, in which case nothing is drawn).
+     *
+     * @since 1.2.0
+     */
+    public void drawOverlay(Graphics2D g2, PlotRenderingInfo info) {
+        if (info == null || info.getDataArea() == null) {
+            return;
+        }
+        Rectangle2D dataArea = info.getDataArea();
+        if (dataArea.isEmpty()) {
+            return;
+        }
+        PlotOrientation orient = getOrientation();
+        Shape originalClip = g2.getClip();
+        Composite originalComposite = g2.getComposite();
+        g2.clip(dataArea);
+        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
+                getForegroundAlpha()));
+        ValueAxis xAxis = getDomainAxis(this.crosshairDomainAxisIndex);
+        if (isDomainCrosshairVisible() && xAxis != null) {
+            drawDomainCrosshair(g2, dataArea, orient,
+                    getDomainCrosshairValue(), xAxis,
+                    getDomainCrosshairStroke(), getDomainCrosshairPaint());
+        }
+        ValueAxis yAxis = getRangeAxis(this.crosshairRangeAxisIndex);
+        if (isRangeCrosshairVisible() && yAxis != null) {
+            drawRangeCrosshair(g2, dataArea, orient,
+                    getRangeCrosshairValue(), yAxis,
+                    getRangeCrosshairStroke(), getRangeCrosshairPaint());
+        }
+        g2.setClip(originalClip);
+        g2.setComposite(originalComposite);
+    }
+
+    /**
+     * Moves the crosshairs to an anchor point (typically the point where the
+     * mouse was clicked), the same way that drawing the plot with the anchor
+     * would, and sends a change event that only affects the overlay.  This
+     * is only possible when neither crosshair is locked on the data, since
+     * finding the nearest data item requires the data to be drawn again.
+     *
+     * @param anchor  the anchor point (in Java2D space, <code>null</code> not
+     *     permitted).
+     * @param info  the plot rendering info from the last call to draw()
+     *     (<code>null</code> permitted).
+     *
+     * @return <code>true</code> if the crosshairs were moved, and
+     *     <code>false</code> if the plot needs to be drawn with the anchor.
+     *
+     * @since 1.2.0
+     */
+    public boolean moveCrosshairs(Point2D anchor, PlotRenderingInfo info) {
+        if (anchor == null) {
+            throw new IllegalArgumentException("Null 'anchor' argument.");
+        }
+        if (info == null || info.getDataArea() == null
+                || info.getSubplotCount() > 0
+                || this.domainCrosshairLockedOnData
+                || this.rangeCrosshairLockedOnData) {
+            return false;
+        }
+        Rectangle2D dataArea = info.getDataArea();
+        if (!dataArea.contains(anchor)) {
+            return true;
+        }
+        PlotOrientation orient = getOrientation();
+        ValueAxis xAxis = getDomainAxis(this.crosshairDomainAxisIndex);
+        ValueAxis yAxis = getRangeAxis(this.crosshairRangeAxisIndex);
+        if (xAxis == null || yAxis == null) {
+            return false;
+        }
+        RectangleEdge xAxisEdge = getDomainAxisEdge(
+                this.crosshairDomainAxisIndex);
+        RectangleEdge yAxisEdge = getRangeAxisEdge(
+                this.crosshairRangeAxisIndex);
+        double xx;
+        double yy;
+        if (orient == PlotOrientation.VERTICAL) {
+            xx = xAxis.java2DToValue(anchor.getX(), dataArea, xAxisEdge);
+            yy = yAxis.java2DToValue(anchor.getY(), dataArea, yAxisEdge);
+        }
+        else {
+            xx = xAxis.java2DToValue(anchor.getY(), dataArea, xAxisEdge);
+            yy = yAxis.java2DToValue(anchor.getX(), dataArea, yAxisEdge);
+        }
+        setDomainCrosshairValue(xx, false);
+        setRangeCrosshairValue(yy, false);
+        if (isDomainCrosshairVisible() || isRangeCrosshairVisible()) {
+            fireOverlayChangeEvent();
+        }
+        return true;
+    }
+
     /**
      * Draws the background for the plot.
      *
@@ -3715,66 +3868,331 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
 
             XYItemRendererState state = renderer.initialise(g2, dataArea, this,
                     dataset, info);
-            int passCount = renderer.getPassCount();
+            // the view is only passed to the drawing of the items, the
+            // renderers that process all the items need them all, and some
+            // renderers need the same items in every series
+            XYDataset view = null;
+            if (this.levelOfDetailEnabled && state.getProcessVisibleItemsOnly()
+                    && !(renderer instanceof XYDifferenceRenderer)
+                    && !(renderer instanceof StackedXYAreaRenderer)
+                    && !(renderer instanceof StackedXYAreaRenderer2)
+                    && !(renderer instanceof StackedXYBarRenderer)) {
+                view = createLevelOfDetailView(dataset, xAxis, dataArea);
+            }
+            if (view == null) {
+                view = dataset;
+            }
+            renderSeries(g2, dataArea, info, crosshairState, view, xAxis,
+                    yAxis, renderer, state);
+        }
+        return foundData;
+    }
 
-            SeriesRenderingOrder seriesOrder = getSeriesRenderingOrder();
-            if (seriesOrder == SeriesRenderingOrder.REVERSE) {
-                //render series in reverse order
-                for (int pass = 0; pass < passCount; pass++) {
-                    int seriesCount = dataset.getSeriesCount();
-                    for (int series = seriesCount - 1; series >= 0; series--) {
-                        int firstItem = 0;
-                        int lastItem = dataset.getItemCount(series) - 1;
-                        if (lastItem == -1) {
-                            continue;
-                        }
-                        if (state.getProcessVisibleItemsOnly()) {
-                            int[] itemBounds = RendererUtilities.findLiveItems(
-                                    dataset, series, xAxis.getLowerBound(),
-                                    xAxis.getUpperBound());
-                            firstItem = Math.max(itemBounds[0] - 1, 0);
-                            lastItem = Math.min(itemBounds[1] + 1, lastItem);
-                        }
-                        state.startSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
-                        for (int item = firstItem; item <= lastItem; item++) {
-                            renderer.drawItem(g2, state, dataArea, info,
-                                    this, xAxis, yAxis, dataset, series, item,
-                                    crosshairState, pass);
-                        }
-                        state.endSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
+    /**
+     * Draws the items of all the datasets, in the order specified.  If
+     * parallel rendering is enabled and supported by the target, the
+     * datasets are drawn at the same time (see
+     * {@link #setParallelRendering(boolean)}).
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the region in which the data is to be drawn.
+     * @param info  an optional object for collection dimension information.
+     * @param crosshairState  collects crosshair information.
+     * @param reverse  draw the datasets in reverse order?
+     *
+     * @return A flag that indicates whether any data was actually rendered.
+     */
+    private boolean renderDatasets(Graphics2D g2, Rectangle2D dataArea,
+            PlotRenderingInfo info, CrosshairState crosshairState,
+            boolean reverse) {
+        int count = getDatasetCount();
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = reverse ? count - 1 - i : i;
+        }
+        if (this.parallelRendering && LayerCompositor.isSupported(g2)) {
+            int[] layers = findParallelLayers(indices);
+            if (layers != null) {
+                renderLayers(g2, dataArea, layers, info, crosshairState);
+                return true;
+            }
+        }
+        boolean foundData = false;
+        for (int i = 0; i < count; i++) {
+            foundData = render(g2, dataArea, indices[i], info,
+                    crosshairState) || foundData;
+        }
+        return foundData;
+    }
+
+    /**
+     * Returns the indices of the datasets that are not empty, if there are
+     * at least two of them and no two of them share a renderer (renderers
+     * are not safe to use from two threads at once).
+     *
+     * @param indices  the dataset indices, in rendering order.
+     *
+     * @return The indices of the datasets to draw in parallel, in rendering
+     *     order (<code>null</code> if they should be drawn one at a time).
+     */
+    private int[] findParallelLayers(int[] indices) {
+        int[] layers = new int[indices.length];
+        int count = 0;
+        Map renderers = new IdentityHashMap();
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            if (DatasetUtilities.isEmptyOrNull(getDataset(index))) {
+                continue;
+            }
+            XYItemRenderer renderer = getRenderer(index);
+            if (renderer == null) {
+                renderer = getRenderer();
+            }
+            if (renderer != null
+                    && renderers.put(renderer, renderer) != null) {
+                return null;
+            }
+            layers[count++] = index;
+        }
+        if (count < 2) {
+            return null;
+        }
+        int[] result = new int[count];
+        System.arraycopy(layers, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Draws several datasets at the same time, each into an image of its
+     * own, then draws the images in order.  The entities and the crosshair
+     * point are merged in order too, so the result is the same as calling
+     * {@link #render(Graphics2D, Rectangle2D, int, PlotRenderingInfo,
+     * CrosshairState)} for each dataset in turn.
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the region in which the data is to be drawn.
+     * @param layers  the dataset indices, in rendering order.
+     * @param info  an optional object for collection dimension information.
+     * @param crosshairState  collects crosshair information.
+     */
+    private void renderLayers(Graphics2D g2, final Rectangle2D dataArea,
+            int[] layers, PlotRenderingInfo info,
+            CrosshairState crosshairState) {
+        CrosshairState[] states = new CrosshairState[layers.length];
+        PlotRenderingInfo[] infos = new PlotRenderingInfo[layers.length];
+        LayerCompositor.Task[] tasks = new LayerCompositor.Task[layers.length];
+        for (int i = 0; i < layers.length; i++) {
+            final int index = layers[i];
+            final CrosshairState state = new CrosshairState(crosshairState);
+            final PlotRenderingInfo layerInfo = LayerCompositor.createInfo(
+                    info);
+            states[i] = state;
+            infos[i] = layerInfo;
+            tasks[i] = new LayerCompositor.Task(dataArea) {
+                void draw(Graphics2D g2) {
+                    render(g2, dataArea, index, layerInfo, state);
+                }
+            };
+        }
+        LayerCompositor.drawLayers(g2, tasks, this);
+        for (int i = 0; i < layers.length; i++) {
+            crosshairState.merge(states[i]);
+            LayerCompositor.addEntities(infos[i], info);
+        }
+    }
+
+    /**
+     * Draws the items of all the series in a dataset, for each pass of the
+     * renderer.  This method is called by
+     * {@link #render(Graphics2D, Rectangle2D, int, PlotRenderingInfo,
+     * CrosshairState)}.
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the region in which the data is to be drawn.
+     * @param info  an optional object for collection dimension information.
+     * @param crosshairState  collects crosshair information
+     *                        (<code>null</code> permitted).
+     * @param dataset  the dataset (or a level of detail view of it).
+     * @param xAxis  the domain axis.
+     * @param yAxis  the range axis.
+     * @param renderer  the renderer.
+     * @param state  the renderer state returned by the initialise() method.
+     */
+    private void renderSeries(Graphics2D g2, Rectangle2D dataArea,
+            PlotRenderingInfo info, CrosshairState crosshairState,
+            XYDataset dataset, ValueAxis xAxis, ValueAxis yAxis,
+            XYItemRenderer renderer, XYItemRendererState state) {
+
+        int passCount = renderer.getPassCount();
+
+        SeriesRenderingOrder seriesOrder = getSeriesRenderingOrder();
+        if (seriesOrder == SeriesRenderingOrder.REVERSE) {
+            //render series in reverse order
+            for (int pass = 0; pass < passCount; pass++) {
+                int seriesCount = dataset.getSeriesCount();
+                for (int series = seriesCount - 1; series >= 0; series--) {
+                    int firstItem = 0;
+                    int lastItem = dataset.getItemCount(series) - 1;
+                    if (lastItem == -1) {
+                        continue;
+                    }
+                    if (state.getProcessVisibleItemsOnly()) {
+                        int[] itemBounds = RendererUtilities.findLiveItems(
+                                dataset, series, xAxis.getLowerBound(),
+                                xAxis.getUpperBound());
+                        firstItem = Math.max(itemBounds[0] - 1, 0);
+                        lastItem = Math.min(itemBounds[1] + 1, lastItem);
+                    }
+                    state.startSeriesPass(dataset, series, firstItem,
+                            lastItem, pass, passCount);
+                    for (int item = firstItem; item <= lastItem; item++) {
+                        renderer.drawItem(g2, state, dataArea, info,
+                                this, xAxis, yAxis, dataset, series, item,
+                                crosshairState, pass);
                     }
+                    state.endSeriesPass(dataset, series, firstItem,
+                            lastItem, pass, passCount);
                 }
             }
-            else {
-                //render series in forward order
-                for (int pass = 0; pass < passCount; pass++) {
-                    int seriesCount = dataset.getSeriesCount();
-                    for (int series = 0; series < seriesCount; series++) {
-                        int firstItem = 0;
-                        int lastItem = dataset.getItemCount(series) - 1;
-                        if (state.getProcessVisibleItemsOnly()) {
-                            int[] itemBounds = RendererUtilities.findLiveItems(
-                                    dataset, series, xAxis.getLowerBound(),
-                                    xAxis.getUpperBound());
-                            firstItem = Math.max(itemBounds[0] - 1, 0);
-                            lastItem = Math.min(itemBounds[1] + 1, lastItem);
-                        }
-                        state.startSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
-                        for (int item = firstItem; item <= lastItem; item++) {
-                            renderer.drawItem(g2, state, dataArea, info,
-                                    this, xAxis, yAxis, dataset, series, item,
-                                    crosshairState, pass);
-                        }
-                        state.endSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
+        }
+        else {
+            //render series in forward order
+            for (int pass = 0; pass < passCount; pass++) {
+                int seriesCount = dataset.getSeriesCount();
+                for (int series = 0; series < seriesCount; series++) {
+                    int firstItem = 0;
+                    int lastItem = dataset.getItemCount(series) - 1;
+                    if (state.getProcessVisibleItemsOnly()) {
+                        int[] itemBounds = RendererUtilities.findLiveItems(
+                                dataset, series, xAxis.getLowerBound(),
+                                xAxis.getUpperBound());
+                        firstItem = Math.max(itemBounds[0] - 1, 0);
+                        lastItem = Math.min(itemBounds[1] + 1, lastItem);
                     }
+                    state.startSeriesPass(dataset, series, firstItem,
+                            lastItem, pass, passCount);
+                    for (int item = firstItem; item <= lastItem; item++) {
+                        renderer.drawItem(g2, state, dataArea, info,
+                                this, xAxis, yAxis, dataset, series, item,
+                                crosshairState, pass);
+                    }
+                    state.endSeriesPass(dataset, series, firstItem,
+                            lastItem, pass, passCount);
                 }
             }
         }
-        return foundData;
+    }
+
+    /**
+     * Creates a view of a dataset that contains, for each series with many
+     * more visible items than there are pixels across the data area, the
+     * items needed to draw the series at that resolution.
+     *
+     * @param dataset  the dataset.
+     * @param xAxis  the domain axis.
+     * @param dataArea  the region in which the data is to be drawn.
+     *
+     * @return The view, or <code>null</code> if no series is reduced.
+     */
+    private XYDataset createLevelOfDetailView(XYDataset dataset,
+            ValueAxis xAxis, Rectangle2D dataArea) {
+        // the view carries the x, y and interval values only
+        if (dataset.getDomainOrder() != DomainOrder.ASCENDING
+                || dataset instanceof TableXYDataset
+                || dataset instanceof XYZDataset
+                || dataset instanceof OHLCDataset
+                || dataset instanceof VectorXYDataset
+                || dataset instanceof WindDataset
+                || dataset instanceof BoxAndWhiskerXYDataset) {
+            return null;
+        }
+        int axisIndex = getDomainAxisIndex(xAxis);
+        RectangleEdge edge = axisIndex >= 0 ? getDomainAxisEdge(axisIndex)
+                : getDomainAxisEdge();
+        boolean horizontal = RectangleEdge.isTopOrBottom(edge);
+        double start = horizontal ? dataArea.getMinX() : dataArea.getMinY();
+        int columns = (int) Math.ceil(horizontal ? dataArea.getWidth()
+                : dataArea.getHeight());
+        if (columns <= 0) {
+            return null;
+        }
+        int maxItems = LEVEL_OF_DETAIL_THRESHOLD * columns;
+
+        XYSeriesPyramid[] pyramids = null;
+        double[] bounds = null;
+        int seriesCount = dataset.getSeriesCount();
+        int[][] items = new int[seriesCount][];
+        boolean reduced = false;
+        for (int series = 0; series < seriesCount; series++) {
+            int itemCount = dataset.getItemCount(series);
+            if (itemCount <= maxItems) {
+                continue;
+            }
+            int[] itemBounds = RendererUtilities.findLiveItems(dataset,
+                    series, xAxis.getLowerBound(), xAxis.getUpperBound());
+            int first = Math.max(itemBounds[0] - 1, 0);
+            int last = Math.min(itemBounds[1] + 1, itemCount - 1);
+            if (last - first + 1 <= maxItems) {
+                continue;
+            }
+            if (bounds == null) {
+                bounds = new double[columns + 1];
+                for (int c = 0; c <= columns; c++) {
+                    bounds[c] = xAxis.java2DToValue(start + c, dataArea,
+                            edge);
+                }
+                // the axis may be inverted
+                Arrays.sort(bounds);
+                pyramids = getLevelOfDetailPyramids(dataset);
+            }
+            // datasets drawn in parallel may share a dataset
+            synchronized (pyramids) {
+                XYSeriesPyramid pyramid = pyramids[series];
+                if (pyramid == null || pyramid.getItemCount() > itemCount) {
+                    pyramid = new XYSeriesPyramid(dataset, series);
+                    pyramids[series] = pyramid;
+                }
+                else if (pyramid.getItemCount() < itemCount) {
+                    // the pyramids are kept only for appended items (see
+                    // datasetChanged())
+                    pyramid.append(dataset);
+                }
+                items[series] = pyramid.selectItems(dataset, first, last,
+                        bounds);
+            }
+            reduced = true;
+        }
+        if (!reduced) {
+            return null;
+        }
+        return LevelOfDetailXYDataset.createView(dataset, items);
+    }
+
+    /**
+     * Returns the min/max pyramids for a dataset, creating the storage if
+     * necessary.  The pyramids are discarded when items in the dataset are
+     * removed or replaced, and extended when items are appended (see
+     * {@link #datasetChanged(DatasetChangeEvent)}).
+     *
+     * @param dataset  the dataset.
+     *
+     * @return The pyramids by series (<code>null</code> entries for the
+     *     series that have none yet).
+     */
+    private synchronized XYSeriesPyramid[] getLevelOfDetailPyramids(
+            XYDataset dataset) {
+        if (this.levelOfDetailPyramids == null) {
+            // datasets may compute expensive hash codes from their content
+            this.levelOfDetailPyramids = new IdentityHashMap();
+        }
+        int seriesCount = dataset.getSeriesCount();
+        XYSeriesPyramid[] pyramids
+                = (XYSeriesPyramid[]) this.levelOfDetailPyramids.get(dataset);
+        if (pyramids == null || pyramids.length != seriesCount) {
+            pyramids = new XYSeriesPyramid[seriesCount];
+            this.levelOfDetailPyramids.put(dataset, pyramids);
+        }
+        return pyramids;
     }
 
     /**
@@ -4507,6 +4925,19 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
      * @param event  information about the event (not used here).
      */
     public void datasetChanged(DatasetChangeEvent event) {
+        synchronized (this) {
+            if (this.levelOfDetailPyramids != null) {
+                if (event.getSource() == this) {
+                    // a dataset was added, removed or replaced
+                    this.levelOfDetailPyramids.clear();
+                }
+                else if (!event.isAppend()) {
+                    // appended items are added to the pyramids when the
+                    // dataset is next drawn
+                    this.levelOfDetailPyramids.remove(event.getDataset());
+                }
+            }
+        }
         configureDomainAxes();
         configureRangeAxes();
         if (getParent() != null) {
@@ -4557,7 +4988,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairVisible(boolean flag) {
         if (this.domainCrosshairVisible != flag) {
             this.domainCrosshairVisible = flag;
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4625,7 +5056,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairValue(double value, boolean notify) {
         this.domainCrosshairValue = value;
         if (isDomainCrosshairVisible() && notify) {
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4656,7 +5087,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             throw new IllegalArgumentException("Null 'stroke' argument.");
         }
         this.domainCrosshairStroke = stroke;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4685,7 +5116,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             throw new IllegalArgumentException("Null 'paint' argument.");
         }
         this.domainCrosshairPaint = paint;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4712,7 +5143,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairVisible(boolean flag) {
         if (this.rangeCrosshairVisible != flag) {
             this.rangeCrosshairVisible = flag;
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4782,7 +5213,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairValue(double value, boolean notify) {
         this.rangeCrosshairValue = value;
         if (isRangeCrosshairVisible() && notify) {
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4813,7 +5244,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             throw new IllegalArgumentException("Null 'stroke' argument.");
         }
         this.rangeCrosshairStroke = stroke;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4842,7 +5273,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             throw new IllegalArgumentException("Null 'paint' argument.");
         }
         this.rangeCrosshairPaint = paint;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4975,6 +5406,93 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         this.rangePannable = pannable;
     }
 
+    /**
+     * Returns the flag that controls whether or not level of detail
+     * rendering is enabled.
+     *
+     * @return A boolean.
+     *
+     * @see #setLevelOfDetailEnabled(boolean)
+     *
+     * @since 1.2.0
+     */
+    public boolean isLevelOfDetailEnabled() {
+        return this.levelOfDetailEnabled;
+    }
+
+    /**
+     * Sets the flag that controls whether or not level of detail rendering
+     * is enabled, and sends a {@link PlotChangeEvent} to all registered
+     * listeners.  When enabled, a series with many more visible items than
+     * there are pixels across the data area is reduced, before it is passed
+     * to the renderer, to the first, lowest, highest and last item in each
+     * pixel column.  Lines drawn through the remaining items look the same,
+     * and the rendering time no longer depends on the item count.  The
+     * reduction applies to datasets with ascending x-values only, and to
+     * renderers that process the visible items only.  It is not applied for
+     * the renderers that need the same items in every series (the
+     * {@link XYDifferenceRenderer} and the stacked renderers), since each
+     * series is reduced separately.
+     * <P>
+     * The items dropped are not drawn at all, so this is not suitable for
+     * renderers that draw a shape for each item, and the entities added to
+     * the {@link PlotRenderingInfo} refer to a view of the dataset rather
+     * than to the dataset itself.
+     *
+     * @param enabled  the new flag value.
+     *
+     * @see #isLevelOfDetailEnabled()
+     *
+     * @since 1.2.0
+     */
+    public void setLevelOfDetailEnabled(boolean enabled) {
+        this.levelOfDetailEnabled = enabled;
+        if (!enabled) {
+            this.levelOfDetailPyramids = null;
+        }
+        fireChangeEvent();
+    }
+
+    /**
+     * Returns the flag that controls whether or not the datasets are drawn
+     * in parallel.
+     *
+     * @return A boolean.
+     *
+     * @see #setParallelRendering(boolean)
+     *
+     * @since 1.2.0
+     */
+    public boolean isParallelRendering() {
+        return this.parallelRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the datasets are drawn in
+     * parallel, and sends a {@link PlotChangeEvent} to all registered
+     * listeners.  When enabled, the datasets are drawn at the same time on a
+     * shared pool of worker threads, each into an image of its own, and the
+     * images are drawn onto the target in the dataset rendering order.  For
+     * a {@link CombinedDomainXYPlot} or a {@link CombinedRangeXYPlot}, the
+     * flag applies to the subplots instead.
+     * <P>
+     * The datasets are drawn one at a time if the target is not a raster
+     * target (for example, when exporting to PDF or SVG, or printing), if
+     * the datasets share a renderer, or if the plot is a subplot that is
+     * already being drawn in parallel.  The datasets must not be modified
+     * while the plot is drawn.
+     *
+     * @param parallel  the new flag value.
+     *
+     * @see #isParallelRendering()
+     *
+     * @since 1.2.0
+     */
+    public void setParallelRendering(boolean parallel) {
+        this.parallelRendering = parallel;
+        fireChangeEvent();
+    }
+
     /**
      * Pans the domain axes by the specified percentage.
      *
@@ -5331,6 +5849,12 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         if (this.rangeZeroBaselineVisible != that.rangeZeroBaselineVisible) {
             return false;
         }
+        if (this.levelOfDetailEnabled != that.levelOfDetailEnabled) {
+            return false;
+        }
+        if (this.parallelRendering != that.parallelRendering) {
+            return false;
+        }
         if (this.domainCrosshairVisible != that.domainCrosshairVisible) {
             return false;
         }
@@ -5566,6 +6090,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         clone.quadrantOrigin = (Point2D) ObjectUtilities.clone(
                 this.quadrantOrigin);
         clone.quadrantPaint = (Paint[]) this.quadrantPaint.clone();
+        clone.levelOfDetailPyramids = null;
         return clone;
 
     }
@@ -0,0 +1,403 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * XYSeriesPyramid.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ * 19-Oct-2026 : Added append() method;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A min/max pyramid over the y-values of one series in an {@link XYDataset}
+ * with ascending x-values.  The pyramid finds the lowest and highest item in
+ * any range of items in logarithmic time, which lets the {@link XYPlot}
+ * reduce a series to a handful of items per pixel column (see
+ * {@link XYPlot#setLevelOfDetailEnabled(boolean)}).  Items appended to the
+ * series are added to the pyramid without building it again.
+ */
+class XYSeriesPyramid {
+
+    /** The number of items in a block at the lowest level (a power of 2). */
+    private static final int BLOCK_SIZE = 64;
+
+    /** The shift for the block size. */
+    private static final int BLOCK_SHIFT = 6;
+
+    /** The series index. */
+    private int series;
+
+    /** The item count when the pyramid was built or last extended. */
+    private int itemCount;
+
+    /**
+     * The index of the item with the lowest y-value for each block, by
+     * level (-1 if all the y-values in the block are NaN).  The arrays have
+     * room for appended items, so they can be longer than the block count.
+     */
+    private int[][] minItems;
+
+    /**
+     * The index of the item with the highest y-value for each block, by
+     * level (-1 if all the y-values in the block are NaN).
+     */
+    private int[][] maxItems;
+
+    /**
+     * Builds a pyramid for a series.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param series  the series index.
+     */
+    XYSeriesPyramid(XYDataset dataset, int series) {
+        this.series = series;
+        this.minItems = new int[0][];
+        this.maxItems = new int[0][];
+        append(dataset);
+    }
+
+    /**
+     * Returns the number of items in the series when the pyramid was built
+     * or last extended.
+     *
+     * @return The item count.
+     */
+    int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Adds the items appended to the series since the pyramid was built or
+     * last extended.  Only the last block of the series and the blocks above
+     * the new items are computed again, so a series that grows by a few
+     * items at a time is not scanned each time.  The items before the
+     * appended ones must not have changed.
+     *
+     * @param dataset  the dataset the pyramid was built for.
+     */
+    void append(XYDataset dataset) {
+        int oldCount = this.itemCount;
+        this.itemCount = dataset.getItemCount(this.series);
+        int blockCount = (this.itemCount + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        int levelCount = 1;
+        for (int n = blockCount; n > 1; n = (n + 1) / 2) {
+            levelCount++;
+        }
+        if (levelCount > this.minItems.length) {
+            int[][] mins = new int[levelCount][];
+            int[][] maxs = new int[levelCount][];
+            System.arraycopy(this.minItems, 0, mins, 0, this.minItems.length);
+            System.arraycopy(this.maxItems, 0, maxs, 0, this.maxItems.length);
+            for (int level = this.minItems.length; level < levelCount;
+                    level++) {
+                mins[level] = new int[0];
+                maxs[level] = new int[0];
+            }
+            this.minItems = mins;
+            this.maxItems = maxs;
+        }
+
+        // the last block may have been partly filled
+        int from = oldCount >> BLOCK_SHIFT;
+        ensureCapacity(0, blockCount);
+        int[] mins = this.minItems[0];
+        int[] maxs = this.maxItems[0];
+        int[] extremes = new int[2];
+        for (int b = from; b < blockCount; b++) {
+            int first = b << BLOCK_SHIFT;
+            int last = Math.min(first + BLOCK_SIZE, this.itemCount) - 1;
+            extremes[0] = -1;
+            extremes[1] = -1;
+            scan(dataset, first, last, extremes);
+            mins[b] = extremes[0];
+            maxs[b] = extremes[1];
+        }
+
+        int lowerCount = blockCount;
+        for (int level = 1; level < levelCount; level++) {
+            int[] lowerMins = this.minItems[level - 1];
+            int[] lowerMaxs = this.maxItems[level - 1];
+            int count = (lowerCount + 1) / 2;
+            from = from >> 1;
+            ensureCapacity(level, count);
+            mins = this.minItems[level];
+            maxs = this.maxItems[level];
+            for (int b = from; b < count; b++) {
+                int left = 2 * b;
+                int right = left + 1;
+                if (right < lowerCount) {
+                    mins[b] = lower(dataset, lowerMins[left],
+                            lowerMins[right]);
+                    maxs[b] = higher(dataset, lowerMaxs[left],
+                            lowerMaxs[right]);
+                }
+                else {
+                    mins[b] = lowerMins[left];
+                    maxs[b] = lowerMaxs[left];
+                }
+            }
+            lowerCount = count;
+        }
+    }
+
+    /**
+     * Makes sure that a level has room for a number of blocks, doubling the
+     * length of its arrays when they are too short.
+     *
+     * @param level  the level.
+     * @param count  the number of blocks.
+     */
+    private void ensureCapacity(int level, int count) {
+        int[] mins = this.minItems[level];
+        if (mins.length >= count) {
+            return;
+        }
+        int length = Math.max(count, 2 * mins.length);
+        int[] newMins = new int[length];
+        int[] newMaxs = new int[length];
+        System.arraycopy(mins, 0, newMins, 0, mins.length);
+        System.arraycopy(this.maxItems[level], 0, newMaxs, 0, mins.length);
+        this.minItems[level] = newMins;
+        this.maxItems[level] = newMaxs;
+    }
+
+    /**
+     * Finds the items with the lowest and the highest y-value in a range of
+     * items.  NaN values are ignored.
+     *
+     * @param dataset  the dataset the pyramid was built for.
+     * @param first  the index of the first item.
+     * @param last  the index of the last item (inclusive).
+     * @param result  receives the index of the lowest item at position 0 and
+     *     of the highest item at position 1 (-1 if there is none).
+     */
+    void findExtremes(XYDataset dataset, int first, int last, int[] result) {
+        result[0] = -1;
+        result[1] = -1;
+        int firstBlock = (first + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        int lastBlock = ((last + 1) >> BLOCK_SHIFT) - 1;
+        if (firstBlock > lastBlock) {
+            scan(dataset, first, last, result);
+            return;
+        }
+        scan(dataset, first, (firstBlock << BLOCK_SHIFT) - 1, result);
+        scan(dataset, (lastBlock + 1) << BLOCK_SHIFT, last, result);
+
+        // walk up the levels, taking the blocks that stick out at each end
+        int lo = firstBlock;
+        int hi = lastBlock;
+        int level = 0;
+        while (lo <= hi) {
+            if ((lo & 1) == 1) {
+                merge(dataset, level, lo, result);
+                lo++;
+            }
+            if ((hi & 1) == 0) {
+                merge(dataset, level, hi, result);
+                hi--;
+            }
+            lo = lo >> 1;
+            hi = hi >> 1;
+            level++;
+        }
+    }
+
+    /**
+     * Selects the items to draw for a range of items, given the x-values of
+     * the pixel column boundaries.  For each column, the first, lowest,
+     * highest and last items are selected, so that a line drawn through the
+     * selected items covers the same pixels as a line drawn through all the
+     * items.
+     *
+     * @param dataset  the dataset the pyramid was built for.
+     * @param first  the index of the first item.
+     * @param last  the index of the last item (inclusive).
+     * @param bounds  the x-values of the column boundaries, in ascending
+     *     order.
+     *
+     * @return The indices of the selected items, in ascending order.
+     */
+    int[] selectItems(XYDataset dataset, int first, int last,
+            double[] bounds) {
+        int[] selected = new int[4 * (bounds.length + 1)];
+        int count = 0;
+        int[] extremes = new int[2];
+        int start = first;
+        for (int c = 0; c <= bounds.length; c++) {
+            int end = last;
+            if (c < bounds.length) {
+                end = findItem(dataset, bounds[c], start, last) - 1;
+            }
+            if (end < start) {
+                continue;
+            }
+            findExtremes(dataset, start, end, extremes);
+            int low = Math.min(extremes[0], extremes[1]);
+            int high = Math.max(extremes[0], extremes[1]);
+            selected[count++] = start;
+            if (low > start) {
+                selected[count++] = low;
+            }
+            if (high > low && high > start) {
+                selected[count++] = high;
+            }
+            if (end > high && end > start) {
+                selected[count++] = end;
+            }
+            start = end + 1;
+        }
+        int[] result = new int[count];
+        System.arraycopy(selected, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Returns the index of the first item with an x-value greater than or
+     * equal to <code>x</code>, in the range <code>first</code> to
+     * <code>last</code>.
+     *
+     * @param dataset  the dataset.
+     * @param x  the x-value.
+     * @param first  the index of the first item.
+     * @param last  the index of the last item (inclusive).
+     *
+     * @return The item index, <code>last + 1</code> if all the x-values are
+     *     lower than <code>x</code>.
+     */
+    int findItem(XYDataset dataset, double x, int first, int last) {
+        int low = first;
+        int high = last + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dataset.getXValue(this.series, mid) < x) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges the extremes of one block into a result.
+     *
+     * @param dataset  the dataset.
+     * @param level  the level.
+     * @param block  the block index at that level.
+     * @param result  the result.
+     */
+    private void merge(XYDataset dataset, int level, int block, int[] result) {
+        result[0] = lower(dataset, result[0], this.minItems[level][block]);
+        result[1] = higher(dataset, result[1], this.maxItems[level][block]);
+    }
+
+    /**
+     * Scans a range of items, merging the extremes into a result.
+     *
+     * @param dataset  the dataset.
+     * @param first  the index of the first item.
+     * @param last  the index of the last item (inclusive).
+     * @param result  the result.
+     */
+    private void scan(XYDataset dataset, int first, int last, int[] result) {
+        int min = result[0];
+        int max = result[1];
+        double minY = min < 0 ? Double.NaN
+                : dataset.getYValue(this.series, min);
+        double maxY = max < 0 ? Double.NaN
+                : dataset.getYValue(this.series, max);
+        for (int item = first; item <= last; item++) {
+            double y = dataset.getYValue(this.series, item);
+            if (Double.isNaN(y)) {
+                continue;
+            }
+            if (min < 0 || y < minY) {
+                min = item;
+                minY = y;
+            }
+            if (max < 0 || y > maxY) {
+                max = item;
+                maxY = y;
+            }
+        }
+        result[0] = min;
+        result[1] = max;
+    }
+
+    /**
+     * Returns the item with the lower y-value.
+     *
+     * @param dataset  the dataset.
+     * @param item1  the first item (-1 for none).
+     * @param item2  the second item (-1 for none).
+     *
+     * @return The item index.
+     */
+    private int lower(XYDataset dataset, int item1, int item2) {
+        if (item1 < 0) {
+            return item2;
+        }
+        if (item2 < 0) {
+            return item1;
+        }
+        return dataset.getYValue(this.series, item2)
+                < dataset.getYValue(this.series, item1) ? item2 : item1;
+    }
+
+    /**
+     * Returns the item with the higher y-value.
+     *
+     * @param dataset  the dataset.
+     * @param item1  the first item (-1 for none).
+     * @param item2  the second item (-1 for none).
+     *
+     * @return The item index.
+     */
+    private int higher(XYDataset dataset, int item1, int item2) {
+        if (item1 < 0) {
+            return item2;
+        }
+        if (item2 < 0) {
+            return item1;
+        }
+        return dataset.getYValue(this.series, item2)
+                > dataset.getYValue(this.series, item1) ? item2 : item1;
+    }
+
+}
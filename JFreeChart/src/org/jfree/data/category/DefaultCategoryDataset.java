@@ -43,16 +43,23 @@
  * 26-Feb-2007 : Updated API docs (DG);
  * 08-Mar-2007 : Implemented clone() (DG);
  * 09-May-2008 : Implemented PublicCloneable (DG);
+ * 18-Oct-2026 : Implemented RangeInfo and CategoryRangeInfo with cached row
+ *               bounds;
  *
  */
 
 package org.jfree.data.category;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.jfree.chart.util.PublicCloneable;
 import org.jfree.data.DefaultKeyedValues2D;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
 import org.jfree.data.UnknownKeyException;
 import org.jfree.data.general.AbstractDataset;
 import org.jfree.data.general.DatasetChangeEvent;
@@ -61,14 +68,25 @@ import org.jfree.data.general.DatasetChangeEvent;
  * A default implementation of the {@link CategoryDataset} interface.
  */
 public class DefaultCategoryDataset extends AbstractDataset
-        implements CategoryDataset, PublicCloneable, Serializable {
+        implements CategoryDataset, RangeInfo, CategoryRangeInfo,
+        PublicCloneable, Serializable {
 
     /** For serialization. */
     private static final long serialVersionUID = -8168173757291644622L;
 
+    /** The cached bounds of a row that has no values. */
+    private static final Object NO_VALUES = new Object();
+
     /** A storage structure for the data. */
     private DefaultKeyedValues2D data;
 
+    /**
+     * The bounds of the values in each row, computed when first requested
+     * and updated as values change (a {@link Range}, or
+     * <code>NO_VALUES</code>, by row key).
+     */
+    private transient Map rowBounds;
+
     /**
      * Creates a new (empty) dataset.
      */
@@ -219,7 +237,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void addValue(Number value, Comparable rowKey,
                          Comparable columnKey) {
+        Number old = getExistingValue(rowKey, columnKey);
         this.data.addValue(value, rowKey, columnKey);
+        updateRowBounds(rowKey, old, value);
         fireDatasetChanged();
     }
 
@@ -249,7 +269,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void setValue(Number value, Comparable rowKey,
                          Comparable columnKey) {
+        Number old = getExistingValue(rowKey, columnKey);
         this.data.setValue(value, rowKey, columnKey);
+        updateRowBounds(rowKey, old, value);
         fireDatasetChanged();
     }
 
@@ -299,7 +321,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      * @see #addValue(Number, Comparable, Comparable)
      */
     public void removeValue(Comparable rowKey, Comparable columnKey) {
+        Number old = getExistingValue(rowKey, columnKey);
         this.data.removeValue(rowKey, columnKey);
+        updateRowBounds(rowKey, old, null);
         fireDatasetChanged();
     }
 
@@ -312,6 +336,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      * @see #removeColumn(int)
      */
     public void removeRow(int rowIndex) {
+        if (this.rowBounds != null) {
+            this.rowBounds.remove(this.data.getRowKey(rowIndex));
+        }
         this.data.removeRow(rowIndex);
         fireDatasetChanged();
     }
@@ -326,6 +353,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeRow(Comparable rowKey) {
         this.data.removeRow(rowKey);
+        if (this.rowBounds != null) {
+            this.rowBounds.remove(rowKey);
+        }
         fireDatasetChanged();
     }
 
@@ -339,6 +369,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeColumn(int columnIndex) {
         this.data.removeColumn(columnIndex);
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
@@ -355,6 +386,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeColumn(Comparable columnKey) {
         this.data.removeColumn(columnKey);
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
@@ -364,9 +396,186 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void clear() {
         this.data.clear();
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
+    /**
+     * Returns the minimum value in the dataset.
+     *
+     * @param includeInterval  ignored, the values in this dataset have no
+     *     interval.
+     *
+     * @return The minimum value (<code>Double.NaN</code> if the dataset
+     *     contains no values).
+     *
+     * @since 1.2.0
+     */
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r == null ? Double.NaN : r.getLowerBound();
+    }
+
+    /**
+     * Returns the maximum value in the dataset.
+     *
+     * @param includeInterval  ignored, the values in this dataset have no
+     *     interval.
+     *
+     * @return The maximum value (<code>Double.NaN</code> if the dataset
+     *     contains no values).
+     *
+     * @since 1.2.0
+     */
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r == null ? Double.NaN : r.getUpperBound();
+    }
+
+    /**
+     * Returns the range of the values in the dataset.  The bounds of each
+     * row are cached and updated as values are added, so this method only
+     * examines the values of the rows where a minimum or maximum value was
+     * changed or removed.
+     *
+     * @param includeInterval  ignored, the values in this dataset have no
+     *     interval.
+     *
+     * @return The range (<code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getRangeBounds(boolean includeInterval) {
+        Range result = null;
+        int rowCount = getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            result = Range.combine(result, getRowBounds(getRowKey(row)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the values in the visible series (rows) of the
+     * dataset.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series.
+     * @param includeInterval  ignored, the values in this dataset have no
+     *     interval.
+     *
+     * @return The range (<code>null</code> if the visible series contain
+     *     no values).
+     *
+     * @since 1.2.0
+     */
+    public Range getRangeBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            Comparable rowKey = (Comparable) iterator.next();
+            if (getRowIndex(rowKey) >= 0) {
+                result = Range.combine(result, getRowBounds(rowKey));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bounds of the values in a row, from the cache if possible.
+     *
+     * @param rowKey  the row key (the row must exist).
+     *
+     * @return The bounds (<code>null</code> if the row contains no values).
+     */
+    private Range getRowBounds(Comparable rowKey) {
+        if (this.rowBounds == null) {
+            this.rowBounds = new HashMap();
+        }
+        Object cached = this.rowBounds.get(rowKey);
+        if (cached == null) {
+            double minimum = Double.POSITIVE_INFINITY;
+            double maximum = Double.NEGATIVE_INFINITY;
+            int row = getRowIndex(rowKey);
+            int columnCount = getColumnCount();
+            for (int column = 0; column < columnCount; column++) {
+                Number value = getValue(row, column);
+                if (value != null) {
+                    double v = value.doubleValue();
+                    if (!Double.isNaN(v)) {
+                        minimum = Math.min(minimum, v);
+                        maximum = Math.max(maximum, v);
+                    }
+                }
+            }
+            if (minimum == Double.POSITIVE_INFINITY) {
+                cached = NO_VALUES;
+            }
+            else {
+                cached = new Range(minimum, maximum);
+            }
+            this.rowBounds.put(rowKey, cached);
+        }
+        return cached == NO_VALUES ? null : (Range) cached;
+    }
+
+    /**
+     * Updates the cached bounds of a row when a value changes.  If the old
+     * value was a minimum or maximum, the bounds are discarded and computed
+     * again when next requested.
+     *
+     * @param rowKey  the row key.
+     * @param oldValue  the old value (<code>null</code> permitted).
+     * @param newValue  the new value (<code>null</code> permitted).
+     */
+    private void updateRowBounds(Comparable rowKey, Number oldValue,
+            Number newValue) {
+        if (this.rowBounds == null) {
+            return;
+        }
+        Object cached = this.rowBounds.get(rowKey);
+        if (cached == null) {
+            return;
+        }
+        Range bounds = cached == NO_VALUES ? null : (Range) cached;
+        if (bounds != null && oldValue != null) {
+            double old = oldValue.doubleValue();
+            if (old <= bounds.getLowerBound()
+                    || old >= bounds.getUpperBound()) {
+                this.rowBounds.remove(rowKey);
+                return;
+            }
+        }
+        if (newValue != null && !Double.isNaN(newValue.doubleValue())) {
+            double v = newValue.doubleValue();
+            if (bounds == null) {
+                bounds = new Range(v, v);
+            }
+            else {
+                bounds = Range.expandToInclude(bounds, v);
+            }
+            this.rowBounds.put(rowKey, bounds);
+        }
+    }
+
+    /**
+     * Returns the value for a pair of keys, or <code>null</code> if either
+     * key is not defined in the dataset.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    private Number getExistingValue(Comparable rowKey, Comparable columnKey) {
+        int row = this.data.getRowIndex(rowKey);
+        int column = this.data.getColumnIndex(columnKey);
+        if (row < 0 || column < 0) {
+            return null;
+        }
+        return this.data.getValue(row, column);
+    }
+
     /**
      * Tests this dataset for equality with an arbitrary object.
      *
@@ -427,6 +636,7 @@ public class DefaultCategoryDataset extends AbstractDataset
     public Object clone() throws CloneNotSupportedException {
         DefaultCategoryDataset clone = (DefaultCategoryDataset) super.clone();
         clone.data = (DefaultKeyedValues2D) this.data.clone();
+        clone.rowBounds = null;
         return clone;
     }
 
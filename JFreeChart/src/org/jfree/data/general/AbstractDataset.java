@@ -52,11 +52,15 @@
  * 08-Sep-2003 : Serialization fixes (NB);
  * 11-Sep-2003 : Cloning Fixes (NB);
  * 01-Jun-2005 : Added hasListener() method for unit testing (DG);
+ * 18-Oct-2026 : Added notification delay, to coalesce change events;
+ * 19-Oct-2026 : Keep the append flag of coalesced events;
  *
  */
 
 package org.jfree.data.general;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
@@ -67,6 +71,7 @@ import java.util.Arrays;
 import java.util.EventListener;
 import java.util.List;
 
+import javax.swing.Timer;
 import javax.swing.event.EventListenerList;
 
 /**
@@ -85,6 +90,20 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
     /** Storage for registered change listeners. */
     private transient EventListenerList listenerList;
 
+    /**
+     * The delay (in milliseconds) during which change events are coalesced
+     * into one event (zero for no delay).
+     *
+     * @since 1.2.0
+     */
+    private int notificationDelay;
+
+    /** The event waiting to be sent (<code>null</code> if there is none). */
+    private transient DatasetChangeEvent pendingEvent;
+
+    /** The timer that sends the pending event. */
+    private transient Timer notificationTimer;
+
     /**
      * Constructs a dataset. By default, the dataset is assigned to its own
      * group.
@@ -159,6 +178,64 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
         return list.contains(listener);
     }
 
+    /**
+     * Returns the delay during which change events are coalesced into a
+     * single event.
+     *
+     * @return The delay (in milliseconds, zero for no delay).
+     *
+     * @see #setNotificationDelay(int)
+     *
+     * @since 1.2.0
+     */
+    public int getNotificationDelay() {
+        return this.notificationDelay;
+    }
+
+    /**
+     * Sets the delay during which change events are coalesced into a single
+     * event.  When the delay is positive, the first change starts a timer,
+     * and the listeners receive one event for all the changes made before
+     * the timer expires.  This avoids redrawing a chart for every item
+     * added to a dataset with a high rate of updates.  The event is sent on
+     * the event dispatch thread, so the dataset should also be updated on
+     * that thread.  Setting the delay to zero sends any pending event
+     * immediately.
+     *
+     * @param delay  the delay (in milliseconds, zero or positive).
+     *
+     * @see #getNotificationDelay()
+     *
+     * @since 1.2.0
+     */
+    public void setNotificationDelay(int delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Requires 'delay' >= 0.");
+        }
+        this.notificationDelay = delay;
+        if (this.notificationTimer != null) {
+            this.notificationTimer.setInitialDelay(delay);
+        }
+        if (delay == 0) {
+            firePendingEvent();
+        }
+    }
+
+    /**
+     * Sends the change event waiting for the notification delay to expire,
+     * if there is one.
+     */
+    private void firePendingEvent() {
+        if (this.notificationTimer != null) {
+            this.notificationTimer.stop();
+        }
+        DatasetChangeEvent event = this.pendingEvent;
+        if (event != null) {
+            this.pendingEvent = null;
+            dispatchEvent(event);
+        }
+    }
+
     /**
      * Notifies all registered listeners that the dataset has changed.
      *
@@ -179,6 +256,41 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
      */
     protected void notifyListeners(DatasetChangeEvent event) {
 
+        if (this.notificationDelay > 0) {
+            if (this.pendingEvent == null) {
+                this.pendingEvent = event;
+            }
+            else if (this.pendingEvent != event) {
+                // several changes, so the details of any one don't apply,
+                // but appends followed by appends are still an append
+                this.pendingEvent = new DatasetChangeEvent(this, this,
+                        this.pendingEvent.isAppend() && event.isAppend());
+            }
+            if (this.notificationTimer == null) {
+                this.notificationTimer = new Timer(this.notificationDelay,
+                        new ActionListener() {
+                            public void actionPerformed(ActionEvent e) {
+                                firePendingEvent();
+                            }
+                        });
+                this.notificationTimer.setRepeats(false);
+            }
+            if (!this.notificationTimer.isRunning()) {
+                this.notificationTimer.start();
+            }
+            return;
+        }
+        dispatchEvent(event);
+
+    }
+
+    /**
+     * Sends an event to all registered listeners.
+     *
+     * @param event  the event.
+     */
+    private void dispatchEvent(DatasetChangeEvent event) {
+
         Object[] listeners = this.listenerList.getListenerList();
         for (int i = listeners.length - 2; i >= 0; i -= 2) {
             if (listeners[i] == DatasetChangeListener.class) {
@@ -202,6 +314,8 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
     public Object clone() throws CloneNotSupportedException {
         AbstractDataset clone = (AbstractDataset) super.clone();
         clone.listenerList = new EventListenerList();
+        clone.pendingEvent = null;
+        clone.notificationTimer = null;
         return clone;
     }
 
@@ -39,6 +39,7 @@
  * 04-Oct-2002 : Fixed errors reported by Checkstyle (DG);
  * 04-Feb-2003 : Removed redundant methods (DG);
  * 27-Mar-2003 : Implemented Serializable (DG);
+ * 19-Oct-2026 : Pass on the append flag of series change events;
  *
  */
 
@@ -102,12 +103,19 @@ public abstract class AbstractSeriesDataset extends AbstractDataset
     }
 
     /**
-     * Called when a series belonging to the dataset changes.
+     * Called when a series belonging to the dataset changes.  If the change
+     * only added items at the end of the series, so does the
+     * {@link DatasetChangeEvent} sent to the registered listeners.
      *
      * @param event  information about the change.
      */
     public void seriesChanged(SeriesChangeEvent event) {
-        fireDatasetChanged();
+        if (event.isAppend()) {
+            notifyListeners(new DatasetChangeEvent(this, this, true));
+        }
+        else {
+            fireDatasetChanged();
+        }
     }
 
 }
@@ -42,6 +42,7 @@
  *               Updated Javadocs (DG);
  * 04-Oct-2002 : Fixed errors reported by Checkstyle (DG);
  * 05-Oct-2004 : Minor Javadoc updates (DG);
+ * 19-Oct-2026 : Added a flag for changes that only append items;
  *
  */
 
@@ -57,6 +58,12 @@ public class DatasetChangeEvent extends java.util.EventObject {
      */
     private Dataset dataset;
 
+    /**
+     * A flag that indicates that the change only added items at the end of
+     * the series in the dataset.
+     */
+    private boolean append;
+
     /**
      * Constructs a new event.  The source is either the dataset or the
      * {@link org.jfree.chart.plot.Plot} class.  The dataset can be
@@ -68,8 +75,25 @@ public class DatasetChangeEvent extends java.util.EventObject {
      *                 permitted).
      */
     public DatasetChangeEvent(Object source, Dataset dataset) {
+        this(source, dataset, false);
+    }
+
+    /**
+     * Constructs a new event.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that generated the event (<code>null</code>
+     *                 permitted).
+     * @param append  a flag that indicates that the change only added items
+     *     at the end of the series in the dataset.
+     *
+     * @since 1.2.0
+     */
+    public DatasetChangeEvent(Object source, Dataset dataset,
+            boolean append) {
         super(source);
         this.dataset = dataset;
+        this.append = append;
     }
 
     /**
@@ -83,4 +107,17 @@ public class DatasetChangeEvent extends java.util.EventObject {
         return this.dataset;
     }
 
+    /**
+     * Returns <code>true</code> if the change only added items at the end of
+     * the series in the dataset, leaving the existing items as they were
+     * (see {@link SeriesChangeEvent#isAppend()}).
+     *
+     * @return A boolean.
+     *
+     * @since 1.2.0
+     */
+    public boolean isAppend() {
+        return this.append;
+    }
+
 }
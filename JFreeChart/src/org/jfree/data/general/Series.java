@@ -50,6 +50,8 @@
  * 04-May-2006 : Updated API docs (DG);
  * 21-Jun-2007 : Removed JCommon dependencies (DG);
  * 26-Sep-2007 : Added isEmpty() and getItemCount() methods (DG);
+ * 18-Oct-2026 : Added beginUpdate() and endUpdate() methods;
+ * 19-Oct-2026 : Added fireSeriesAppended() method;
  *
  */
 
@@ -93,6 +95,18 @@ public abstract class Series implements Cloneable, Serializable {
     /** A flag that controls whether or not changes are notified. */
     private boolean notify;
 
+    /** The number of calls to beginUpdate() not yet matched by endUpdate(). */
+    private transient int updateDepth;
+
+    /** A flag that records a change made during an update. */
+    private transient boolean updateChanged;
+
+    /**
+     * A flag that records a change, other than items appended, made during
+     * an update.
+     */
+    private transient boolean updateChangedItems;
+
     /**
      * Creates a new series with the specified key.
      *
@@ -200,6 +214,57 @@ public abstract class Series implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Starts a batch of changes to the series.  Until the matching call to
+     * {@link #endUpdate()}, no change events are sent to registered
+     * listeners, then a single event is sent if the series was changed.
+     * Calls can be nested.
+     *
+     * @see #endUpdate()
+     *
+     * @since 1.2.0
+     */
+    public void beginUpdate() {
+        this.updateDepth++;
+    }
+
+    /**
+     * Ends a batch of changes started with {@link #beginUpdate()}.  When the
+     * outermost batch ends, a change event is sent to registered listeners
+     * if the series was changed during the batch.
+     *
+     * @see #beginUpdate()
+     *
+     * @since 1.2.0
+     */
+    public void endUpdate() {
+        if (this.updateDepth == 0) {
+            throw new IllegalStateException(
+                    "endUpdate() called without beginUpdate().");
+        }
+        this.updateDepth--;
+        if (this.updateDepth == 0 && this.updateChanged) {
+            boolean append = !this.updateChangedItems;
+            this.updateChanged = false;
+            this.updateChangedItems = false;
+            if (this.notify) {
+                notifyListeners(new SeriesChangeEvent(this, append));
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a batch of changes started with
+     * {@link #beginUpdate()} is in progress.
+     *
+     * @return A boolean.
+     *
+     * @since 1.2.0
+     */
+    public boolean isUpdating() {
+        return this.updateDepth > 0;
+    }
+
     /**
      * Returns <code>true</code> if the series contains no data items, and
      * <code>false</code> otherwise.
@@ -241,6 +306,9 @@ public abstract class Series implements Cloneable, Serializable {
         Series clone = (Series) super.clone();
         clone.listeners = new EventListenerList();
         clone.propertyChangeSupport = new PropertyChangeSupport(clone);
+        clone.updateDepth = 0;
+        clone.updateChanged = false;
+        clone.updateChangedItems = false;
         return clone;
 
     }
@@ -307,11 +375,38 @@ public abstract class Series implements Cloneable, Serializable {
 
     /**
      * General method for signalling to registered listeners that the series
-     * has been changed.
+     * has been changed.  During a batch of changes (see
+     * {@link #beginUpdate()}) the event is deferred to the end of the batch.
      */
     public void fireSeriesChanged() {
         if (this.notify) {
-            notifyListeners(new SeriesChangeEvent(this));
+            if (this.updateDepth > 0) {
+                this.updateChanged = true;
+                this.updateChangedItems = true;
+            }
+            else {
+                notifyListeners(new SeriesChangeEvent(this));
+            }
+        }
+    }
+
+    /**
+     * Signals to registered listeners that items were added at the end of
+     * the series, and that no other change was made (see
+     * {@link SeriesChangeEvent#isAppend()}).  During a batch of changes the
+     * event is deferred to the end of the batch, and reports an append only
+     * if every change in the batch did.
+     *
+     * @since 1.2.0
+     */
+    protected void fireSeriesAppended() {
+        if (this.notify) {
+            if (this.updateDepth > 0) {
+                this.updateChanged = true;
+            }
+            else {
+                notifyListeners(new SeriesChangeEvent(this, true));
+            }
         }
     }
 
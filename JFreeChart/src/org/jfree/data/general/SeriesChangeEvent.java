@@ -36,6 +36,7 @@
  * -------
  * 15-Nov-2001 : Version 1 (DG);
  * 18-Aug-2003 : Implemented Serializable (DG);
+ * 19-Oct-2026 : Added a flag for changes that only append items;
  *
  */
 
@@ -52,13 +53,47 @@ public class SeriesChangeEvent extends EventObject implements Serializable {
     /** For serialization. */
     private static final long serialVersionUID = 1593866085210089052L;
 
+    /**
+     * A flag that indicates that the change only added items at the end of
+     * the series.
+     */
+    private boolean append;
+
     /**
      * Constructs a new event.
      *
      * @param source  the source of the change event.
      */
     public SeriesChangeEvent(Object source) {
+        this(source, false);
+    }
+
+    /**
+     * Constructs a new event.
+     *
+     * @param source  the source of the change event.
+     * @param append  a flag that indicates that the change only added items
+     *     at the end of the series.
+     *
+     * @since 1.2.0
+     */
+    public SeriesChangeEvent(Object source, boolean append) {
         super(source);
+        this.append = append;
+    }
+
+    /**
+     * Returns <code>true</code> if the change only added items at the end of
+     * the series, leaving the existing items as they were.  A listener that
+     * keeps information derived from the items can then extend it rather
+     * than start again.
+     *
+     * @return A boolean.
+     *
+     * @since 1.2.0
+     */
+    public boolean isAppend() {
+        return this.append;
     }
 
 }
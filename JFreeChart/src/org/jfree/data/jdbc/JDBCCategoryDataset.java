@@ -58,19 +58,16 @@
  * ------------- JFREECHART 1.0.0 ---------------------------------------------
  * 08-Mar-2006 : Fixed bug 1445748 where an exception is thrown if
  *               executeQuery() is called more than once (DG);
+ * 18-Oct-2026 : Read the rows with a JDBCLoader, added background loading
+ *               and executeIncrementalQuery();
  *
  */
 
 package org.jfree.data.jdbc;
 
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Types;
 
 import org.jfree.data.category.CategoryDataset;
 import org.jfree.data.category.DefaultCategoryDataset;
@@ -83,6 +80,10 @@ import org.jfree.data.category.DefaultCategoryDataset;
  * column represents a series).  Subsequent calls to
  * {@link #executeQuery(String)} will refresh the dataset.
  * <p>
+ * The rows are read by the dataset's {@link JDBCLoader}, which can also load
+ * them in the background.  New or changed rows can be merged into the
+ * dataset with {@link #executeIncrementalQuery(String)}.
+ * <p>
  * The database connection is read-only and no write back facility exists.
  * <p>
  * NOTE: Many people have found this class too restrictive in general use.
@@ -105,6 +106,17 @@ public class JDBCCategoryDataset extends DefaultCategoryDataset {
      */
     private boolean transpose = true;
 
+    /**
+     * A flag that controls whether change events are sent, cleared while the
+     * rows are added.
+     */
+    private boolean propagateEvents = true;
+
+    /** The key (first column) of the last row read. */
+    private Comparable lastKey;
+
+    /** The loader. */
+    private transient JDBCLoader loader;
 
     /**
      * Creates a new dataset with a database connection.
@@ -175,6 +187,22 @@ public class JDBCCategoryDataset extends DefaultCategoryDataset {
         this.transpose = transpose;
     }
 
+    /**
+     * Returns the loader that executes the queries for this dataset.  The
+     * loader settings control the fetch size and whether the queries are
+     * executed in the background.
+     *
+     * @return The loader (never <code>null</code>).
+     *
+     * @since 1.2.0
+     */
+    public JDBCLoader getLoader() {
+        if (this.loader == null) {
+            this.loader = new JDBCLoader(true);
+        }
+        return this.loader;
+    }
+
     /**
      * Populates the dataset by executing the supplied query against the
      * existing database connection.  If no connection exists then no action
@@ -205,114 +233,145 @@ public class JDBCCategoryDataset extends DefaultCategoryDataset {
      * @throws SQLException if there is a problem executing the query.
      */
     public void executeQuery(Connection con, String query) throws SQLException {
+        getLoader().load(con, query, null, false, new LoadHandler());
+    }
 
-        Statement statement = null;
-        ResultSet resultSet = null;
-        try {
-            statement = con.createStatement();
-            resultSet = statement.executeQuery(query);
-            ResultSetMetaData metaData = resultSet.getMetaData();
-
-            int columnCount = metaData.getColumnCount();
+    /**
+     * Executes a query that returns the rows that are newer than the rows
+     * already read, and merges them into the dataset (adding or updating
+     * values).  The query must have one parameter, which is set to the key
+     * (first column) of the last row read by the previous query, so the
+     * queries should be ordered by that column, for example:
+     * <pre>
+     * SELECT day, sales, costs FROM totals WHERE day &gt; ? ORDER BY day
+     * </pre>
+     * If no row has been read yet, no query is executed, use
+     * {@link #executeQuery(String)} to populate the dataset.
+     *
+     * @param query  the query (<code>null</code> not permitted).
+     *
+     * @throws SQLException if there is a problem executing the query.
+     *
+     * @since 1.2.0
+     */
+    public void executeIncrementalQuery(String query) throws SQLException {
+        if (query == null) {
+            throw new IllegalArgumentException("Null 'query' argument.");
+        }
+        if (this.lastKey == null) {
+            return;
+        }
+        getLoader().load(this.connection, query, this.lastKey, true,
+                new LoadHandler());
+    }
 
-            if (columnCount < 2) {
-                throw new SQLException(
-                    "JDBCCategoryDataset.executeQuery() : insufficient columns "
-                    + "returned from the database.");
-            }
+    /**
+     * Sends a {@link org.jfree.data.general.DatasetChangeEvent} to the
+     * listeners, unless the rows of a query are being added.
+     */
+    protected void fireDatasetChanged() {
+        if (this.propagateEvents) {
+            super.fireDatasetChanged();
+        }
+    }
 
-            // Remove any previous old data
-            int i = getRowCount();
-            while (--i >= 0) {
-                removeRow(i);
+    /**
+     * Adds a block of rows to the dataset.
+     *
+     * @param block  the rows.
+     * @param clear  clear the existing data first?
+     */
+    private void addRows(JDBCRowBlock block, boolean clear) {
+        this.propagateEvents = false;
+        try {
+            if (clear) {
+                clear();
+                this.lastKey = null;
             }
-
-            while (resultSet.next()) {
+            int columnCount = block.getColumnCount();
+            int rowCount = block.getRowCount();
+            for (int row = 0; row < rowCount; row++) {
                 // first column contains the row key...
-                Comparable rowKey = resultSet.getString(1);
-                for (int column = 2; column <= columnCount; column++) {
-
-                    Comparable columnKey = metaData.getColumnName(column);
-                    int columnType = metaData.getColumnType(column);
-
-                    switch (columnType) {
-                        case Types.TINYINT:
-                        case Types.SMALLINT:
-                        case Types.INTEGER:
-                        case Types.BIGINT:
-                        case Types.FLOAT:
-                        case Types.DOUBLE:
-                        case Types.DECIMAL:
-                        case Types.NUMERIC:
-                        case Types.REAL: {
-                            Number value = (Number) resultSet.getObject(column);
-                            if (this.transpose) {
-                                setValue(value, columnKey, rowKey);
-                            }
-                            else {
-                                setValue(value, rowKey, columnKey);
-                            }
-                            break;
+                Comparable rowKey = block.getKey(row);
+                for (int column = 1; column < columnCount; column++) {
+                    int columnType = block.getColumnType(column);
+                    double v = block.getValue(column, row);
+                    Number value = null;
+                    if (JDBCRowBlock.isTextType(columnType)) {
+                        if (Double.isNaN(v)) {
+                            // suppress (value defaults to null)
+                            continue;
                         }
-                        case Types.DATE:
-                        case Types.TIME:
-                        case Types.TIMESTAMP: {
-                            Date date = (Date) resultSet.getObject(column);
-                            Number value = new Long(date.getTime());
-                            if (this.transpose) {
-                                setValue(value, columnKey, rowKey);
-                            }
-                            else {
-                                setValue(value, rowKey, columnKey);
-                            }
-                            break;
-                        }
-                        case Types.CHAR:
-                        case Types.VARCHAR:
-                        case Types.LONGVARCHAR: {
-                            String string
-                                = (String) resultSet.getObject(column);
-                            try {
-                                Number value = Double.valueOf(string);
-                                if (this.transpose) {
-                                    setValue(value, columnKey, rowKey);
-                                }
-                                else {
-                                    setValue(value, rowKey, columnKey);
-                                }
-                            }
-                            catch (NumberFormatException e) {
-                                // suppress (value defaults to null)
-                            }
-                            break;
+                        value = new Double(v);
+                    }
+                    else if (JDBCRowBlock.isNumericType(columnType)
+                            || JDBCRowBlock.isTimeType(columnType)) {
+                        if (!Double.isNaN(v)) {
+                            value = new Double(v);
                         }
-                        default:
-                            // not a value, can't use it (defaults to null)
-                            break;
+                    }
+                    else {
+                        // not a value, can't use it (defaults to null)
+                        continue;
+                    }
+                    Comparable columnKey = block.getColumnName(column);
+                    if (this.transpose) {
+                        setValue(value, columnKey, rowKey);
+                    }
+                    else {
+                        setValue(value, rowKey, columnKey);
                     }
                 }
+                this.lastKey = rowKey;
             }
-
-            fireDatasetChanged();
         }
         finally {
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                }
-                catch (Exception e) {
-                    // report this?
-                }
+            this.propagateEvents = true;
+        }
+    }
+
+    /**
+     * Adds the rows read by the loader to the dataset.
+     */
+    private class LoadHandler implements JDBCLoadHandler {
+
+        /**
+         * Checks that there are at least two columns.
+         *
+         * @param types  the column types.
+         *
+         * @throws SQLException if there are too few columns.
+         */
+        public void checkColumns(int[] types) throws SQLException {
+            if (types.length < 2) {
+                throw new SQLException(
+                    "JDBCCategoryDataset.executeQuery() : insufficient columns "
+                    + "returned from the database.");
             }
-            if (statement != null) {
-                try {
-                    statement.close();
-                }
-                catch (Exception e) {
-                    // report this?
-                }
+        }
+
+        /**
+         * Adds a block of rows to the dataset.
+         *
+         * @param block  the rows.
+         * @param clear  clear the existing data first?
+         * @param notify  send a change event?
+         */
+        public void rowsLoaded(JDBCRowBlock block, boolean clear,
+                boolean notify) {
+            addRows(block, clear);
+            if (notify) {
+                fireDatasetChanged();
             }
         }
+
+        /**
+         * Tells the listeners that the query is finished.
+         */
+        public void loadFinished() {
+            fireDatasetChanged();
+        }
+
     }
 
 }
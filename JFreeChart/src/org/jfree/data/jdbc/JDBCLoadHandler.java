@@ -0,0 +1,78 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * --------------------
+ * JDBCLoadHandler.java
+ * --------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Receives the rows read by a {@link JDBCLoader}.  The methods other than
+ * {@link #checkColumns(int[])} are called on the thread that started the
+ * load or, for a load in the background, on the event dispatch thread.
+ */
+interface JDBCLoadHandler {
+
+    /**
+     * Checks that the columns returned by a query can be used, before any
+     * rows are read.  This method is called on the loading thread.
+     *
+     * @param columnTypes  the column types (see <code>java.sql.Types</code>).
+     *
+     * @throws SQLException if the columns can't be used.
+     */
+    public void checkColumns(int[] columnTypes) throws SQLException;
+
+    /**
+     * Adds a block of rows to the dataset.
+     *
+     * @param block  the rows.
+     * @param clear  clear the existing data first?
+     * @param notify  send a change event to the dataset listeners?
+     */
+    public void rowsLoaded(JDBCRowBlock block, boolean clear,
+            boolean notify);
+
+    /**
+     * Called when a load is finished, successfully or not.  The dataset
+     * should send a change event to its listeners.
+     */
+    public void loadFinished();
+
+}
@@ -0,0 +1,487 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * ---------------
+ * JDBCLoader.java
+ * ---------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.jdbc;
+
+import java.awt.EventQueue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads the rows returned by a query into one of the JDBC datasets
+ * ({@link JDBCXYDataset}, {@link JDBCCategoryDataset} and
+ * {@link JDBCPieDataset}).  Each dataset has its own loader, which controls
+ * how the dataset reads its data:
+ * <ul>
+ * <li>the rows are read with a forward only cursor, fetching
+ *     {@link #getFetchSize()} rows at a time from the database, and copied
+ *     to the dataset in blocks of {@link #getBlockSize()} rows, so the
+ *     whole result set is never held in memory;</li>
+ * <li>if background loading is enabled (see
+ *     {@link #setBackgroundLoading(boolean)}), the query is executed on a
+ *     separate thread and the blocks are added to the dataset on the event
+ *     dispatch thread, each with a change event, so that a chart shows the
+ *     data progressively while it is loaded.</li>
+ * </ul>
+ * Starting a new load cancels any load in progress for the same dataset
+ * (including the statement being executed), and the loads of a dataset are
+ * executed one at a time.
+ * When loading in the background, the dataset and its loader should only be
+ * accessed on the event dispatch thread, and the connection should not be
+ * used by other threads until the load is finished.
+ *
+ * @since 1.2.0
+ */
+public class JDBCLoader {
+
+    /** The default fetch size. */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /** The default block size. */
+    public static final int DEFAULT_BLOCK_SIZE = 10000;
+
+    /** The number of rows fetched from the database at a time. */
+    private int fetchSize;
+
+    /** The number of rows added to the dataset at a time. */
+    private int blockSize;
+
+    /** A flag that controls whether the queries run in the background. */
+    private boolean backgroundLoading;
+
+    /** A flag that controls whether the keys are read as strings. */
+    private boolean textKeys;
+
+    /**
+     * The number of the current load.  This is incremented to cancel a
+     * load in progress.
+     */
+    private volatile int generation;
+
+    /** A flag that indicates a background load is in progress. */
+    private volatile boolean loading;
+
+    /** The exception that ended the last background load, if any. */
+    private volatile SQLException loadException;
+
+    /** The statement being executed (<code>null</code> if there is none). */
+    private Statement statement;
+
+    /** The lock held while a query is executed and its rows are read. */
+    private final Object readLock = new Object();
+
+    /**
+     * Creates a new loader.
+     *
+     * @param textKeys  read the keys (in the first column) as strings?
+     */
+    JDBCLoader(boolean textKeys) {
+        this.fetchSize = DEFAULT_FETCH_SIZE;
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+        this.backgroundLoading = false;
+        this.textKeys = textKeys;
+    }
+
+    /**
+     * Returns the number of rows fetched from the database at a time.
+     *
+     * @return The fetch size (zero if the JDBC driver chooses).
+     *
+     * @see #setFetchSize(int)
+     */
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at a time.  Some
+     * drivers only stream a result set in particular conditions (for
+     * example, with auto-commit disabled), otherwise they read all the rows
+     * when the query is executed.
+     *
+     * @param size  the fetch size (zero to let the JDBC driver choose).
+     *
+     * @see #getFetchSize()
+     */
+    public void setFetchSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Requires 'size' >= 0.");
+        }
+        this.fetchSize = size;
+    }
+
+    /**
+     * Returns the number of rows added to the dataset at a time.
+     *
+     * @return The block size.
+     *
+     * @see #setBlockSize(int)
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Sets the number of rows added to the dataset at a time.  When loading
+     * in the background, the dataset sends a change event after each block.
+     *
+     * @param size  the block size (must be positive).
+     *
+     * @see #getBlockSize()
+     */
+    public void setBlockSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Requires 'size' > 0.");
+        }
+        this.blockSize = size;
+    }
+
+    /**
+     * Returns the flag that controls whether the queries are executed in the
+     * background.
+     *
+     * @return A boolean.
+     *
+     * @see #setBackgroundLoading(boolean)
+     */
+    public boolean isBackgroundLoading() {
+        return this.backgroundLoading;
+    }
+
+    /**
+     * Sets the flag that controls whether the queries are executed in the
+     * background.  If <code>true</code>, the dataset methods that execute a
+     * query return immediately, and any <code>SQLException</code> is
+     * available from {@link #getLoadException()} once the load is finished.
+     *
+     * @param flag  the new flag value.
+     *
+     * @see #isBackgroundLoading()
+     */
+    public void setBackgroundLoading(boolean flag) {
+        this.backgroundLoading = flag;
+    }
+
+    /**
+     * Returns <code>true</code> if a load is in progress in the background,
+     * and <code>false</code> otherwise.
+     *
+     * @return A boolean.
+     */
+    public boolean isLoading() {
+        return this.loading;
+    }
+
+    /**
+     * Returns the exception that ended the last background load.
+     *
+     * @return The exception (<code>null</code> if the load succeeded, or is
+     *     still in progress).
+     */
+    public SQLException getLoadException() {
+        return this.loadException;
+    }
+
+    /**
+     * Cancels the load in progress, if there is one.  The rows that have
+     * already been added to the dataset are kept.
+     */
+    public void cancel() {
+        this.generation++;
+        this.loading = false;
+        cancelStatement();
+    }
+
+    /**
+     * Executes a query and passes the rows to a handler.
+     *
+     * @param con  the connection.
+     * @param query  the query.
+     * @param parameter  the value of the query parameter (<code>null</code>
+     *     if the query has no parameter).
+     * @param append  add the rows to the existing data?
+     * @param handler  the handler.
+     *
+     * @throws SQLException if there is a problem executing the query (when
+     *     it is not executed in the background).
+     */
+    void load(final Connection con, final String query,
+            final Object parameter, final boolean append,
+            final JDBCLoadHandler handler) throws SQLException {
+        if (con == null) {
+            throw new SQLException(
+                    "There is no database to execute the query.");
+        }
+        final int load = ++this.generation;
+        cancelStatement();
+        this.loadException = null;
+        if (!this.backgroundLoading) {
+            this.loading = false;
+            read(con, query, parameter, append, handler, load, false);
+            handler.loadFinished();
+            return;
+        }
+        this.loading = true;
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                SQLException error = null;
+                try {
+                    read(con, query, parameter, append, handler, load, true);
+                }
+                catch (SQLException e) {
+                    error = e;
+                }
+                finally {
+                    final SQLException loadError = error;
+                    EventQueue.invokeLater(new Runnable() {
+                        public void run() {
+                            finish(load, loadError, handler);
+                        }
+                    });
+                }
+            }
+        }, "JDBCLoader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ends a background load.  This method is called on the event dispatch
+     * thread.
+     *
+     * @param load  the load number.
+     * @param error  the exception that ended the load (<code>null</code>
+     *     permitted).
+     * @param handler  the handler.
+     */
+    private void finish(int load, SQLException error,
+            JDBCLoadHandler handler) {
+        if (load != this.generation) {
+            return;  // cancelled
+        }
+        this.loading = false;
+        this.loadException = error;
+        handler.loadFinished();
+    }
+
+    /**
+     * Records the statement being executed for a load.
+     *
+     * @param statement  the statement (<code>null</code> when it is
+     *     closed).
+     * @param load  the load number.
+     *
+     * @return <code>false</code> if the load has been cancelled.
+     */
+    private synchronized boolean setStatement(Statement statement,
+            int load) {
+        this.statement = statement;
+        return load == this.generation;
+    }
+
+    /**
+     * Cancels the statement being executed, if there is one.
+     */
+    private void cancelStatement() {
+        Statement s;
+        synchronized (this) {
+            s = this.statement;
+        }
+        if (s != null) {
+            try {
+                s.cancel();
+            }
+            catch (SQLException e) {
+                // the load still stops at the next row
+            }
+        }
+    }
+
+    /**
+     * Executes a query and reads the rows in blocks.  A load waits for the
+     * previous one to end.
+     *
+     * @param con  the connection.
+     * @param query  the query.
+     * @param parameter  the value of the query parameter (<code>null</code>
+     *     permitted).
+     * @param append  add the rows to the existing data?
+     * @param handler  the handler.
+     * @param load  the load number.
+     * @param background  is this a background load?
+     *
+     * @throws SQLException if there is a problem executing the query.
+     */
+    private void read(Connection con, String query, Object parameter,
+            boolean append, JDBCLoadHandler handler, int load,
+            boolean background) throws SQLException {
+        synchronized (this.readLock) {
+            if (load == this.generation) {
+                readRows(con, query, parameter, append, handler, load,
+                        background);
+            }
+        }
+    }
+
+    /**
+     * Executes a query and reads the rows in blocks, see
+     * {@link #read(Connection, String, Object, boolean, JDBCLoadHandler,
+     * int, boolean)}.
+     *
+     * @param con  the connection.
+     * @param query  the query.
+     * @param parameter  the value of the query parameter (<code>null</code>
+     *     permitted).
+     * @param append  add the rows to the existing data?
+     * @param handler  the handler.
+     * @param load  the load number.
+     * @param background  is this a background load?
+     *
+     * @throws SQLException if there is a problem executing the query.
+     */
+    private void readRows(Connection con, String query, Object parameter,
+            boolean append, JDBCLoadHandler handler, int load,
+            boolean background) throws SQLException {
+
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            if (parameter == null) {
+                statement = con.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(this.fetchSize);
+                if (!setStatement(statement, load)) {
+                    return;
+                }
+                resultSet = statement.executeQuery(query);
+            }
+            else {
+                PreparedStatement ps = con.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement = ps;
+                ps.setFetchSize(this.fetchSize);
+                ps.setObject(1, parameter);
+                if (!setStatement(statement, load)) {
+                    return;
+                }
+                resultSet = ps.executeQuery();
+            }
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            int[] columnTypes = new int[columnCount];
+            String[] columnNames = new String[columnCount];
+            String[] columnLabels = new String[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                columnTypes[column] = metaData.getColumnType(column + 1);
+                columnNames[column] = metaData.getColumnName(column + 1);
+                columnLabels[column] = metaData.getColumnLabel(column + 1);
+            }
+            handler.checkColumns(columnTypes);
+
+            boolean clear = !append;
+            JDBCRowBlock block = new JDBCRowBlock(columnTypes, columnNames,
+                    columnLabels, this.textKeys, this.blockSize);
+            while (load == this.generation && resultSet.next()) {
+                block.readRow(resultSet);
+                if (block.isFull()) {
+                    deliver(block, clear, handler, load, background);
+                    clear = false;
+                    block = block.createNext();
+                }
+            }
+            // an empty result still replaces the existing data
+            if (load == this.generation
+                    && (clear || block.getRowCount() > 0)) {
+                deliver(block, clear, handler, load, background);
+            }
+        }
+        finally {
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                }
+                catch (Exception e) {
+                    // nothing to do
+                }
+            }
+            if (statement != null) {
+                setStatement(null, load);
+                try {
+                    statement.close();
+                }
+                catch (Exception e) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes a block of rows to a handler, on the event dispatch thread for
+     * a background load.
+     *
+     * @param block  the block.
+     * @param clear  clear the existing data first?
+     * @param handler  the handler.
+     * @param load  the load number.
+     * @param background  is this a background load?
+     */
+    private void deliver(final JDBCRowBlock block, final boolean clear,
+            final JDBCLoadHandler handler, final int load,
+            boolean background) {
+        if (!background) {
+            handler.rowsLoaded(block, clear, false);
+            return;
+        }
+        EventQueue.invokeLater(new Runnable() {
+            public void run() {
+                if (load == JDBCLoader.this.generation) {
+                    handler.rowsLoaded(block, clear, true);
+                }
+            }
+        });
+    }
+
+}
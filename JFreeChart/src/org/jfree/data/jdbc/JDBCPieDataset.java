@@ -52,6 +52,8 @@
  * 04-Dec-2003 : Added missing Javadocs (DG);
  * ------------- JFREECHART 1.0.x ---------------------------------------------
  * 02-Feb-2007 : Removed author tags all over JFreeChart sources (DG);
+ * 18-Oct-2026 : Read the rows with a JDBCLoader, added background loading
+ *               and executeIncrementalQuery();
  *
  */
 
@@ -59,12 +61,7 @@ package org.jfree.data.jdbc;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Timestamp;
-import java.sql.Types;
 
 import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.general.PieDataset;
@@ -75,6 +72,10 @@ import org.jfree.data.general.PieDataset;
  * A query should be supplied that returns data in two columns, the first
  * containing VARCHAR data, and the second containing numerical data.  The
  * data is cached in-memory and can be refreshed at any time.
+ * <P>
+ * The rows are read by the dataset's {@link JDBCLoader}, which can also load
+ * them in the background.  New or changed rows can be merged into the
+ * dataset with {@link #executeIncrementalQuery(String)}.
  */
 public class JDBCPieDataset extends DefaultPieDataset {
 
@@ -84,6 +85,18 @@ public class JDBCPieDataset extends DefaultPieDataset {
     /** The database connection. */
     private transient Connection connection;
 
+    /**
+     * A flag that controls whether change events are sent, cleared while the
+     * rows are added.
+     */
+    private boolean propagateEvents = true;
+
+    /** The key (first column) of the last row read. */
+    private Comparable lastKey;
+
+    /** The loader. */
+    private transient JDBCLoader loader;
+
     /**
      * Creates a new JDBCPieDataset and establishes a new database connection.
      *
@@ -136,6 +149,22 @@ public class JDBCPieDataset extends DefaultPieDataset {
         executeQuery(query);
     }
 
+    /**
+     * Returns the loader that executes the queries for this dataset.  The
+     * loader settings control the fetch size and whether the queries are
+     * executed in the background.
+     *
+     * @return The loader (never <code>null</code>).
+     *
+     * @since 1.2.0
+     */
+    public JDBCLoader getLoader() {
+        if (this.loader == null) {
+            this.loader = new JDBCLoader(true);
+        }
+        return this.loader;
+    }
+
     /**
      *  ExecuteQuery will attempt execute the query passed to it against the
      *  existing database connection.  If no connection exists then no action
@@ -164,82 +193,82 @@ public class JDBCPieDataset extends DefaultPieDataset {
      * @throws SQLException if there is a problem executing the query.
      */
     public void executeQuery(Connection con, String query) throws SQLException {
+        getLoader().load(con, query, null, false, new LoadHandler());
+    }
 
-        Statement statement = null;
-        ResultSet resultSet = null;
+    /**
+     * Executes a query that returns the rows that are newer than the rows
+     * already read, and merges them into the dataset (adding or updating
+     * values).  The query must have one parameter, which is set to the key
+     * (first column) of the last row read by the previous query, so the
+     * queries should be ordered by that column.  If no row has been read
+     * yet, no query is executed, use {@link #executeQuery(String)} to
+     * populate the dataset.
+     *
+     * @param query  the query (<code>null</code> not permitted).
+     *
+     * @throws SQLException if there is a problem executing the query.
+     *
+     * @since 1.2.0
+     */
+    public void executeIncrementalQuery(String query) throws SQLException {
+        if (query == null) {
+            throw new IllegalArgumentException("Null 'query' argument.");
+        }
+        if (this.lastKey == null) {
+            return;
+        }
+        getLoader().load(this.connection, query, this.lastKey, true,
+                new LoadHandler());
+    }
 
-        try {
-            statement = con.createStatement();
-            resultSet = statement.executeQuery(query);
-            ResultSetMetaData metaData = resultSet.getMetaData();
+    /**
+     * Sends a {@link org.jfree.data.general.DatasetChangeEvent} to the
+     * listeners, unless the rows of a query are being added.
+     */
+    protected void fireDatasetChanged() {
+        if (this.propagateEvents) {
+            super.fireDatasetChanged();
+        }
+    }
 
-            int columnCount = metaData.getColumnCount();
-            if (columnCount != 2) {
-                throw new SQLException(
-                    "Invalid sql generated.  PieDataSet requires 2 columns only"
-                );
+    /**
+     * Adds a block of rows to the dataset.
+     *
+     * @param block  the rows.
+     * @param clear  clear the existing data first?
+     */
+    private void addRows(JDBCRowBlock block, boolean clear) {
+        this.propagateEvents = false;
+        try {
+            if (clear) {
+                clear();
+                this.lastKey = null;
             }
-
-            int columnType = metaData.getColumnType(2);
-            double value = Double.NaN;
-            while (resultSet.next()) {
-                Comparable key = resultSet.getString(1);
-                switch (columnType) {
-                    case Types.NUMERIC:
-                    case Types.REAL:
-                    case Types.INTEGER:
-                    case Types.DOUBLE:
-                    case Types.FLOAT:
-                    case Types.DECIMAL:
-                    case Types.BIGINT:
-                        value = resultSet.getDouble(2);
-                        setValue(key, value);
-                        break;
-
-                    case Types.DATE:
-                    case Types.TIME:
-                    case Types.TIMESTAMP:
-                        Timestamp date = resultSet.getTimestamp(2);
-                        value = date.getTime();
-                        setValue(key, value);
-                        break;
-
-                    default:
-                        System.err.println(
-                            "JDBCPieDataset - unknown data type"
-                        );
-                        break;
+            int columnType = block.getColumnType(1);
+            boolean valid = JDBCRowBlock.isNumericType(columnType)
+                    || JDBCRowBlock.isTimeType(columnType);
+            int rowCount = block.getRowCount();
+            for (int row = 0; row < rowCount; row++) {
+                Comparable key = block.getKey(row);
+                if (valid) {
+                    double value = block.getValue(1, row);
+                    setValue(key, Double.isNaN(value) ? null
+                            : new Double(value));
                 }
+                this.lastKey = key;
             }
-
-            fireDatasetChanged();
-
         }
         finally {
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                }
-                catch (Exception e) {
-                    System.err.println("JDBCPieDataset: swallowing exception.");
-                }
-            }
-            if (statement != null) {
-                try {
-                    statement.close();
-                }
-                catch (Exception e) {
-                    System.err.println("JDBCPieDataset: swallowing exception.");
-                }
-            }
+            this.propagateEvents = true;
         }
     }
 
-
     /**
      * Close the database connection
      */
     public void close() {
+        getLoader().cancel();
         try {
             this.connection.close();
         }
@@ -247,4 +276,53 @@ public class JDBCPieDataset extends DefaultPieDataset {
             System.err.println("JdbcXYDataset: swallowing exception.");
         }
     }
+
+    /**
+     * Adds the rows read by the loader to the dataset.
+     */
+    private class LoadHandler implements JDBCLoadHandler {
+
+        /**
+         * Checks that there are two columns.
+         *
+         * @param types  the column types.
+         *
+         * @throws SQLException if there are not two columns.
+         */
+        public void checkColumns(int[] types) throws SQLException {
+            if (types.length != 2) {
+                throw new SQLException(
+                    "Invalid sql generated.  PieDataSet requires 2 columns only"
+                );
+            }
+            if (!JDBCRowBlock.isNumericType(types[1])
+                    && !JDBCRowBlock.isTimeType(types[1])) {
+                System.err.println("JDBCPieDataset - unknown data type");
+            }
+        }
+
+        /**
+         * Adds a block of rows to the dataset.
+         *
+         * @param block  the rows.
+         * @param clear  clear the existing data first?
+         * @param notify  send a change event?
+         */
+        public void rowsLoaded(JDBCRowBlock block, boolean clear,
+                boolean notify) {
+            addRows(block, clear);
+            if (notify) {
+                fireDatasetChanged();
+            }
+        }
+
+        /**
+         * Tells the listeners that the query is finished.
+         */
+        public void loadFinished() {
+            fireDatasetChanged();
+        }
+
+    }
+
 }
@@ -0,0 +1,346 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * -----------------
+ * JDBCRowBlock.java
+ * -----------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * A block of rows read from a <code>ResultSet</code> by a
+ * {@link JDBCLoader}.  The first column holds the keys (as strings or as
+ * numbers), and the values in the other columns are stored in primitive
+ * arrays, with <code>Double.NaN</code> for <code>null</code> values and for
+ * values that can't be converted to numbers.  Dates and times are stored as
+ * milliseconds.
+ */
+class JDBCRowBlock {
+
+    /** The column types (see <code>java.sql.Types</code>). */
+    private int[] columnTypes;
+
+    /** The column names. */
+    private String[] columnNames;
+
+    /** The column labels. */
+    private String[] columnLabels;
+
+    /** The keys, if they are read as strings. */
+    private Comparable[] keys;
+
+    /** The keys, if they are read as numbers. */
+    private double[] keyValues;
+
+    /** The values, by column (the first column is not stored here). */
+    private double[][] values;
+
+    /** The number of rows in the block. */
+    private int rowCount;
+
+    /**
+     * Creates a new empty block.
+     *
+     * @param columnTypes  the column types.
+     * @param columnNames  the column names.
+     * @param columnLabels  the column labels.
+     * @param textKeys  read the keys as strings?
+     * @param capacity  the maximum number of rows.
+     */
+    JDBCRowBlock(int[] columnTypes, String[] columnNames,
+            String[] columnLabels, boolean textKeys, int capacity) {
+        this.columnTypes = columnTypes;
+        this.columnNames = columnNames;
+        this.columnLabels = columnLabels;
+        if (textKeys) {
+            this.keys = new Comparable[capacity];
+        }
+        else {
+            this.keyValues = new double[capacity];
+        }
+        this.values = new double[columnTypes.length - 1][capacity];
+    }
+
+    /**
+     * Creates a new empty block for the same columns.
+     *
+     * @return The new block.
+     */
+    JDBCRowBlock createNext() {
+        return new JDBCRowBlock(this.columnTypes, this.columnNames,
+                this.columnLabels, this.keys != null, getCapacity());
+    }
+
+    /**
+     * Returns the number of columns, including the key column.
+     *
+     * @return The column count.
+     */
+    int getColumnCount() {
+        return this.columnTypes.length;
+    }
+
+    /**
+     * Returns the type of a column.
+     *
+     * @param column  the column index (zero-based, the key column is 0).
+     *
+     * @return The type (see <code>java.sql.Types</code>).
+     */
+    int getColumnType(int column) {
+        return this.columnTypes[column];
+    }
+
+    /**
+     * Returns the name of a column.
+     *
+     * @param column  the column index (zero-based, the key column is 0).
+     *
+     * @return The name.
+     */
+    String getColumnName(int column) {
+        return this.columnNames[column];
+    }
+
+    /**
+     * Returns the label of a column.
+     *
+     * @param column  the column index (zero-based, the key column is 0).
+     *
+     * @return The label.
+     */
+    String getColumnLabel(int column) {
+        return this.columnLabels[column];
+    }
+
+    /**
+     * Returns <code>true</code> if another block has the same column types,
+     * and <code>false</code> otherwise.
+     *
+     * @param block  the other block.
+     *
+     * @return A boolean.
+     */
+    boolean hasSameColumns(JDBCRowBlock block) {
+        if (this.columnTypes.length != block.columnTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            if (this.columnTypes[i] != block.columnTypes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of rows in the block.
+     *
+     * @return The row count.
+     */
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the maximum number of rows in the block.
+     *
+     * @return The capacity.
+     */
+    int getCapacity() {
+        return this.values.length > 0 ? this.values[0].length
+                : (this.keys != null ? this.keys.length
+                : this.keyValues.length);
+    }
+
+    /**
+     * Returns <code>true</code> if the block can't take any more rows.
+     *
+     * @return A boolean.
+     */
+    boolean isFull() {
+        return this.rowCount == getCapacity();
+    }
+
+    /**
+     * Returns the key for a row, if the keys are read as strings.
+     *
+     * @param row  the row index.
+     *
+     * @return The key (possibly <code>null</code>).
+     */
+    Comparable getKey(int row) {
+        return this.keys[row];
+    }
+
+    /**
+     * Returns the key for a row, if the keys are read as numbers.
+     *
+     * @param row  the row index.
+     *
+     * @return The key (possibly <code>Double.NaN</code>).
+     */
+    double getKeyValue(int row) {
+        return this.keyValues[row];
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param column  the column index (zero-based, the key column is 0, so
+     *     this must be at least 1).
+     * @param row  the row index.
+     *
+     * @return The value (possibly <code>Double.NaN</code>).
+     */
+    double getValue(int column, int row) {
+        return this.values[column - 1][row];
+    }
+
+    /**
+     * Reads the current row of a result set into the block.
+     *
+     * @param resultSet  the result set.
+     *
+     * @throws SQLException if there is a problem reading the row.
+     */
+    void readRow(ResultSet resultSet) throws SQLException {
+        int row = this.rowCount;
+        if (this.keys != null) {
+            this.keys[row] = resultSet.getString(1);
+        }
+        else {
+            this.keyValues[row] = readValue(resultSet, 1,
+                    this.columnTypes[0]);
+        }
+        for (int column = 1; column < this.columnTypes.length; column++) {
+            this.values[column - 1][row] = readValue(resultSet, column + 1,
+                    this.columnTypes[column]);
+        }
+        this.rowCount++;
+    }
+
+    /**
+     * Reads a value from the current row of a result set.
+     *
+     * @param resultSet  the result set.
+     * @param column  the column (one-based, as in JDBC).
+     * @param type  the column type.
+     *
+     * @return The value, <code>Double.NaN</code> if the value is
+     *     <code>null</code> or can't be converted to a number.
+     *
+     * @throws SQLException if there is a problem reading the value.
+     */
+    static double readValue(ResultSet resultSet, int column, int type)
+            throws SQLException {
+        if (isNumericType(type)) {
+            double value = resultSet.getDouble(column);
+            return resultSet.wasNull() ? Double.NaN : value;
+        }
+        if (isTimeType(type)) {
+            Timestamp time = resultSet.getTimestamp(column);
+            return time == null ? Double.NaN : time.getTime();
+        }
+        if (isTextType(type)) {
+            String text = resultSet.getString(column);
+            if (text != null) {
+                try {
+                    return Double.parseDouble(text.trim());
+                }
+                catch (NumberFormatException e) {
+                    // not a number, treat as null
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Returns <code>true</code> if a column type holds numbers.
+     *
+     * @param type  the type (see <code>java.sql.Types</code>).
+     *
+     * @return A boolean.
+     */
+    static boolean isNumericType(int type) {
+        switch (type) {
+            case Types.BIT:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a column type holds dates or times.
+     *
+     * @param type  the type (see <code>java.sql.Types</code>).
+     *
+     * @return A boolean.
+     */
+    static boolean isTimeType(int type) {
+        return type == Types.DATE || type == Types.TIME
+                || type == Types.TIMESTAMP;
+    }
+
+    /**
+     * Returns <code>true</code> if a column type holds text.
+     *
+     * @param type  the type (see <code>java.sql.Types</code>).
+     *
+     * @return A boolean.
+     */
+    static boolean isTextType(int type) {
+        return type == Types.CHAR || type == Types.VARCHAR
+                || type == Types.LONGVARCHAR;
+    }
+
+}
@@ -67,6 +67,8 @@
  * ------------- JFREECHART 1.0.x ---------------------------------------------
  * 17-Oct-2006 : Deprecated unused methods - see bug 1578293 (DG);
  * 20-Jun-2007 : Removed deprecated code (DG);
+ * 18-Oct-2026 : Read the rows with a JDBCLoader into primitive arrays, added
+ *               background loading and executeIncrementalQuery();
  *
  */
 
@@ -74,13 +76,8 @@ package org.jfree.data.jdbc;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Types;
-import java.util.ArrayList;
-import java.util.Date;
+import java.sql.Timestamp;
 
 import org.jfree.data.Range;
 import org.jfree.data.RangeInfo;
@@ -95,7 +92,11 @@ import org.jfree.data.xy.XYDataset;
  * the string sql query.  The sql query must return at least two columns.
  * The first column will be the x-axis and remaining columns y-axis values.
  * executeQuery can be called a number of times.
- *
+ * <P>
+ * The rows are streamed into primitive arrays by the dataset's
+ * {@link JDBCLoader}, which can also load them in the background.  New rows
+ * can be appended with {@link #executeIncrementalQuery(String)}.
+ * <P>
  * The database connection is read-only and no write back facility exists.
  */
 public class JDBCXYDataset extends AbstractXYDataset
@@ -107,8 +108,23 @@ public class JDBCXYDataset extends AbstractXYDataset
     /** Column names. */
     private String[] columnNames = {};
 
-    /** Rows. */
-    private ArrayList rows;
+    /** The column types of the last query (including the x column). */
+    private int[] columnTypes;
+
+    /** The query columns for the series. */
+    private int[] seriesColumns = {};
+
+    /** The x-values. */
+    private double[] xValues;
+
+    /** The y-values, by series. */
+    private double[][] yValues;
+
+    /** The number of items in each series. */
+    private int itemCount;
+
+    /** The loader. */
+    private transient JDBCLoader loader;
 
     /** The maximum y value of the returned result set */
     private double maxValue = 0.0;
@@ -124,7 +140,8 @@ public class JDBCXYDataset extends AbstractXYDataset
      * connection.
      */
     private JDBCXYDataset() {
-        this.rows = new ArrayList();
+        this.xValues = new double[0];
+        this.yValues = new double[0][];
     }
 
     /**
@@ -197,6 +214,22 @@ public class JDBCXYDataset extends AbstractXYDataset
         this.isTimeSeries = timeSeries;
     }
 
+    /**
+     * Returns the loader that executes the queries for this dataset.  The
+     * loader settings control the fetch size and whether the queries are
+     * executed in the background.
+     *
+     * @return The loader (never <code>null</code>).
+     *
+     * @since 1.2.0
+     */
+    public JDBCLoader getLoader() {
+        if (this.loader == null) {
+            this.loader = new JDBCLoader(false);
+        }
+        return this.loader;
+    }
+
     /**
      * ExecuteQuery will attempt execute the query passed to it against the
      * existing database connection.  If no connection exists then no action
@@ -218,8 +251,9 @@ public class JDBCXYDataset extends AbstractXYDataset
      * provided database connection.  If connection is null then no action is
      * taken.
      *
-     * The results from the query are extracted and cached locally, thus
-     * applying an upper limit on how many rows can be retrieved successfully.
+     * The rows are read by the dataset's loader (see {@link #getLoader()})
+     * into primitive arrays, replacing the existing data.  If the loader is
+     * set to load in the background, this method returns immediately.
      *
      * @param  query  the query to be executed.
      * @param  con  the connection the query is to be executed against.
@@ -228,187 +262,135 @@ public class JDBCXYDataset extends AbstractXYDataset
      */
     public void executeQuery(Connection con, String query)
         throws SQLException {
+        getLoader().load(con, query, null, false, new LoadHandler());
+    }
 
-        if (con == null) {
-            throw new SQLException(
-                "There is no database to execute the query."
-            );
+    /**
+     * Executes a query that returns the rows that are newer than the rows
+     * already in the dataset, and appends them to the dataset.  The query
+     * must have the same columns as the query that populated the dataset,
+     * and one parameter, which is set to the x-value of the last item (as
+     * a <code>java.sql.Timestamp</code> for a time series), for example:
+     * <pre>
+     * SELECT time, value FROM samples WHERE time &gt; ? ORDER BY time
+     * </pre>
+     * If the dataset is empty, no query is executed, use
+     * {@link #executeQuery(String)} to populate it.
+     *
+     * @param query  the query (<code>null</code> not permitted).
+     *
+     * @throws SQLException if there is a problem executing the query.
+     *
+     * @since 1.2.0
+     */
+    public void executeIncrementalQuery(String query) throws SQLException {
+        if (query == null) {
+            throw new IllegalArgumentException("Null 'query' argument.");
         }
+        if (this.itemCount == 0) {
+            return;
+        }
+        double last = this.xValues[this.itemCount - 1];
+        Object parameter;
+        if (this.isTimeSeries) {
+            parameter = new Timestamp((long) last);
+        }
+        else {
+            parameter = new Double(last);
+        }
+        getLoader().load(this.connection, query, parameter, true,
+                new LoadHandler());
+    }
 
-        ResultSet resultSet = null;
-        Statement statement = null;
-        try {
-            statement = con.createStatement();
-            resultSet = statement.executeQuery(query);
-            ResultSetMetaData metaData = resultSet.getMetaData();
-
-            int numberOfColumns = metaData.getColumnCount();
-            int numberOfValidColumns = 0;
-            int [] columnTypes = new int[numberOfColumns];
-            for (int column = 0; column < numberOfColumns; column++) {
-                try {
-                    int type = metaData.getColumnType(column + 1);
-                    switch (type) {
-
-                        case Types.NUMERIC:
-                        case Types.REAL:
-                        case Types.INTEGER:
-                        case Types.DOUBLE:
-                        case Types.FLOAT:
-                        case Types.DECIMAL:
-                        case Types.BIT:
-                        case Types.DATE:
-                        case Types.TIME:
-                        case Types.TIMESTAMP:
-                        case Types.BIGINT:
-                        case Types.SMALLINT:
-                            ++numberOfValidColumns;
-                            columnTypes[column] = type;
-                            break;
-                        default:
-                            columnTypes[column] = Types.NULL;
-                            break;
-                    }
-                }
-                catch (SQLException e) {
-                    columnTypes[column] = Types.NULL;
-                    throw e;
+    /**
+     * Adds a block of rows to the dataset.
+     *
+     * @param block  the rows.
+     * @param clear  clear the existing data first?
+     */
+    private void addRows(JDBCRowBlock block, boolean clear) {
+        if (clear || this.columnTypes == null
+                || this.columnTypes.length != block.getColumnCount()) {
+            int columnCount = block.getColumnCount();
+            this.columnTypes = new int[columnCount];
+            int seriesCount = 0;
+            for (int column = 0; column < columnCount; column++) {
+                int type = block.getColumnType(column);
+                this.columnTypes[column] = type;
+                if (column > 0 && isValidType(type)) {
+                    seriesCount++;
                 }
             }
-
-
-            if (numberOfValidColumns <= 1) {
-                throw new SQLException(
-                    "Not enough valid columns where generated by query."
-                );
-            }
-
             /// First column is X data
-            this.columnNames = new String[numberOfValidColumns - 1];
-            /// Get the column names and cache them.
-            int currentColumn = 0;
-            for (int column = 1; column < numberOfColumns; column++) {
-                if (columnTypes[column] != Types.NULL) {
-                    this.columnNames[currentColumn]
-                        = metaData.getColumnLabel(column + 1);
-                    ++currentColumn;
-                }
-            }
-
-            // Might need to add, to free memory from any previous result sets
-            if (this.rows != null) {
-                for (int column = 0; column < this.rows.size(); column++) {
-                    ArrayList row = (ArrayList) this.rows.get(column);
-                    row.clear();
-                }
-                this.rows.clear();
-            }
-
-            // Are we working with a time series.
-            switch (columnTypes[0]) {
-                case Types.DATE:
-                case Types.TIME:
-                case Types.TIMESTAMP:
-                    this.isTimeSeries = true;
-                    break;
-                default :
-                    this.isTimeSeries = false;
-                    break;
-            }
-
-            // Get all rows.
-            // rows = new ArrayList();
-            while (resultSet.next()) {
-                ArrayList newRow = new ArrayList();
-                for (int column = 0; column < numberOfColumns; column++) {
-                    Object xObject = resultSet.getObject(column + 1);
-                    switch (columnTypes[column]) {
-                        case Types.NUMERIC:
-                        case Types.REAL:
-                        case Types.INTEGER:
-                        case Types.DOUBLE:
-                        case Types.FLOAT:
-                        case Types.DECIMAL:
-                        case Types.BIGINT:
-                        case Types.SMALLINT:
-                            newRow.add(xObject);
-                            break;
-
-                        case Types.DATE:
-                        case Types.TIME:
-                        case Types.TIMESTAMP:
-                            newRow.add(new Long(((Date) xObject).getTime()));
-                            break;
-                        case Types.NULL:
-                            break;
-                        default:
-                            System.err.println("Unknown data");
-                            columnTypes[column] = Types.NULL;
-                            break;
-                    }
+            this.seriesColumns = new int[seriesCount];
+            this.columnNames = new String[seriesCount];
+            int series = 0;
+            for (int column = 1; column < columnCount; column++) {
+                if (isValidType(this.columnTypes[column])) {
+                    this.seriesColumns[series] = column;
+                    this.columnNames[series] = block.getColumnLabel(column);
+                    series++;
                 }
-                this.rows.add(newRow);
-            }
-
-            /// a kludge to make everything work when no rows returned
-            if (this.rows.size() == 0) {
-                ArrayList newRow = new ArrayList();
-                for (int column = 0; column < numberOfColumns; column++) {
-                    if (columnTypes[column] != Types.NULL) {
-                        newRow.add(new Integer(0));
-                    }
-                }
-                this.rows.add(newRow);
             }
+            this.isTimeSeries = JDBCRowBlock.isTimeType(this.columnTypes[0]);
+            this.itemCount = 0;
+            this.xValues = new double[block.getRowCount()];
+            this.yValues = new double[seriesCount][block.getRowCount()];
+            this.maxValue = Double.NEGATIVE_INFINITY;
+            this.minValue = Double.POSITIVE_INFINITY;
+        }
 
-            /// Determine max and min values.
-            if (this.rows.size() < 1) {
-                this.maxValue = 0.0;
-                this.minValue = 0.0;
+        int rowCount = block.getRowCount();
+        int required = this.itemCount + rowCount;
+        if (required > this.xValues.length) {
+            int capacity = Math.max(required, this.xValues.length * 2);
+            this.xValues = grow(this.xValues, capacity);
+            for (int series = 0; series < this.yValues.length; series++) {
+                this.yValues[series] = grow(this.yValues[series], capacity);
             }
-            else {
-                ArrayList row = (ArrayList) this.rows.get(0);
-                this.maxValue = Double.NEGATIVE_INFINITY;
-                this.minValue = Double.POSITIVE_INFINITY;
-                for (int rowNum = 0; rowNum < this.rows.size(); ++rowNum) {
-                    row = (ArrayList) this.rows.get(rowNum);
-                    for (int column = 1; column < numberOfColumns; column++) {
-                        Object testValue = row.get(column);
-                        if (testValue != null) {
-                            double test = ((Number) testValue).doubleValue();
-
-                            if (test < this.minValue) {
-                                this.minValue = test;
-                            }
-                            if (test > this.maxValue) {
-                                this.maxValue = test;
-                            }
-                        }
-                    }
-                }
-            }
-
-            fireDatasetChanged(); // Tell the listeners a new table has arrived.
         }
-        finally {
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
+        for (int row = 0; row < rowCount; row++) {
+            this.xValues[this.itemCount + row] = block.getKeyValue(row);
+            for (int series = 0; series < this.seriesColumns.length;
+                    series++) {
+                double y = block.getValue(this.seriesColumns[series], row);
+                this.yValues[series][this.itemCount + row] = y;
+                if (y < this.minValue) {
+                    this.minValue = y;
                 }
-                catch (Exception e) {
-                    // TODO: is this a good idea?
-                }
-            }
-            if (statement != null) {
-                try {
-                    statement.close();
-                }
-                catch (Exception e) {
-                    // TODO: is this a good idea?
+                if (y > this.maxValue) {
+                    this.maxValue = y;
                 }
             }
         }
+        this.itemCount = required;
+    }
+
+    /**
+     * Returns <code>true</code> if a column of the given type can be used
+     * for the x-values or a series, and <code>false</code> otherwise.
+     *
+     * @param type  the column type (see <code>java.sql.Types</code>).
+     *
+     * @return A boolean.
+     */
+    private static boolean isValidType(int type) {
+        return JDBCRowBlock.isNumericType(type)
+                || JDBCRowBlock.isTimeType(type);
+    }
 
+    /**
+     * Copies an array into a larger array.
+     *
+     * @param array  the array.
+     * @param length  the new length.
+     *
+     * @return The new array.
+     */
+    private static double[] grow(double[] array, int length) {
+        double[] result = new double[length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
     }
 
     /**
@@ -424,8 +406,26 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @see XYDataset
      */
     public Number getX(int seriesIndex, int itemIndex) {
-        ArrayList row = (ArrayList) this.rows.get(itemIndex);
-        return (Number) row.get(0);
+        double x = getXValue(seriesIndex, itemIndex);
+        if (this.isTimeSeries) {
+            return new Long((long) x);
+        }
+        return new Double(x);
+    }
+
+    /**
+     * Returns the x-value for the specified series and item.
+     *
+     * @param  seriesIndex  the series (zero-based index).
+     * @param  itemIndex  the item (zero-based index).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int seriesIndex, int itemIndex) {
+        if (itemIndex >= this.itemCount) {
+            throw new IndexOutOfBoundsException("Item " + itemIndex);
+        }
+        return this.xValues[itemIndex];
     }
 
     /**
@@ -439,8 +439,27 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @see XYDataset
      */
     public Number getY(int seriesIndex, int itemIndex) {
-        ArrayList row = (ArrayList) this.rows.get(itemIndex);
-        return (Number) row.get(seriesIndex + 1);
+        double y = getYValue(seriesIndex, itemIndex);
+        if (Double.isNaN(y)) {
+            return null;
+        }
+        return new Double(y);
+    }
+
+    /**
+     * Returns the y-value for the specified series and item.
+     *
+     * @param  seriesIndex  the series (zero-based index).
+     * @param  itemIndex  the item (zero-based index).
+     *
+     * @return The y-value (<code>Double.NaN</code> for a <code>null</code>
+     *     value).
+     */
+    public double getYValue(int seriesIndex, int itemIndex) {
+        if (itemIndex >= this.itemCount) {
+            throw new IndexOutOfBoundsException("Item " + itemIndex);
+        }
+        return this.yValues[seriesIndex][itemIndex];
     }
 
     /**
@@ -453,7 +472,7 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @see XYDataset
      */
     public int getItemCount(int seriesIndex) {
-        return this.rows.size();
+        return this.itemCount;
     }
 
     /**
@@ -505,6 +524,7 @@ public class JDBCXYDataset extends AbstractXYDataset
      */
     public void close() {
 
+        getLoader().cancel();
         try {
             this.connection.close();
         }
@@ -523,7 +543,7 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @return The minimum value.
      */
     public double getRangeLowerBound(boolean includeInterval) {
-        return this.minValue;
+        return this.minValue <= this.maxValue ? this.minValue : 0.0;
     }
 
     /**
@@ -535,7 +555,7 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @return The maximum value.
      */
     public double getRangeUpperBound(boolean includeInterval) {
-        return this.maxValue;
+        return this.minValue <= this.maxValue ? this.maxValue : 0.0;
     }
 
     /**
@@ -547,7 +567,58 @@ public class JDBCXYDataset extends AbstractXYDataset
      * @return The range.
      */
     public Range getRangeBounds(boolean includeInterval) {
-        return new Range(this.minValue, this.maxValue);
+        return new Range(getRangeLowerBound(includeInterval),
+                getRangeUpperBound(includeInterval));
+    }
+
+    /**
+     * Adds the rows read by the loader to the dataset.
+     */
+    private class LoadHandler implements JDBCLoadHandler {
+
+        /**
+         * Checks that there are at least two valid columns.
+         *
+         * @param types  the column types.
+         *
+         * @throws SQLException if there are too few valid columns.
+         */
+        public void checkColumns(int[] types) throws SQLException {
+            int numberOfValidColumns = 0;
+            for (int column = 0; column < types.length; column++) {
+                if (isValidType(types[column])) {
+                    ++numberOfValidColumns;
+                }
+            }
+            if (numberOfValidColumns <= 1) {
+                throw new SQLException(
+                    "Not enough valid columns where generated by query."
+                );
+            }
+        }
+
+        /**
+         * Adds a block of rows to the dataset.
+         *
+         * @param block  the rows.
+         * @param clear  clear the existing data first?
+         * @param notify  send a change event?
+         */
+        public void rowsLoaded(JDBCRowBlock block, boolean clear,
+                boolean notify) {
+            addRows(block, clear);
+            if (notify) {
+                fireDatasetChanged();
+            }
+        }
+
+        /**
+         * Tells the listeners that a new table has arrived.
+         */
+        public void loadFinished() {
+            fireDatasetChanged();
+        }
+
     }
 
 }
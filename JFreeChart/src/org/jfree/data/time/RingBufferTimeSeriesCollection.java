@@ -0,0 +1,1086 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2009, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Java is a trademark or registered trademark of Sun Microsystems, Inc.
+ * in the United States and other countries.]
+ *
+ * -----------------------------------
+ * RingBufferTimeSeriesCollection.java
+ * -----------------------------------
+ * (C) Copyright 2026, by the JFreeChart contributors.
+ *
+ * Original Author:  the JFreeChart contributors;
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 18-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jfree.chart.util.PublicCloneable;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A collection of time series intended for real-time data feeds.  Each
+ * series stores its x-values (milliseconds since 1-Jan-1970) and y-values in
+ * primitive ring buffers with a fixed capacity, so that:
+ * <ul>
+ * <li>adding an item takes constant time and creates no objects;</li>
+ * <li>when a series is full, adding an item drops the oldest item;</li>
+ * <li>items older than the maximum item age are dropped from the start of
+ *     the buffer, in constant time per item;</li>
+ * <li>the minimum and maximum y-values of each series are maintained as
+ *     items are added and dropped, so the dataset bounds are found without
+ *     iterating over the data.</li>
+ * </ul>
+ * Items must be added to a series in ascending order of x-value.  As with
+ * the other datasets, updates should be made on the event dispatch thread
+ * when the dataset is displayed in a chart.
+ *
+ * @since 1.2.0
+ */
+public class RingBufferTimeSeriesCollection extends AbstractIntervalXYDataset
+        implements IntervalXYDataset, DomainInfo, RangeInfo, XYDomainInfo,
+        XYRangeInfo, PublicCloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4219412498743150672L;
+
+    /** Storage for the series keys. */
+    private List seriesKeys;
+
+    /**
+     * Storage for the series data, a {@link Buffer} for each key in the
+     * seriesKeys list.
+     */
+    private List buffers;
+
+    /**
+     * The maximum age of the items in a series, in milliseconds, relative
+     * to the latest item in the series.
+     */
+    private long maximumItemAge;
+
+    /** The width of the x-interval around each item, in milliseconds. */
+    private double intervalWidth;
+
+    /**
+     * Creates a new dataset, initially empty.
+     */
+    public RingBufferTimeSeriesCollection() {
+        this.seriesKeys = new ArrayList();
+        this.buffers = new ArrayList();
+        this.maximumItemAge = Long.MAX_VALUE;
+        this.intervalWidth = 0.0;
+    }
+
+    /**
+     * Returns the maximum age of the items in each series, relative to the
+     * latest item in the series.
+     *
+     * @return The maximum item age (in milliseconds).
+     *
+     * @see #setMaximumItemAge(long)
+     */
+    public long getMaximumItemAge() {
+        return this.maximumItemAge;
+    }
+
+    /**
+     * Sets the maximum age of the items in each series, relative to the
+     * latest item in the series, removes the items that are too old and
+     * sends a {@link org.jfree.data.general.DatasetChangeEvent} to all
+     * registered listeners.
+     *
+     * @param age  the age (in milliseconds, must be &gt;= 0).
+     *
+     * @see #getMaximumItemAge()
+     */
+    public void setMaximumItemAge(long age) {
+        if (age < 0) {
+            throw new IllegalArgumentException("Negative 'age' argument.");
+        }
+        this.maximumItemAge = age;
+        Iterator iterator = this.buffers.iterator();
+        while (iterator.hasNext()) {
+            Buffer buffer = (Buffer) iterator.next();
+            buffer.removeAgedItems(this.maximumItemAge);
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the width of the x-interval around each item, used by the
+     * {@link IntervalXYDataset} methods.  The default value is
+     * <code>0.0</code>.
+     *
+     * @return The interval width (in milliseconds).
+     *
+     * @see #setIntervalWidth(double)
+     */
+    public double getIntervalWidth() {
+        return this.intervalWidth;
+    }
+
+    /**
+     * Sets the width of the x-interval around each item, and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param width  the width (in milliseconds, must be &gt;= 0).
+     *
+     * @see #getIntervalWidth()
+     */
+    public void setIntervalWidth(double width) {
+        if (width < 0.0) {
+            throw new IllegalArgumentException("Negative 'width' argument.");
+        }
+        this.intervalWidth = width;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Adds a new series to the dataset and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param seriesKey  the series key (<code>null</code> not permitted).
+     * @param capacity  the maximum number of items in the series (must be
+     *     &gt; 0).
+     *
+     * @return The index of the new series.
+     */
+    public int addSeries(Comparable seriesKey, int capacity) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "The 'capacity' must be positive.");
+        }
+        if (this.seriesKeys.contains(seriesKey)) {
+            throw new IllegalArgumentException("Duplicate 'seriesKey'.");
+        }
+        this.seriesKeys.add(seriesKey);
+        this.buffers.add(new Buffer(capacity));
+        fireDatasetChanged();
+        return this.seriesKeys.size() - 1;
+    }
+
+    /**
+     * Removes a series from the dataset and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     */
+    public void removeSeries(int series) {
+        if ((series < 0) || (series >= getSeriesCount())) {
+            throw new IllegalArgumentException("Series index out of bounds.");
+        }
+        this.seriesKeys.remove(series);
+        this.buffers.remove(series);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the maximum number of items in a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     *
+     * @return The capacity.
+     */
+    public int getCapacity(int series) {
+        return getBuffer(series).x.length;
+    }
+
+    /**
+     * Adds an item to a series and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param millis  the x-value (in milliseconds, not before the x-value of
+     *     the last item in the series).
+     * @param value  the y-value (<code>Double.NaN</code> permitted).
+     *
+     * @see #add(int, long, double, boolean)
+     */
+    public void add(int series, long millis, double value) {
+        add(series, millis, value, true);
+    }
+
+    /**
+     * Adds an item to a series and, if requested, sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  If the series is full, the oldest item is removed.  Items
+     * older than the maximum item age (relative to the new item) are also
+     * removed.  When adding items to many series at once, pass
+     * <code>false</code> for all but the last one.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param millis  the x-value (in milliseconds, not before the x-value of
+     *     the last item in the series).
+     * @param value  the y-value (<code>Double.NaN</code> permitted).
+     * @param notify  notify listeners?
+     */
+    public void add(int series, long millis, double value, boolean notify) {
+        Buffer buffer = getBuffer(series);
+        if (buffer.count > 0 && millis < buffer.getX(buffer.count - 1)) {
+            throw new IllegalArgumentException("The x-value " + millis
+                    + " is before the last x-value in the series.");
+        }
+        buffer.add(millis, value);
+        buffer.removeAgedItems(this.maximumItemAge);
+        if (notify) {
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Removes the items that are older than the maximum item age relative
+     * to the specified time, in all series, and, if requested, sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  Use this to age series that are not updated regularly.
+     *
+     * @param latest  the time (in milliseconds) that the item ages are
+     *     measured from.
+     * @param notify  notify listeners if any item was removed?
+     */
+    public void removeAgedItems(long latest, boolean notify) {
+        if (latest < Long.MIN_VALUE + this.maximumItemAge) {
+            return;
+        }
+        boolean removed = false;
+        Iterator iterator = this.buffers.iterator();
+        while (iterator.hasNext()) {
+            Buffer buffer = (Buffer) iterator.next();
+            if (buffer.removeItemsBefore(latest - this.maximumItemAge) > 0) {
+                removed = true;
+            }
+        }
+        if (removed && notify) {
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Removes all the items from all the series and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     */
+    public void clear() {
+        Iterator iterator = this.buffers.iterator();
+        while (iterator.hasNext()) {
+            Buffer buffer = (Buffer) iterator.next();
+            buffer.removeOldest(buffer.count);
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.seriesKeys.size();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     *
+     * @return The key for the series.
+     */
+    public Comparable getSeriesKey(int series) {
+        if ((series < 0) || (series >= getSeriesCount())) {
+            throw new IllegalArgumentException("Series index out of bounds.");
+        }
+        return (Comparable) this.seriesKeys.get(series);
+    }
+
+    /**
+     * Returns the index of the series with the specified key, or -1 if there
+     * is no such series in the dataset.
+     *
+     * @param seriesKey  the series key (<code>null</code> permitted).
+     *
+     * @return The index, or -1.
+     */
+    public int indexOf(Comparable seriesKey) {
+        return this.seriesKeys.indexOf(seriesKey);
+    }
+
+    /**
+     * Returns the order of the domain (x-) values in the dataset.  Items are
+     * always added in ascending order.
+     *
+     * @return <code>DomainOrder.ASCENDING</code>.
+     */
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the number of items in the specified series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getBuffer(series).count;
+    }
+
+    /**
+     * Returns the x-value for an item within a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param item  the item index (in the range <code>0</code> to
+     *     <code>getItemCount(series) - 1</code>, the oldest item first).
+     *
+     * @return The x-value (in milliseconds).
+     */
+    public double getXValue(int series, int item) {
+        return getBuffer(series).getX(item);
+    }
+
+    /**
+     * Returns the x-value for an item within a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param item  the item index (in the range <code>0</code> to
+     *     <code>getItemCount(series) - 1</code>).
+     *
+     * @return The x-value.
+     *
+     * @see #getXValue(int, int)
+     */
+    public Number getX(int series, int item) {
+        return new Long(getBuffer(series).getX(item));
+    }
+
+    /**
+     * Returns the y-value for an item within a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param item  the item index (in the range <code>0</code> to
+     *     <code>getItemCount(series) - 1</code>).
+     *
+     * @return The y-value (possibly <code>Double.NaN</code>).
+     */
+    public double getYValue(int series, int item) {
+        return getBuffer(series).getY(item);
+    }
+
+    /**
+     * Returns the y-value for an item within a series.
+     *
+     * @param series  the series index (in the range <code>0</code> to
+     *     <code>getSeriesCount() - 1</code>).
+     * @param item  the item index (in the range <code>0</code> to
+     *     <code>getItemCount(series) - 1</code>).
+     *
+     * @return The y-value (<code>null</code> for <code>Double.NaN</code>).
+     *
+     * @see #getYValue(int, int)
+     */
+    public Number getY(int series, int item) {
+        double y = getYValue(series, item);
+        return Double.isNaN(y) ? null : new Double(y);
+    }
+
+    /**
+     * Returns the starting x-value for an item within a series, the x-value
+     * less half the interval width.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getStartXValue(int series, int item) {
+        return getXValue(series, item) - this.intervalWidth / 2.0;
+    }
+
+    /**
+     * Returns the starting x-value for an item within a series.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public Number getStartX(int series, int item) {
+        return new Double(getStartXValue(series, item));
+    }
+
+    /**
+     * Returns the ending x-value for an item within a series, the x-value
+     * plus half the interval width.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getEndXValue(int series, int item) {
+        return getXValue(series, item) + this.intervalWidth / 2.0;
+    }
+
+    /**
+     * Returns the ending x-value for an item within a series.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public Number getEndX(int series, int item) {
+        return new Double(getEndXValue(series, item));
+    }
+
+    /**
+     * Returns the starting y-value for an item within a series, which is
+     * the same as the y-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getStartYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    /**
+     * Returns the starting y-value for an item within a series.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public Number getStartY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Returns the ending y-value for an item within a series, which is the
+     * same as the y-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getEndYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    /**
+     * Returns the ending y-value for an item within a series.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public Number getEndY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Returns the minimum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The minimum value (<code>Double.NaN</code> if the dataset is
+     *     empty).
+     */
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    /**
+     * Returns the maximum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The maximum value (<code>Double.NaN</code> if the dataset is
+     *     empty).
+     */
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    /**
+     * Returns the range of the x-values in the dataset.  This doesn't
+     * iterate over the items.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (<code>null</code> if the dataset is empty).
+     */
+    public Range getDomainBounds(boolean includeInterval) {
+        return getDomainBounds(this.seriesKeys, includeInterval);
+    }
+
+    /**
+     * Returns the range of the x-values in the specified series.  This
+     * doesn't iterate over the items.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series
+     *     (<code>null</code> not permitted).
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (<code>null</code> if the series are empty).
+     */
+    public Range getDomainBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        if (visibleSeriesKeys == null) {
+            throw new IllegalArgumentException(
+                    "Null 'visibleSeriesKeys' argument.");
+        }
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            int series = indexOf((Comparable) iterator.next());
+            if (series < 0) {
+                continue;
+            }
+            Buffer buffer = getBuffer(series);
+            if (buffer.count > 0) {
+                lower = Math.min(lower, buffer.getX(0));
+                upper = Math.max(upper, buffer.getX(buffer.count - 1));
+            }
+        }
+        if (lower > upper) {
+            return null;
+        }
+        if (includeInterval) {
+            lower -= this.intervalWidth / 2.0;
+            upper += this.intervalWidth / 2.0;
+        }
+        return new Range(lower, upper);
+    }
+
+    /**
+     * Returns the minimum y-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account.
+     *
+     * @return The minimum value (<code>Double.NaN</code> if there are no
+     *     values).
+     */
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    /**
+     * Returns the maximum y-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account.
+     *
+     * @return The maximum value (<code>Double.NaN</code> if there are no
+     *     values).
+     */
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    /**
+     * Returns the range of the y-values in the dataset.  This doesn't
+     * iterate over the items.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account.
+     *
+     * @return The range (<code>null</code> if there are no values).
+     */
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(this.seriesKeys, null, includeInterval);
+    }
+
+    /**
+     * Returns the range of the y-values of the items in the specified series
+     * whose x-value is in the specified range.  The items are only iterated
+     * over for the series which have items outside the x-range.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series
+     *     (<code>null</code> not permitted).
+     * @param xRange  the x-range (<code>null</code> for all items).
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account.
+     *
+     * @return The range (<code>null</code> if there are no values).
+     */
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        if (visibleSeriesKeys == null) {
+            throw new IllegalArgumentException(
+                    "Null 'visibleSeriesKeys' argument.");
+        }
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            int series = indexOf((Comparable) iterator.next());
+            if (series < 0) {
+                continue;
+            }
+            Buffer buffer = getBuffer(series);
+            if (buffer.count == 0) {
+                continue;
+            }
+            if (xRange == null
+                    || (xRange.contains(buffer.getX(0))
+                    && xRange.contains(buffer.getX(buffer.count - 1)))) {
+                if (!Double.isNaN(buffer.minimum.get())) {
+                    lower = Math.min(lower, buffer.minimum.get());
+                    upper = Math.max(upper, buffer.maximum.get());
+                }
+            }
+            else {
+                int first = buffer.indexOf(xRange.getLowerBound());
+                for (int item = first; item < buffer.count; item++) {
+                    if (buffer.getX(item) > xRange.getUpperBound()) {
+                        break;
+                    }
+                    double y = buffer.getY(item);
+                    if (!Double.isNaN(y)) {
+                        lower = Math.min(lower, y);
+                        upper = Math.max(upper, y);
+                    }
+                }
+            }
+        }
+        if (lower > upper) {
+            return null;
+        }
+        return new Range(lower, upper);
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof RingBufferTimeSeriesCollection)) {
+            return false;
+        }
+        RingBufferTimeSeriesCollection that
+                = (RingBufferTimeSeriesCollection) obj;
+        if (this.maximumItemAge != that.maximumItemAge) {
+            return false;
+        }
+        if (this.intervalWidth != that.intervalWidth) {
+            return false;
+        }
+        if (!this.seriesKeys.equals(that.seriesKeys)) {
+            return false;
+        }
+        for (int s = 0; s < this.buffers.size(); s++) {
+            Buffer b1 = (Buffer) this.buffers.get(s);
+            Buffer b2 = (Buffer) that.buffers.get(s);
+            if (b1.x.length != b2.x.length || b1.count != b2.count) {
+                return false;
+            }
+            for (int item = 0; item < b1.count; item++) {
+                if (b1.getX(item) != b2.getX(item)) {
+                    return false;
+                }
+                if (Double.doubleToLongBits(b1.getY(item))
+                        != Double.doubleToLongBits(b2.getY(item))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for this instance.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.seriesKeys.hashCode();
+        for (int s = 0; s < this.buffers.size(); s++) {
+            Buffer buffer = (Buffer) this.buffers.get(s);
+            result = 29 * result + buffer.count;
+            if (buffer.count > 0) {
+                long x = buffer.getX(buffer.count - 1);
+                result = 29 * result + (int) (x ^ (x >>> 32));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates an independent copy of this dataset.
+     *
+     * @return The cloned dataset.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning the
+     *     dataset.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        RingBufferTimeSeriesCollection clone
+                = (RingBufferTimeSeriesCollection) super.clone();
+        clone.seriesKeys = new ArrayList(this.seriesKeys);
+        clone.buffers = new ArrayList(this.buffers.size());
+        for (int s = 0; s < this.buffers.size(); s++) {
+            Buffer buffer = (Buffer) this.buffers.get(s);
+            clone.buffers.add(buffer.clone());
+        }
+        return clone;
+    }
+
+    /**
+     * Returns the buffer for a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The buffer.
+     */
+    private Buffer getBuffer(int series) {
+        if ((series < 0) || (series >= getSeriesCount())) {
+            throw new IllegalArgumentException("Series index out of bounds.");
+        }
+        return (Buffer) this.buffers.get(series);
+    }
+
+    /**
+     * The items of a series.  The item with sequence number <code>n</code>
+     * (counting all the items ever added) is stored at index
+     * <code>n % capacity</code>.
+     */
+    private static class Buffer implements Cloneable, Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 3263457282915314620L;
+
+        /** The x-values. */
+        private long[] x;
+
+        /** The y-values. */
+        private double[] y;
+
+        /** The number of items ever added to the buffer. */
+        private long added;
+
+        /** The number of items in the buffer. */
+        private int count;
+
+        /** The candidates for the minimum y-value. */
+        private Extremes minimum;
+
+        /** The candidates for the maximum y-value. */
+        private Extremes maximum;
+
+        /**
+         * Creates an empty buffer.
+         *
+         * @param capacity  the capacity.
+         */
+        Buffer(int capacity) {
+            this.x = new long[capacity];
+            this.y = new double[capacity];
+            this.minimum = new Extremes(capacity, false);
+            this.maximum = new Extremes(capacity, true);
+        }
+
+        /**
+         * Returns the storage index of an item.
+         *
+         * @param item  the item index, zero for the oldest item.
+         *
+         * @return The storage index.
+         */
+        private int index(int item) {
+            if (item < 0 || item >= this.count) {
+                throw new IndexOutOfBoundsException("Index: " + item
+                        + ", Size: " + this.count);
+            }
+            return (int) ((this.added - this.count + item) % this.x.length);
+        }
+
+        long getX(int item) {
+            return this.x[index(item)];
+        }
+
+        double getY(int item) {
+            return this.y[index(item)];
+        }
+
+        /**
+         * Adds an item, removing the oldest item if the buffer is full.
+         *
+         * @param millis  the x-value.
+         * @param value  the y-value.
+         */
+        void add(long millis, double value) {
+            if (this.count == this.x.length) {
+                removeOldest(1);
+            }
+            int index = (int) (this.added % this.x.length);
+            this.x[index] = millis;
+            this.y[index] = value;
+            if (!Double.isNaN(value)) {
+                this.minimum.add(this.added, value);
+                this.maximum.add(this.added, value);
+            }
+            this.added++;
+            this.count++;
+        }
+
+        /**
+         * Removes the oldest items.
+         *
+         * @param n  the number of items to remove.
+         */
+        void removeOldest(int n) {
+            this.count -= n;
+            long first = this.added - this.count;
+            this.minimum.removeBefore(first);
+            this.maximum.removeBefore(first);
+        }
+
+        /**
+         * Removes the items with an x-value before the specified value.
+         *
+         * @param millis  the x-value.
+         *
+         * @return The number of items removed.
+         */
+        int removeItemsBefore(long millis) {
+            int n = 0;
+            while (n < this.count && getX(n) < millis) {
+                n++;
+            }
+            if (n > 0) {
+                removeOldest(n);
+            }
+            return n;
+        }
+
+        /**
+         * Removes the items older than the specified age, relative to the
+         * latest item.
+         *
+         * @param age  the age (in milliseconds).
+         */
+        void removeAgedItems(long age) {
+            if (this.count == 0 || age == Long.MAX_VALUE) {
+                return;
+            }
+            long latest = getX(this.count - 1);
+            if (latest >= Long.MIN_VALUE + age) {
+                removeItemsBefore(latest - age);
+            }
+        }
+
+        /**
+         * Returns the index of the first item with an x-value greater than
+         * or equal to the specified value.
+         *
+         * @param value  the x-value.
+         *
+         * @return The item index (<code>count</code> if there is no such
+         *     item).
+         */
+        int indexOf(double value) {
+            int low = 0;
+            int high = this.count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (getX(mid) < value) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns an independent copy of the buffer.
+         *
+         * @return A clone.
+         *
+         * @throws CloneNotSupportedException never.
+         */
+        public Object clone() throws CloneNotSupportedException {
+            Buffer clone = (Buffer) super.clone();
+            clone.x = (long[]) this.x.clone();
+            clone.y = (double[]) this.y.clone();
+            clone.minimum = (Extremes) this.minimum.clone();
+            clone.maximum = (Extremes) this.maximum.clone();
+            return clone;
+        }
+
+    }
+
+    /**
+     * The y-values of a buffer which may become its minimum (or maximum)
+     * value as the oldest items are removed: each value is less (or greater)
+     * than all the values added after it.  The first value is the minimum
+     * (or maximum).  Each value is added and removed once, so maintaining
+     * the extremes takes constant time per item on average.
+     */
+    private static class Extremes implements Cloneable, Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = -2190325745096214578L;
+
+        /** True for maximum values, false for minimum values. */
+        private boolean maximum;
+
+        /** The sequence numbers of the values, in a ring buffer. */
+        private long[] sequences;
+
+        /** The values. */
+        private double[] values;
+
+        /** The index of the first value. */
+        private int head;
+
+        /** The number of values. */
+        private int size;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param capacity  the capacity of the buffer.
+         * @param maximum  track the maximum, rather than the minimum?
+         */
+        Extremes(int capacity, boolean maximum) {
+            this.maximum = maximum;
+            this.sequences = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        /**
+         * Adds a value, dropping the values it supersedes.
+         *
+         * @param sequence  the sequence number of the item.
+         * @param value  the value (not <code>Double.NaN</code>).
+         */
+        void add(long sequence, double value) {
+            while (this.size > 0) {
+                int last = (this.head + this.size - 1) % this.values.length;
+                if (this.maximum ? this.values[last] > value
+                        : this.values[last] < value) {
+                    break;
+                }
+                this.size--;
+            }
+            int index = (this.head + this.size) % this.values.length;
+            this.sequences[index] = sequence;
+            this.values[index] = value;
+            this.size++;
+        }
+
+        /**
+         * Removes the values of items that are no longer in the buffer.
+         *
+         * @param sequence  the sequence number of the oldest item.
+         */
+        void removeBefore(long sequence) {
+            while (this.size > 0 && this.sequences[this.head] < sequence) {
+                this.head = (this.head + 1) % this.values.length;
+                this.size--;
+            }
+        }
+
+        /**
+         * Returns the minimum (or maximum) value.
+         *
+         * @return The value (<code>Double.NaN</code> if there are no values).
+         */
+        double get() {
+            return this.size == 0 ? Double.NaN : this.values[this.head];
+        }
+
+        /**
+         * Returns an independent copy of this instance.
+         *
+         * @return A clone.
+         *
+         * @throws CloneNotSupportedException never.
+         */
+        public Object clone() throws CloneNotSupportedException {
+            Extremes clone = (Extremes) super.clone();
+            clone.sequences = (long[]) this.sequences.clone();
+            clone.values = (double[]) this.values.clone();
+            return clone;
+        }
+
+    }
+
+}
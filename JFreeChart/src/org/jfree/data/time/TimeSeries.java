@@ -79,6 +79,8 @@
  *               1864222) (DG);
  * 13-Jan-2009 : Fixed constructors so that timePeriodClass doesn't need to
  *               be specified in advance (DG);
+ * 18-Oct-2026 : Added minY and maxY fields;
+ * 19-Oct-2026 : Report items added at the end of the series as appends;
  *
  */
 
@@ -90,6 +92,7 @@ import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -137,6 +140,12 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      */
     private long maximumItemAge;
 
+    /** The lowest y-value in the series, excluding Double.NaN values. */
+    private double minY;
+
+    /** The highest y-value in the series, excluding Double.NaN values. */
+    private double maxY;
+
     /**
      * Creates a new (empty) time series.  By default, a daily time series is
      * created.  Use one of the other constructors if you require a different
@@ -169,6 +178,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         this.data = new java.util.ArrayList();
         this.maximumItemCount = Integer.MAX_VALUE;
         this.maximumItemAge = Long.MAX_VALUE;
+        this.minY = Double.NaN;
+        this.maxY = Double.NaN;
     }
 
     /**
@@ -306,6 +317,36 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         removeAgedItems(true);  // remove old items and notify if necessary
     }
 
+    /**
+     * Returns the smallest y-value in the series, ignoring any null and
+     * Double.NaN values.  This method returns Double.NaN if there is no
+     * smallest y-value (for example, when the series is empty).
+     *
+     * @return The smallest y-value.
+     *
+     * @see #getMaxY()
+     *
+     * @since 1.2.0
+     */
+    public double getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Returns the largest y-value in the series, ignoring any null and
+     * Double.NaN values.  This method returns Double.NaN if there is no
+     * largest y-value (for example, when the series is empty).
+     *
+     * @return The largest y-value.
+     *
+     * @see #getMinY()
+     *
+     * @since 1.2.0
+     */
+    public double getMaxY() {
+        return this.maxY;
+    }
+
     /**
      * Returns the time period class for this series.
      * <p>
@@ -494,16 +535,19 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
 
         // make the change (if it's not a duplicate time period)...
         boolean added = false;
+        boolean appended = false;
         int count = getItemCount();
         if (count == 0) {
             this.data.add(item);
             added = true;
+            appended = true;
         }
         else {
             RegularTimePeriod last = getTimePeriod(getItemCount() - 1);
             if (item.getPeriod().compareTo(last) > 0) {
                 this.data.add(item);
                 added = true;
+                appended = true;
             }
             else {
                 int index = Collections.binarySearch(this.data, item);
@@ -524,16 +568,24 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
             }
         }
         if (added) {
+            updateBoundsForAddedItem(item);
             // check if this addition will exceed the maximum item count...
             if (getItemCount() > this.maximumItemCount) {
-                this.data.remove(0);
+                TimeSeriesDataItem removed
+                        = (TimeSeriesDataItem) this.data.remove(0);
+                updateBoundsForRemovedItem(removed);
             }
 
             removeAgedItems(false);  // remove old items if necessary, but
                                      // don't notify anyone, because that
                                      // happens next anyway...
             if (notify) {
-                fireSeriesChanged();
+                if (appended && getItemCount() == count + 1) {
+                    fireSeriesAppended();
+                }
+                else {
+                    fireSeriesChanged();
+                }
             }
         }
 
@@ -604,7 +656,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         int index = Collections.binarySearch(this.data, temp);
         if (index >= 0) {
             TimeSeriesDataItem pair = (TimeSeriesDataItem) this.data.get(index);
+            TimeSeriesDataItem old = (TimeSeriesDataItem) pair.clone();
             pair.setValue(value);
+            updateBoundsForRemovedItem(old);
+            updateBoundsForAddedItem(pair);
             fireSeriesChanged();
         }
         else {
@@ -622,7 +677,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      */
     public void update(int index, Number value) {
         TimeSeriesDataItem item = getDataItem(index);
+        TimeSeriesDataItem old = (TimeSeriesDataItem) item.clone();
         item.setValue(value);
+        updateBoundsForRemovedItem(old);
+        updateBoundsForAddedItem(item);
         fireSeriesChanged();
     }
 
@@ -692,18 +750,24 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
                     = (TimeSeriesDataItem) this.data.get(index);
             overwritten = (TimeSeriesDataItem) existing.clone();
             existing.setValue(value);
+            updateBoundsForRemovedItem(overwritten);
+            updateBoundsForAddedItem(existing);
             removeAgedItems(false);  // remove old items if necessary, but
                                      // don't notify anyone, because that
                                      // happens next anyway...
             fireSeriesChanged();
         }
         else {
-            this.data.add(-index - 1, new TimeSeriesDataItem(period, value));
+            TimeSeriesDataItem item = new TimeSeriesDataItem(period, value);
+            this.data.add(-index - 1, item);
             this.timePeriodClass = period.getClass();
+            updateBoundsForAddedItem(item);
 
             // check if this addition will exceed the maximum item count...
             if (getItemCount() > this.maximumItemCount) {
-                this.data.remove(0);
+                TimeSeriesDataItem removed
+                        = (TimeSeriesDataItem) this.data.remove(0);
+                updateBoundsForRemovedItem(removed);
                 if (this.data.isEmpty()) {
                     this.timePeriodClass = null;
                 }
@@ -732,11 +796,17 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (getItemCount() > 1) {
             long latest = getTimePeriod(getItemCount() - 1).getSerialIndex();
             boolean removed = false;
+            boolean iterate = false;
             while ((latest - getTimePeriod(0).getSerialIndex())
                     > this.maximumItemAge) {
-                this.data.remove(0);
+                TimeSeriesDataItem item
+                        = (TimeSeriesDataItem) this.data.remove(0);
+                iterate = iterate || isBoundsItem(item);
                 removed = true;
             }
+            if (iterate) {
+                findBoundsByIteration();
+            }
             if (removed && notify) {
                 fireSeriesChanged();
             }
@@ -781,11 +851,16 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         // check if there are any values earlier than specified by the history
         // count...
         boolean removed = false;
+        boolean iterate = false;
         while (getItemCount() > 0 && (index
                 - getTimePeriod(0).getSerialIndex()) > this.maximumItemAge) {
-            this.data.remove(0);
+            TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.remove(0);
+            iterate = iterate || isBoundsItem(item);
             removed = true;
         }
+        if (iterate) {
+            findBoundsByIteration();
+        }
         if (removed && notify) {
             fireSeriesChanged();
         }
@@ -799,6 +874,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (this.data.size() > 0) {
             this.data.clear();
             this.timePeriodClass = null;
+            this.minY = Double.NaN;
+            this.maxY = Double.NaN;
             fireSeriesChanged();
         }
     }
@@ -814,7 +891,9 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     public void delete(RegularTimePeriod period) {
         int index = getIndex(period);
         if (index >= 0) {
-            this.data.remove(index);
+            TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.remove(
+                    index);
+            updateBoundsForRemovedItem(item);
             if (this.data.isEmpty()) {
                 this.timePeriodClass = null;
             }
@@ -832,8 +911,14 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (end < start) {
             throw new IllegalArgumentException("Requires start <= end.");
         }
+        boolean iterate = false;
         for (int i = 0; i <= (end - start); i++) {
-            this.data.remove(start);
+            TimeSeriesDataItem item
+                    = (TimeSeriesDataItem) this.data.remove(start);
+            iterate = iterate || isBoundsItem(item);
+        }
+        if (iterate) {
+            findBoundsByIteration();
         }
         if (this.data.isEmpty()) {
             this.timePeriodClass = null;
@@ -841,6 +926,121 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         fireSeriesChanged();
     }
 
+    /**
+     * Updates the cached values for the minimum and maximum data values.
+     *
+     * @param item  the item added (<code>null</code> not permitted).
+     *
+     * @since 1.2.0
+     */
+    private void updateBoundsForAddedItem(TimeSeriesDataItem item) {
+        Number yN = item.getValue();
+        if (yN != null) {
+            double y = yN.doubleValue();
+            this.minY = minIgnoreNaN(this.minY, y);
+            this.maxY = maxIgnoreNaN(this.maxY, y);
+        }
+    }
+
+    /**
+     * Updates the cached values for the minimum and maximum data values on
+     * the basis that the specified item has just been removed.
+     *
+     * @param item  the item removed (<code>null</code> not permitted).
+     *
+     * @since 1.2.0
+     */
+    private void updateBoundsForRemovedItem(TimeSeriesDataItem item) {
+        if (isBoundsItem(item)) {
+            findBoundsByIteration();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the value of an item is one of the cached
+     * minimum and maximum values, in which case removing the item may change
+     * them.
+     *
+     * @param item  the item (<code>null</code> not permitted).
+     *
+     * @return A boolean.
+     *
+     * @since 1.2.0
+     */
+    private boolean isBoundsItem(TimeSeriesDataItem item) {
+        Number yN = item.getValue();
+        if (yN == null) {
+            return false;
+        }
+        double y = yN.doubleValue();
+        if (Double.isNaN(y)) {
+            return false;
+        }
+        return y <= this.minY || y >= this.maxY;
+    }
+
+    /**
+     * Finds the bounds of the y-values for the series, by iterating through
+     * all the data items.
+     *
+     * @since 1.2.0
+     */
+    private void findBoundsByIteration() {
+        this.minY = Double.NaN;
+        this.maxY = Double.NaN;
+        Iterator iterator = this.data.iterator();
+        while (iterator.hasNext()) {
+            TimeSeriesDataItem item = (TimeSeriesDataItem) iterator.next();
+            updateBoundsForAddedItem(item);
+        }
+    }
+
+    /**
+     * A function to find the minimum of two values, but ignoring any
+     * Double.NaN values.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     *
+     * @return The minimum of the two values.
+     */
+    private double minIgnoreNaN(double a, double b) {
+        if (Double.isNaN(a)) {
+            return b;
+        }
+        else {
+            if (Double.isNaN(b)) {
+                return a;
+            }
+            else {
+                return Math.min(a, b);
+            }
+        }
+    }
+
+    /**
+     * A function to find the maximum of two values, but ignoring any
+     * Double.NaN values.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     *
+     * @return The maximum of the two values.
+     */
+    private double maxIgnoreNaN(double a, double b) {
+        if (Double.isNaN(a)) {
+            return b;
+        }
+        else {
+            if (Double.isNaN(b)) {
+                return a;
+            }
+            else {
+                return Math.max(a, b);
+            }
+        }
+    }
+
     /**
      * Returns a clone of the time series.
      * <P>
@@ -886,6 +1086,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         TimeSeries copy = (TimeSeries) super.clone();
 
         copy.data = new java.util.ArrayList();
+        copy.minY = Double.NaN;
+        copy.maxY = Double.NaN;
         if (this.data.size() > 0) {
             for (int index = start; index <= end; index++) {
                 TimeSeriesDataItem item
@@ -948,6 +1150,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (emptyRange) {
             TimeSeries copy = (TimeSeries) super.clone();
             copy.data = new java.util.ArrayList();
+            copy.minY = Double.NaN;
+            copy.maxY = Double.NaN;
             return copy;
         }
         else {
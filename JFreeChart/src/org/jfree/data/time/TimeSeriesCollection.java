@@ -78,6 +78,8 @@
  * 08-May-2007 : Added indexOf(TimeSeries) method (DG);
  * 20-Jun-2007 : Removed deprecated code (DG);
  * 21-Jun-2007 : Removed JCommon dependencies (DG);
+ * 18-Oct-2026 : Implemented XYDomainInfo, RangeInfo and XYRangeInfo using
+ *               the bounds cached by each series;
  *
  */
 
@@ -95,10 +97,13 @@ import org.jfree.chart.util.ObjectUtilities;
 import org.jfree.data.DomainInfo;
 import org.jfree.data.DomainOrder;
 import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.xy.AbstractIntervalXYDataset;
 import org.jfree.data.xy.IntervalXYDataset;
 import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
 
 /**
  * A collection of time series objects.  This class implements the
@@ -107,7 +112,8 @@ import org.jfree.data.xy.XYDataset;
  * use with the {@link org.jfree.chart.plot.XYPlot} class.
  */
 public class TimeSeriesCollection extends AbstractIntervalXYDataset
-        implements XYDataset, IntervalXYDataset, DomainInfo, Serializable {
+        implements XYDataset, IntervalXYDataset, DomainInfo, XYDomainInfo,
+        RangeInfo, XYRangeInfo, Serializable {
 
     /** For serialization. */
     private static final long serialVersionUID = 834149929022371137L;
@@ -562,25 +568,236 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         Iterator iterator = this.data.iterator();
         while (iterator.hasNext()) {
             TimeSeries series = (TimeSeries) iterator.next();
-            int count = series.getItemCount();
-            if (count > 0) {
-                RegularTimePeriod start = series.getTimePeriod(0);
-                RegularTimePeriod end = series.getTimePeriod(count - 1);
-                Range temp;
-                if (!includeInterval) {
-                    temp = new Range(getX(start), getX(end));
-                }
-                else {
-                    temp = new Range(
-                            start.getFirstMillisecond(this.workingCalendar),
-                            end.getLastMillisecond(this.workingCalendar));
-                }
-                result = Range.combine(result, temp);
+            result = Range.combine(result, getDomainBounds(series,
+                    includeInterval));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the values in this dataset's domain, for the
+     * visible series only.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series.
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (or <code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getDomainBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            TimeSeries series = getSeries((Comparable) iterator.next());
+            if (series != null) {
+                result = Range.combine(result, getDomainBounds(series,
+                        includeInterval));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the x-values of one series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (or <code>null</code> if the series is empty).
+     */
+    private synchronized Range getDomainBounds(TimeSeries series,
+            boolean includeInterval) {
+        int count = series.getItemCount();
+        if (count == 0) {
+            return null;
+        }
+        RegularTimePeriod start = series.getTimePeriod(0);
+        RegularTimePeriod end = series.getTimePeriod(count - 1);
+        if (!includeInterval) {
+            return new Range(getX(start), getX(end));
+        }
+        else {
+            return new Range(start.getFirstMillisecond(this.workingCalendar),
+                    end.getLastMillisecond(this.workingCalendar));
+        }
+    }
+
+    /**
+     * Returns the minimum y-value in the dataset.
+     *
+     * @param includeInterval  ignored, the y-interval of the items in a
+     *     time series has no width.
+     *
+     * @return The minimum value (<code>Double.NaN</code> if the dataset
+     *     contains no values).
+     *
+     * @since 1.2.0
+     */
+    public double getRangeLowerBound(boolean includeInterval) {
+        double result = Double.NaN;
+        Range r = getRangeBounds(includeInterval);
+        if (r != null) {
+            result = r.getLowerBound();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the maximum y-value in the dataset.
+     *
+     * @param includeInterval  ignored, the y-interval of the items in a
+     *     time series has no width.
+     *
+     * @return The maximum value (<code>Double.NaN</code> if the dataset
+     *     contains no values).
+     *
+     * @since 1.2.0
+     */
+    public double getRangeUpperBound(boolean includeInterval) {
+        double result = Double.NaN;
+        Range r = getRangeBounds(includeInterval);
+        if (r != null) {
+            result = r.getUpperBound();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the values in this dataset's range.  The bounds
+     * are maintained by each series as items are added and removed, so this
+     * method does not iterate over the items.
+     *
+     * @param includeInterval  ignored, the y-interval of the items in a
+     *     time series has no width.
+     *
+     * @return The range (or <code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getRangeBounds(boolean includeInterval) {
+        Range result = null;
+        Iterator iterator = this.data.iterator();
+        while (iterator.hasNext()) {
+            TimeSeries series = (TimeSeries) iterator.next();
+            result = Range.combine(result, getRangeBounds(series));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the values in this dataset's range, for the
+     * visible series and the items with an x-value in the given range only.
+     * The cached series bounds are used when the x-range covers the whole
+     * series, otherwise the items in the x-range are located by a binary
+     * search and examined.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series.
+     * @param xRange  the x-range (<code>null</code> not permitted).
+     * @param includeInterval  ignored, the y-interval of the items in a
+     *     time series has no width.
+     *
+     * @return The range (or <code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        if (xRange == null) {
+            throw new IllegalArgumentException("Null 'xRange' argument.");
+        }
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            TimeSeries series = getSeries((Comparable) iterator.next());
+            if (series == null) {
+                continue;
+            }
+            Range xBounds = getDomainBounds(series, false);
+            if (xBounds == null) {
+                continue;
+            }
+            if (xRange.contains(xBounds.getLowerBound())
+                    && xRange.contains(xBounds.getUpperBound())) {
+                result = Range.combine(result, getRangeBounds(series));
+            }
+            else {
+                result = Range.combine(result, iterateRangeBounds(series,
+                        xRange));
             }
         }
         return result;
     }
 
+    /**
+     * Returns the range of the y-values of one series, from the bounds
+     * cached by the series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     *
+     * @return The range (or <code>null</code> if the series contains no
+     *     values).
+     */
+    private Range getRangeBounds(TimeSeries series) {
+        double minY = series.getMinY();
+        if (Double.isNaN(minY)) {
+            return null;
+        }
+        return new Range(minY, series.getMaxY());
+    }
+
+    /**
+     * Iterates over the items of a series with an x-value in the given
+     * range, to find the range of their y-values.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     * @param xRange  the x-range (<code>null</code> not permitted).
+     *
+     * @return The range (or <code>null</code> if there are no values).
+     */
+    private Range iterateRangeBounds(TimeSeries series, Range xRange) {
+        // the items are sorted by time period, so find the first item in
+        // the x-range by a binary search
+        int low = 0;
+        int high = series.getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getX(series.getTimePeriod(mid)) < xRange.getLowerBound()) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        double minimum = Double.POSITIVE_INFINITY;
+        double maximum = Double.NEGATIVE_INFINITY;
+        int count = series.getItemCount();
+        for (int item = low; item < count; item++) {
+            TimeSeriesDataItem dataItem = series.getDataItem(item);
+            if (getX(dataItem.getPeriod()) > xRange.getUpperBound()) {
+                break;
+            }
+            Number y = dataItem.getValue();
+            if (y != null) {
+                double v = y.doubleValue();
+                if (!Double.isNaN(v)) {
+                    minimum = Math.min(minimum, v);
+                    maximum = Math.max(maximum, v);
+                }
+            }
+        }
+        if (minimum == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new Range(minimum, maximum);
+    }
+
     /**
      * Tests this time series collection for equality with another object.
      *
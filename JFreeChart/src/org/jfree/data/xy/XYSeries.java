@@ -73,6 +73,7 @@
  *               Ted Schwartz (DG);
  * 24-Nov-2008 : Further fix for 1955483 (DG);
  * 06-Mar-2009 : Added minX, maxX, minY and maxY fields (DG);
+ * 19-Oct-2026 : Report items added at the end of the series as appends;
  *
  */
 
@@ -502,6 +503,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         if (item == null) {
             throw new IllegalArgumentException("Null 'item' argument.");
         }
+        int count = this.data.size();
         if (this.autoSort) {
             int index = Collections.binarySearch(this.data, item);
             if (index < 0) {
@@ -544,7 +546,13 @@ public class XYSeries extends Series implements Cloneable, Serializable {
             updateBoundsForRemovedItem(removed);
         }
         if (notify) {
-            fireSeriesChanged();
+            if (this.data.size() > count
+                    && this.data.get(this.data.size() - 1) == item) {
+                fireSeriesAppended();
+            }
+            else {
+                fireSeriesChanged();
+            }
         }
     }
 
@@ -57,6 +57,7 @@
  *               sorted in ascending order (DG);
  * 06-Mar-2009 : Implemented RangeInfo (DG);
  * 06-Mar-2009 : Fixed equals() implementation (DG);
+ * 18-Oct-2026 : Implemented XYDomainInfo and XYRangeInfo;
  *
  */
 
@@ -82,8 +83,8 @@ import org.jfree.data.general.DatasetChangeEvent;
  * dataset.
  */
 public class XYSeriesCollection extends AbstractIntervalXYDataset
-        implements IntervalXYDataset, DomainInfo, RangeInfo, PublicCloneable,
-                   Serializable {
+        implements IntervalXYDataset, DomainInfo, RangeInfo, XYDomainInfo,
+                   XYRangeInfo, PublicCloneable, Serializable {
 
     /** For serialization. */
     private static final long serialVersionUID = -7590013825931496766L;
@@ -679,4 +680,112 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return result;
     }
 
+    /**
+     * Returns the range of the values in this dataset's domain, for the
+     * visible series only.  The bounds cached by each series are used, so
+     * this method does not iterate over the items.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series.
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (or <code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getDomainBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            int s = indexOf((Comparable) iterator.next());
+            if (s < 0) {
+                continue;
+            }
+            XYSeries series = getSeries(s);
+            double minX = series.getMinX();
+            if (!Double.isNaN(minX)) {
+                lower = Math.min(lower, minX);
+            }
+            double maxX = series.getMaxX();
+            if (!Double.isNaN(maxX)) {
+                upper = Math.max(upper, maxX);
+            }
+        }
+        if (lower > upper) {
+            return null;
+        }
+        if (includeInterval) {
+            double width = this.intervalDelegate.getIntervalWidth();
+            double factor = this.intervalDelegate.getIntervalPositionFactor();
+            lower = lower - factor * width;
+            upper = upper + (1.0 - factor) * width;
+        }
+        return new Range(lower, upper);
+    }
+
+    /**
+     * Returns the range of the values in this dataset's range, for the
+     * visible series and the items with an x-value in the given range only.
+     * The bounds cached by a series are used when the x-range covers the
+     * whole series, otherwise the items of the series are examined.
+     *
+     * @param visibleSeriesKeys  the keys of the visible series.
+     * @param xRange  the x-range (<code>null</code> not permitted).
+     * @param includeInterval  ignored.
+     *
+     * @return The range (or <code>null</code> if the dataset contains no
+     *     values).
+     *
+     * @since 1.2.0
+     */
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        if (xRange == null) {
+            throw new IllegalArgumentException("Null 'xRange' argument.");
+        }
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            int s = indexOf((Comparable) iterator.next());
+            if (s < 0) {
+                continue;
+            }
+            XYSeries series = getSeries(s);
+            if (xRange.contains(series.getMinX())
+                    && xRange.contains(series.getMaxX())) {
+                double minY = series.getMinY();
+                if (!Double.isNaN(minY)) {
+                    lower = Math.min(lower, minY);
+                }
+                double maxY = series.getMaxY();
+                if (!Double.isNaN(maxY)) {
+                    upper = Math.max(upper, maxY);
+                }
+            }
+            else {
+                int itemCount = series.getItemCount();
+                for (int item = 0; item < itemCount; item++) {
+                    XYDataItem dataItem = series.getDataItem(item);
+                    if (xRange.contains(dataItem.getXValue())) {
+                        double y = dataItem.getYValue();
+                        if (!Double.isNaN(y)) {
+                            lower = Math.min(lower, y);
+                            upper = Math.max(upper, y);
+                        }
+                    }
+                }
+            }
+        }
+        if (lower > upper) {
+            return null;
+        }
+        else {
+            return new Range(lower, upper);
+        }
+    }
+
 }
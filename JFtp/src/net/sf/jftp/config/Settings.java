@@ -145,10 +145,40 @@ public class Settings
     // hides some messages like MODE, Type etc.
     public static boolean hideStatus = false;
  
-    // for DataConnection - lower means less buffer, more updates in the downloadmanager
+    // for DataConnection - buffer for ASCII transfers, which convert line endings
     // i recommend to use values greater than 2048 bytes
     public static int bufferSize = 4096;
 
+    // for DataConnection - bytes moved per FileChannel call in binary mode
+    public static int transferChunkSize = 1024 * 1024;
+
+    // for DataConnection - minimum delay between two progress updates (ms)
+    public static int progressUpdateDelay = 250;
+
+    // for DirectoryTransfer - extra connections used for directory transfers, 0 transfers over one connection
+    public static int dirTransferConnections = 4;
+
+    // for DirectoryTransfer - maximum number of files waiting for a connection
+    public static int dirTransferQueueSize = 1000;
+
+    // for SegmentedDownload - connections used to download one large file, 1 disables it
+    public static int segmentedDownloadConnections = 4;
+
+    // for SegmentedDownload - smaller files are downloaded over one connection (bytes)
+    public static long segmentedDownloadMinSize = 64 * 1024 * 1024;
+
+    // for SegmentedDownload - how often a failed segment is started again
+    public static int segmentRetries = 3;
+
+    // for FtpConnection - how long a directory listing is reused (ms), 0 lists every time
+    public static int listingCacheTimeout = 30000;
+
+    // for ConnectionHandler - number of directory listings kept
+    public static int listingCacheSize = 64;
+
+    // use MLSD instead of LIST if the server supports it
+    public static boolean useMlsd = true;
+
     // sends NOOPs to ensure that buffers are empty
     public static boolean safeMode = false;
 
@@ -33,7 +33,7 @@ public class DirLister implements ActionListener
     private String[] sizes;
     private int[] perms;
     private boolean isDirectory = true;
-    public boolean finished = false;
+    public volatile boolean finished = false;
     private BasicConnection con;
 
     public DirLister(BasicConnection con) //String type)
@@ -42,6 +42,30 @@ public class DirLister implements ActionListener
 	init();
     }
 
+    /**
+     * if stream is true and the connection is a FtpConnection, the directory is
+     * listed by another thread, getListing() gives the entries received so far
+     * until finished is true
+     */
+    public DirLister(BasicConnection con, boolean stream)
+    {
+	this.con = con;
+
+	if(stream && con instanceof FtpConnection)
+	{
+		Runnable r = new Runnable()
+		{
+			public void run()
+			{
+				init();
+			}
+		};
+
+		new Thread(r).start();
+	}
+	else init();
+    }
+
     public void init()
     {
         try {
@@ -91,5 +115,17 @@ public class DirLister implements ActionListener
     {
     	return perms;
     }
+
+    /** the listing that is being received, null if there is none (yet) */
+    public DirectoryListing getListing()
+    {
+    	if(finished || !(con instanceof FtpConnection)) return null;
+
+	DirectoryListing l = ((FtpConnection) con).getListing();
+	// the previous listing is finished
+	if(l == null || l.isFinished()) return null;
+
+	return l;
+    }
     
 }
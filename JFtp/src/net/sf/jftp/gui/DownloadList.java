@@ -136,12 +136,14 @@ private void deleteCon()
 		Transfer d = (Transfer) JFtp.getConnectionHandler().getConnections().get(cmd);
 		if(d == null) return;
 
-		DataConnection con = d.getDataConnection();
-		con.getCon().work = false;
+		// a directory transfer may not have opened a data connection itself
+		FtpConnection con = d.getFtpConnection();
+		if(con == null) return;
+		con.work = false;
 
 		try
 		{
-			con.sock.close();
+			con.getDataConnection().sock.close();
 			//con.getCon().abort();
 			//if(Settings.getEnableMultiThreading()) con.getCon().disconnect();
 		}
@@ -59,6 +59,8 @@ public class RemoteDir extends DirPanel implements ListSelectionListener, Action
     private DefaultListModel jlm;
     private JScrollPane jsp = new JScrollPane(jl);
     private int tmpindex = -1;
+    // how often entries are added to the list while a listing is received (ms)
+    private static final int STREAM_INTERVAL = 100;
     private Hashtable dummy = new Hashtable();
 
     private HImageButton list = new HImageButton(Settings.listImage,"list","Show remote listing...",this);
@@ -244,9 +246,25 @@ public RemoteDir(String path)
             if(pathChanged)
             {
                 pathChanged = false;
-                DirLister dir = new DirLister(con);
 
-                while(!dir.finished) LocalIO.pause(10);
+		// without sorting, the entries are shown while they are received
+		boolean stream = !Settings.sortDir;
+                DirLister dir = new DirLister(con, stream);
+		Vector received = new Vector();
+		long shown = System.currentTimeMillis();
+
+		if(stream) jl.setModel(jlm);
+
+                while(!dir.finished)
+		{
+			LocalIO.pause(10);
+
+			if(stream && System.currentTimeMillis() - shown >= STREAM_INTERVAL)
+			{
+				addReceived(dir.getListing(), received);
+				shown = System.currentTimeMillis();
+			}
+		}
 
                 if(dir.isOk())
                 {
@@ -291,7 +309,16 @@ public RemoteDir(String path)
 		    }
 		    // ----------- end sorting --------------------
 
-                    for(int i=0; i<length; i++)
+		    // the entries shown while they were received are the first ones
+		    int start = received.size();
+		    if(start > length)
+		    {
+		    	jlm.removeRange(1, jlm.size()-1);
+			start = 0;
+		    }
+		    else received.copyInto(dirEntry);
+
+                    for(int i=start; i<length; i++)
                     {
                         //System.out.println(files[i]);
 			if(files == null || files[i] == null)
@@ -308,26 +335,14 @@ public RemoteDir(String path)
 
 			if(perms != null) dirEntry[i].setPermission(perms[i]);
 
-                            dirEntry[i].setFileSize(Long.parseLong(fSize[i]));
-
-                            if(dirEntry[i].file.endsWith("/"))
-                            {
-                                dirEntry[i].setDirectory();
-                            }
-                            else
-                            {
-                                dirEntry[i].setFile();
-                            }
-                            if(dirEntry[i].file.endsWith("@"))
-                            {
-                                dirEntry[i].setLink();
-                            }
+			setEntryType(dirEntry[i], fSize[i]);
 
 			    jlm.addElement(dirEntry[i]);
                     }
                 }
                 else
                 {
+                    if(jlm.size() > 1) jlm.removeRange(1, jlm.size()-1);
                     Log.debug("Not a directory: " + path);
                 }
             }
@@ -340,6 +355,51 @@ public RemoteDir(String path)
 	    //System.out.println("\n\n\n");
     }
 
+    /** adds the entries received since the last call to the list */
+    private void addReceived(DirectoryListing listing, Vector received)
+    {
+    	if(listing == null) return;
+
+	int from = received.size();
+	int to = listing.getCount();
+	if(to <= from) return;
+
+	String names[] = listing.getFiles(from, to);
+	String sizes[] = listing.getSizes(from, to);
+	int perms[] = listing.getPermissions(from, to);
+
+	for(int i=0; i<names.length; i++)
+	{
+		DirEntry entry = new DirEntry(names[i],this);
+		if(perms != null) entry.setPermission(perms[i]);
+		setEntryType(entry, sizes[i]);
+
+		received.add(entry);
+		jlm.addElement(entry);
+	}
+
+	length = received.size();
+	dirEntry = new DirEntry[length];
+	received.copyInto(dirEntry);
+
+	// the event dispatch thread does not paint before the listing is complete
+	if(SwingUtilities.isEventDispatchThread())
+	{
+		jsp.validate();
+		jsp.paintImmediately(0, 0, jsp.getWidth(), jsp.getHeight());
+	}
+    }
+
+    private void setEntryType(DirEntry entry, String size)
+    {
+    	entry.setFileSize(Long.parseLong(size));
+
+	if(entry.file.endsWith("/")) entry.setDirectory();
+	else entry.setFile();
+
+	if(entry.file.endsWith("@")) entry.setLink();
+    }
+
     public void actionPerformed(ActionEvent e)
     {
      if(JFtp.uiBlocked) return;
@@ -382,6 +442,8 @@ public RemoteDir(String path)
         }
         else if(e.getActionCommand().equals("fresh"))
         {
+            // the user wants to see the current state, not the cached listing
+            if(con instanceof FtpConnection) ((FtpConnection) con).invalidateListing(path);
             fresh();
         }
         else if(e.getActionCommand().equals("->"))
@@ -16,6 +16,7 @@
 package net.sf.jftp.net;
 
 import net.sf.jftp.util.*;
+import net.sf.jftp.config.Settings;
 import java.util.*;
 
 /** may be extended to support multiple connections in future */
@@ -25,6 +26,18 @@ public class ConnectionHandler
 
     private Hashtable connections = new Hashtable();
 
+    // connections opened by a DirectoryTransfer
+    private Vector pooled = new Vector();
+
+    // directory listings of all connections, the least recently used are dropped
+    private LinkedHashMap listings = new LinkedHashMap(16, 0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry eldest)
+        {
+            return size() > Settings.listingCacheSize;
+        }
+    };
+
     public void addConnection(String file, Transfer t)
     {
     	connections.put(file, t);
@@ -40,6 +53,50 @@ public class ConnectionHandler
     	return connections;
     }
     
+    public void addPooledConnection(FtpConnection con)
+    {
+    	pooled.add(con);
+    }
+
+    public void removePooledConnection(FtpConnection con)
+    {
+    	pooled.remove(con);
+    }
+
+    public Vector getPooledConnections()
+    {
+    	return pooled;
+    }
+
+    /** gets a cached directory listing, null if there is none or it has expired */
+    public synchronized DirectoryListing getListing(String key)
+    {
+    	DirectoryListing l = (DirectoryListing) listings.get(key);
+
+	if(l != null && !l.isFresh())
+	{
+		listings.remove(key);
+		return null;
+	}
+
+	return l;
+    }
+
+    public synchronized void putListing(String key, DirectoryListing l)
+    {
+    	if(Settings.listingCacheTimeout > 0) listings.put(key, l);
+    }
+
+    public synchronized void removeListing(String key)
+    {
+    	listings.remove(key);
+    }
+
+    public synchronized void clearListings()
+    {
+    	listings.clear();
+    }
+
     public  int getConnectionSize()
     {
     	int size = 0;
@@ -52,7 +109,7 @@ public class ConnectionHandler
 	}
 	
 	
-   	return size;
+   	return size + pooled.size();
     }
 
 }
@@ -20,12 +20,20 @@ import net.sf.jftp.util.Log;
 
 import java.io.*;
 import java.net.*;
-import java.util.*;
-
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+
+/**
+ * Moves the data of one transfer over an FTP data connection.
+ * Binary transfers are copied between the socket channel and the file channel
+ * with FileChannel.transferFrom/transferTo, so the data does not pass through
+ * Java byte arrays (uploads use the sendfile() system call where available).
+ * ASCII transfers go through a buffer that converts the line endings between
+ * the network (CRLF) and the local format.
+ */
 public class DataConnection implements Runnable
 {
-    private BufferedInputStream in;
-    private BufferedOutputStream out;
+    private SocketChannel channel;
     private Thread reciever;
     private int port = 7000;
     public Socket sock = null;
@@ -34,9 +42,16 @@ public class DataConnection implements Runnable
     private String file;
     private String host;
     private boolean resume = false;
+    // byte range of a segmented download, -1 for the whole file
+    private long offset = -1;
+    private long length = -1;
+    private volatile long transferred = 0;
+    // parses a directory listing while it is received
+    private DirectoryListing listing;
     public boolean finished = false;
     private boolean isThere = false;
     private long start;
+    private long lastProgress;
     private FtpConnection con;
 
     public final static String GET = "GET";
@@ -71,269 +86,120 @@ public class DataConnection implements Runnable
         reciever.start();
     }
 
+    /** receives a directory listing into the file, parsing it on the way */
+    public DataConnection(FtpConnection con, int port, String host, String file, String type, DirectoryListing listing)
+    {
+	this.con = con;
+        this.file = file;
+        this.host = host;
+        this.port = port;
+        this.type = type;
+        this.listing = listing;
+        reciever = new Thread(this);
+        reciever.start();
+    }
+
+    /** downloads length bytes into the file at offset, the server has to start there (REST) */
+    public DataConnection(FtpConnection con, int port, String host, String file, String type, long offset, long length)
+    {
+	this.con = con;
+        this.file = file;
+        this.host = host;
+        this.port = port;
+        this.type = type;
+        this.offset = offset;
+        this.length = length;
+        reciever = new Thread(this);
+        reciever.start();
+    }
+
     public void run()
     {
-        try
+        boolean ok = true;
+
+        if (Settings.getFtpPasvMode())
         {
-            boolean ok = true;
-            if (Settings.getFtpPasvMode())
+            try
             {
-                try
-                {
-                    sock = new Socket(host,port);
-                }
-                catch(Exception ex)
-                {
-                    ok = false;
-                    debug("Can't open Socket on port "+port);
-                }
+                channel = SocketChannel.open(new InetSocketAddress(host,port));
+                sock = channel.socket();
             }
-            else
+            catch(Exception ex)
             {
-                //Log.debug("trying new server socket: "+port);
-                try
-                {
-                    ssock = new ServerSocket(port);
-                }
-                catch(Exception ex)
-                {
-                    ok = false;
-                    Log.debug("Can't open ServerSocket on port "+port);
-                }
+                ok = false;
+                debug("Can't open Socket on port "+port);
             }
-
         }
-        catch(Exception ex)
+        else
         {
-            debug(ex.toString());
+            //Log.debug("trying new server socket: "+port);
+            try
+            {
+                ssock = ServerSocketChannel.open().socket();
+                ssock.bind(new InetSocketAddress(port));
+            }
+            catch(Exception ex)
+            {
+                ok = false;
+                Log.debug("Can't open ServerSocket on port "+port);
+            }
         }
 
         isThere = true;
-	boolean ok = true;
-	
+
         try
         {
-
-            if (!Settings.getFtpPasvMode())
+            if (ok && !Settings.getFtpPasvMode())
             {
                 int retry = 0;
-                while ((retry++ < 5) && (sock == null)) {
-                    try {
+                while (sock == null)
+                {
+                    try
+                    {
+                        // the socket of a ServerSocketChannel accepts sockets
+                        // with channels
                         ssock.setSoTimeout(Settings.getSocketTimeout());
                         sock = ssock.accept();
-                    } catch (IOException e) {
-                        sock = null;
-			debug("Got IOException while trying to open a socket!");
-			
-                        if (retry == 5)
+                        channel = sock.getChannel();
+                    }
+                    catch (SocketTimeoutException e)
+                    {
+                        if (++retry == 5)
+                        {
 			    debug("Connection failed, tried 5 times - maybe try a higher timeout in Settings.java...");
                             throw e;
-                    } finally {
-                        ssock.close();
+                        }
+		        debug("Attempt timed out, retrying...");
                     }
-		    debug("Attempt timed out, retrying...");
                 }
             }
 
-
             if(ok)
             {
-                isThere = true;
-		byte[] buf = new byte[Settings.bufferSize];
 		start = System.currentTimeMillis();
-		int buflen = 0;
+		lastProgress = start;
+		boolean ascii = FtpConnection.ASCII.equals(con.getTypeNow());
 
                 if(type.equals(GET) || type.equals(GETDIR))
                 {
-                    RandomAccessFile fOut = null;
-                    BufferedOutputStream bOut = null;
-
-                    try
-                    {
-                        if(resume)
-                        {
-                            File f = new File(file);
-                            fOut = new RandomAccessFile(file,"rw");
-                            fOut.skipBytes((int)f.length());
-			    buflen = (int) f.length();
-                        }
-                        else
-                        {
-                            File f = new File(file);
-                            if(f.exists())
-                            {
-                                f.delete();
-                            }
-                            bOut = new BufferedOutputStream(new FileOutputStream(file), Settings.bufferSize);
-                        }
-                    }
-                    catch(Exception ex)
-                    {
-                        debug("Can't create outputfile: " + file);
-			ok = false;
-                        ex.printStackTrace();
-                    }
-
-                    if(ok)
-                    {
-                        try
-                        {
-                            in = new BufferedInputStream(sock.getInputStream(), Settings.bufferSize);
-                        }
-                        catch(Exception ex)
-                        {
-                            ok = false;
-                            debug("Can't get InputStream");
-                        }
-
-                        if(ok)
-                        {
-                            try
-                            {
-                                int len = buflen;
-                                if(fOut != null)
-                                {
-
-                                    while(true)
-                                    {
-                                        // resuming
-                                        int read = in.read(buf);
-                                        len += read;
-                                        if(read == -1)
-                                            break;
-
-                                        fOut.write(buf,0,read);
-					con.fireProgressUpdate(file, type, len);
-
-
-                                        if(time())
-                                        {
-                                           // Log.debugSize(len, true, false, file);
-                                        }
-                                        if(read == StreamTokenizer.TT_EOF)
-                                        {
-                                            break;
-                                        }
-                                    }
-                                    fOut.close();
-				    //Log.debugSize(len, true, true, file);
-                                }
-                                else
-                                {
-                                    // no resuming
-                                    while(true)
-                                    {
-
-                                        //System.out.println(".");
-                                        int read = in.read(buf);
-                                        len += read;
-                                        if(read == -1)
-                                            break;
-
-                                        bOut.write(buf,0,read);
-					con.fireProgressUpdate(file, type, len);
-
-                                        if(time())
-                                        {
-					    //Log.debugSize(len, true, false, file);
-                                        }
-                                        if(read == StreamTokenizer.TT_EOF)
-                                        {
-                                            break;
-                                        }
-                                    }
-                                    bOut.flush();
-                                    bOut.close();
-				    //Log.debugSize(len, true, true, file);
-                                }
-                            }
-                            catch(IOException ex)
-                            {
-                                ok = false;
-				debug("Old connection removed");
-				con.fireProgressUpdate(file, FAILED, -1);
-                                //debug(ex + ": " + ex.getMessage());
-                                //ex.printStackTrace();
-                            }
-                        }
-                    }
+                    ok = download(ascii);
                 }
                 if(type.equals(PUT) || type.equals(PUTDIR))
                 {
-                    BufferedInputStream fIn = null;
-                    try
-                    {
-                        fIn = new BufferedInputStream(new FileInputStream(file));
-                    }
-                    catch(Exception ex)
-                    {
-                        debug("Can't open inputfile: "+" ("+ex+")");
-			ok = false;
-                    }
-
-                    if(ok)
-                    {
-                        try
-                        {
-                            out = new BufferedOutputStream(sock.getOutputStream());
-                        }
-                        catch(Exception ex)
-                        {
-                            ok = false;
-                            debug("Can't get OutputStream");
-                        }
-
-                        if(ok)
-                        {
-
-                            try
-                            {
-                                int len = 0;
-                                char b;
-
-                                while(true)
-                                {
-                                      int read = fIn.read(buf);
-                                      len += read;
-                                      if(read == -1) break;
-				      
-                                      out.write(buf,0,read);
-				      con.fireProgressUpdate(file, type, len);
-
-                                      if(time())
-                                      {
-					 //   Log.debugSize(len, false, false, file);
-                                      }
-                                      if(read == StreamTokenizer.TT_EOF)
-                                      {
-                                            break;
-                                      }
-                                }
-                                out.flush();
-                                fIn.close();
-				//Log.debugSize(len, false, true, file);
-                            }
-                            catch(IOException ex)
-                            {
-                                ok = false;
-                                debug("Old connection removed");
-				con.fireProgressUpdate(file, FAILED, -1);
-                                //ex.printStackTrace();
-                            }
-                        }
-                    }
+                    ok = upload(ascii);
                 }
             }
         }
         catch(IOException ex)
         {
-            Log.debug("Can't connect socket to ServerSocket");
-            ex.printStackTrace();
+            ok = false;
+            debug("Old connection removed");
+            //debug(ex + ": " + ex.getMessage());
         }
 
         try
         {
-            sock.close();
+            if(channel != null) channel.close();
         }
         catch(Exception ex)
         {
@@ -344,7 +210,7 @@ public class DataConnection implements Runnable
         {
             try
             {
-                ssock.close();
+                if(ssock != null) ssock.close();
             }
             catch(Exception ex)
             {
@@ -356,7 +222,241 @@ public class DataConnection implements Runnable
 	if(ok) con.fireProgressUpdate(file, FINISHED, -1);
 	else con.fireProgressUpdate(file, FAILED, -1);
     }
+
+    /** receives the file, appending to the local file when resuming */
+    private boolean download(boolean ascii) throws IOException
+    {
+        RandomAccessFile fOut = null;
+        long len = 0;
+
+        try
+        {
+            File f = new File(file);
+            if(!resume && length < 0 && f.exists())
+            {
+                f.delete();
+            }
+            fOut = new RandomAccessFile(f,"rw");
+            // the server starts at the REST offset, the length of the file
+            if(resume) len = fOut.length();
+        }
+        catch(Exception ex)
+        {
+            debug("Can't create outputfile: " + file);
+            ex.printStackTrace();
+            return false;
+        }
+
+        FileChannel out = fOut.getChannel();
+
+        try
+        {
+            if(ascii)
+            {
+                len = receiveAscii(out, len);
+            }
+            else if(length >= 0)
+            {
+                // the server sends the rest of the file, stop at the end of the range
+                while(len < length)
+                {
+                    long read = out.transferFrom(channel, offset + len, Math.min(Settings.transferChunkSize, length - len));
+                    if(read <= 0) break;
+
+                    len += read;
+                    progress(len);
+                }
+            }
+            else
+            {
+                while(true)
+                {
+                    // blocks until the chunk is full, returns 0 at the end
+                    long read = out.transferFrom(channel, len, Settings.transferChunkSize);
+                    if(read <= 0) break;
+
+                    len += read;
+                    progress(len);
+                }
+            }
+
+            con.fireProgressUpdate(file, type, len);
+        }
+        finally
+        {
+            out.close();
+        }
+
+        return length < 0 || len == length;
+    }
+
+    /** sends the file */
+    private boolean upload(boolean ascii) throws IOException
+    {
+        FileChannel in = null;
+
+        try
+        {
+            in = new FileInputStream(file).getChannel();
+        }
+        catch(Exception ex)
+        {
+            debug("Can't open inputfile: "+" ("+ex+")");
+            return false;
+        }
+
+        try
+        {
+            long len = 0;
+
+            if(ascii)
+            {
+                len = sendAscii(in);
+            }
+            else
+            {
+                long size = in.size();
+                while(len < size)
+                {
+                    long sent = in.transferTo(len, Math.min(Settings.transferChunkSize, size - len), channel);
+                    if(sent <= 0) break;
+
+                    len += sent;
+                    progress(len);
+                }
+            }
+
+            con.fireProgressUpdate(file, type, len);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        return true;
+    }
+
+    /**
+     * receives ASCII data, converting CRLF (and bare LF) line endings to the
+     * local line separator, returns the new length of the file
+     */
+    private long receiveAscii(FileChannel out, long len) throws IOException
+    {
+        byte[] separator = System.getProperty("line.separator").getBytes();
+        ByteBuffer buf = ByteBuffer.allocate(Settings.bufferSize);
+        ByteBuffer converted = ByteBuffer.allocate(Settings.bufferSize * separator.length + 1);
+        boolean cr = false;
+
+        while(true)
+        {
+            buf.clear();
+            converted.clear();
+            int read = channel.read(buf);
+            if(read == -1) break;
+
+            if(listing != null) listing.receive(buf, read);
+
+            for(int i = 0; i < read; i++)
+            {
+                byte b = buf.get(i);
+                if(cr)
+                {
+                    cr = false;
+                    if(b == '\n')
+                    {
+                        converted.put(separator);
+                        continue;
+                    }
+                    converted.put((byte) '\r');
+                }
+
+                if(b == '\r') cr = true;
+                else if(b == '\n') converted.put(separator);
+                else converted.put(b);
+            }
+
+            len += write(out, converted, len);
+            progress(len);
+        }
+
+        if(cr)
+        {
+            converted.clear();
+            converted.put((byte) '\r');
+            len += write(out, converted, len);
+        }
+
+        return len;
+    }
+
+    /**
+     * sends ASCII data, converting local line endings to CRLF, returns the
+     * number of bytes read from the file
+     */
+    private long sendAscii(FileChannel in) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate(Settings.bufferSize);
+        ByteBuffer converted = ByteBuffer.allocate(Settings.bufferSize * 2);
+        byte last = 0;
+        long len = 0;
+
+        while(true)
+        {
+            buf.clear();
+            converted.clear();
+            int read = in.read(buf);
+            if(read == -1) break;
+
+            for(int i = 0; i < read; i++)
+            {
+                byte b = buf.get(i);
+                if(b == '\n' && last != '\r') converted.put((byte) '\r');
+                converted.put(b);
+                last = b;
+            }
+
+            converted.flip();
+            while(converted.hasRemaining()) channel.write(converted);
+
+            len += read;
+            progress(len);
+        }
+
+        return len;
+    }
+
+    /** writes the converted data at the specified file position */
+    private int write(FileChannel out, ByteBuffer data, long position) throws IOException
+    {
+        data.flip();
+        int count = data.remaining();
+        while(data.hasRemaining())
+        {
+            position += out.write(data, position);
+        }
+
+        return count;
+    }
+
+    /** fires a progress update unless one was fired very recently */
+    private void progress(long len)
+    {
+        transferred = len;
+
+        long now = System.currentTimeMillis();
+        if(now - lastProgress >= Settings.progressUpdateDelay)
+        {
+            lastProgress = now;
+            con.fireProgressUpdate(file, type, len);
+        }
+    }
     
+    /** bytes moved so far, counted from the REST offset when resuming */
+    public long getTransferred()
+    {
+    	return transferred;
+    }
+
     public FtpConnection getCon()
     {
     	return con;
@@ -0,0 +1,333 @@
+/*
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package net.sf.jftp.net;
+
+import net.sf.jftp.config.Settings;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+/**
+ * A parsed remote directory listing (LIST or MLSD output).
+ * The lines are parsed while they are received by the data connection, names,
+ * sizes and permissions are collected in one pass in the format of sortLs(),
+ * sortSize() and getPermissions(). The entries received so far can be taken
+ * while the listing is received, RemoteDir shows them as they arrive.
+ */
+public class DirectoryListing
+{
+    private FtpConnection con;
+    private boolean mlsd;
+
+    private Vector files = new Vector();
+    private Vector sizes = new Vector();
+    private Vector perms = new Vector();
+    private boolean hasPermissions = true;
+
+    // the line that is being received
+    private ByteArrayOutputStream line = new ByteArrayOutputStream();
+    // the listing with local line endings, as list() writes it to the file
+    private ByteArrayOutputStream text = new ByteArrayOutputStream();
+    private byte separator[] = System.getProperty("line.separator").getBytes();
+    private long time;
+    private boolean finished = false;
+
+    public DirectoryListing(FtpConnection con, boolean mlsd)
+    {
+    	this.con = con;
+	this.mlsd = mlsd;
+    }
+
+    /** adds received bytes, called by the data connection */
+    void receive(ByteBuffer buf, int length)
+    {
+    	for(int i=0; i<length; i++)
+	{
+		byte b = buf.get(i);
+
+		if(b == '\n')
+		{
+			addLine(line.toString());
+			text.write(line.toByteArray(), 0, line.size());
+			text.write(separator, 0, separator.length);
+			line.reset();
+		}
+		else if(b != '\r') line.write(b);
+	}
+    }
+
+    /** the listing has been received completely */
+    synchronized void finish()
+    {
+    	if(line.size() > 0)
+	{
+		addLine(line.toString());
+		text.write(line.toByteArray(), 0, line.size());
+	}
+	line.reset();
+
+	time = System.currentTimeMillis();
+	finished = true;
+    }
+
+    /** false while the listing is received */
+    public synchronized boolean isFinished()
+    {
+    	return finished;
+    }
+
+    /** the number of entries received so far */
+    public synchronized int getCount()
+    {
+    	return files.size();
+    }
+
+    /** writes the listing to a file again, when it is taken from the cache */
+    void write(String file) throws IOException
+    {
+    	FileOutputStream out = new FileOutputStream(file);
+
+	try
+	{
+		text.writeTo(out);
+	}
+	finally
+	{
+		out.close();
+	}
+    }
+
+    /** true if the listing has not expired yet */
+    public boolean isFresh()
+    {
+    	return System.currentTimeMillis() - time < Settings.listingCacheTimeout;
+    }
+
+    public synchronized String[] getFiles()
+    {
+    	return getFiles(0, files.size());
+    }
+
+    /** the names of the entries i with from <= i < to */
+    public synchronized String[] getFiles(int from, int to)
+    {
+    	String ret[] = new String[to-from];
+	for(int i=from; i<to; i++) ret[i-from] = (String) files.elementAt(i);
+
+	return ret;
+    }
+
+    public synchronized String[] getSizes()
+    {
+    	return getSizes(0, sizes.size());
+    }
+
+    public synchronized String[] getSizes(int from, int to)
+    {
+    	String ret[] = new String[to-from];
+	for(int i=from; i<to; i++) ret[i-from] = (String) sizes.elementAt(i);
+
+	return ret;
+    }
+
+    /** null if the permissions can not be parsed */
+    public synchronized int[] getPermissions()
+    {
+    	return getPermissions(0, perms.size());
+    }
+
+    public synchronized int[] getPermissions(int from, int to)
+    {
+    	if(!hasPermissions) return null;
+
+	int ret[] = new int[to-from];
+	for(int i=from; i<to; i++) ret[i-from] = ((Integer) perms.elementAt(i)).intValue();
+
+	return ret;
+    }
+
+    private synchronized void add(String file, String size, int permission)
+    {
+    	files.add(file);
+	sizes.add(size);
+	perms.add(new Integer(permission));
+    }
+
+    private void addLine(String tmp)
+    {
+    	if(mlsd)
+	{
+		addFacts(tmp);
+		return;
+	}
+
+	String os = con.getOsType();
+	if(os == null) os = "";
+
+	// ------------------- VMS override --------------------
+	if(os.startsWith("VMS"))
+	{
+		int x = tmp.indexOf(";");
+		if(x<0) return;
+
+		tmp = tmp.substring(0,x);
+		if(tmp.endsWith("DIR")) tmp = tmp.substring(0,tmp.lastIndexOf("."))+"/";
+
+		add(tmp, "-1", FtpConnection.R);
+		return;
+	}
+	// -------------------------------------------------------
+
+	if(tmp.startsWith("/") && tmp.indexOf("denied") > 0) return;
+
+	boolean isDir = tmp.startsWith("d") || tmp.indexOf("<DIR>") >= 0;
+	boolean isLink = tmp.startsWith("l");
+
+	StringTokenizer to = new StringTokenizer(tmp," ",true);
+	int tokens = to.countTokens();
+	String file;
+
+	if(tokens > 8) file = con.giveFile(to,8); // unix
+	else if(tokens > 3) file = con.giveFile(to,3); // old windows
+	else return;
+
+	if(isDir) file = file + "/";
+	else if(isLink) file = file + "@";
+
+	add(file, getSize(tmp, os), getPermission(tmp));
+    }
+
+    private String getSize(String tmp, String os)
+    {
+    	if(os.startsWith("WINDOW"))
+	{
+		StringTokenizer to = new StringTokenizer(tmp," ",false);
+
+		if(to.countTokens() > 5)
+		{
+			for(int i=0; i<4; i++) to.nextToken();
+			return to.nextToken();
+		}
+		else if(to.countTokens() >= 3)
+		{
+			to.nextToken();
+			to.nextToken();
+			String size = to.nextToken();
+			if(size.equals("<DIR>")) return "0";
+			else return size;
+		}
+
+		return "-1";
+	}
+
+	StringTokenizer to = new StringTokenizer(tmp," ",true);
+	if(to.countTokens() > 8) return con.giveSize(to,4);
+
+	return "-1";
+    }
+
+    private int getPermission(String tmp)
+    {
+	StringTokenizer to = new StringTokenizer(tmp.trim()," ",false);
+	if(!(to.countTokens() > 3)) return FtpConnection.R;
+
+	tmp = to.nextToken();
+
+	if(tmp.length() != 10)
+	{
+		// exotic bug, hardlinks are not found or something - we have no permissions then
+		hasPermissions = false;
+		return FtpConnection.R;
+	}
+
+	char ur = tmp.charAt(1);
+	char uw = tmp.charAt(2);
+	char ar = tmp.charAt(7);
+	char aw = tmp.charAt(8);
+
+	to.nextToken();
+	String user = to.nextToken();
+
+	if(aw == 'w') return FtpConnection.W;
+	else if(user.equals(con.getUsername()) && uw == 'w') return FtpConnection.W;
+	else if(ar == 'r') return FtpConnection.R;
+	else if(user.equals(con.getUsername()) && ur == 'r') return FtpConnection.R;
+	else return FtpConnection.DENIED;
+    }
+
+    /** parses a MLSD line, "fact=value;fact=value; name" (rfc 3659) */
+    private void addFacts(String tmp)
+    {
+    	int x = tmp.indexOf(" ");
+	if(x < 0) return;
+
+	String file = tmp.substring(x+1);
+	String type = "";
+	String size = "-1";
+	String perm = null;
+
+	StringTokenizer to = new StringTokenizer(tmp.substring(0,x), ";");
+
+	while(to.hasMoreTokens())
+	{
+		String fact = to.nextToken();
+		int y = fact.indexOf("=");
+		if(y < 0) continue;
+
+		String name = fact.substring(0,y).toLowerCase();
+		String value = fact.substring(y+1);
+
+		if(name.equals("type")) type = value;
+		else if(name.equals("size") || name.equals("sizd")) size = value;
+		else if(name.equals("perm")) perm = value.toLowerCase();
+	}
+
+	try
+	{
+		Long.parseLong(size);
+	}
+	catch(NumberFormatException ex)
+	{
+		size = "-1";
+	}
+
+	String lower = type.toLowerCase();
+
+	// the listed directory itself and its parent are not entries of it
+	if(lower.equals("cdir") || lower.equals("pdir")) return;
+
+	if(lower.equals("dir")) file = file + "/";
+	else if(lower.startsWith("os.unix=slink") || lower.startsWith("os.unix=symlink"))
+	{
+		int y = type.indexOf(":");
+		if(y > 0 && y < type.length()-1) file = file + " -> " + type.substring(y+1);
+		file = file + "@";
+	}
+
+	int permission = FtpConnection.R;
+
+	if(perm != null)
+	{
+		// w: write a file, c: create files in a directory
+		if(perm.indexOf("w") >= 0 || perm.indexOf("c") >= 0) permission = FtpConnection.W;
+		else if(perm.indexOf("r") < 0 && perm.indexOf("e") < 0 && perm.indexOf("l") < 0) permission = FtpConnection.DENIED;
+	}
+
+	add(file, size, permission);
+    }
+
+}
@@ -0,0 +1,453 @@
+/*
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package net.sf.jftp.net;
+
+import net.sf.jftp.config.Settings;
+import net.sf.jftp.util.Log;
+import net.sf.jftp.util.StringUtils;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Recursive directory transfer over a pool of connections.
+ * The connection that started the transfer walks the tree and creates the
+ * directories, the files are queued and transferred by additional
+ * connections logged in with the same account.
+ */
+public class DirectoryTransfer implements ConnectionListener
+{
+    private FtpConnection con;
+    private ConnectionHandler handler;
+    private boolean download;
+
+    // the pooled connections
+    private Vector pool = new Vector();
+
+    // files waiting for a pooled connection
+    private LinkedList queue = new LinkedList();
+
+    // pooled connections that are logging in or working
+    private int alive = 0;
+    private boolean walking = true;
+    private boolean cancelled = false;
+
+    // progress of the whole transfer
+    private int fileCount = 0;
+    private long bytes = 0;
+    private Hashtable current = new Hashtable();
+    private long lastUpdate = 0;
+
+    public DirectoryTransfer(FtpConnection con)
+    {
+    	this.con = con;
+	handler = con.getConnectionHandler();
+    }
+
+    /** downloads a remote directory into the local path of the connection, returns the file count */
+    public int download(String dir)
+    {
+        if(!dir.endsWith("/"))
+        {
+            dir = dir + "/";
+        }
+
+	String remoteDir = dir;
+	if(StringUtils.isRelative(dir)) remoteDir = con.getCachedPWD() + dir;
+	String oldDir = con.getLocalPath();
+	String localDir = oldDir + StringUtils.getDir(dir);
+	String oldPwd = con.getCachedPWD();
+
+	download = true;
+	start();
+	walkRemote(remoteDir, localDir);
+	finish();
+
+	con.chdirNoRefresh(oldPwd);
+	con.setLocalPath(oldDir);
+
+	return fileCount;
+    }
+
+    /** uploads a local directory into the remote directory of the connection, returns the file count */
+    public int upload(String dir)
+    {
+        if(!dir.endsWith("/"))
+        {
+            dir = dir + "/";
+        }
+
+	String localDir = dir;
+	if(StringUtils.isRelative(dir)) localDir = con.getLocalPath() + dir;
+	String oldDir = con.getLocalPath();
+	String oldPwd = con.getCachedPWD();
+	String remoteDir = oldPwd + StringUtils.getDir(localDir);
+
+	download = false;
+	start();
+	walkLocal(localDir, remoteDir);
+	finish();
+
+	if(!con.getCachedPWD().equals(oldPwd)) con.chdirNoRefresh(oldPwd);
+	con.setLocalPath(oldDir);
+
+	return fileCount;
+    }
+
+    /** lists the remote tree, local directories are created before their files are queued */
+    private void walkRemote(String remoteDir, String localDir)
+    {
+        File f = new File(localDir);
+
+        if(!f.exists())
+        {
+            if(!f.mkdir())
+            {
+                Log.debug("Can't create directory: "+localDir);
+            }
+            else
+                Log.debug("Created directory...");
+        }
+
+        if(!con.chdirNoRefresh(remoteDir)) return;
+
+	try
+	{
+		con.list(Settings.ls_out);
+	}
+	catch(IOException ex)
+	{
+		// probably we don't have permission to ls here
+		return;
+	}
+        String tmp[] = con.sortLs(Settings.ls_out);
+	Vector dirs = new Vector();
+
+        for(int i=0; i<tmp.length; i++)
+        {
+	    if(!con.work) return;
+
+            if(tmp[i].endsWith("/"))
+            {
+                if(tmp[i].trim().equals("../") || tmp[i].trim().equals("./"))
+                {
+                    Log.debug("Skipping " + tmp[i].trim());
+                }
+                else dirs.add(tmp[i]);
+            }
+            else put(new Job(remoteDir, localDir, tmp[i]));
+        }
+
+        for(int i=0; i<dirs.size(); i++)
+        {
+	    if(!con.work) return;
+
+	    String name = (String) dirs.elementAt(i);
+	    walkRemote(remoteDir + name, localDir + name);
+        }
+    }
+
+    /** walks the local tree, remote directories are created before their files are queued */
+    private void walkLocal(String localDir, String remoteDir)
+    {
+        if(Settings.safeMode) con.noop();
+
+        if(!con.mkdir(remoteDir)) return;
+
+        String tmp[] = new File(localDir).list();
+	if(tmp == null) return;
+	Vector dirs = new Vector();
+
+        for(int i=0; i<tmp.length; i++)
+        {
+	    if(!con.work) return;
+
+            if(new File(localDir + tmp[i]).isDirectory()) dirs.add(tmp[i]);
+            else put(new Job(remoteDir, localDir, tmp[i]));
+        }
+
+        for(int i=0; i<dirs.size(); i++)
+        {
+	    if(!con.work) return;
+
+	    String name = (String) dirs.elementAt(i);
+	    walkLocal(localDir + name + "/", remoteDir + name + "/");
+        }
+    }
+
+    /** opens the pooled connections */
+    private void start()
+    {
+	alive = Settings.dirTransferConnections;
+
+    	for(int i=0; i<Settings.dirTransferConnections; i++)
+	{
+		Thread t = new Thread(new Worker(), "DirectoryTransfer-" + i);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+	}
+    }
+
+    /** waits until the queue is empty and all pooled connections are closed */
+    private void finish()
+    {
+        Job job = null;
+
+        synchronized(this)
+	{
+		walking = false;
+		notifyAll();
+
+		while(alive > 0)
+		{
+			checkCancel();
+
+			try
+			{
+				wait(250);
+			}
+			catch(InterruptedException ex)
+			{
+			}
+		}
+	}
+
+	// the pooled connections could not log in or failed, transfer the rest here
+        while((job = take()) != null)
+	{
+		transfer(con, job, null);
+	}
+
+	con.fireDirectoryProgress(fileCount, bytes);
+    }
+
+    private synchronized int alive()
+    {
+    	return alive;
+    }
+
+    /** queues a file, waits while the queue is full */
+    private void put(Job job)
+    {
+        synchronized(this)
+	{
+		while(queue.size() >= Settings.dirTransferQueueSize && alive > 0 && con.work)
+		{
+			try
+			{
+				wait(100);
+			}
+			catch(InterruptedException ex)
+			{
+			}
+
+			checkCancel();
+		}
+
+		if(!con.work) return;
+
+		if(alive > 0)
+		{
+			queue.addLast(job);
+			notifyAll();
+			return;
+		}
+
+		fileCount++;
+	}
+
+	transfer(con, job, null);
+    }
+
+    /** gets the next file, null if the transfer is finished or cancelled */
+    private synchronized Job take()
+    {
+    	while(queue.isEmpty() && walking && con.work)
+	{
+		try
+		{
+			wait(250);
+		}
+		catch(InterruptedException ex)
+		{
+		}
+	}
+
+	if(queue.isEmpty() || !con.work) return null;
+
+	notifyAll();
+	fileCount++;
+
+	return (Job) queue.removeFirst();
+    }
+
+    /** stops the pooled connections if the transfer has been cancelled */
+    private void checkCancel()
+    {
+    	if(con.work || cancelled) return;
+
+	cancelled = true;
+	queue.clear();
+
+	for(int i=0; i<pool.size(); i++)
+	{
+		FtpConnection c = (FtpConnection) pool.elementAt(i);
+		c.work = false;
+
+		try
+		{
+			c.getDataConnection().sock.close();
+		}
+		catch(Exception ex)
+		{
+		}
+	}
+    }
+
+    /** transfers a file, dir is the remote directory the connection is in */
+    private String transfer(FtpConnection c, Job job, String dir)
+    {
+    	if(!job.remoteDir.equals(dir) && !c.chdirNoRefresh(job.remoteDir))
+	{
+		Log.debug("Can't change to directory: " + job.remoteDir);
+		return null;
+	}
+
+	c.setLocalPath(job.localDir);
+
+	if(c == con)
+	{
+		con.fireDirectoryProgress(fileCount, bytes);
+	}
+
+	if(download) c.downloadFile(job.localDir + job.file);
+	else c.uploadFile(job.localDir + job.file);
+
+	return job.remoteDir;
+    }
+
+    public void updateRemoteDirectory(BasicConnection c)
+    {
+    }
+
+    /** sums up the progress of the pooled connections */
+    public synchronized void updateProgress(String file, String type, long bytes)
+    {
+        Long last = (Long) current.get(file);
+
+    	if(type.equals(DataConnection.GET) || type.equals(DataConnection.PUT))
+	{
+		if(bytes < 0) return;
+
+		if(last != null) this.bytes += bytes - last.longValue();
+		else this.bytes += bytes;
+
+		current.put(file, new Long(bytes));
+	}
+	else current.remove(file);
+
+	long time = System.currentTimeMillis();
+
+	if(time - lastUpdate >= Settings.progressUpdateDelay)
+	{
+		lastUpdate = time;
+		con.fireDirectoryProgress(fileCount, this.bytes);
+	}
+    }
+
+    public void connectionInitialized(BasicConnection c)
+    {
+    }
+
+    public void connectionFailed(BasicConnection c, String why)
+    {
+    }
+
+    public void actionFinished(BasicConnection c)
+    {
+    }
+
+    /** a file to transfer */
+    private static class Job
+    {
+        String remoteDir;
+	String localDir;
+	String file;
+
+	Job(String remoteDir, String localDir, String file)
+	{
+		this.remoteDir = remoteDir;
+		this.localDir = localDir;
+		this.file = file;
+	}
+    }
+
+    /** a pooled connection, transfers files until the queue is done */
+    private class Worker implements Runnable
+    {
+	public void run()
+	{
+		FtpConnection c = new FtpConnection(con.getHost(), con.getPort(), con.getCachedPWD());
+		Vector listeners = new Vector();
+		listeners.add(DirectoryTransfer.this);
+		c.setConnectionListeners(listeners);
+		c.setConnectionHandler(handler);
+
+		try
+		{
+			if(!c.login(con.getUsername(), con.getPassword()).equals(FtpConnection.LOGIN_OK))
+			{
+				Log.debug("Pooled connection failed, " + alive() + " left");
+				return;
+			}
+
+			synchronized(DirectoryTransfer.this)
+			{
+				pool.add(c);
+				if(cancelled) c.work = false;
+			}
+			handler.addPooledConnection(c);
+
+			String dir = null;
+			Job job;
+
+			while(c.work && (job = take()) != null)
+			{
+				dir = transfer(c, job, dir);
+			}
+
+			c.disconnect();
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			Log.debug(ex.toString()+" @DirectoryTransfer::run");
+		}
+		finally
+		{
+			handler.removePooledConnection(c);
+
+			synchronized(DirectoryTransfer.this)
+			{
+				pool.remove(c);
+				alive--;
+				DirectoryTransfer.this.notifyAll();
+			}
+		}
+	}
+    }
+
+}
@@ -88,6 +88,9 @@ public class FtpConnection implements BasicConnection, FtpConstants
     private int porta = 5; // 5 * 256 + 1 = 1281
     private int portb = 1;
 
+    // last active port, shared so that pooled connections do not collide
+    private static int activePort = 5 * 256 + 1;
+
     /** the host */
     private String host = "";
 
@@ -119,6 +122,14 @@ public class FtpConnection implements BasicConnection, FtpConstants
 
     private int fileCount;
 
+    // use MLSD for listings, set by features()
+    private boolean mlsd = false;
+
+    // the parsed listing that has been written to listingFile by list(),
+    // or the one list() is receiving (listingFile is null then)
+    private volatile DirectoryListing listing;
+    private String listingFile;
+
 
     public FtpConnection(String host)
     {
@@ -202,6 +213,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
         {
 	    connected = true;
 	    system();
+	    features();
 	    binary();
 
 	    if(initCWD.trim().equals(Settings.defaultDir) ||
@@ -233,6 +245,8 @@ public class FtpConnection implements BasicConnection, FtpConstants
     /** sorts the filesizes */
     public String[] sortSize(String file)
     {
+        if(listing != null && file.equals(listingFile)) return listing.getSizes();
+
         BufferedReader in = null;
         PrintStream out = null;
         int length = 0;
@@ -335,6 +349,8 @@ public class FtpConnection implements BasicConnection, FtpConstants
     /** sorts the filesizes */
     public int[] getPermissions(String file)
     {
+        if(listing != null && file.equals(listingFile)) return listing.getPermissions();
+
         BufferedReader in = null;
         PrintStream out = null;
         int length = 0;
@@ -458,6 +474,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
     /** parses the ls-output */
     public String[] sortLs(String file)
     {
+        if(listing != null && file.equals(listingFile)) return listing.getFiles();
 
         try
         {
@@ -546,7 +563,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
     }
 
     /** get a filename */
-    private String giveFile(StringTokenizer to, int lev)
+    String giveFile(StringTokenizer to, int lev)
     {
         for(int i=0; i<lev; i++)
         {
@@ -578,7 +595,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
     }
 
     /** get a filesize */
-    private String giveSize(StringTokenizer to, int lev)
+    String giveSize(StringTokenizer to, int lev)
     {
         for(int i=0; i<lev; i++)
         {
@@ -597,7 +614,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
             {
                 try
                 {
-                    Integer.parseInt(tmp);
+                    Long.parseLong(tmp);
                 }
                 catch(NumberFormatException ex)
                 {
@@ -752,7 +769,8 @@ public class FtpConnection implements BasicConnection, FtpConstants
 	baseFile = file;
 	dataType = DataConnection.GETDIR;
 
-      	downloadDir(file);
+	if(Settings.dirTransferConnections > 0) new DirectoryTransfer(this).download(file);
+      	else downloadDir(file);
 
 	pause(500);
 	fireActionFinished(this);
@@ -762,7 +780,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
      else
      {
      	dataType = DataConnection.GET;
-      	rawDownload(file);
+	if(!new SegmentedDownload(this).download(file)) rawDownload(file);
 	fireActionFinished(this);
      }
 
@@ -833,6 +851,56 @@ public class FtpConnection implements BasicConnection, FtpConstants
     }
 
 
+    /**
+     * downloads length bytes of a file from offset on into path, used by the
+     * segment connections of SegmentedDownload, returns the bytes received
+     */
+    long downloadRange(String file, String path, long offset, long length)
+    {
+        try
+        {
+            BufferedReader in = jcon.getReader();
+
+            modeStream();
+            int p = negotiatePort();
+
+            jcon.send(REST + " " + offset);
+            String line = getLine(PROCEED);
+            if(line == null || !line.startsWith(PROCEED)) return 0;
+
+            dcon = new DataConnection(this,p,host,path,DataConnection.GET,offset,length);
+
+            while(!dcon.isThere()) pause(100);
+
+            jcon.send(RETR + " " + file);
+	    line = in.readLine();
+            Log.debug(line);
+
+	    if(line == null || line.startsWith(NEGATIVE) || line.startsWith(NEGATIVE2))
+	    {
+	    	if(dcon.sock != null) dcon.sock.close();
+		return 0;
+	    }
+
+	    while(!dcon.finished) pause(100);
+
+	    return dcon.getTransferred();
+        }
+        catch(Exception ex)
+        {
+            Log.debug(ex.toString()+" @FtpConnection::downloadRange");
+        }
+
+	return dcon == null ? 0 : dcon.getTransferred();
+    }
+
+    /** downloads a single file, used by the pooled connections of DirectoryTransfer */
+    void downloadFile(String file)
+    {
+    	dataType = DataConnection.GET;
+	rawDownload(file);
+    }
+
     /** recursive download of a directory */
         public void downloadDir(String dir)
     {
@@ -937,7 +1005,8 @@ public class FtpConnection implements BasicConnection, FtpConstants
 	dataType = DataConnection.PUTDIR;
 	isDirUpload = true;
 
-     	uploadDir(file);
+	if(Settings.dirTransferConnections > 0) new DirectoryTransfer(this).upload(file);
+     	else uploadDir(file);
 
 	shortProgress = false;
 	//System.out.println(fileCount + ":" + baseFile);
@@ -994,6 +1063,18 @@ public class FtpConnection implements BasicConnection, FtpConstants
 	    ex.printStackTrace();
             Log.debug(ex.toString()+" @FtpConnection::upload");
         }
+	finally
+	{
+	    // a listing made during the upload has the partial size
+	    changed(file);
+	}
+    }
+
+    /** uploads a single file, used by the pooled connections of DirectoryTransfer */
+    void uploadFile(String file)
+    {
+    	dataType = DataConnection.PUT;
+	rawUpload(file);
     }
 
     /** uploads a directory recursively */
@@ -1118,6 +1199,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
     /** remove a remote file or directory */
     public void removeFileOrDir(String file) {
     	file = parseSymlink(file);
+	changed(file);
 
 	if(file.endsWith("/"))
 	{
@@ -1141,6 +1223,8 @@ public class FtpConnection implements BasicConnection, FtpConstants
     {
         noop();
 	Log.clearCache();
+	// the command may change anything (RNFR/RNTO, SITE...)
+	handler.clearListings();
         jcon.send(cmd);
         noop();
     }
@@ -1268,8 +1352,27 @@ public class FtpConnection implements BasicConnection, FtpConstants
         return success(FTP200_OK);
     }
 
+    /** gets the size of a remote file (SIZE), -1 if the server does not support it */
+    public long size(String file)
+    {
+        jcon.send(SIZE + " " + file);
+        String tmp = getLine(RC213);
+
+        try
+        {
+            if(tmp != null && tmp.startsWith(RC213)) return Long.parseLong(tmp.substring(4).trim());
+        }
+        catch(NumberFormatException ex)
+        {
+            Log.debug("Invalid size: " + tmp);
+        }
+
+        return -1;
+    }
+
     /** create a directory */
     public boolean mkdir(String dirName) {
+        changed(dirName);
         jcon.send(MKD + " " + dirName);
 	return success(FTP257_PATH_CREATED);
     }
@@ -1295,6 +1398,16 @@ public class FtpConnection implements BasicConnection, FtpConstants
     public void list(String outfile) throws IOException
     {
     	String oldType = "";
+	String key = getListingKey(pwd);
+
+	listing = handler.getListing(key);
+	if(listing != null)
+	{
+		// the file is shown by the raw view of the remote directory
+		listing.write(outfile);
+		listingFile = outfile;
+		return;
+	}
 
         try
         {
@@ -1308,19 +1421,28 @@ public class FtpConnection implements BasicConnection, FtpConstants
 	    ascii();
 
             p = negotiatePort();
-            dcon = new DataConnection(this,p,host,outfile,DataConnection.GET); //,null);
+            DirectoryListing l = new DirectoryListing(this, mlsd);
+            listing = l;
+            listingFile = null;
+            dcon = new DataConnection(this,p,host,outfile,DataConnection.GET,l); //,null);
 //System.out.println("2...");
 	    while(!dcon.isThere()) pause(10);
-            jcon.send(LIST);
+            jcon.send(mlsd ? MLSD : LIST);
 //System.out.println("3...");
             while(!dcon.finished) pause(10);
-            getLine(FTP226_CLOSING_DATA_REQUEST_SUCCESSFUL);
+            String line = getLine(FTP226_CLOSING_DATA_REQUEST_SUCCESSFUL);
 //System.out.println("4...");
 	    if(!oldType.equals(ASCII)) type(oldType);
+
+	    l.finish();
+	    listing = l;
+	    listingFile = outfile;
+	    if(line != null && line.startsWith(POSITIVE)) handler.putListing(key, l);
      }
      catch(Exception ex)
      {
         Log.debug("Cannot list remote directory!");
+	listing = null;
 	if(!oldType.equals(ASCII)) type(oldType);
      	ex.printStackTrace();
 	throw new IOException(ex.getMessage());
@@ -1328,6 +1450,40 @@ public class FtpConnection implements BasicConnection, FtpConstants
 
     }
 
+    /**
+     * the listing of the last list(), entries can be taken from it while it is
+     * received (see DirectoryListing.isFinished())
+     */
+    public DirectoryListing getListing()
+    {
+    	return listing;
+    }
+
+    /** drops the cached listing of a directory, so that the next list() asks the server */
+    public void invalidateListing(String dir)
+    {
+    	if(StringUtils.isRelative(dir)) dir = pwd + dir;
+	if(!dir.endsWith("/")) dir = dir + "/";
+
+	handler.removeListing(getListingKey(dir));
+    }
+
+    /** a file or directory has been created, changed or removed */
+    private void changed(String file)
+    {
+    	file = parseSymlink(file);
+	if(StringUtils.isRelative(file)) file = pwd + file;
+	if(file.endsWith("/")) file = file.substring(0, file.length()-1);
+
+	invalidateListing(file.substring(0, file.lastIndexOf("/")+1));
+	invalidateListing(file);
+    }
+
+    private String getListingKey(String dir)
+    {
+    	return host + ":" + port + dir;
+    }
+
     /** parses directory and does a chdir() */
     public boolean chdir(String p)
     {
@@ -1462,7 +1618,17 @@ public class FtpConnection implements BasicConnection, FtpConstants
 
     private void incrementPort()
     {
-        portb++;
+        int p = nextActivePort();
+        porta = p / 256;
+        portb = p % 256;
+    }
+
+    private static synchronized int nextActivePort()
+    {
+        activePort++;
+        if(activePort > 65535) activePort = 5 * 256 + 2;
+
+        return activePort;
     }
 
     private String getActivePortCmd() throws UnknownHostException, IOException
@@ -1560,6 +1726,44 @@ public class FtpConnection implements BasicConnection, FtpConstants
         return response;
     }
 
+    /**
+     * Asks the server for its extensions (FEAT, rfc 2389), listings are
+     * made with MLSD if the server supports MLST.
+     */
+    private void features()
+    {
+    	mlsd = false;
+	if(!Settings.useMlsd) return;
+
+        jcon.send(FEAT);
+
+        try
+        {
+            BufferedReader in = jcon.getReader();
+
+            while(true)
+            {
+                String tmp = in.readLine();
+                if(tmp == null) break;
+
+                Log.debug(tmp);
+
+                // features are indented, the reply ends with "211 End"
+                if(tmp.length() >= 3 && Character.isDigit(tmp.charAt(0)) &&
+                   (tmp.length() == 3 || tmp.charAt(3) != MORE_LINES_APPENDED))
+                {
+                    break;
+                }
+
+                if(tmp.trim().toUpperCase().startsWith("MLST")) mlsd = true;
+            }
+        }
+        catch(IOException ex)
+        {
+            Log.debug(ex.toString()+" @FtpConnection::features");
+        }
+    }
+
     public final static String STREAM = "S";
     public final static String BLOCKED = "B";
     public final static String COMPRESSED = "C";
@@ -1659,7 +1863,7 @@ public class FtpConnection implements BasicConnection, FtpConstants
     }
 
     /** progress update */
-    public void fireProgressUpdate(String file, String type, int bytes)
+    public void fireProgressUpdate(String file, String type, long bytes)
     {
     	//System.out.println(listener);
     	if(listeners == null) return;
@@ -1684,6 +1888,13 @@ public class FtpConnection implements BasicConnection, FtpConstants
 
     }
 
+    /** progress update of a directory transfer, sent for all its files */
+    void fireDirectoryProgress(int count, long bytes)
+    {
+    	fileCount = count;
+	fireProgressUpdate(baseFile, (isDirUpload ? DataConnection.PUTDIR : DataConnection.GETDIR) + ":" + count, bytes);
+    }
+
     /** connection is there and user logged in */
     public void fireConnectionInitialized(FtpConnection con)
     {
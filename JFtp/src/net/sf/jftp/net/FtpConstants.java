@@ -147,6 +147,23 @@ public interface FtpConstants
 
     // end of commands from rfc 2228
 
+    // The following commands were introduced in rfc 2389 Feature negotiation
+
+    /** Feature list */
+    public final static String FEAT = "FEAT";
+
+    // end of commands from rfc 2389
+
+    // The following commands were introduced in rfc 3659 Extensions to FTP
+
+    /** Size of File */
+    public final static String SIZE = "SIZE";
+
+    /** Machine readable directory listing */
+    public final static String MLSD = "MLSD";
+
+    // end of commands from rfc 3659
+
     // ftp reply codes
     // x0z Syntax
     // x1z Information
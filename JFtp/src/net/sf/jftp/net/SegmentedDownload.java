@@ -0,0 +1,302 @@
+/*
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package net.sf.jftp.net;
+
+import net.sf.jftp.config.Settings;
+import net.sf.jftp.util.Log;
+import net.sf.jftp.util.StringUtils;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Downloads a large file in segments, each over its own control and data
+ * connection. The segments start at a REST offset and are written into the
+ * preallocated local file at their position, a failed segment is restarted
+ * where it stopped.
+ */
+public class SegmentedDownload
+{
+    private FtpConnection con;
+    private ConnectionHandler handler;
+    private String file;
+    private String path;
+    private long size;
+
+    // the segment connections that are logged in
+    private Vector pool = new Vector();
+    private Segment segments[];
+    private boolean cancelled = false;
+    private long lastUpdate = 0;
+
+    public SegmentedDownload(FtpConnection con)
+    {
+    	this.con = con;
+	handler = con.getConnectionHandler();
+    }
+
+    /**
+     * downloads a file of the remote cwd into the local path of the connection,
+     * returns false if it should be downloaded over one connection instead
+     */
+    public boolean download(String file)
+    {
+    	if(Settings.segmentedDownloadConnections < 2 || !FtpConnection.BINARY.equals(con.getTypeNow()))
+	{
+		return false;
+	}
+
+	this.file = StringUtils.getFile(file);
+	path = con.getLocalPath() + this.file;
+
+	if(new File(path).exists() && Settings.enableResuming) return false;
+
+	size = con.size(this.file);
+	if(size < Settings.segmentedDownloadMinSize || size < Settings.segmentedDownloadConnections) return false;
+
+	try
+	{
+		RandomAccessFile f = new RandomAccessFile(path, "rw");
+		f.setLength(size);
+		f.close();
+	}
+	catch(IOException ex)
+	{
+		Log.debug("Can't create outputfile: " + path);
+		return false;
+	}
+
+	Log.debug("Downloading " + this.file + " in " + Settings.segmentedDownloadConnections + " segments...");
+
+	int count = Settings.segmentedDownloadConnections;
+	long length = size / count;
+	segments = new Segment[count];
+	Thread threads[] = new Thread[count];
+
+	for(int i=0; i<count; i++)
+	{
+		long offset = i * length;
+		segments[i] = new Segment(offset, i < count - 1 ? length : size - offset);
+		threads[i] = new Thread(segments[i], "SegmentedDownload-" + i);
+		threads[i].start();
+	}
+
+	for(int i=0; i<count; i++)
+	{
+		while(threads[i].isAlive())
+		{
+			checkCancel();
+
+			try
+			{
+				threads[i].join(250);
+			}
+			catch(InterruptedException ex)
+			{
+			}
+		}
+	}
+
+	long received = 0;
+	for(int i=0; i<count; i++) received += segments[i].received;
+
+	// every segment has to be complete and nothing may have been written past the end
+	if(received == size && new File(path).length() == size)
+	{
+		con.fireProgressUpdate(path, DataConnection.GET, size);
+		con.fireProgressUpdate(path, DataConnection.FINISHED, -1);
+	}
+	else
+	{
+		Log.debug("Segmented download failed: " + received + " of " + size + " bytes");
+		truncate();
+		con.fireProgressUpdate(path, DataConnection.FAILED, -1);
+	}
+
+	return true;
+    }
+
+    /**
+     * cuts the preallocated file after the bytes received from the start,
+     * so that resuming does not skip the missing segments
+     */
+    private void truncate()
+    {
+    	long complete = 0;
+
+	for(int i=0; i<segments.length; i++)
+	{
+		complete = segments[i].offset + segments[i].received;
+		if(segments[i].received < segments[i].length) break;
+	}
+
+	try
+	{
+		if(complete == 0)
+		{
+			new File(path).delete();
+			return;
+		}
+
+		RandomAccessFile f = new RandomAccessFile(path, "rw");
+		f.setLength(complete);
+		f.close();
+	}
+	catch(IOException ex)
+	{
+		Log.debug("Can't truncate outputfile: " + path);
+		new File(path).delete();
+	}
+    }
+
+    /** stops the segment connections if the download has been cancelled */
+    private synchronized void checkCancel()
+    {
+    	if(con.work || cancelled) return;
+
+	cancelled = true;
+
+	for(int i=0; i<pool.size(); i++)
+	{
+		FtpConnection c = (FtpConnection) pool.elementAt(i);
+		c.work = false;
+
+		try
+		{
+			c.getDataConnection().sock.close();
+		}
+		catch(Exception ex)
+		{
+		}
+	}
+    }
+
+    /** sums up the progress of the segments */
+    private synchronized void progress()
+    {
+	long time = System.currentTimeMillis();
+
+	if(time - lastUpdate >= Settings.progressUpdateDelay)
+	{
+		lastUpdate = time;
+
+		long bytes = 0;
+		for(int i=0; i<segments.length; i++) bytes += segments[i].received + segments[i].current;
+
+		con.fireProgressUpdate(path, DataConnection.GET, bytes);
+	}
+    }
+
+    /** a byte range of the file */
+    private class Segment implements Runnable, ConnectionListener
+    {
+	long offset;
+	long length;
+	// written by the segment thread, read by the progress of the others
+	volatile long received = 0;
+	volatile long current = 0;
+
+	Segment(long offset, long length)
+	{
+		this.offset = offset;
+		this.length = length;
+	}
+
+	public void run()
+	{
+		int failed = 0;
+
+		while(received < length && failed <= Settings.segmentRetries && con.work)
+		{
+			if(failed > 0)
+			{
+				Log.debug("Retrying segment at " + (offset + received) + "...");
+				con.pause(1000);
+			}
+
+			FtpConnection c = new FtpConnection(con.getHost(), con.getPort(), con.getCachedPWD());
+			Vector listeners = new Vector();
+			listeners.add(this);
+			c.setConnectionListeners(listeners);
+			c.setConnectionHandler(handler);
+
+			try
+			{
+				if(!c.login(con.getUsername(), con.getPassword()).equals(FtpConnection.LOGIN_OK))
+				{
+					failed++;
+					continue;
+				}
+
+				synchronized(SegmentedDownload.this)
+				{
+					pool.add(c);
+					if(cancelled) c.work = false;
+				}
+				handler.addPooledConnection(c);
+
+				long bytes = c.downloadRange(file, path, offset + received, length - received);
+
+				current = 0;
+				received += bytes;
+				if(received < length) failed++;
+
+				c.disconnect();
+			}
+			catch(Exception ex)
+			{
+				failed++;
+				Log.debug(ex.toString()+" @SegmentedDownload::run");
+			}
+			finally
+			{
+				handler.removePooledConnection(c);
+
+				synchronized(SegmentedDownload.this)
+				{
+					pool.remove(c);
+				}
+			}
+		}
+	}
+
+	public void updateRemoteDirectory(BasicConnection c)
+	{
+	}
+
+	public void updateProgress(String file, String type, long bytes)
+	{
+		if(type.equals(DataConnection.GET) && bytes >= 0)
+		{
+			current = bytes;
+			progress();
+		}
+	}
+
+	public void connectionInitialized(BasicConnection c)
+	{
+	}
+
+	public void connectionFailed(BasicConnection c, String why)
+	{
+	}
+
+	public void actionFinished(BasicConnection c)
+	{
+	}
+    }
+
+}